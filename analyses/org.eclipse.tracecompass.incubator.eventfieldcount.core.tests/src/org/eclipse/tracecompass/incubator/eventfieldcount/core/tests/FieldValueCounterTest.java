@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.eventfieldcount.core.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.fieldcount.core.FieldValueCounter;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test the {@link FieldValueCounter} class
+ */
+public class FieldValueCounterTest {
+
+    private static ITmfEventAspect<?> createAspect(String name, Function<Long, @Nullable Object> function) {
+        return new ITmfEventAspect<Object>() {
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getHelpText() {
+                return ""; //$NON-NLS-1$
+            }
+
+            @Override
+            public @Nullable Object resolve(ITmfEvent event) {
+                return function.apply((Long) event.getContent().getValue());
+            }
+        };
+    }
+
+    private static ITmfEvent createEvent(long value) {
+        return new TmfEvent(null, ITmfContext.UNKNOWN_RANK, TmfTimestamp.fromNanos(value), null,
+                new TmfEventField(ITmfEventField.ROOT_FIELD_ID, value, null));
+    }
+
+    /**
+     * Test counting in slices and merging them, with aspects of the same name
+     * and values with the same string representation
+     */
+    @Test
+    public void testMerge() {
+        List<ITmfEventAspect<?>> aspects = Arrays.asList(
+                createAspect("modulo", value -> value % 3),
+                createAspect("parity", value -> (value % 2 == 0) ? "even" : null),
+                /* Same name and string values as the previous aspect */
+                createAspect("parity", value -> (value % 2 == 0) ? null : new StringBuilder("odd")),
+                createAspect("empty", value -> null));
+        FieldValueCounter counter = new FieldValueCounter(aspects, 100);
+        FieldValueCounter.Slice slice1 = counter.createSlice();
+        FieldValueCounter.Slice slice2 = counter.createSlice();
+        for (long i = 0; i < 10; i++) {
+            slice1.count(createEvent(i));
+        }
+        for (long i = 10; i < 15; i++) {
+            slice2.count(createEvent(i));
+        }
+        Map<String, Map<String, Long>> counts = counter.merge(Arrays.asList(slice1, slice2));
+        assertEquals(ImmutableMap.of(
+                "modulo", ImmutableMap.of("0", 5L, "1", 5L, "2", 5L),
+                "parity", ImmutableMap.of("even", 8L, "odd", 7L)), counts);
+    }
+
+    /**
+     * Test that the values after the maximum number of distinct values are not
+     * counted
+     */
+    @Test
+    public void testMaxValues() {
+        FieldValueCounter counter = new FieldValueCounter(Arrays.asList(createAspect("value", value -> value)), 3);
+        FieldValueCounter.Slice slice = counter.createSlice();
+        for (long i = 0; i < 10; i++) {
+            slice.count(createEvent(i % 5));
+        }
+        Map<String, Map<String, Long>> counts = counter.merge(Arrays.asList(slice));
+        assertEquals(ImmutableMap.of("value", ImmutableMap.of("0", 2L, "1", 2L, "2", 2L)), counts);
+    }
+}
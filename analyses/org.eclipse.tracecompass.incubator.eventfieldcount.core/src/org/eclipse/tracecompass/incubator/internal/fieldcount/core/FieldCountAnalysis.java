@@ -16,11 +16,15 @@ import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -28,6 +32,8 @@ import java.util.stream.Collectors;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -50,12 +56,12 @@ import org.eclipse.tracecompass.tmf.core.filter.ITmfFilter;
 import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
 import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
 
-import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Multiset;
 
 /**
  * Event count analysis, an on-demand analysis that generates Lami Tables while
@@ -73,6 +79,11 @@ public class FieldCountAnalysis extends LamiAnalysis {
      * way to do this.
      */
     private static final int MEMORY_SANITY_LIMIT = 40000;
+    /**
+     * The minimum number of events per time slice to read the trace in
+     * parallel
+     */
+    private static final long MIN_EVENTS_PER_SLICE = 100000;
 
     /**
      * Constructor
@@ -113,26 +124,64 @@ public class FieldCountAnalysis extends LamiAnalysis {
         }
         ITmfFilter filter = TmfFilterHelper.buildFilterFromRegex(Collections.singleton(extraParamsString), trace);
         Predicate<ITmfEvent> filterPred = (event -> filter == null || filter.matches(event));
+        FieldValueCounter counter = new FieldValueCounter(aspects, MEMORY_SANITY_LIMIT);
+        List<FieldValueCounter.Slice> slices;
+        try {
+            int nbSlices = getNbSlices(trace, tr);
+            if (nbSlices > 1) {
+                slices = countInSlices(trace, tr, nbSlices, counter, filterPred, monitor);
+            } else {
+                slices = Collections.singletonList(countInRequest(trace, tr, counter, filterPred, monitor));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return results;
+        }
+        for (Entry<String, Map<String, Long>> entry : counter.merge(slices).entrySet()) {
+            List<LamiTableEntry> entries = new ArrayList<>();
+            for (Entry<String, Long> element : entry.getValue().entrySet()) {
+                /* A row is an array of cells */
+                List<LamiData> data = Arrays.asList(new LamiString(element.getKey()), new LamiLongNumber(element.getValue()));
+                entries.add(new LamiTableEntry(data));
+            }
+            List<LamiTableEntryAspect> tableAspects = Arrays.asList(new LamiCategoryAspect(entry.getKey(), 0), new LamiCountAspect("count", 1));
+            LamiTableClass tableClass = new LamiTableClass(entry.getKey(), entry.getKey(), tableAspects, Collections.emptySet());
+            LamiResultTable lrt = new LamiResultTable(createTimeRange(tr), tableClass, entries);
+            results.add(lrt);
+        }
+        return results;
+    }
+
+    /**
+     * Get the number of time slices to read concurrently. Small traces, or
+     * traces whose time range is not known yet, are read in one request.
+     */
+    private static int getNbSlices(ITmfTrace trace, TmfTimeRange range) {
+        long start = Math.max(range.getStartTime().toNanos(), trace.getStartTime().toNanos());
+        long end = Math.min(range.getEndTime().toNanos(), trace.getEndTime().toNanos());
+        if (end <= start) {
+            return 1;
+        }
+        long nbSlices = Math.min(Runtime.getRuntime().availableProcessors(), trace.getNbEvents() / MIN_EVENTS_PER_SLICE);
+        return (int) Math.max(1, Math.min(nbSlices, end - start));
+    }
+
+    /**
+     * Count the values in one event request, on the request thread
+     */
+    private static FieldValueCounter.Slice countInRequest(ITmfTrace trace, TmfTimeRange range, FieldValueCounter counter, Predicate<ITmfEvent> filterPred, IProgressMonitor monitor) throws InterruptedException {
         SubMonitor mon = SubMonitor.convert(monitor, "Event Count Analysis", workRemaining(trace)); //$NON-NLS-1$
         AtomicLong done = new AtomicLong();
-        Map<String, Multiset<String>> eventAspectCounts = new HashMap<>();
+        FieldValueCounter.Slice slice = counter.createSlice();
 
-        TmfEventRequest req = new TmfEventRequest(ITmfEvent.class, tr, 0, Integer.MAX_VALUE, ExecutionType.BACKGROUND) {
+        TmfEventRequest req = new TmfEventRequest(ITmfEvent.class, range, 0, Integer.MAX_VALUE, ExecutionType.BACKGROUND) {
             @Override
             public void handleData(ITmfEvent event) {
                 if (monitor.isCanceled()) {
                     cancel();
                 }
                 if (filterPred.test(event)) {
-                    for (ITmfEventAspect<?> aspect : aspects) {
-                        Object resolved = aspect.resolve(event);
-                        if (resolved != null) {
-                            Multiset<String> dataSet = eventAspectCounts.computeIfAbsent(aspect.getName(), unused -> HashMultiset.create());
-                            if (dataSet.size() < MEMORY_SANITY_LIMIT || dataSet.contains(resolved)) {
-                                dataSet.add(String.valueOf(resolved));
-                            }
-                        }
-                    }
+                    slice.count(event);
                 }
                 if ((done.incrementAndGet() & MASK) == 0) {
                     mon.setWorkRemaining(workRemaining(trace));
@@ -144,25 +193,69 @@ public class FieldCountAnalysis extends LamiAnalysis {
 
         };
         trace.sendRequest(req);
+        req.waitForCompletion();
+        return slice;
+    }
+
+    /**
+     * Split the time range in slices and count the values of each slice in
+     * its own thread, with its own context in the trace. Requests sent to a
+     * trace are executed one at a time, so the slices read the trace directly
+     * instead. The progress is reported as the slices complete.
+     */
+    private static List<FieldValueCounter.Slice> countInSlices(ITmfTrace trace, TmfTimeRange range, int nbSlices, FieldValueCounter counter, Predicate<ITmfEvent> filterPred, IProgressMonitor monitor) throws InterruptedException, CoreException {
+        SubMonitor mon = SubMonitor.convert(monitor, "Event Count Analysis", nbSlices); //$NON-NLS-1$
+        long start = Math.max(range.getStartTime().toNanos(), trace.getStartTime().toNanos());
+        long sliceDuration = (Math.min(range.getEndTime().toNanos(), trace.getEndTime().toNanos()) - start) / nbSlices;
+        List<FieldValueCounter.Slice> slices = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(nbSlices);
+        try {
+            CompletionService<Long> completion = new ExecutorCompletionService<>(pool);
+            for (int i = 0; i < nbSlices; i++) {
+                long sliceStart = start + i * sliceDuration;
+                /* The last slice reads until the end of the range */
+                long sliceEnd = (i == nbSlices - 1) ? range.getEndTime().toNanos() : sliceStart + sliceDuration - 1;
+                FieldValueCounter.Slice slice = counter.createSlice();
+                slices.add(slice);
+                completion.submit(() -> countSlice(trace, sliceStart, sliceEnd, slice, filterPred, monitor));
+            }
+            long done = 0;
+            for (int i = 0; i < nbSlices; i++) {
+                done += completion.take().get();
+                mon.worked(1);
+                monitor.setTaskName("Event Count Analysis (" + (i + 1) + '/' + nbSlices + " slices, " + NumberFormat.getInstance().format(done) + " events read)");
+            }
+        } catch (ExecutionException e) {
+            throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Error counting the event fields", e.getCause())); //$NON-NLS-1$
+        } finally {
+            pool.shutdownNow();
+        }
+        return slices;
+    }
+
+    /**
+     * Count the values of the events in a time slice, inclusively
+     *
+     * @return The number of events read
+     */
+    private static long countSlice(ITmfTrace trace, long sliceStart, long sliceEnd, FieldValueCounter.Slice slice, Predicate<ITmfEvent> filterPred, IProgressMonitor monitor) {
+        ITmfContext context = trace.seekEvent(TmfTimestamp.fromNanos(sliceStart));
+        long nbEvents = 0;
         try {
-            req.waitForCompletion();
-            for (Entry<String, Multiset<String>> entry : eventAspectCounts.entrySet()) {
-                Multiset<String> dataSet = entry.getValue();
-                List<LamiTableEntry> entries = new ArrayList<>();
-                for (String element : dataSet.elementSet()) {
-                    /* A row is an array of cells */
-                    List<LamiData> data = Arrays.asList(new LamiString(element), new LamiLongNumber((long) dataSet.count(element)));
-                    entries.add(new LamiTableEntry(data));
+            ITmfEvent event = trace.getNext(context);
+            while (event != null && event.getTimestamp().toNanos() <= sliceEnd) {
+                if ((++nbEvents & MASK) == 0 && monitor.isCanceled()) {
+                    break;
                 }
-                List<LamiTableEntryAspect> tableAspects = Arrays.asList(new LamiCategoryAspect(entry.getKey(), 0), new LamiCountAspect("count", 1));
-                LamiTableClass tableClass = new LamiTableClass(entry.getKey(), entry.getKey(), tableAspects, Collections.emptySet());
-                LamiResultTable lrt = new LamiResultTable(createTimeRange(tr), tableClass, entries);
-                results.add(lrt);
+                if (filterPred.test(event)) {
+                    slice.count(event);
+                }
+                event = trace.getNext(context);
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        } finally {
+            context.dispose();
         }
-        return results;
+        return nbEvents;
     }
 
     // copied from TmfEventsEditor
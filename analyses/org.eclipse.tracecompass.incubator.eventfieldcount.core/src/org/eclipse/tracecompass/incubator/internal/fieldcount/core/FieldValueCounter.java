@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.fieldcount.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
+
+/**
+ * Counts the values of event aspects. The resolved values are interned in a
+ * dictionary per aspect, shared by all the slices of the trace, and each
+ * {@link Slice} counts the occurrences of the value IDs in primitive arrays.
+ * The slices can then count events concurrently and are merged at the end.
+ * The values are only converted to strings once, when merging.
+ */
+public class FieldValueCounter {
+
+    private final List<ITmfEventAspect<?>> fAspects;
+    private final int fMaxValues;
+    private final Map<Object, Integer>[] fIds;
+    private final AtomicInteger[] fNextIds;
+
+    /**
+     * Counts of the values for part of the trace. A slice should be used by
+     * only one thread.
+     */
+    public class Slice {
+        private final long[][] fCounts;
+
+        private Slice() {
+            fCounts = new long[fAspects.size()][];
+            Arrays.fill(fCounts, new long[0]);
+        }
+
+        /**
+         * Count the values of the aspects for an event
+         *
+         * @param event
+         *            The event
+         */
+        public void count(ITmfEvent event) {
+            for (int i = 0; i < fCounts.length; i++) {
+                Object resolved = fAspects.get(i).resolve(event);
+                if (resolved == null) {
+                    continue;
+                }
+                int id = intern(i, resolved);
+                if (id < 0) {
+                    continue;
+                }
+                long[] counts = fCounts[i];
+                if (id >= counts.length) {
+                    counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+                    fCounts[i] = counts;
+                }
+                counts[id]++;
+            }
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param aspects
+     *            The aspects to count the values of
+     * @param maxValues
+     *            The maximum number of distinct values to keep per aspect.
+     *            Values that appear once this number is reached are not
+     *            counted.
+     */
+    @SuppressWarnings("unchecked")
+    public FieldValueCounter(List<ITmfEventAspect<?>> aspects, int maxValues) {
+        fAspects = aspects;
+        fMaxValues = maxValues;
+        fIds = new Map[aspects.size()];
+        fNextIds = new AtomicInteger[aspects.size()];
+        for (int i = 0; i < aspects.size(); i++) {
+            fIds[i] = new ConcurrentHashMap<>();
+            fNextIds[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Create a new slice to count values in
+     *
+     * @return The slice
+     */
+    public Slice createSlice() {
+        return new Slice();
+    }
+
+    private int intern(int aspect, Object value) {
+        Map<Object, Integer> ids = fIds[aspect];
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (ids.size() >= fMaxValues) {
+            return -1;
+        }
+        AtomicInteger nextId = fNextIds[aspect];
+        return ids.computeIfAbsent(value, unused -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Merge the counts of slices. The aspects with the same name are merged,
+     * as are the values with the same string representation.
+     *
+     * @param slices
+     *            The slices to merge
+     * @return The counts, per value, per aspect name. Values are in the order
+     *         they were first interned.
+     */
+    public Map<String, Map<String, Long>> merge(Collection<Slice> slices) {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        for (int i = 0; i < fAspects.size(); i++) {
+            @Nullable Object[] values = new Object[fNextIds[i].get()];
+            for (Entry<Object, Integer> entry : fIds[i].entrySet()) {
+                values[entry.getValue()] = entry.getKey();
+            }
+            long[] totals = new long[values.length];
+            for (Slice slice : slices) {
+                long[] counts = slice.fCounts[i];
+                for (int id = 0; id < Math.min(counts.length, totals.length); id++) {
+                    totals[id] += counts[id];
+                }
+            }
+            Map<String, Long> aspectCounts = null;
+            for (int id = 0; id < values.length; id++) {
+                if (totals[id] == 0) {
+                    continue;
+                }
+                if (aspectCounts == null) {
+                    aspectCounts = result.computeIfAbsent(fAspects.get(i).getName(), unused -> new LinkedHashMap<>());
+                }
+                aspectCounts.merge(String.valueOf(values[id]), totals[id], Long::sum);
+            }
+        }
+        return result;
+    }
+}
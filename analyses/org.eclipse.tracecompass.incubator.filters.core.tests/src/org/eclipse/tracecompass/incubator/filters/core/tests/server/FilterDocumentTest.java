@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.filters.core.tests.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.antlr.runtime.RecognitionException;
+import org.eclipse.lsp4j.ColorInformation;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.tracecompass.incubator.internal.filters.core.server.FilterDocument;
+import org.junit.Test;
+
+/**
+ * Tests the {@link FilterDocument} class, which caches the results of the
+ * parser for the content of a filter box
+ */
+public class FilterDocumentTest {
+
+    /**
+     * Test that the results are computed again only when the content changes
+     *
+     * @throws IOException
+     *             from antlr
+     * @throws RecognitionException
+     *             from the ANTLR parser or lexer
+     */
+    @Test
+    public void testCachedResults() throws IOException, RecognitionException {
+        FilterDocument document = new FilterDocument();
+        assertTrue(document.setText("TID=="));
+        long version = document.getVersion();
+        List<Diagnostic> diagnostics = document.getDiagnostics();
+        List<ColorInformation> colors = document.getColors();
+        assertEquals(1, diagnostics.size());
+        assertSame(diagnostics, document.getDiagnostics());
+        assertSame(colors, document.getColors());
+
+        // Same content
+        assertFalse(document.setText("TID=="));
+        assertEquals(version, document.getVersion());
+        assertSame(diagnostics, document.getDiagnostics());
+
+        // New content
+        assertTrue(document.setText("TID==28"));
+        assertEquals(version + 1, document.getVersion());
+        assertEquals(0, document.getDiagnostics().size());
+        assertNotSame(colors, document.getColors());
+    }
+
+    /**
+     * Test that the completions are computed again when the cursor moves
+     *
+     * @throws IOException
+     *             from antlr
+     */
+    @Test
+    public void testCompletions() throws IOException {
+        FilterDocument document = new FilterDocument();
+        String input = "(TID == 42 || PID != 12 && Poly matches Ericsson)";
+        document.setText(input);
+        List<String> completions = document.getCompletions(new Position(0, 5));
+        assertEquals(9, completions.size());
+        assertSame(completions, document.getCompletions(new Position(0, 5)));
+        assertEquals(0, document.getCompletions(new Position(0, 7)).size());
+        assertEquals(2, document.getCompletions(new Position(0, input.length())).size());
+    }
+}
@@ -13,10 +13,15 @@ package org.eclipse.tracecompass.incubator.internal.filters.core.server;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.antlr.runtime.RecognitionException;
 import org.eclipse.lsp4j.CodeAction;
@@ -67,13 +72,27 @@ import org.eclipse.tracecompass.incubator.internal.filters.core.Activator;
  * server of the changes and to ask for completions, validations and syntax tips
  * for the filter string.
  *
+ * The content of each filter box is kept in a {@link FilterDocument}, which
+ * caches the results of the parser for the requests. The diagnostics are
+ * published once the content has not changed for
+ * {@link #DIAGNOSTICS_DELAY_MS}, so that typing in the filter box does not
+ * validate every intermediate content.
+ *
  * @author Remi Croteau
  * @author David-Alexandre Beaupre
  *
  */
 public class FilterBoxService implements TextDocumentService {
 
-    private Map<String, String> fFiltersInputs;
+    /**
+     * The delay after the last change of a document before publishing its
+     * diagnostics, in milliseconds
+     */
+    public static final long DIAGNOSTICS_DELAY_MS = 100;
+
+    private final Map<String, FilterDocument> fFiltersInputs;
+    private final Map<String, ScheduledFuture<?>> fPendingDiagnostics;
+    private final ScheduledExecutorService fDiagnosticsExecutor;
     private final LanguageFilterServer fLSPServer;
 
     /**
@@ -83,10 +102,23 @@ public class FilterBoxService implements TextDocumentService {
      *            is a language filter server
      */
     protected FilterBoxService(LanguageFilterServer server) {
-        fFiltersInputs = new HashMap<>();
+        fFiltersInputs = new ConcurrentHashMap<>();
+        fPendingDiagnostics = new ConcurrentHashMap<>();
+        fDiagnosticsExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Filter diagnostics"); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
         fLSPServer = server;
     }
 
+    /**
+     * Stop publishing the diagnostics of the documents
+     */
+    public void dispose() {
+        fDiagnosticsExecutor.shutdownNow();
+    }
+
     /**
      * Offers completion suggestions based on the user input
      *
@@ -99,12 +131,13 @@ public class FilterBoxService implements TextDocumentService {
         List<CompletionItem> completions = new ArrayList<>();
         try {
             String uri = completionParams.getTextDocument().getUri();
-            String input = fFiltersInputs.get(uri);
-            if (input == null) {
+            FilterDocument document = fFiltersInputs.get(uri);
+            if (document == null) {
                 return CompletableFuture.completedFuture(Either.forLeft(completions));
             }
+            String input = document.getText();
             Position cursor = completionParams.getPosition();
-            List<String> suggestions = AutoCompletion.autoCompletion(input, cursor);
+            List<String> suggestions = document.getCompletions(cursor);
             for (int i = 0; i < suggestions.size(); i++) {
                 Position start = new Position(0, 0);
                 Position end = new Position(0, input.length());
@@ -162,9 +195,11 @@ public class FilterBoxService implements TextDocumentService {
     public CompletableFuture<List<ColorInformation>> documentColor(DocumentColorParams params) {
         try {
             String uri = params.getTextDocument().getUri();
-            String input = fFiltersInputs.get(uri);
-            List<ColorInformation> colorInformation = SyntaxHighlighting.getColorInformationList(input);
-            return CompletableFuture.completedFuture(colorInformation);
+            FilterDocument document = fFiltersInputs.get(uri);
+            if (document == null) {
+                return CompletableFuture.completedFuture(Collections.emptyList());
+            }
+            return CompletableFuture.completedFuture(document.getColors());
         } catch (IOException error) {
             Activator.getInstance().logError(error.getMessage());
             return CompletableFuture.completedFuture(null);
@@ -221,11 +256,17 @@ public class FilterBoxService implements TextDocumentService {
 
     @Override
     public void didOpen(DidOpenTextDocumentParams params) {
-        fFiltersInputs.put(params.getTextDocument().getUri(), ""); //$NON-NLS-1$
+        String uri = params.getTextDocument().getUri();
+        fFiltersInputs.put(uri, new FilterDocument());
+        ScheduledFuture<?> pending = fPendingDiagnostics.remove(uri);
+        if (pending != null) {
+            pending.cancel(false);
+        }
     }
 
     /**
-     * Check the string validity and sends a diagnostic to the client
+     * Update the string and schedule the publication of its diagnostics to
+     * the client
      *
      * @param params
      *            contains the changes to the string input
@@ -238,9 +279,27 @@ public class FilterBoxService implements TextDocumentService {
             throw new NullPointerException("Event change param cannot be null"); //$NON-NLS-1$
         }
         String input = params.getContentChanges().get(0).getText();
-        fFiltersInputs.put(uri, input);
+        FilterDocument document = fFiltersInputs.computeIfAbsent(uri, unused -> new FilterDocument());
+        document.setText(input);
+        long version = document.getVersion();
+        ScheduledFuture<?> pending = fPendingDiagnostics.put(uri, fDiagnosticsExecutor.schedule(() -> publishDiagnostics(uri, document, version),
+                DIAGNOSTICS_DELAY_MS, TimeUnit.MILLISECONDS));
+        if (pending != null) {
+            pending.cancel(false);
+        }
+    }
+
+    /**
+     * Check the string validity and send a diagnostic to the client, unless
+     * the document changed since this publication was scheduled
+     */
+    private void publishDiagnostics(String uri, FilterDocument document, long version) {
         try {
-            List<Diagnostic> diagnostics = FilterValidation.validate(input);
+            List<Diagnostic> diagnostics = document.getDiagnostics();
+            if (document.getVersion() != version) {
+                // A more recent publication is scheduled
+                return;
+            }
             PublishDiagnosticsParams pd = new PublishDiagnosticsParams(uri, diagnostics);
             pd.setDiagnostics(diagnostics);
             LanguageClient client = fLSPServer.getClient();
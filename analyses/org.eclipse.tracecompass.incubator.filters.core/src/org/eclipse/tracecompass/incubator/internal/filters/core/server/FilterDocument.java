@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.filters.core.server;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.antlr.runtime.RecognitionException;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.lsp4j.ColorInformation;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Position;
+
+/**
+ * The content of a filter box on the server side. The diagnostics, colors and
+ * completions are computed when they are first requested for the current
+ * content and are then reused until the content changes, so that the requests
+ * that follow a change, or a change that does not modify the content, do not
+ * parse the filter again.
+ *
+ * This class is thread safe.
+ */
+public class FilterDocument {
+
+    private String fText = ""; //$NON-NLS-1$
+    private long fVersion = 0;
+    private @Nullable List<Diagnostic> fDiagnostics = null;
+    private @Nullable List<ColorInformation> fColors = null;
+    private int fCompletionsCursor = -1;
+    private @Nullable List<String> fCompletions = null;
+
+    /**
+     * Set the content of the document
+     *
+     * @param text
+     *            The new content
+     * @return Whether the content changed
+     */
+    public synchronized boolean setText(String text) {
+        if (fText.equals(text)) {
+            return false;
+        }
+        fText = text;
+        fVersion++;
+        fDiagnostics = null;
+        fColors = null;
+        fCompletions = null;
+        fCompletionsCursor = -1;
+        return true;
+    }
+
+    /**
+     * @return The content of the document
+     */
+    public synchronized String getText() {
+        return fText;
+    }
+
+    /**
+     * @return The version of the content, incremented each time the content
+     *         changes
+     */
+    public synchronized long getVersion() {
+        return fVersion;
+    }
+
+    /**
+     * Get the errors in the content
+     *
+     * @return The diagnostics of the errors
+     * @throws IOException
+     *             from the InputStream
+     * @throws RecognitionException
+     *             from the ANTLR parser or lexer
+     * @see FilterValidation#validate(String)
+     */
+    public synchronized List<Diagnostic> getDiagnostics() throws IOException, RecognitionException {
+        List<Diagnostic> diagnostics = fDiagnostics;
+        if (diagnostics == null) {
+            diagnostics = Collections.unmodifiableList(FilterValidation.validate(fText));
+            fDiagnostics = diagnostics;
+        }
+        return diagnostics;
+    }
+
+    /**
+     * Get the colors of the tokens of the content
+     *
+     * @return The color information of the tokens
+     * @throws IOException
+     *             from antlr
+     * @see SyntaxHighlighting#getColorInformationList(String)
+     */
+    public synchronized List<ColorInformation> getColors() throws IOException {
+        List<ColorInformation> colors = fColors;
+        if (colors == null) {
+            colors = Collections.unmodifiableList(SyntaxHighlighting.getColorInformationList(fText));
+            fColors = colors;
+        }
+        return colors;
+    }
+
+    /**
+     * Get the completions of the content at a position
+     *
+     * @param cursor
+     *            The position of the cursor
+     * @return The suggestions
+     * @throws IOException
+     *             from antlr
+     * @see AutoCompletion#autoCompletion(String, Position)
+     */
+    public synchronized List<String> getCompletions(Position cursor) throws IOException {
+        List<String> completions = fCompletions;
+        if (completions == null || fCompletionsCursor != cursor.getCharacter()) {
+            completions = Collections.unmodifiableList(AutoCompletion.autoCompletion(fText, cursor));
+            fCompletions = completions;
+            fCompletionsCursor = cursor.getCharacter();
+        }
+        return completions;
+    }
+}
@@ -32,7 +32,7 @@ import org.eclipse.lsp4j.services.WorkspaceService;
  */
 public class LanguageFilterServer implements LanguageServer, LanguageClientAware {
 
-    private final TextDocumentService filterBoxService;
+    private final FilterBoxService filterBoxService;
     private final WorkspaceService filterWorkspaceService;
     // The only client a given instance needs to know (1:1 relationship)
     private LanguageClient fClient;
@@ -52,7 +52,7 @@ public class LanguageFilterServer implements LanguageServer, LanguageClientAware
 
     @Override
     public CompletableFuture<Object> shutdown() {
-        // Nothing to do
+        filterBoxService.dispose();
         return CompletableFuture.completedFuture(null);
     }
 
@@ -11,6 +11,7 @@
 
 package org.eclipse.tracecompass.incubator.internal.filters.ui.views.global;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -396,7 +397,13 @@ public class GlobalFilterViewer extends Composite {
             // No trace opened, can't filter
             return;
         }
-        fComponent.broadcast(new TmfFilterAppliedSignal(fComponent, trace, TraceCompassFilter.fromRegex(filter, trace)));
+        // Reuse the filter already applied to the trace if the filters did not
+        // change, instead of compiling them again
+        TraceCompassFilter traceCompassFilter = TraceCompassFilter.getFilterForTrace(trace);
+        if (traceCompassFilter == null || !filter.equals(new ArrayList<>(traceCompassFilter.getRegexes()))) {
+            traceCompassFilter = TraceCompassFilter.fromRegex(filter, trace);
+        }
+        fComponent.broadcast(new TmfFilterAppliedSignal(fComponent, trace, traceCompassFilter));
         redraw();
     }
 
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.inandout.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.inandout.core.analysis.InAndOutAnalysisStateProvider;
+import org.eclipse.tracecompass.incubator.internal.inandout.core.analysis.SegmentSpecifier;
+import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
+import org.eclipse.tracecompass.tmf.core.event.aspect.TmfCpuAspect;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Test the matching of the input and output events by the
+ * {@link InAndOutAnalysisStateProvider} and the context extraction of the
+ * {@link SegmentSpecifier}
+ */
+public class InAndOutAnalysisStateProviderTest {
+
+    private static final @NonNull TmfCpuAspect CPU_ASPECT = new TmfCpuAspect() {
+        @Override
+        public @Nullable Integer resolve(ITmfEvent event) {
+            return 0;
+        }
+    };
+
+    private ITmfTrace fTrace;
+    private long fRank = 0;
+
+    /**
+     * Provider giving access to the matching of the events
+     */
+    private static class TestProvider extends InAndOutAnalysisStateProvider {
+
+        public TestProvider(ITmfTrace trace, List<@NonNull SegmentSpecifier> list) {
+            super(trace, list);
+        }
+
+        /**
+         * Handle an event, like the call stack state provider
+         *
+         * @return the label of the segment entered or exited by the event,
+         *         or null if the event matches none
+         */
+        public @Nullable String handle(ITmfEvent event) {
+            if (!considerEvent(event)) {
+                return null;
+            }
+            ITmfStateValue value = functionEntry(event);
+            if (value == null) {
+                value = functionExit(event);
+            }
+            return value == null ? null : value.unboxStr();
+        }
+    }
+
+    /**
+     * Create the trace
+     */
+    @Before
+    public void setUp() {
+        fTrace = new TmfTraceStub() {
+            private final Collection<ITmfEventAspect<?>> fEventAspects = ImmutableList.of(CPU_ASPECT);
+
+            @Override
+            public Iterable<ITmfEventAspect<?>> getEventAspects() {
+                return fEventAspects;
+            }
+        };
+    }
+
+    /**
+     * Dispose the trace
+     */
+    @After
+    public void tearDown() {
+        fTrace.dispose();
+    }
+
+    /**
+     * Test that an output event matches the oldest pending input event with
+     * the same context
+     */
+    @Test
+    public void testFifoMatching() {
+        SegmentSpecifier spec = new SegmentSpecifier("{0}", "in_(\\d+)", "out", "ctx=(\\w+)", "ctx=(\\w+)", CPU_ASPECT.getName());
+        TestProvider provider = new TestProvider(fTrace, Collections.singletonList(spec));
+
+        assertEquals("1", provider.handle(createEvent("in_1", "a")));
+        assertEquals("2", provider.handle(createEvent("in_2", "a")));
+        assertEquals("3", provider.handle(createEvent("in_3", "b")));
+        assertEquals("4", provider.handle(createEvent("in_4", "a")));
+        assertNull(provider.handle(createEvent("other", "a")));
+
+        assertEquals("1", provider.handle(createEvent("out", "a")));
+        assertEquals("3", provider.handle(createEvent("out", "b")));
+        assertEquals("2", provider.handle(createEvent("out", "a")));
+        assertNull(provider.handle(createEvent("out", "b")));
+        assertEquals("5", provider.handle(createEvent("in_5", "a")));
+        assertEquals("4", provider.handle(createEvent("out", "a")));
+        assertEquals("5", provider.handle(createEvent("out", "a")));
+        assertNull(provider.handle(createEvent("out", "a")));
+    }
+
+    /**
+     * Test the context of events of the same name, whose content does not
+     * always have the field in which the context was found
+     */
+    @Test
+    public void testContext() {
+        SegmentSpecifier spec = new SegmentSpecifier("label", "in", "out", "ctx=(\\w+)", "id=(\\d+)", CPU_ASPECT.getName());
+
+        assertEquals("a", spec.createSegmentContext(createEvent("in", "a"), null).getContext());
+        assertEquals("b", spec.createSegmentContext(createEvent("in", "b"), null).getContext());
+        // The context is in another field
+        ITmfEvent event = createEvent("in", new TmfEventField("other", "ctx=c", null));
+        assertEquals("c", spec.createSegmentContext(event, null).getContext());
+        event = createEvent("in", new TmfEventField("other", "none", null));
+        assertNull(spec.createSegmentContext(event, null).getContext());
+
+        // The first event of a name has no context
+        assertNull(spec.getOutContext(createEvent("out", new TmfEventField("count", 3L, null))));
+        assertEquals("12", spec.getOutContext(createEvent("out", new TmfEventField("count", 3L, null), new TmfEventField("id", 12L, null))));
+        assertEquals("13", spec.getOutContext(createEvent("out", new TmfEventField("id", 13L, null), new TmfEventField("count", 3L, null))));
+    }
+
+    private @NonNull ITmfEvent createEvent(String name, String context) {
+        return createEvent(name, new TmfEventField("cpu", 0L, null), new TmfEventField("ctx", context, null));
+    }
+
+    private @NonNull ITmfEvent createEvent(String name, ITmfEventField... fields) {
+        ITmfEventField content = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, fields);
+        long rank = fRank++;
+        return new TmfEvent(fTrace, rank, TmfTimestamp.fromNanos(rank), new TmfEventType(name, null), content);
+    }
+}
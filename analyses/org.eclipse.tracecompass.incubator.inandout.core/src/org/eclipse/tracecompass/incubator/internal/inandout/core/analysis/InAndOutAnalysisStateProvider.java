@@ -11,6 +11,9 @@
 
 package org.eclipse.tracecompass.incubator.internal.inandout.core.analysis;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,11 +27,9 @@ import org.eclipse.tracecompass.incubator.internal.inandout.core.analysis.Segmen
 import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
 import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
-
 /**
  * In and Out analysis
  *
@@ -36,11 +37,35 @@ import com.google.common.collect.Multimap;
  */
 public class InAndOutAnalysisStateProvider extends CallStackStateProvider {
 
+    private static final NameMatch[] NO_MATCH = new NameMatch[0];
+
     private List<@NonNull SegmentSpecifier> fList;
-    private final Map<Object, Multimap<String, SegmentContext>> fTable = new HashMap<>();
+    /* Pending input contexts, per classifier and context, oldest first */
+    private final Map<Object, Map<String, Deque<SegmentContext>>> fTable = new HashMap<>();
+    /* The specifiers that can match each event name, in the list's order */
+    private final Map<String, NameMatch[]> fNameMatches = new HashMap<>();
+    /* The aspect that resolves each classifier, per trace */
+    private final Map<ITmfTrace, Map<String, Optional<ITmfEventAspect<?>>>> fClassifierAspects = new HashMap<>();
     private SegmentContext fLast = null;
+    private @Nullable Map<String, Deque<SegmentContext>> fLastContexts = null;
+    private @Nullable String fLastContextKey = null;
     private SegmentContext fFirst = null;
 
+    /**
+     * A specifier whose input and/or output regex matches an event name
+     */
+    private static final class NameMatch {
+        private final SegmentSpecifier fSpec;
+        private final boolean fIn;
+        private final boolean fOut;
+
+        public NameMatch(SegmentSpecifier spec, boolean in, boolean out) {
+            fSpec = spec;
+            fIn = in;
+            fOut = out;
+        }
+    }
+
     /**
      * Constructor
      *
@@ -68,26 +93,35 @@ public class InAndOutAnalysisStateProvider extends CallStackStateProvider {
     protected boolean considerEvent(ITmfEvent event) {
         fFirst = null;
         fLast = null;
-        for (SegmentSpecifier spec : fList) {
-            SegmentContext context = spec.getSegmentContext(event);
-            if (context != null) {
-                Object classifier = context.getClassifier();
+        fLastContexts = null;
+        fLastContextKey = null;
+        for (NameMatch match : fNameMatches.computeIfAbsent(event.getName(), this::matchName)) {
+            SegmentSpecifier spec = match.fSpec;
+            Object classifier = null;
+            if (match.fIn) {
+                classifier = getClassifier(spec, event);
+                SegmentContext context = spec.createSegmentContext(event, classifier);
                 if (classifier != null) {
-                    Multimap<String, SegmentContext> map = fTable.computeIfAbsent(classifier, unused -> HashMultimap.create());
-                    map.put(String.valueOf(context.getContext()), context);
+                    fTable.computeIfAbsent(classifier, unused -> new HashMap<>())
+                            .computeIfAbsent(String.valueOf(context.getContext()), unused -> new ArrayDeque<>())
+                            .addLast(context);
                     fFirst = context;
                     return true;
                 }
             }
-            if (spec.matchesOutName(event)) {
-                Object classifier = spec.getClassifier(event);
+            if (match.fOut) {
+                if (!match.fIn) {
+                    classifier = getClassifier(spec, event);
+                }
                 if (classifier != null) {
-                    Multimap<String, SegmentContext> contexts = fTable.get(classifier);
-                    if (contexts != null && !contexts.isEmpty()) {
-                        String outContext = spec.getOutContext(event);
-                        Optional<SegmentContext> ctx = contexts.get(String.valueOf(outContext)).stream().findAny();
-                        if (ctx.isPresent()) {
-                            fLast = ctx.get();
+                    Map<String, Deque<SegmentContext>> contexts = fTable.get(classifier);
+                    if (contexts != null) {
+                        String outContext = String.valueOf(spec.getOutContext(event));
+                        Deque<SegmentContext> pending = contexts.get(outContext);
+                        if (pending != null && !pending.isEmpty()) {
+                            fLast = pending.peekFirst();
+                            fLastContexts = contexts;
+                            fLastContextKey = outContext;
                             return true;
                         }
                     }
@@ -97,6 +131,60 @@ public class InAndOutAnalysisStateProvider extends CallStackStateProvider {
         return false;
     }
 
+    /**
+     * Find the specifiers that can match an event name. This is done once per
+     * event name, so the regexes are not matched on every event.
+     */
+    private NameMatch[] matchName(String eventName) {
+        List<NameMatch> matches = new ArrayList<>();
+        for (SegmentSpecifier spec : fList) {
+            boolean in = spec.matchesInName(eventName);
+            boolean out = spec.matchesOutName(eventName);
+            if (in || out) {
+                matches.add(new NameMatch(spec, in, out));
+            }
+        }
+        return matches.isEmpty() ? NO_MATCH : matches.toArray(new NameMatch[matches.size()]);
+    }
+
+    /**
+     * Resolve the classifier of an event. The aspect that resolves a
+     * classifier is looked up once per trace, instead of going through all
+     * the trace's aspects for every event. If there is no such aspect, the
+     * classifier is resolved by the specifier.
+     */
+    private @Nullable Object getClassifier(SegmentSpecifier spec, ITmfEvent event) {
+        String classifierType = spec.getClassifierType();
+        if (classifierType == null || classifierType.trim().isEmpty()) {
+            return null;
+        }
+        Map<String, Optional<ITmfEventAspect<?>>> aspects = fClassifierAspects.computeIfAbsent(event.getTrace(), unused -> new HashMap<>());
+        Optional<ITmfEventAspect<?>> aspect = aspects.get(classifierType);
+        if (aspect == null) {
+            Object value = spec.getClassifier(event);
+            if (value != null) {
+                aspects.put(classifierType, findAspect(event, classifierType, value));
+            }
+            return value;
+        }
+        if (aspect.isPresent()) {
+            Object value = aspect.get().resolve(event);
+            if (value != null) {
+                return value;
+            }
+        }
+        return spec.getClassifier(event);
+    }
+
+    private static Optional<ITmfEventAspect<?>> findAspect(ITmfEvent event, String name, Object value) {
+        for (ITmfEventAspect<?> aspect : event.getTrace().getEventAspects()) {
+            if (aspect.getName().equalsIgnoreCase(name) && value.equals(aspect.resolve(event))) {
+                return Optional.of(aspect);
+            }
+        }
+        return Optional.empty();
+    }
+
     @Override
     protected @Nullable ITmfStateValue functionEntry(ITmfEvent event) {
         SegmentContext segmentContext = fFirst;
@@ -108,17 +196,22 @@ public class InAndOutAnalysisStateProvider extends CallStackStateProvider {
 
     @Override
     protected @Nullable ITmfStateValue functionExit(ITmfEvent event) {
-        if (fLast == null) {
+        SegmentContext last = fLast;
+        if (last == null) {
             return null;
         }
-        Multimap<String, SegmentContext> map = fTable.get(fLast.getClassifier());
-        if (map != null) {
-            Optional<SegmentContext> victim = map.get(fLast.getContext()).stream().findAny();
-            if (victim.isPresent()) {
-                map.remove(fLast.getContext(), victim.get());
+        Map<String, Deque<SegmentContext>> contexts = fLastContexts;
+        String key = fLastContextKey;
+        if (contexts != null && key != null) {
+            Deque<SegmentContext> pending = contexts.get(key);
+            if (pending != null && pending.peekFirst() == last) {
+                pending.pollFirst();
+                if (pending.isEmpty()) {
+                    contexts.remove(key);
+                }
             }
         }
-        return TmfStateValue.newValueString(fLast.getLabel());
+        return TmfStateValue.newValueString(last.getLabel());
     }
 
     @Override
@@ -11,7 +11,10 @@
 
 package org.eclipse.tracecompass.incubator.internal.inandout.core.analysis;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -19,6 +22,7 @@ import java.util.regex.Pattern;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
 import org.eclipse.tracecompass.tmf.core.event.aspect.TmfBaseAspects;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
@@ -121,6 +125,12 @@ public class SegmentSpecifier {
     private transient @Nullable Pattern fOutRegexPattern;
     private transient @Nullable Pattern fContextInPattern;
     private transient @Nullable Pattern fContextOutPattern;
+    /*
+     * The field of the content in which each context regex matched, per event
+     * name, or empty if it only matched the whole content
+     */
+    private transient @Nullable Map<String, Optional<String>> fContextInFields;
+    private transient @Nullable Map<String, Optional<String>> fContextOutFields;
 
     /**
      * Default constructor for GSON
@@ -277,22 +287,36 @@ public class SegmentSpecifier {
      * @return the context or null
      */
     public @Nullable SegmentContext getSegmentContext(@NonNull ITmfEvent event) {
-        if (getInPattern().matcher(event.getName()).matches()) {
-            SegmentContext segmentContext = new SegmentContext();
-            segmentContext.setLabel(getLabel(event, null));
-            Object resolve = CONTENT_ASPECT.resolve(event);
-            if (resolve != null && !getContextInRegex().trim().isEmpty()) {
-                segmentContext.setContext(findInFields(event, getContextInPattern()));
-            }
-            Object value = getClassifier(event);
-            if (value != null) {
-                segmentContext.setClassifier(value);
-            }
-            return segmentContext;
+        if (matchesInName(event.getName())) {
+            return createSegmentContext(event, getClassifier(event));
         }
         return null;
     }
 
+    /**
+     * Create the context of an input event, for callers that already know
+     * the event name matches this specifier's input regex, see
+     * {@link #matchesInName(String)}, and resolved the classifier.
+     *
+     * @param event
+     *            the event
+     * @param classifier
+     *            the resolved classifier of the event, see
+     *            {@link #getClassifier(ITmfEvent)}
+     * @return the context
+     */
+    public SegmentContext createSegmentContext(@NonNull ITmfEvent event, @Nullable Object classifier) {
+        SegmentContext segmentContext = new SegmentContext();
+        segmentContext.setLabel(getLabel(event, null));
+        if (!getContextInRegex().trim().isEmpty()) {
+            segmentContext.setContext(findInFields(event, getContextInPattern(), getContextInFields()));
+        }
+        if (classifier != null) {
+            segmentContext.setClassifier(classifier);
+        }
+        return segmentContext;
+    }
+
     /**
      * Get the resolved classifier from the event
      *
@@ -333,6 +357,24 @@ public class SegmentSpecifier {
         return p;
     }
 
+    private Map<String, Optional<String>> getContextInFields() {
+        Map<String, Optional<String>> fields = fContextInFields;
+        if (fields == null) {
+            fields = new ConcurrentHashMap<>();
+            fContextInFields = fields;
+        }
+        return fields;
+    }
+
+    private Map<String, Optional<String>> getContextOutFields() {
+        Map<String, Optional<String>> fields = fContextOutFields;
+        if (fields == null) {
+            fields = new ConcurrentHashMap<>();
+            fContextOutFields = fields;
+        }
+        return fields;
+    }
+
     private Pattern getInPattern() {
         Pattern p = fInRegexPattern;
         if (p == null) {
@@ -351,7 +393,29 @@ public class SegmentSpecifier {
      * @return true if it matches
      */
     public boolean matchesOutName(ITmfEvent event) {
-        return (getOutPattern().matcher(event.getName()).matches());
+        return matchesOutName(event.getName());
+    }
+
+    /**
+     * Does an event name match the input regex?
+     *
+     * @param eventName
+     *            the name of the event
+     * @return true if it matches
+     */
+    public boolean matchesInName(String eventName) {
+        return getInPattern().matcher(eventName).matches();
+    }
+
+    /**
+     * Does an event name match the output regex?
+     *
+     * @param eventName
+     *            the name of the event
+     * @return true if it matches
+     */
+    public boolean matchesOutName(String eventName) {
+        return getOutPattern().matcher(eventName).matches();
     }
 
     private Pattern getOutPattern() {
@@ -382,13 +446,13 @@ public class SegmentSpecifier {
             }
         }
         if (fLabel.equals("{2}")) { //$NON-NLS-1$
-            String ret = findInFields(event, getContextInPattern());
+            String ret = findInFields(event, getContextInPattern(), getContextInFields());
             if (ret != null) {
                 return ret;
             }
         }
         if (fLabel.equals("{3}")) { //$NON-NLS-1$
-            String ret = findInFields(event, getContextOutPattern());
+            String ret = findInFields(event, getContextOutPattern(), getContextOutFields());
             if (ret != null) {
                 return ret;
             }
@@ -402,6 +466,44 @@ public class SegmentSpecifier {
         return findIn(matcher);
     }
 
+    /**
+     * Find a regex in the content of an event. The field of the content in
+     * which the regex matches is found with the first event of each name, the
+     * regex is then only applied to that field for the next events of that
+     * name, instead of the whole content. The whole content is used if the
+     * field is missing or does not match.
+     */
+    private static String findInFields(@NonNull ITmfEvent event, Pattern p, Map<String, Optional<String>> fields) {
+        String name = event.getName();
+        Optional<String> fieldName = fields.get(name);
+        if (fieldName == null) {
+            String matched = findInFields(event, p);
+            if (matched != null) {
+                fields.put(name, findField(event.getContent(), p, matched));
+            }
+            return matched;
+        }
+        if (fieldName.isPresent()) {
+            ITmfEventField field = event.getContent().getField(fieldName.get());
+            if (field != null) {
+                String matched = findIn(p.matcher(field.toString()));
+                if (matched != null) {
+                    return matched;
+                }
+            }
+        }
+        return findInFields(event, p);
+    }
+
+    private static Optional<String> findField(ITmfEventField content, Pattern p, String matched) {
+        for (ITmfEventField field : content.getFields()) {
+            if (matched.equals(findIn(p.matcher(field.toString())))) {
+                return Optional.of(field.getName());
+            }
+        }
+        return Optional.empty();
+    }
+
     private static String findInFields(@NonNull ITmfEvent event, Pattern p) {
         Object resolve = CONTENT_ASPECT.resolve(event);
         String matched = null;
@@ -467,6 +569,15 @@ public class SegmentSpecifier {
             fClassifier = category;
             updated[0] = true;
         });
+        if (updated[0]) {
+            // The regexes may have changed
+            fInRegexPattern = null;
+            fOutRegexPattern = null;
+            fContextInPattern = null;
+            fContextOutPattern = null;
+            fContextInFields = null;
+            fContextOutFields = null;
+        }
         return updated[0];
     }
 
@@ -487,6 +598,6 @@ public class SegmentSpecifier {
         if (getOutRegex() == null || getContextOutRegex().trim().isEmpty()) {
             return null;
         }
-        return findInFields(event, getContextOutPattern());
+        return findInFields(event, getContextOutPattern(), getContextOutFields());
     }
 }
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.kernel.core.tests.perf.io;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.ctf.core.tests.shared.CtfBenchmarkTrace;
+import org.eclipse.tracecompass.incubator.internal.kernel.core.io.IoAnalysis;
+import org.eclipse.tracecompass.lttng2.kernel.core.trace.LttngKernelTrace;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestHelper;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+import org.eclipse.tracecompass.tmf.ctf.core.tests.shared.CtfTmfTestTraceUtils;
+import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Benchmarks the {@link IoAnalysis} on recorded kernel traces, whose mix of
+ * read, write, open and close system calls exercises the pending request
+ * bookkeeping of the state provider.
+ */
+@RunWith(Parameterized.class)
+public class IoAnalysisBenchmark {
+
+    /**
+     * Test test ID for the IO analysis benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#IO#";
+    private static final String TEST_BUILD = "Building IO state system (%s)";
+
+    private static final int LOOP_COUNT = 10;
+
+    private final String fName;
+    private final String fTracePath;
+
+    private static String getPathFromCtfTestTrace(CtfTestTrace testTrace) {
+        CtfTmfTrace ctftrace = CtfTmfTestTraceUtils.getTrace(testTrace);
+        String path = Objects.requireNonNull(ctftrace.getPath(), "Path shouldn't be null");
+        ctftrace.dispose();
+        return path;
+    }
+
+    /**
+     * Get the traces to benchmark
+     *
+     * @return The arrays of parameters
+     */
+    @Parameters(name = "{index}: {0}")
+    public static Iterable<Object[]> getParameters() {
+        return Arrays.asList(new Object[][] {
+                { CtfTestTrace.KERNEL.name(), getPathFromCtfTestTrace(CtfTestTrace.KERNEL) },
+                { CtfBenchmarkTrace.ALL_OS_ANALYSES.name(), CtfBenchmarkTrace.ALL_OS_ANALYSES.getTracePath().toString() },
+        });
+    }
+
+    /**
+     * Constructor
+     *
+     * @param name
+     *            A name for this test
+     * @param tracePath
+     *            The absolute path to the trace to test
+     */
+    public IoAnalysisBenchmark(String name, String tracePath) {
+        fName = name;
+        fTracePath = tracePath;
+    }
+
+    /**
+     * Run the benchmark for the trace
+     *
+     * @throws TmfTraceException
+     *             Exceptions thrown getting the trace
+     */
+    @Test
+    public void runCpuBenchmark() throws TmfTraceException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + String.format(TEST_BUILD, fName)));
+        perf.tagAsSummary(pm, String.format(TEST_BUILD, fName), Dimension.CPU_TIME);
+
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            LttngKernelTrace trace = new LttngKernelTrace();
+            try {
+                trace.initTrace(null, fTracePath, ITmfEvent.class);
+                trace.traceOpened(new TmfTraceOpenedSignal(this, trace, null));
+                IoAnalysis module = TmfTraceUtils.getAnalysisModuleOfClass(trace, IoAnalysis.class, IoAnalysis.ID);
+                assertNotNull(module);
+
+                pm.start();
+                assertTrue(TmfTestHelper.executeAnalysis(module));
+                pm.stop();
+
+                /*
+                 * Delete the supplementary files, so that the next iteration
+                 * rebuilds the state system.
+                 */
+                File suppDir = new File(TmfTraceManager.getSupplementaryFileDir(trace));
+                for (File file : suppDir.listFiles()) {
+                    file.delete();
+                }
+            } finally {
+                trace.dispose();
+            }
+        }
+        pm.commit();
+    }
+}
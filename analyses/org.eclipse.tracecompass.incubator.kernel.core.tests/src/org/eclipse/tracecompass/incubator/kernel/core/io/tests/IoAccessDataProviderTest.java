@@ -12,6 +12,7 @@
 package org.eclipse.tracecompass.incubator.kernel.core.io.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -19,9 +20,12 @@ import static org.junit.Assert.fail;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -31,6 +35,12 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.kernel.core.io.IoAccessDataProvider;
 import org.eclipse.tracecompass.incubator.internal.kernel.core.io.IoAnalysis;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
 import org.eclipse.tracecompass.tmf.core.model.OutputElementStyle;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
@@ -56,6 +66,8 @@ import com.google.common.collect.ImmutableSet;
 public class IoAccessDataProviderTest extends AbstractTestInputOutput {
 
     private static final String EXPECTED_FILE_PATH = "testfiles/dp/";
+    /* Time up to which the running analysis is first built */
+    private static final long RUNNING_TIME = 100L;
 
     private static final Map<String, Object> TREE_PARAMETERS = ImmutableMap.of(
             DataProviderParameterUtils.REQUESTED_TIME_KEY, ImmutableList.of(0, Long.MAX_VALUE));
@@ -100,6 +112,163 @@ public class IoAccessDataProviderTest extends AbstractTestInputOutput {
         assertRowsRequests(provider, idsToEntries, "expectedIoAccessMultiRows");
     }
 
+    /**
+     * Test that the {@link IoAccessDataProvider} returns the same entries and
+     * rows when requests extend the time range of the previous ones, like
+     * while the analysis is running
+     *
+     * @throws IOException
+     *             if an I/O error occurs reading from the expected value file
+     *             or a malformed or unmappable byte sequence is read
+     */
+    @Test
+    public void testIoDataProviderExtendedRange() throws IOException {
+        IoAnalysis module = getModule();
+        assertTrue(TmfTestHelper.executeAnalysis(module));
+
+        IoAccessDataProvider provider = new IoAccessDataProvider(getTrace(), module);
+        Map<String, Object> tidParameters = ImmutableMap.of(IoAccessDataProvider.SELECTED_TID_PARAM, ImmutableList.of(2, 4));
+
+        // Request the beginning of the range first
+        Map<String, Object> parameters = new HashMap<>(tidParameters);
+        parameters.put(DataProviderParameterUtils.REQUESTED_TIME_KEY, ImmutableList.of(0L, 60L));
+        TmfModelResponse<TmfTreeModel<@NonNull TimeGraphEntryModel>> treeResponse = provider.fetchTree(parameters, null);
+        assertEquals(ITmfResponse.Status.COMPLETED, treeResponse.getStatus());
+
+        Map<Long, TimeGraphEntryModel> idsToEntries = assertAndGetTree(provider, "expectedIoAccessMultiTree", tidParameters);
+
+        TmfModelResponse<TimeGraphModel> rowResponse = provider.fetchRowModel(prepareRowParameters(idsToEntries.keySet(), ImmutableList.of(50L, 60L, 70L)), null);
+        assertEquals(ITmfResponse.Status.COMPLETED, rowResponse.getStatus());
+
+        assertRowsRequests(provider, idsToEntries, "expectedIoAccessMultiRows");
+    }
+
+    /**
+     * Test that the {@link IoAccessDataProvider} returns the partial rows while
+     * the analysis is running, and the same rows as the completed analysis
+     * once the range of the same request is extended
+     *
+     * @throws IOException
+     *             if an I/O error occurs reading from the expected value file
+     *             or a malformed or unmappable byte sequence is read
+     * @throws StateSystemDisposedException
+     *             If the state system is disposed while replaying it
+     */
+    @Test
+    public void testIoDataProviderRunning() throws IOException, StateSystemDisposedException {
+        IoAnalysis module = getModule();
+        assertTrue(TmfTestHelper.executeAnalysis(module));
+        ITmfStateSystem fullSs = module.getStateSystem();
+        assertNotNull(fullSs);
+        Map<String, Object> tidParameters = ImmutableMap.of(IoAccessDataProvider.SELECTED_TID_PARAM, ImmutableList.of(2, 4));
+        IoAccessDataProvider fullProvider = new IoAccessDataProvider(getTrace(), module);
+        Map<Long, TimeGraphEntryModel> fullEntries = assertAndGetTree(fullProvider, "expectedIoAccessMultiTree", tidParameters);
+
+        // Replay the first part of the analysis in a state system that is not
+        // closed, as if the analysis was still running
+        ITmfStateSystemBuilder partialSs = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend(IoAnalysis.ID, fullSs.getStartTime()));
+        try {
+            replay(fullSs, partialSs, fullSs.getStartTime(), RUNNING_TIME);
+            IoAccessDataProvider provider = new IoAccessDataProvider(getTrace(), new RunningIoAnalysis(partialSs));
+
+            Map<String, Object> parameters = new HashMap<>(tidParameters);
+            parameters.put(DataProviderParameterUtils.REQUESTED_TIME_KEY, ImmutableList.of(0L, Long.MAX_VALUE));
+            TmfModelResponse<TmfTreeModel<@NonNull TimeGraphEntryModel>> treeResponse = provider.fetchTree(parameters, null);
+            assertEquals(ITmfResponse.Status.RUNNING, treeResponse.getStatus());
+            TmfTreeModel<@NonNull TimeGraphEntryModel> treeModel = treeResponse.getModel();
+            assertNotNull(treeModel);
+            Set<Long> ids = new HashSet<>();
+            Map<Long, TimeGraphEntryModel> idsToEntries = new HashMap<>();
+            for (TimeGraphEntryModel entry : treeModel.getEntries()) {
+                ids.add(entry.getId());
+                idsToEntries.put(entry.getId(), entry);
+            }
+            assertFalse(ids.isEmpty());
+
+            // The same request is done twice, like the view refreshing while
+            // the analysis is running
+            for (int i = 0; i < 2; i++) {
+                assertRunningRows(fullProvider, fullEntries, provider, idsToEntries, partialSs.getCurrentEndTime(), ITmfResponse.Status.RUNNING);
+            }
+
+            // The analysis progresses, the states ongoing at the previous end
+            // time should be updated
+            replay(fullSs, partialSs, RUNNING_TIME + 1, fullSs.getCurrentEndTime());
+            assertRunningRows(fullProvider, fullEntries, provider, idsToEntries, partialSs.getCurrentEndTime(), null);
+        } finally {
+            partialSs.dispose();
+        }
+    }
+
+    /**
+     * Copy the state changes of a state system in a time range to another one
+     */
+    private static void replay(ITmfStateSystem source, ITmfStateSystemBuilder destination, long start, long end) throws StateSystemDisposedException {
+        List<Integer> quarks = new ArrayList<>();
+        for (int quark = 0; quark < source.getNbAttributes(); quark++) {
+            quarks.add(quark);
+        }
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (ITmfStateInterval interval : source.query2D(quarks, start, end)) {
+            if (interval.getStartTime() >= start) {
+                intervals.add(interval);
+            }
+        }
+        intervals.sort(Comparator.comparingLong(ITmfStateInterval::getStartTime));
+        for (ITmfStateInterval interval : intervals) {
+            int quark = destination.getQuarkAbsoluteAndAdd(source.getFullAttributePathArray(interval.getAttribute()));
+            destination.modifyAttribute(interval.getStartTime(), interval.getValue(), quark);
+        }
+    }
+
+    /**
+     * Make sure the rows of the running analysis are those of the completed
+     * one, with the ongoing states ending at the current end time
+     */
+    private static void assertRunningRows(IoAccessDataProvider fullProvider, Map<Long, TimeGraphEntryModel> fullEntries, IoAccessDataProvider provider, Map<Long, TimeGraphEntryModel> idsToEntries, long currentEnd, ITmfResponse.@Nullable Status expectedStatus) {
+        ImmutableList.Builder<Long> timeBuilder = ImmutableList.builder();
+        ImmutableList.Builder<Long> builtTimeBuilder = ImmutableList.builder();
+        for (long time = 50; time <= 180; time += 10) {
+            timeBuilder.add(time);
+            if (time <= currentEnd) {
+                builtTimeBuilder.add(time);
+            }
+        }
+        TmfModelResponse<TimeGraphModel> rowResponse = provider.fetchRowModel(prepareRowParameters(idsToEntries.keySet(), timeBuilder.build()), null);
+        if (expectedStatus != null) {
+            assertEquals(expectedStatus, rowResponse.getStatus());
+        }
+        TimeGraphModel model = rowResponse.getModel();
+        assertNotNull(model);
+
+        // Get the expected rows at the times for which the analysis is built
+        Map<String, List<ITimeGraphState>> expectedStates = new HashMap<>();
+        TmfModelResponse<TimeGraphModel> fullResponse = fullProvider.fetchRowModel(prepareRowParameters(fullEntries.keySet(), builtTimeBuilder.build()), null);
+        TimeGraphModel fullModel = fullResponse.getModel();
+        assertNotNull(fullModel);
+        for (ITimeGraphRowModel row : fullModel.getRows()) {
+            expectedStates.put(Objects.requireNonNull(fullEntries.get(row.getEntryID())).getName(), row.getStates());
+        }
+
+        // The threads entries have no row
+        assertEquals(idsToEntries.values().stream().filter(entry -> entry.getParentId() != -1).count(), model.getRows().size());
+        for (ITimeGraphRowModel row : model.getRows()) {
+            String name = Objects.requireNonNull(idsToEntries.get(row.getEntryID())).getName();
+            List<ITimeGraphState> expected = expectedStates.get(name);
+            assertNotNull("Expected states for " + name, expected);
+            List<ITimeGraphState> states = row.getStates();
+            assertEquals(name + " number of states", expected.size(), states.size());
+            for (int i = 0; i < states.size(); i++) {
+                ITimeGraphState expectedState = expected.get(i);
+                ITimeGraphState state = states.get(i);
+                long expectedEnd = Math.min(expectedState.getStartTime() + expectedState.getDuration(), currentEnd + 1);
+                assertEquals(name + ": start time at position " + i, expectedState.getStartTime(), state.getStartTime());
+                assertEquals(name + ": end time at position " + i, expectedEnd, state.getStartTime() + state.getDuration());
+                assertEquals(name + ": style at position " + i, getStyleKey(expectedState), getStyleKey(state));
+            }
+        }
+    }
+
     private static void assertRowsRequests(IoAccessDataProvider provider, Map<Long, TimeGraphEntryModel> idsToEntries, String testFile) throws IOException {
         // Read the lines of the test file
         List<String> expectedStrings = Files.readAllLines(Paths.get(EXPECTED_FILE_PATH + testFile));
@@ -225,4 +394,31 @@ public class IoAccessDataProviderTest extends AbstractTestInputOutput {
         return null;
     }
 
+    private static @Nullable String getStyleKey(ITimeGraphState state) {
+        OutputElementStyle style = state.getStyle();
+        return style == null ? null : style.getParentKey();
+    }
+
+    /**
+     * An IO analysis whose state system is being built by the test
+     */
+    private static class RunningIoAnalysis extends IoAnalysis {
+
+        private final ITmfStateSystem fSs;
+
+        public RunningIoAnalysis(ITmfStateSystem ss) {
+            fSs = ss;
+        }
+
+        @Override
+        public boolean waitForInitialization() {
+            return true;
+        }
+
+        @Override
+        public @Nullable ITmfStateSystem getStateSystem() {
+            return fSs;
+        }
+    }
+
 }
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.kernel.core.tests.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.tracecompass.incubator.internal.kernel.core.util.LongObjectHashMap;
+import org.junit.Test;
+
+/**
+ * Test the {@link LongObjectHashMap} class
+ */
+public class LongObjectHashMapTest {
+
+    private static final int NB_OPERATIONS = 100000;
+    private static final int KEY_RANGE = 2000;
+
+    /**
+     * Test the basic operations of the map, including with the 0 key
+     */
+    @Test
+    public void testBasicOperations() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+
+        assertNull(map.put(0, "zero"));
+        assertNull(map.put(42, "a"));
+        assertEquals("a", map.put(42, "b"));
+        assertEquals(2, map.size());
+        assertEquals("zero", map.get(0));
+        assertEquals("b", map.get(42));
+        assertEquals("c", map.computeIfAbsent(-1, k -> "c"));
+        assertEquals("c", map.computeIfAbsent(-1, k -> "d"));
+        assertEquals("c", map.getOrDefault(-1, "default"));
+        assertEquals("default", map.getOrDefault(43, "default"));
+
+        assertEquals("zero", map.remove(0));
+        assertNull(map.remove(0));
+        assertEquals("default", map.getOrDefault(0, "default"));
+        assertEquals("b", map.remove(42));
+        assertNull(map.get(42));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(-1));
+    }
+
+    /**
+     * Test keys that use the whole range of <code>long</code>, like kernel
+     * addresses
+     */
+    @Test
+    public void testLongKeys() {
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+        map.put(0xffff8800deadbeefL, 12);
+        map.put(Long.MIN_VALUE, 13);
+        assertEquals(Integer.valueOf(12), map.get(0xffff8800deadbeefL));
+        assertEquals(Integer.valueOf(13), map.get(Long.MIN_VALUE));
+        assertNull(map.get(0xffff8800deadbef0L));
+        /* Same low bits as the first key */
+        assertNull(map.get(0xdeadbeefL));
+        assertEquals(2, map.size());
+    }
+
+    /**
+     * Compare the map with a {@link HashMap} on a random sequence of
+     * operations, enough to grow the table and shift clusters on removal
+     */
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(0x10);
+        LongObjectHashMap<Integer> intKeys = new LongObjectHashMap<>();
+        LongObjectHashMap<Integer> longKeys = new LongObjectHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < NB_OPERATIONS; i++) {
+            int key = random.nextInt(KEY_RANGE) - KEY_RANGE / 10;
+            /* Addresses only differ in the high bits */
+            long longKey = ((long) key) << 32;
+            switch (random.nextInt(3)) {
+            case 0:
+                int value = random.nextInt();
+                Integer previous = expected.put(key, value);
+                assertEquals(previous, intKeys.put(key, value));
+                assertEquals(previous, longKeys.put(longKey, value));
+                break;
+            case 1:
+                Integer removed = expected.remove(key);
+                assertEquals(removed, intKeys.remove(key));
+                assertEquals(removed, longKeys.remove(longKey));
+                break;
+            default:
+                Integer current = expected.get(key);
+                assertEquals(current, intKeys.get(key));
+                assertEquals(current, longKeys.get(longKey));
+                break;
+            }
+            assertEquals(expected.size(), intKeys.size());
+            assertEquals(expected.size(), longKeys.size());
+        }
+    }
+}
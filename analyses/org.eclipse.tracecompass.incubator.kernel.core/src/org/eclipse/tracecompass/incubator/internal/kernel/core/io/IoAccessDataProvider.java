@@ -12,6 +12,7 @@
 package org.eclipse.tracecompass.incubator.internal.kernel.core.io;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -22,6 +23,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -98,6 +101,13 @@ public class IoAccessDataProvider extends AbstractStateSystemAnalysisDataProvide
 
     private static final Logger LOGGER = TraceCompassLog.getLogger(IoAccessDataProvider.class);
 
+    /**
+     * Maximum number of intervals kept to reuse the rows of the previous
+     * request, beyond which only the requested times are queried
+     */
+    private static final int MAX_CACHED_INTERVALS = 100000;
+    private static final Comparator<ITmfStateInterval> INTERVAL_COMPARATOR = Comparator.comparing(ITmfStateInterval::getStartTime);
+
     private static final String READ_STYLE = "Read"; //$NON-NLS-1$
     private static final String WRITE_STYLE = "Write"; //$NON-NLS-1$
 
@@ -128,6 +138,140 @@ public class IoAccessDataProvider extends AbstractStateSystemAnalysisDataProvide
     private final AtomicLong fIdGenerator = new AtomicLong();
     private final BiMap<Long, Integer> fIdToTid = HashBiMap.create();
 
+    /*
+     * Results of the previous requests, reused when the next request is for
+     * the same entries and only extends the time range, for instance while the
+     * analysis is running
+     */
+    private @Nullable FilesCache fFilesCache = null;
+    private @Nullable RowIntervalCache fRowCache = null;
+    private final Object fRowCacheLock = new Object();
+
+    /**
+     * Files accessed by some threads in a time range
+     */
+    private static final class FilesCache {
+        private final ITmfStateSystem fSs;
+        private final Set<Integer> fTids;
+        private final long fStart;
+        private final long fEnd;
+        private final Multimap<Integer, String> fFiles;
+
+        public FilesCache(ITmfStateSystem ss, Set<Integer> tids, long start, long end, Multimap<Integer, String> files) {
+            fSs = ss;
+            fTids = tids;
+            fStart = start;
+            fEnd = end;
+            fFiles = files;
+        }
+
+        public boolean isExtendedBy(ITmfStateSystem ss, Set<Integer> tids, long start, long end) {
+            return fSs == ss && fTids.equals(tids) && fStart == start && fEnd <= end;
+        }
+    }
+
+    /**
+     * All the operation intervals of some quarks from a start time. The data
+     * up to the current end time of the state system does not change, so the
+     * range can be extended by querying only the new part of it.
+     */
+    private static final class RowIntervalCache {
+        private final ITmfStateSystem fSs;
+        private final Set<Integer> fQuarks;
+        private final long fStart;
+        private long fEnd;
+        private boolean fFilled = false;
+        private boolean fFull = false;
+        private int fCount = 0;
+        private final Map<Integer, TreeMap<Long, ITmfStateInterval>> fIntervals = new HashMap<>();
+
+        public RowIntervalCache(ITmfStateSystem ss, Set<Integer> quarks, long start) {
+            fSs = ss;
+            fQuarks = quarks;
+            fStart = start;
+            fEnd = start;
+        }
+
+        /**
+         * Get whether a request is for the same quarks and start time, with
+         * an end time that is the same or later
+         */
+        public boolean isExtendedBy(ITmfStateSystem ss, Set<Integer> quarks, long start, long end) {
+            return fSs == ss && fStart == start && end >= fEnd && fQuarks.equals(quarks);
+        }
+
+        public boolean covers(long end) {
+            return fFilled && end <= fEnd;
+        }
+
+        /**
+         * Get whether there were too many intervals to keep, the requests
+         * should then query the state system at the requested times
+         */
+        public boolean isFull() {
+            return fFull;
+        }
+
+        public void setFull() {
+            fFull = true;
+            fIntervals.clear();
+        }
+
+        /**
+         * Get the time from which to query the intervals to extend the range
+         */
+        public long getEnd() {
+            return fEnd;
+        }
+
+        /**
+         * Get the number of intervals that can still be added to the cache
+         */
+        public int getRemaining() {
+            return MAX_CACHED_INTERVALS - fCount;
+        }
+
+        /**
+         * Add the intervals queried from the current end time to a new end
+         * time. An interval that was ongoing at the previous end is replaced.
+         */
+        public void extendTo(long end, List<ITmfStateInterval> newIntervals) {
+            for (ITmfStateInterval interval : newIntervals) {
+                TreeMap<Long, ITmfStateInterval> intervals = fIntervals.computeIfAbsent(interval.getAttribute(), q -> new TreeMap<>());
+                if (intervals.put(interval.getStartTime(), interval) == null) {
+                    fCount++;
+                }
+            }
+            fEnd = end;
+            fFilled = true;
+        }
+
+        /**
+         * Get the intervals that intersect at least one of the times, like a 2D
+         * query at those times would return. Only the intervals at the
+         * requested times are looked up.
+         */
+        public List<ITmfStateInterval> getIntervals(long[] sortedTimes) {
+            List<ITmfStateInterval> result = new ArrayList<>();
+            for (TreeMap<Long, ITmfStateInterval> intervals : fIntervals.values()) {
+                int index = 0;
+                while (index < sortedTimes.length) {
+                    Entry<Long, ITmfStateInterval> entry = intervals.floorEntry(sortedTimes[index]);
+                    if (entry == null || entry.getValue().getEndTime() < sortedTimes[index]) {
+                        index++;
+                        continue;
+                    }
+                    ITmfStateInterval interval = entry.getValue();
+                    result.add(interval);
+                    // Skip the other times in this interval
+                    index = Arrays.binarySearch(sortedTimes, index, sortedTimes.length, interval.getEndTime() + 1);
+                    index = index >= 0 ? index : -index - 1;
+                }
+            }
+            return result;
+        }
+    }
+
     /**
      * Constructor
      *
@@ -216,10 +360,21 @@ public class IoAccessDataProvider extends AbstractStateSystemAnalysisDataProvide
             return new TimeGraphModel(Collections.emptyList());
         }
 
+        // Only query the times for which the state system is built
+        long ssStart = ss.getStartTime();
+        long ssEnd = ss.getCurrentEndTime();
+        long[] sortedTimes = times.stream()
+                .mapToLong(Long::longValue)
+                .filter(time -> time >= ssStart && time <= ssEnd)
+                .sorted()
+                .toArray();
+        if (sortedTimes.length == 0) {
+            return new TimeGraphModel(Collections.emptyList());
+        }
+
         // Query the operations intervals for the files
-        TreeMultimap<Long, ITmfStateInterval> intervals = TreeMultimap.create(Comparator.naturalOrder(),
-                Comparator.comparing(ITmfStateInterval::getStartTime));
-        for (ITmfStateInterval interval : ss.query2D(quarkToId.keySet(), times)) {
+        TreeMultimap<Long, ITmfStateInterval> intervals = TreeMultimap.create(Comparator.naturalOrder(), INTERVAL_COMPARATOR);
+        for (ITmfStateInterval interval : queryRowIntervals(ss, quarkToId.keySet(), sortedTimes)) {
             intervals.put(Objects.requireNonNull(quarkToId.get(interval.getAttribute())), interval);
         }
 
@@ -244,6 +399,53 @@ public class IoAccessDataProvider extends AbstractStateSystemAnalysisDataProvide
         return new TimeGraphModel(rows);
     }
 
+    private Iterable<ITmfStateInterval> queryRowIntervals(ITmfStateSystem ss, Set<Integer> quarks, long[] sortedTimes) throws StateSystemDisposedException {
+        long start = sortedTimes[0];
+        long end = sortedTimes[sortedTimes.length - 1];
+        RowIntervalCache cache;
+        long from;
+        int remaining;
+        synchronized (fRowCacheLock) {
+            cache = fRowCache;
+            if (cache == null || !cache.isExtendedBy(ss, quarks, start, end)) {
+                /*
+                 * Not a refresh of the previous request, only keep its key so
+                 * that the next request can extend it
+                 */
+                fRowCache = new RowIntervalCache(ss, new HashSet<>(quarks), start);
+                cache = null;
+            } else if (cache.isFull()) {
+                // Too many intervals to keep for those entries
+                cache = null;
+            } else if (cache.covers(end)) {
+                return cache.getIntervals(sortedTimes);
+            }
+            from = cache == null ? start : cache.getEnd();
+            remaining = cache == null ? 0 : cache.getRemaining();
+        }
+        if (cache != null) {
+            // Query the new part of the range without holding the lock
+            List<ITmfStateInterval> newIntervals = new ArrayList<>();
+            for (ITmfStateInterval interval : ss.query2D(quarks, from, end)) {
+                if (newIntervals.size() > remaining) {
+                    break;
+                }
+                newIntervals.add(interval);
+            }
+            synchronized (fRowCacheLock) {
+                // Another request may have extended the cache in the meantime
+                if (fRowCache == cache && cache.getEnd() == from) {
+                    if (newIntervals.size() <= remaining) {
+                        cache.extendTo(end, newIntervals);
+                        return cache.getIntervals(sortedTimes);
+                    }
+                    cache.setFull();
+                }
+            }
+        }
+        return ss.query2D(quarks, Arrays.stream(sortedTimes).boxed().collect(Collectors.toList()));
+    }
+
     private static @Nullable OutputElementStyle getStyleFor(ITmfStateInterval interval) {
         Object value = interval.getValue();
         if (!(value instanceof String)) {
@@ -278,7 +480,7 @@ public class IoAccessDataProvider extends AbstractStateSystemAnalysisDataProvide
             }
             return new TmfModelResponse<>(tree,
                     complete ? ITmfResponse.Status.COMPLETED : ITmfResponse.Status.RUNNING,
-                    complete ? CommonStatusMessage.RUNNING : CommonStatusMessage.COMPLETED);
+                    complete ? CommonStatusMessage.COMPLETED : CommonStatusMessage.RUNNING);
 
         } catch (StateSystemDisposedException e) {
             return new TmfModelResponse<>(null, ITmfResponse.Status.FAILED, CommonStatusMessage.STATE_SYSTEM_FAILED);
@@ -286,17 +488,61 @@ public class IoAccessDataProvider extends AbstractStateSystemAnalysisDataProvide
     }
 
     private TmfTreeModel<TimeGraphEntryModel> getTree(ITmfStateSystem ss, Map<String, Object> parameters, @Nullable IProgressMonitor monitor) throws StateSystemDisposedException {
+        TmfTreeModel<TimeGraphEntryModel> emptyTree = new TmfTreeModel<>(Collections.emptyList(), Collections.emptyList());
+        Set<Integer> selectedTid = new HashSet<>(extractIntegerList(parameters, SELECTED_TID_PARAM));
+        List<Long> times = DataProviderParameterUtils.extractTimeRequested(parameters);
+        if (selectedTid.isEmpty() || times == null || times.isEmpty()) {
+            return emptyTree;
+        }
+        long start = Math.max(Collections.min(times), ss.getStartTime());
+        long end = Math.min(Collections.max(times), ss.getCurrentEndTime());
+        if (start > end) {
+            return emptyTree;
+        }
 
+        // Reuse the files of the previous request if this one extends it
+        Multimap<Integer, String> files = HashMultimap.create();
+        FilesCache cache = fFilesCache;
+        if (cache != null && cache.isExtendedBy(ss, selectedTid, start, end)) {
+            files.putAll(cache.fFiles);
+            if (cache.fEnd < end) {
+                fillFiles(ss, selectedTid, cache.fEnd, end, monitor, files);
+            }
+        } else {
+            fillFiles(ss, selectedTid, start, end, monitor, files);
+        }
+        if (monitor != null && monitor.isCanceled()) {
+            return emptyTree;
+        }
+        fFilesCache = new FilesCache(ss, selectedTid, start, end, files);
+
+        Builder<@NonNull TimeGraphEntryModel> builder = new Builder<>();
+        for (Entry<Integer, Collection<String>> fileEntry : files.asMap().entrySet()) {
+            Integer tid = fileEntry.getKey();
+            long tidId = getTidId(tid);
+            builder.add(new TimeGraphEntryModel(tidId, -1, String.valueOf(tid), ss.getStartTime(), ss.getCurrentEndTime()));
+            for (String file : fileEntry.getValue()) {
+                long id = getId(new Pair<>(tid, file));
+                builder.add(new TimeGraphEntryModel(id, tidId, file, ss.getStartTime(), ss.getCurrentEndTime()));
+            }
+        }
+
+        return new TmfTreeModel<>(Collections.emptyList(), builder.build());
+    }
+
+    /**
+     * Add the files read or written by the threads in a time range to a map
+     */
+    private static void fillFiles(ITmfStateSystem ss, Collection<Integer> selectedTid, long start, long end, @Nullable IProgressMonitor monitor, Multimap<Integer, String> files) throws StateSystemDisposedException {
         // Map the TID to the current operation intervals
         Multimap<Integer, ITmfStateInterval> currentOperations = HashMultimap.create();
         // Map a TID to the tid files
         Map<Integer, TidFiles> fds = new HashMap<>();
-        boolean gotData = fillQueryIntervals(ss, parameters, monitor, currentOperations, fds);
+        boolean gotData = fillQueryIntervals(ss, selectedTid, start, end, monitor, currentOperations, fds);
         if (!gotData || (monitor != null && monitor.isCanceled())) {
-            return new TmfTreeModel<>(Collections.emptyList(), Collections.emptyList());
+            return;
         }
 
-        Multimap<Integer, String> files = HashMultimap.create();
         // For each rw operation, find the file descriptor interval that matches
         // the file name
         for (Entry<Integer, ITmfStateInterval> entry : currentOperations.entries()) {
@@ -313,19 +559,6 @@ public class IoAccessDataProvider extends AbstractStateSystemAnalysisDataProvide
                 files.put(entry.getKey(), filename);
             }
         }
-
-        Builder<@NonNull TimeGraphEntryModel> builder = new Builder<>();
-        for (Entry<Integer, Collection<String>> fileEntry : files.asMap().entrySet()) {
-            Integer tid = fileEntry.getKey();
-            long tidId = getTidId(tid);
-            builder.add(new TimeGraphEntryModel(tidId, -1, String.valueOf(tid), ss.getStartTime(), ss.getCurrentEndTime()));
-            for (String file : fileEntry.getValue()) {
-                long id = getId(new Pair<>(tid, file));
-                builder.add(new TimeGraphEntryModel(id, tidId, file, ss.getStartTime(), ss.getCurrentEndTime()));
-            }
-        }
-
-        return new TmfTreeModel<>(Collections.emptyList(), builder.build());
     }
 
     private static Collection<Integer> extractIntegerList(Map<String, Object> parameters, String selectedTidParam) {
@@ -368,32 +601,10 @@ public class IoAccessDataProvider extends AbstractStateSystemAnalysisDataProvide
      * Fill 2 arrays with intervals: the currentOperations that contains the
      * current non-null reads and writes operations for the thread and the fds
      * map which has the intervals containing the filename for each file
-     * descriptor
-     *
-     * @param discrete
-     *            Whether to get only the intervals for the requested times, or
-     *            all intervals in the range (for instance to build the tree)
+     * descriptor, for a time range within the state system's range
      */
-    private static boolean fillQueryIntervals(ITmfStateSystem ss, Map<String, Object> parameters, @Nullable IProgressMonitor monitor, Multimap<Integer, ITmfStateInterval> currentOperations, Map<Integer, TidFiles> fds)
+    private static boolean fillQueryIntervals(ITmfStateSystem ss, Collection<Integer> selectedTid, long start, long end, @Nullable IProgressMonitor monitor, Multimap<Integer, ITmfStateInterval> currentOperations, Map<Integer, TidFiles> fds)
             throws IndexOutOfBoundsException, TimeRangeException, StateSystemDisposedException {
-        Collection<Integer> selectedTid = extractIntegerList(parameters, SELECTED_TID_PARAM);
-        if (selectedTid.isEmpty()) {
-            return false;
-        }
-
-        List<Long> times = DataProviderParameterUtils.extractTimeRequested(parameters);
-        if (times == null || times.isEmpty()) {
-            // No time specified
-            return false;
-        }
-        long start = Long.MAX_VALUE;
-        long end = 0;
-        for (Long time : times) {
-            start = Math.min(start, time);
-            end = Math.max(start, time);
-        }
-        start = Math.max(start, ss.getStartTime());
-        end = Math.min(end, ss.getCurrentEndTime());
 
         // Get the quarks to query for all threads
         Set<Integer> toQuery = new HashSet<>();
@@ -416,6 +416,9 @@ public class IoPerProcessDataProvider extends AbstractTreeDataProvider<IoAnalysi
 
     @Override
     public TmfModelResponse<ITmfXyModel> fetchXY(Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        // The state system is available as soon as the analysis starts, the
+        // series are returned up to its current end time
+        getAnalysisModule().waitForInitialization();
         ITmfStateSystem ss = getAnalysisModule().getStateSystem();
         if (ss == null) {
             return new TmfModelResponse<>(null, ITmfResponse.Status.FAILED, CommonStatusMessage.ANALYSIS_INITIALIZATION_FAILED);
@@ -425,10 +428,15 @@ public class IoPerProcessDataProvider extends AbstractTreeDataProvider<IoAnalysi
         // Prepare the quarks to display
         Collection<Long> selectedItems = DataProviderParameterUtils.extractSelectedItems(fetchParameters);
         Map<Long, Integer> selectedEntries = getSelectedEntries(selectedItems);
-        List<Long> times = getTimes(ss, DataProviderParameterUtils.extractTimeRequested(fetchParameters));
+        List<Long> requestedTimes = DataProviderParameterUtils.extractTimeRequested(fetchParameters);
         List<Integer> quarksToQuery = new ArrayList<>();
         long currentEnd = ss.getCurrentEndTime();
-        boolean complete = ss.waitUntilBuilt(0) || (!times.isEmpty() && times.get(times.size() - 1) <= currentEnd);
+        /*
+         * The times are filtered to the current range of the state system, so
+         * the completion is for the requested times
+         */
+        boolean complete = ss.waitUntilBuilt(0) || requestedTimes == null || requestedTimes.isEmpty() || Collections.max(requestedTimes) <= currentEnd;
+        List<Long> times = getTimes(ss, requestedTimes);
 
         for (Entry<Long, Integer> entry : selectedEntries.entrySet()) {
             // Add only quarks that can be displayed, ie, those in the
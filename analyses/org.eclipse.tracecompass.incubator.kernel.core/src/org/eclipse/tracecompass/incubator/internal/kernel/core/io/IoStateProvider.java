@@ -26,6 +26,7 @@ import org.eclipse.tracecompass.analysis.os.linux.core.event.aspect.LinuxTidAspe
 import org.eclipse.tracecompass.analysis.os.linux.core.trace.IKernelAnalysisEventLayout;
 import org.eclipse.tracecompass.analysis.os.linux.core.trace.IKernelTrace;
 import org.eclipse.tracecompass.incubator.internal.kernel.core.Activator;
+import org.eclipse.tracecompass.incubator.internal.kernel.core.util.LongObjectHashMap;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.StateSystemBuilderUtils;
@@ -158,46 +159,53 @@ public class IoStateProvider extends AbstractTmfStateProvider {
     private static final long FCNTL_CMD_DUP_CLOEXEC = 1030;
 
     private static final String UNKNOWN_FILE = "<unknown>"; //$NON-NLS-1$
+    private static final String CONNECT = "connect"; //$NON-NLS-1$
+    private static final String ACCEPT = "accept"; //$NON-NLS-1$
+    private static final String FCNTL = "fcntl"; //$NON-NLS-1$
 
     private static final int VERSION = 1;
 
 
 
+    /* Value of the fd maps when a thread has no pending file descriptor */
+    private static final int NO_QUARK = ITmfStateSystem.INVALID_ATTRIBUTE;
+
     private final Map<String, EventConsumer> fHandlers = new HashMap<>();
     private final IKernelAnalysisEventLayout fLayout;
 
     /*
-     * Nullable to make the jdt be quiet
+     * The following maps are updated at almost every syscall entry and exit,
+     * they use primitive keys so the thread IDs are not boxed every time
      */
-    private final Map<Integer, @Nullable FdRequestWithPools> fToRead = new HashMap<>();
-    private final Map<Integer, @Nullable FdRequestWithPools> fToWrite = new HashMap<>();
+    private final LongObjectHashMap<FdRequestWithPools> fToRead = new LongObjectHashMap<>();
+    private final LongObjectHashMap<FdRequestWithPools> fToWrite = new LongObjectHashMap<>();
     /* Map a TID to the file being opened */
-    private final Map<Integer, String> fOpening = new HashMap<>();
+    private final LongObjectHashMap<String> fOpening = new LongObjectHashMap<>();
     /* Map a TID to the file descriptor being closed */
-    private final Map<Integer, Long> fClosing = new HashMap<>();
+    private final LongObjectHashMap<Long> fClosing = new LongObjectHashMap<>();
     /* Map a TID to the file descriptor connecting */
-    private final Map<Integer, Long> fConnecting = new HashMap<>();
+    private final LongObjectHashMap<Long> fConnecting = new LongObjectHashMap<>();
     /* Map a quark to attribute pool */
-    private final Map<Integer, TmfAttributePool> fPools = new HashMap<>();
+    private final LongObjectHashMap<TmfAttributePool> fPools = new LongObjectHashMap<>();
     /* Map a TID to whether to share the file table (true) or not (false) */
-    private final Map<Integer, Boolean> fCloning = new HashMap<>();
+    private final LongObjectHashMap<Boolean> fCloning = new LongObjectHashMap<>();
     /* Map a file table address from statedump to a quark */
-    private final Map<Long, Integer> fFdTblAddresses = new HashMap<>();
+    private final LongObjectHashMap<Integer> fFdTblAddresses = new LongObjectHashMap<>();
     private AtomicInteger fFdCount = new AtomicInteger(0);
 
 
     @FunctionalInterface
     private interface EventConsumer {
-        void handleEvent(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid);
+        void handleEvent(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid);
     }
 
     private static class FdRequestWithPools {
 
-        private final Long fFd;
-        private final Integer fFdPoolQuark;
+        private final long fFd;
+        private final int fFdPoolQuark;
         private final TmfAttributePool fFdPool;
 
-        public FdRequestWithPools(Long fd, TmfAttributePool fdPool, Integer fdPoolQuark) {
+        public FdRequestWithPools(long fd, TmfAttributePool fdPool, int fdPoolQuark) {
             fFd = fd;
             fFdPool = fdPool;
             fFdPoolQuark = fdPoolQuark;
@@ -218,13 +226,24 @@ public class IoStateProvider extends AbstractTmfStateProvider {
             addEventHandler(getLayout().eventSyscallEntryPrefix() + syscall, this::openBegin);
             addEventHandler(getLayout().eventSyscallExitPrefix() + syscall, this::openEnd);
         }
+        /*
+         * The handlers that depend on the exact syscall are chosen here once,
+         * instead of looking at the event name for every event
+         */
         for (String syscall : OPEN_FROM_NET) {
-            addEventHandler(getLayout().eventSyscallEntryPrefix() + syscall, this::netBegin);
-            addEventHandler(getLayout().eventSyscallExitPrefix() + syscall, this::netEnd);
+            if (syscall.contains(CONNECT)) {
+                addEventHandler(getLayout().eventSyscallEntryPrefix() + syscall, this::connectBegin);
+                addEventHandler(getLayout().eventSyscallExitPrefix() + syscall, this::connectEnd);
+            } else if (syscall.contains(ACCEPT)) {
+                addEventHandler(getLayout().eventSyscallExitPrefix() + syscall, this::acceptEnd);
+            } else {
+                addEventHandler(getLayout().eventSyscallExitPrefix() + syscall, this::socketEnd);
+            }
         }
         for (String syscall : DUP_SYSCALLS) {
+            boolean isFcntl = syscall.contains(FCNTL);
             addEventHandler(getLayout().eventSyscallEntryPrefix() + syscall, this::dupBegin);
-            addEventHandler(getLayout().eventSyscallExitPrefix() + syscall, this::dupEnd);
+            addEventHandler(getLayout().eventSyscallExitPrefix() + syscall, (ssb, event, tid) -> dupEnd(ssb, event, tid, isFcntl));
         }
         for (String syscall : SYNC_SYSCALLS) {
             addEventHandler(getLayout().eventSyscallEntryPrefix() + syscall, this::syncBegin);
@@ -288,7 +307,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
             return;
         }
 
-        eventHandler.handleEvent(ssb, event, tid);
+        eventHandler.handleEvent(ssb, event, tid.intValue());
     }
 
     /**
@@ -301,22 +320,19 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         return fLayout;
     }
 
-    private final @Nullable Long isValidFileDescriptor(ITmfStateSystemBuilder ssb, long time, Integer tid, @Nullable Long fd) {
-        if (fd == null) {
-            return null;
-        }
+    private final boolean isValidFileDescriptor(ITmfStateSystemBuilder ssb, long time, int tid, long fd) {
         int fdTblQuark = getFdTblQuarkFor(ssb, time, tid);
         int tidFileQuark = ssb.optQuarkRelative(fdTblQuark, String.valueOf(fd));
         if (tidFileQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
-            return null;
+            return false;
         }
-        return ssb.queryOngoing(tidFileQuark) != null ? fd : null;
+        return ssb.queryOngoing(tidFileQuark) != null;
     }
 
     /**
      * @param ssb
      */
-    private void openBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void openBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         String filename = event.getContent().getFieldValue(String.class, FIELD_FILENAME);
         fOpening.put(tid, filename != null ? filename : UNKNOWN_FILE);
 
@@ -328,7 +344,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         }
     }
 
-    private void openEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void openEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         String filename = fOpening.remove(tid);
 
         Long ret = event.getContent().getFieldValue(Long.class, fLayout.fieldSyscallRet());
@@ -376,18 +392,15 @@ public class IoStateProvider extends AbstractTmfStateProvider {
      * @param event
      * @param tid
      */
-    private void netBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
-        if (event.getName().contains("connect")) { //$NON-NLS-1$
-            // Connect a socket to some server
-            Long fd = event.getContent().getFieldValue(Long.class, FIELD_DESCRIPTOR);
-            if (fd == null) {
-                // Invalid FD return
-                return;
-            }
-            fOpening.put(tid, getV4Or6Address(event));
-            fConnecting.put(tid, fd);
+    private void connectBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
+        // Connect a socket to some server
+        Long fd = event.getContent().getFieldValue(Long.class, FIELD_DESCRIPTOR);
+        if (fd == null) {
+            // Invalid FD return
+            return;
         }
-
+        fOpening.put(tid, getV4Or6Address(event));
+        fConnecting.put(tid, fd);
     }
 
     /**
@@ -395,32 +408,52 @@ public class IoStateProvider extends AbstractTmfStateProvider {
      * @param event
      * @param tid
      */
-    private void netEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void socketEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         Long ret = event.getContent().getFieldValue(Long.class, fLayout.fieldSyscallRet());
         if (ret == null || ret < 0) {
             // Error or no info, return
             return;
         }
-        if (event.getName().contains("socket")) { //$NON-NLS-1$
-            // This is just a socket being opened, save the fd
-            openFile(ssb, event.getTimestamp().toNanos(), tid, ret, "Socket"); //$NON-NLS-1$
+        // This is just a socket being opened, save the fd
+        openFile(ssb, event.getTimestamp().toNanos(), tid, ret, "Socket"); //$NON-NLS-1$
+    }
+
+    /**
+     * @param ssb
+     * @param event
+     * @param tid
+     */
+    private void connectEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
+        Long ret = event.getContent().getFieldValue(Long.class, fLayout.fieldSyscallRet());
+        if (ret == null || ret < 0) {
+            // Error or no info, return
+            return;
         }
-        if (event.getName().contains("connect")) { //$NON-NLS-1$
-            // This is just a socket being opened, save the fd
-            Long fd = fConnecting.get(tid);
-            String serverAddr = fOpening.get(tid);
-            if (fd != null && serverAddr != null) {
-                openFile(ssb, event.getTimestamp().toNanos(), tid, fd, serverAddr);
-            }
+        // This is just a socket being opened, save the fd
+        Long fd = fConnecting.get(tid);
+        String serverAddr = fOpening.get(tid);
+        if (fd != null && serverAddr != null) {
+            openFile(ssb, event.getTimestamp().toNanos(), tid, fd, serverAddr);
         }
-        if (event.getName().contains("accept")) { //$NON-NLS-1$
-            // A new socket has been created for direct communication
-            String serverAddr = getV4Or6Address(event);
-            openFile(ssb, event.getTimestamp().toNanos(), tid, ret, serverAddr);
+    }
+
+    /**
+     * @param ssb
+     * @param event
+     * @param tid
+     */
+    private void acceptEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
+        Long ret = event.getContent().getFieldValue(Long.class, fLayout.fieldSyscallRet());
+        if (ret == null || ret < 0) {
+            // Error or no info, return
+            return;
         }
+        // A new socket has been created for direct communication
+        String serverAddr = getV4Or6Address(event);
+        openFile(ssb, event.getTimestamp().toNanos(), tid, ret, serverAddr);
     }
 
-    private void dupBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void dupBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         Long oldFd = event.getContent().getFieldValue(Long.class, FIELD_OLDFD);
         if (oldFd == null) {
             // Maybe it's the dup syscall with the fildes field
@@ -451,7 +484,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         fOpening.put(tid, filename);
     }
 
-    private void dupEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void dupEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid, boolean isFcntl) {
         String filename = fOpening.remove(tid);
         // ret is the new fd, whether for a dup, dup2 or dup3 call
         Long newFd = event.getContent().getFieldValue(Long.class, fLayout.fieldSyscallRet());
@@ -460,7 +493,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         }
 
         // If it's the fcntl system call, it may not be a dup, so ignore the filename is null
-        if (event.getName().contains("fcntl") && filename == null) { //$NON-NLS-1$
+        if (isFcntl && filename == null) {
             return;
         }
 
@@ -475,7 +508,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
      * @param event
      * @param tid
      */
-    private void syncBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void syncBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         // TODO Support sync, there should be disk requests in there, or at
         // least something
     }
@@ -485,7 +518,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
      * @param event
      * @param tid
      */
-    private void syncEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void syncEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         // TODO Support sync, there should be disk requests in there, or at
         // least something
     }
@@ -493,7 +526,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
     /**
      * @param ssb
      */
-    private void readBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void readBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         Long fd = (event.getContent().getFieldValue(Long.class, FIELD_DESCRIPTOR));
         Long len = (event.getContent().getFieldValue(Long.class, FIELD_LEN));
         if (fd == null) {
@@ -502,7 +535,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         startReadingFd(ssb, event.getTimestamp().toNanos(), tid, fd, len == null ? 0 : len);
     }
 
-    private void readEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void readEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         long time = event.getTimestamp().toNanos();
         Long count = (event.getContent().getFieldValue(Long.class, getLayout().fieldSyscallRet()));
         readFromFd(ssb, time, tid, count == null ? 0L: count);
@@ -511,7 +544,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
     /**
      * @param ssb
      */
-    private void writeBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void writeBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         Long fd = (event.getContent().getFieldValue(Long.class, FIELD_DESCRIPTOR));
         Long len = (event.getContent().getFieldValue(Long.class, FIELD_LEN));
         if (fd == null) {
@@ -520,7 +553,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         startWritingFd(ssb, event.getTimestamp().toNanos(), tid, fd, len == null ? 0 : len);
     }
 
-    private void writeEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void writeEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         long time = event.getTimestamp().toNanos();
         Long count = (event.getContent().getFieldValue(Long.class, getLayout().fieldSyscallRet()));
         writeToFd(ssb, time, tid, count == null ? 0L: count);
@@ -529,7 +562,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
     /**
      * @param ssb
      */
-    private void readWriteBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void readWriteBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         Long fdIn = event.getContent().getFieldValue(Long.class, FIELD_FDIN);
         Long fdOut = event.getContent().getFieldValue(Long.class, FIELD_FDOUT);
         if (fdIn == null || fdOut == null) {
@@ -541,23 +574,22 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         // TODO add support of sendfile
     }
 
-    private void readWriteEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void readWriteEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         long time = event.getTimestamp().toNanos();
         Long count = (event.getContent().getFieldValue(Long.class, getLayout().fieldSyscallRet()));
         readFromFd(ssb, time, tid, count == null ? 0L: count);
         writeToFd(ssb, time, tid, count == null ? 0L: count);
     }
 
-    private void closeBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void closeBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         Long fd = (event.getContent().getFieldValue(Long.class, FIELD_DESCRIPTOR));
-        fd = isValidFileDescriptor(ssb, event.getTimestamp().toNanos(), tid, fd);
-        if (fd == null) {
+        if (fd == null || !isValidFileDescriptor(ssb, event.getTimestamp().toNanos(), tid, fd)) {
             return;
         }
         fClosing.put(tid, fd);
     }
 
-    private void closeEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void closeEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         try {
             Long ret = (event.getContent().getFieldValue(Long.class, getLayout().fieldSyscallRet()));
             Long fd = fClosing.remove(tid);
@@ -573,7 +605,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
     /**
      * @param ssb
      */
-    private void cloneBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void cloneBegin(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         // The clone system call has a flag which tells whether to share the
         // file table with the parent or not
         Long flags = event.getContent().getFieldValue(Long.class, FIELD_CLONE_FLAGS);
@@ -585,7 +617,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
          * be shared with the child, so we put true, otherwise false will copy
          * the file descriptor table
          */
-        fCloning.put(tid, (flags & CLONE_FILES_FLAG) == 0 ? false : true);
+        fCloning.put(tid, (flags & CLONE_FILES_FLAG) != 0);
     }
 
     /**
@@ -593,7 +625,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
      * @param event
      * @param tid
      */
-    private void cloneEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void cloneEnd(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         try {
             Long ret = (event.getContent().getFieldValue(Long.class, getLayout().fieldSyscallRet()));
             Boolean cloneFiles = fCloning.remove(tid);
@@ -633,7 +665,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
     /**
      * @param tid
      */
-    private void statedumpHandle(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void statedumpHandle(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         Long pid = (event.getContent().getFieldValue(Long.class, FIELD_PID));
         Long fileTblAddress = event.getContent().getFieldValue(Long.class, FIELD_STATEDUMP_FILE_TABLE);
         Long fd = (event.getContent().getFieldValue(Long.class, FIELD_DESCRIPTOR));
@@ -653,8 +685,8 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         }
 
         // LTTng 2.12+ have the file table address field, add this file to that file table
-        Integer tblAddressQuark = fFdTblAddresses.get(fileTblAddress);
-        if (tblAddressQuark == null) {
+        int tblAddressQuark = fFdTblAddresses.getOrDefault(fileTblAddress, NO_QUARK);
+        if (tblAddressQuark == NO_QUARK) {
             // No process statedump has advertised this file table address, we
             // wouldn't know which process it's for, log an error and return
             Activator.getInstance().logWarning("Statedump file descriptor has an address field which has not been declared. Make sure to enable the lttng_statedump_process_state event, or maybe there are lost events?"); //$NON-NLS-1$
@@ -673,7 +705,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
     /**
      * @param tid
      */
-    private void statedumpProcessHandle(ITmfStateSystemBuilder ssb, ITmfEvent event, Integer tid) {
+    private void statedumpProcessHandle(ITmfStateSystemBuilder ssb, ITmfEvent event, int tid) {
         // As of LTTng 2.12, a field file_table_address has been added and the
         // fd statedump uses this field
         Long fileTblAddress = event.getContent().getFieldValue(Long.class, FIELD_STATEDUMP_FILE_TABLE);
@@ -682,8 +714,8 @@ public class IoStateProvider extends AbstractTmfStateProvider {
             // Older version of lttng or no tid, ignore
             return;
         }
-        Integer fdTblQuark = fFdTblAddresses.get(fileTblAddress);
-        if (fdTblQuark != null) {
+        int fdTblQuark = fFdTblAddresses.getOrDefault(fileTblAddress, NO_QUARK);
+        if (fdTblQuark != NO_QUARK) {
             // This file table already exists from another process, just add the link to the current statedumped thread
             String fdTblId = ssb.getAttributeName(fdTblQuark);
             try {
@@ -720,7 +752,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
 
     }
 
-    private void closeFile(ITmfStateSystemBuilder ssb, long time, Integer tid, Long fd) {
+    private void closeFile(ITmfStateSystemBuilder ssb, long time, int tid, long fd) {
         int fdTblQuark = getFdTblQuarkFor(ssb, time, tid);
         String filename = getFilename(ssb, fd, fdTblQuark);
         int fdQuark = ssb.getQuarkRelativeAndAdd(fdTblQuark, String.valueOf(fd));
@@ -735,7 +767,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         }
     }
 
-    private void openFile(ITmfStateSystemBuilder ssb, long time, Integer tid, Long fd, @Nullable String filename) {
+    private void openFile(ITmfStateSystemBuilder ssb, long time, int tid, long fd, @Nullable String filename) {
         int fdTblQuark = getFdTblQuarkFor(ssb, time, tid);
         int fdQuark = ssb.getQuarkRelativeAndAdd(fdTblQuark, String.valueOf(fd));
         if (time < 0) {
@@ -754,7 +786,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         }
     }
 
-    private int getFdTblQuarkFor(ITmfStateSystemBuilder ssb, long time, Integer tid) {
+    private int getFdTblQuarkFor(ITmfStateSystemBuilder ssb, long time, int tid) {
         // The fdtbl quark under the tid contains the quark of the actual file descriptor table
         int tidFdQuark = ssb.getQuarkAbsoluteAndAdd(ATTRIBUTE_TID, String.valueOf(tid), ATTRIBUTE_FDTBL);
         Object fdTblQuarkObj = ssb.queryOngoing(tidFdQuark);
@@ -768,15 +800,15 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         return fdTblQuark;
     }
 
-    private void startReadingFd(ITmfStateSystemBuilder ssb, long time, Integer tid, Long fd, Long count) {
+    private void startReadingFd(ITmfStateSystemBuilder ssb, long time, int tid, long fd, long count) {
         startRwFd(ssb, time, tid, fd, count, ATTRIBUTE_READ, fToRead);
     }
 
-    private void startWritingFd(ITmfStateSystemBuilder ssb, long time, Integer tid, Long fd, Long count) {
+    private void startWritingFd(ITmfStateSystemBuilder ssb, long time, int tid, long fd, long count) {
         startRwFd(ssb, time, tid, fd, count, ATTRIBUTE_WRITE, fToWrite);
     }
 
-    private void writeToFd(ITmfStateSystemBuilder ssb, long time, Integer tid, long count) {
+    private void writeToFd(ITmfStateSystemBuilder ssb, long time, int tid, long count) {
         FdRequestWithPools fd = fToWrite.remove(tid);
         // No write was done
         if (fd == null) {
@@ -785,7 +817,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         rwFromFd(ssb, time, tid, fd, count, ATTRIBUTE_WRITE);
     }
 
-    private void readFromFd(ITmfStateSystemBuilder ssb, long time, Integer tid, long count) {
+    private void readFromFd(ITmfStateSystemBuilder ssb, long time, int tid, long count) {
         FdRequestWithPools fd = fToRead.remove(tid);
         // No read was done
         if (fd == null) {
@@ -794,8 +826,8 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         rwFromFd(ssb, time, tid, fd, count, ATTRIBUTE_READ);
     }
 
-    private void rwFromFd(ITmfStateSystemBuilder ssb, long time, Integer tid, FdRequestWithPools fd, Long count, String attribute) {
-        Long validFd = isValidFileDescriptor(ssb, time, tid, fd.fFd);
+    private void rwFromFd(ITmfStateSystemBuilder ssb, long time, int tid, FdRequestWithPools fd, long count, String attribute) {
+        boolean validFd = isValidFileDescriptor(ssb, time, tid, fd.fFd);
 
         // Complete the attribute for the fd pool and recycle it
         ssb.updateOngoingState(count > 0 ? count : (Object) null, fd.fFdPoolQuark);
@@ -828,7 +860,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         }
         ssb.removeAttribute(time, currentFdQuark);
 
-        if (validFd == null) {
+        if (!validFd) {
             // The file is not opened in the state system, open it for this
             // thread
             openFile(ssb, time, tid, fd.fFd, null);
@@ -843,13 +875,13 @@ public class IoStateProvider extends AbstractTmfStateProvider {
         }
     }
 
-    private void startRwFd(ITmfStateSystemBuilder ssb, long time, Integer tid, Long fd, Long count, String attribute, Map<Integer, @Nullable FdRequestWithPools> tidMap) {
+    private void startRwFd(ITmfStateSystemBuilder ssb, long time, int tid, long fd, long count, String attribute, LongObjectHashMap<FdRequestWithPools> tidMap) {
         try {
             // Many threads can share the same fd table, so there can be multiple io requests on the same fd
             // Add the io request under the proper fd attribute
             int fdTblQuark = getFdTblQuarkFor(ssb, time, tid);
             int fdQuark = ssb.getQuarkRelativeAndAdd(fdTblQuark, String.valueOf(fd), attribute);
-            TmfAttributePool fdPool = fPools.computeIfAbsent(fdQuark, q -> new TmfAttributePool(ssb, q));
+            TmfAttributePool fdPool = fPools.computeIfAbsent(fdQuark, q -> new TmfAttributePool(ssb, (int) q));
             int availableFdQuark = fdPool.getAvailable();
             ssb.modifyAttribute(time, count, availableFdQuark);
 
@@ -875,7 +907,7 @@ public class IoStateProvider extends AbstractTmfStateProvider {
     }
 
     private @Nullable
-    static String getFilename(ITmfStateSystemBuilder ssb, long fd, Integer fdTblQuark) {
+    static String getFilename(ITmfStateSystemBuilder ssb, long fd, int fdTblQuark) {
         int fileQuark = ssb.getQuarkRelativeAndAdd(fdTblQuark, String.valueOf(fd));
         Object currentFileName = ssb.queryOngoing(fileQuark);
         if (!(currentFileName instanceof String)) {
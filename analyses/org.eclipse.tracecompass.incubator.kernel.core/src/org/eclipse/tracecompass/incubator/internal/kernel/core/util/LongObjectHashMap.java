@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.kernel.core.util;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Open addressing hash map with primitive <code>long</code> keys, such as
+ * thread IDs, quarks or kernel addresses, so that lookups on every event do not
+ * box the key. <code>int</code> keys are simply widened. It uses linear probing
+ * and backward shift deletion, so there are no tombstones to slow down lookups
+ * after many put/remove cycles, as with the pending requests of threads.
+ *
+ * Values cannot be <code>null</code>. This class is not thread safe.
+ *
+ * @param <V>
+ *            The type of values
+ */
+public final class LongObjectHashMap<V> {
+
+    private static final long FREE_KEY = 0;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] fKeys;
+    private @Nullable Object[] fValues;
+    private int fMask;
+    private int fSize;
+    private int fThreshold;
+
+    /* The free key itself is stored outside the table */
+    private boolean fHasFreeKey = false;
+    private @Nullable V fFreeKeyValue = null;
+
+    /**
+     * Constructor
+     */
+    public LongObjectHashMap() {
+        fKeys = new long[DEFAULT_CAPACITY];
+        fValues = new Object[DEFAULT_CAPACITY];
+        fMask = DEFAULT_CAPACITY - 1;
+        fThreshold = DEFAULT_CAPACITY / 2;
+    }
+
+    /**
+     * Get the value for a key
+     *
+     * @param key
+     *            The key
+     * @return The value, or <code>null</code> if there is no value for this key
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(long key) {
+        if (key == FREE_KEY) {
+            return fFreeKeyValue;
+        }
+        int slot = findSlot(key);
+        return fKeys[slot] == key ? (V) fValues[slot] : null;
+    }
+
+    /**
+     * Get the value for a key, or a default value if there is none
+     *
+     * @param key
+     *            The key
+     * @param defaultValue
+     *            The value to return if there is no value for this key
+     * @return The value, or the default value
+     */
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Put a value for a key
+     *
+     * @param key
+     *            The key
+     * @param value
+     *            The value
+     * @return The previous value for this key, or <code>null</code> if there
+     *         was none
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V put(long key, V value) {
+        if (key == FREE_KEY) {
+            V previous = fFreeKeyValue;
+            fHasFreeKey = true;
+            fFreeKeyValue = value;
+            return previous;
+        }
+        int slot = findSlot(key);
+        if (fKeys[slot] == key) {
+            V previous = (V) fValues[slot];
+            fValues[slot] = value;
+            return previous;
+        }
+        fKeys[slot] = key;
+        fValues[slot] = value;
+        if (++fSize > fThreshold) {
+            rehash(fKeys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Get the value for a key, computing and adding it if there is none
+     *
+     * @param key
+     *            The key
+     * @param function
+     *            The function to compute the value from the key
+     * @return The current or computed value
+     */
+    public V computeIfAbsent(long key, LongFunction<V> function) {
+        V value = get(key);
+        if (value == null) {
+            value = function.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Remove the value for a key
+     *
+     * @param key
+     *            The key
+     * @return The removed value, or <code>null</code> if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V remove(long key) {
+        if (key == FREE_KEY) {
+            V previous = fFreeKeyValue;
+            fHasFreeKey = false;
+            fFreeKeyValue = null;
+            return previous;
+        }
+        int slot = findSlot(key);
+        if (fKeys[slot] != key) {
+            return null;
+        }
+        V previous = (V) fValues[slot];
+        shiftKeys(slot);
+        fSize--;
+        return previous;
+    }
+
+    /**
+     * @return The number of entries in this map
+     */
+    public int size() {
+        return fHasFreeKey ? fSize + 1 : fSize;
+    }
+
+    /**
+     * @return Whether this map is empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Remove all entries from this map
+     */
+    public void clear() {
+        Arrays.fill(fKeys, FREE_KEY);
+        Arrays.fill(fValues, null);
+        fSize = 0;
+        fHasFreeKey = false;
+        fFreeKeyValue = null;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Get the slot of a key, or the free slot where it would be inserted
+     */
+    private int findSlot(long key) {
+        int slot = hash(key) & fMask;
+        long current = fKeys[slot];
+        while (current != key && current != FREE_KEY) {
+            slot = (slot + 1) & fMask;
+            current = fKeys[slot];
+        }
+        return slot;
+    }
+
+    /**
+     * Free a slot and move back the following entries of the same cluster
+     * that could have been placed there
+     */
+    private void shiftKeys(int removedSlot) {
+        int gap = removedSlot;
+        int slot = (gap + 1) & fMask;
+        long key = fKeys[slot];
+        while (key != FREE_KEY) {
+            int ideal = hash(key) & fMask;
+            if (((slot - ideal) & fMask) >= ((slot - gap) & fMask)) {
+                fKeys[gap] = key;
+                fValues[gap] = fValues[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & fMask;
+            key = fKeys[slot];
+        }
+        fKeys[gap] = FREE_KEY;
+        fValues[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = fKeys;
+        @Nullable Object[] oldValues = fValues;
+        fKeys = new long[capacity];
+        fValues = new Object[capacity];
+        fMask = capacity - 1;
+        fThreshold = capacity / 2;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != FREE_KEY) {
+                int slot = findSlot(key);
+                fKeys[slot] = key;
+                fValues[slot] = oldValues[i];
+            }
+        }
+    }
+}
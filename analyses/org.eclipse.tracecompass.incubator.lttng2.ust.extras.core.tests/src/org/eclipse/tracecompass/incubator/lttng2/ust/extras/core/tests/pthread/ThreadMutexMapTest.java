@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.lttng2.ust.extras.core.tests.pthread;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.tracecompass.incubator.internal.lttng2.ust.extras.core.pthread.ThreadMutexMap;
+import org.junit.Test;
+
+/**
+ * Test the {@link ThreadMutexMap} used by the pthread lock graph handler
+ */
+public class ThreadMutexMapTest {
+
+    private static final int NB_THREADS = 100;
+    private static final int NB_MUTEXES = 50;
+
+    /**
+     * Test putting and getting values, enough to grow the table
+     */
+    @Test
+    public void testPutGet() {
+        ThreadMutexMap<String> map = new ThreadMutexMap<>();
+        assertNull(map.get(0, 0L));
+        for (int tid = 0; tid < NB_THREADS; tid++) {
+            for (int mutex = 0; mutex < NB_MUTEXES; mutex++) {
+                map.put(tid, 0x7fff0000L + mutex * 64L, tid + "/" + mutex);
+            }
+        }
+        assertEquals(NB_THREADS * NB_MUTEXES, map.size());
+        for (int tid = 0; tid < NB_THREADS; tid++) {
+            for (int mutex = 0; mutex < NB_MUTEXES; mutex++) {
+                assertEquals(tid + "/" + mutex, map.get(tid, 0x7fff0000L + mutex * 64L));
+            }
+        }
+        assertNull(map.get(NB_THREADS, 0x7fff0000L));
+        assertNull(map.get(0, 0x7fff0001L));
+
+        // Replace a value
+        map.put(3, 0x7fff0000L, "new");
+        assertEquals("new", map.get(3, 0x7fff0000L));
+        assertEquals(NB_THREADS * NB_MUTEXES, map.size());
+    }
+}
@@ -32,9 +32,6 @@ import org.eclipse.tracecompass.internal.analysis.graph.core.graph.legacy.OSEdge
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
-
 /**
  * An execution graph handler handling the userspace pthread spin lock events
  * and adding the proper links in the graph.
@@ -48,8 +45,16 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
     private static final Pattern REQUEST_LOCK_EVENT = Pattern.compile("lttng_ust_pthread:pthread_.*_lock_req"); //$NON-NLS-1$
     private static final String MUTEX_FIELD = "mutex"; //$NON-NLS-1$
 
+    /** The type of pthread lock event, from the event name */
+    private enum LockEventType {
+        UNLOCK,
+        REQUEST_LOCK,
+        ACQUIRE_LOCK,
+        OTHER
+    }
+
     private static class LastLockOwner {
-        public final Integer fTid;
+        public final int fTid;
         public final ITmfVertex fVertex;
 
         /**
@@ -58,7 +63,7 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
          * @param vertex
          *            The vertex at which the lock was removed by the worker
          */
-        public LastLockOwner(Integer tid, ITmfVertex vertex) {
+        public LastLockOwner(int tid, ITmfVertex vertex) {
             fTid = tid;
             fVertex = vertex;
         }
@@ -66,9 +71,14 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
 
     private final OsExecutionGraphProvider fProvider;
     /** tid, mutex ID, vertex of the last lock request */
-    private final Table<Integer, Long, ITmfVertex> fLastRequest;
+    private final ThreadMutexMap<ITmfVertex> fLastRequest = new ThreadMutexMap<>();
     /** mutex ID, last lock owner */
     private final Map<Long, LastLockOwner> fLastLockOwner = new HashMap<>();
+    /**
+     * The type of each event name, so the names of the events are matched
+     * once, and not for every kernel event of the execution graph
+     */
+    private final Map<String, LockEventType> fEventTypes = new HashMap<>();
 
     /**
      * Constructor
@@ -81,7 +91,6 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
     public PThreadLockGraphHandler(OsExecutionGraphProvider provider, int priority) {
         super(priority);
         fProvider = provider;
-        fLastRequest = HashBasedTable.create();
     }
 
     /**
@@ -110,14 +119,33 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
 
     @Override
     public void handleEvent(ITmfEvent event) {
-        String name = event.getName();
-        if (UNLOCK_EVENT.matcher(name).matches()) {
+        switch (fEventTypes.computeIfAbsent(event.getName(), PThreadLockGraphHandler::getEventType)) {
+        case UNLOCK:
             handleUnlockEvent(event);
-        } else if (REQUEST_LOCK_EVENT.matcher(name).matches()) {
+            break;
+        case REQUEST_LOCK:
             handleRequestLockEvent(event);
-        } else if (ACQUIRE_LOCK_EVENT.matcher(name).matches()) {
+            break;
+        case ACQUIRE_LOCK:
             handleAcquireLockEvent(event);
+            break;
+        case OTHER:
+        default:
+            break;
+        }
+    }
+
+    private static LockEventType getEventType(String name) {
+        if (UNLOCK_EVENT.matcher(name).matches()) {
+            return LockEventType.UNLOCK;
+        }
+        if (REQUEST_LOCK_EVENT.matcher(name).matches()) {
+            return LockEventType.REQUEST_LOCK;
+        }
+        if (ACQUIRE_LOCK_EVENT.matcher(name).matches()) {
+            return LockEventType.ACQUIRE_LOCK;
         }
+        return LockEventType.OTHER;
     }
 
     private void handleAcquireLockEvent(ITmfEvent event) {
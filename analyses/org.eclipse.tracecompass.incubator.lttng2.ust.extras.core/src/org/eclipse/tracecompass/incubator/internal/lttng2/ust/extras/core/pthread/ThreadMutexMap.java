@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.lttng2.ust.extras.core.pthread;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Open addressing hash map with a primitive (thread ID, mutex address) key, so
+ * that looking up the last lock request of a thread does not box the key
+ * parts. Entries are never removed, a thread's request for a mutex is replaced
+ * by its next one.
+ *
+ * Values cannot be <code>null</code>. This class is not thread safe.
+ *
+ * @param <V>
+ *            The type of values
+ */
+public class ThreadMutexMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] fTids;
+    private long[] fMutexes;
+    /* A null value marks a free slot */
+    private @Nullable Object[] fValues;
+    private int fMask;
+    private int fSize;
+
+    /**
+     * Constructor
+     */
+    public ThreadMutexMap() {
+        fTids = new int[DEFAULT_CAPACITY];
+        fMutexes = new long[DEFAULT_CAPACITY];
+        fValues = new Object[DEFAULT_CAPACITY];
+        fMask = DEFAULT_CAPACITY - 1;
+    }
+
+    /**
+     * Get the value for a thread and mutex
+     *
+     * @param tid
+     *            The thread ID
+     * @param mutex
+     *            The mutex address
+     * @return The value, or <code>null</code> if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(int tid, long mutex) {
+        return (V) fValues[findSlot(tid, mutex)];
+    }
+
+    /**
+     * Put the value for a thread and mutex
+     *
+     * @param tid
+     *            The thread ID
+     * @param mutex
+     *            The mutex address
+     * @param value
+     *            The value
+     */
+    public void put(int tid, long mutex, V value) {
+        int slot = findSlot(tid, mutex);
+        if (fValues[slot] == null) {
+            fTids[slot] = tid;
+            fMutexes[slot] = mutex;
+            if (++fSize > fValues.length / 2) {
+                fValues[slot] = value;
+                rehash(fValues.length * 2);
+                return;
+            }
+        }
+        fValues[slot] = value;
+    }
+
+    /**
+     * @return The number of entries in this map
+     */
+    public int size() {
+        return fSize;
+    }
+
+    private static int hash(int tid, long mutex) {
+        long h = mutex * 0x9E3779B97F4A7C15L + tid * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Get the slot of a key, or the free slot where it would be inserted
+     */
+    private int findSlot(int tid, long mutex) {
+        int slot = hash(tid, mutex) & fMask;
+        while (fValues[slot] != null && (fTids[slot] != tid || fMutexes[slot] != mutex)) {
+            slot = (slot + 1) & fMask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldTids = fTids;
+        long[] oldMutexes = fMutexes;
+        @Nullable Object[] oldValues = fValues;
+        fTids = new int[capacity];
+        fMutexes = new long[capacity];
+        fValues = new Object[capacity];
+        fMask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            Object value = oldValues[i];
+            if (value != null) {
+                int slot = findSlot(oldTids[i], oldMutexes[i]);
+                fTids[slot] = oldTids[i];
+                fMutexes[slot] = oldMutexes[i];
+                fValues[slot] = value;
+            }
+        }
+    }
+}
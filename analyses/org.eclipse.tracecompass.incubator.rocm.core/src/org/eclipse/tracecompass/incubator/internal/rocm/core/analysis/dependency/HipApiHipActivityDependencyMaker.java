@@ -11,15 +11,14 @@
 
 package org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.dependency;
 
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.os.linux.core.model.HostThread;
 import org.eclipse.tracecompass.incubator.internal.rocm.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.handlers.old.AbstractGpuEventHandler;
@@ -29,7 +28,8 @@ import org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.handlers.o
 import org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.old.RocmStrings;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
-import org.eclipse.tracecompass.tmf.core.util.Pair;
+
+import com.google.common.collect.Maps;
 
 /**
  * As the dependencies relies on specific information depending on the types of
@@ -38,37 +38,157 @@ import org.eclipse.tracecompass.tmf.core.util.Pair;
  * In this case this dependency maker works in the case where both the HIP API
  * events and the HIP activity events are available.
  *
+ * The arguments of the API events dispatching GPU activities are decoded once,
+ * when the API event is received, and the host threads of the dependencies are
+ * cached, so that the kernel launches and memory copies do not need to read
+ * the events again.
+ *
  * @author Arnaud Fiorini
  */
 public class HipApiHipActivityDependencyMaker extends AbstractDependencyMaker {
 
-    private final Map<Long, ITmfEvent> fApiEventCorrelationMap = new HashMap<>();
-    private List<ITmfEvent> fWaitEventPerThread = new LinkedList<>();
-    private final Queue<Pair<ITmfEvent, ITmfEvent>> fInFlightEvents = new PriorityQueue<>(new EventComparator());
+    private static final int MEMORY_THREAD_ID = new HostThreadIdentifier().hashCode();
+
+    private final Map<Long, ApiCall> fApiCalls = new HashMap<>();
+    private final Map<Long, ITmfEvent> fApiEventCorrelationMap = Maps.transformValues(fApiCalls, apiCall -> apiCall.fEvent);
+    private List<WaitCall> fWaitEventPerThread = new LinkedList<>();
+    private final InFlightActivities fInFlightEvents = new InFlightActivities();
+    /* Host threads per host ID and thread ID */
+    private final Map<String, Map<Integer, HostThread>> fHostThreads = new HashMap<>();
+
+    /**
+     * An API event dispatching a GPU activity, with the arguments used by the
+     * dependencies
+     */
+    private static final class ApiCall {
+        private final ITmfEvent fEvent;
+        private final long fStreamArg;
+        private final long fEndTime;
+        private final @Nullable HostThread fHostThread;
+
+        public ApiCall(ITmfEvent event, long streamArg, @Nullable HostThread hostThread) {
+            fEvent = event;
+            fStreamArg = streamArg;
+            fEndTime = AbstractGpuEventHandler.getEndTime(event);
+            fHostThread = hostThread;
+        }
+    }
 
     /**
-     * This event comparator will sort pairs on API events and their
-     * corresponding activity event. This is useful to derive forward
-     * dependencies in the correct order.
-     *
-     * @author Arnaud Fiorini
+     * A GPU activity that has not ended yet, with the API call that
+     * dispatched it
      */
-    public static class EventComparator implements Comparator<Pair<ITmfEvent, ITmfEvent>> {
-        @Override
-        public int compare(Pair<ITmfEvent, ITmfEvent> pair1, Pair<ITmfEvent, ITmfEvent> pair2) {
-            Long endTime1 = AbstractGpuEventHandler.getEndTime(pair1.getSecond());
-            Long endTime2 = AbstractGpuEventHandler.getEndTime(pair2.getSecond());
-            if (endTime1 == null || endTime2 == null) {
-                return -1;
+    private static final class InFlightActivity {
+        private final ApiCall fApiCall;
+        private final ITmfEvent fEvent;
+        private final long fEndTime;
+        private final @Nullable Integer fDeviceId;
+        private final @Nullable Integer fQueueId;
+        private final @Nullable Long fCorrelationId;
+
+        public InFlightActivity(ApiCall apiCall, ITmfEvent event) {
+            fApiCall = apiCall;
+            fEvent = event;
+            fEndTime = AbstractGpuEventHandler.getEndTime(event);
+            fDeviceId = event.getContent().getFieldValue(Integer.class, RocmStrings.DEVICE_ID);
+            fQueueId = event.getContent().getFieldValue(Integer.class, RocmStrings.QUEUE_ID);
+            fCorrelationId = event.getContent().getFieldValue(Long.class, RocmStrings.CORRELATION_ID);
+        }
+    }
+
+    /**
+     * A wait API event, waiting for the GPU activities to end
+     */
+    private static final class WaitCall {
+        private final long fBeginTime;
+        private final long fEndTime;
+        private final HostThread fHostThread;
+
+        public WaitCall(ITmfEvent event, HostThread hostThread) {
+            fBeginTime = event.getTimestamp().getValue();
+            fEndTime = AbstractGpuEventHandler.getEndTime(event);
+            fHostThread = hostThread;
+        }
+    }
+
+    /**
+     * Binary min-heap of the in flight activities, ordered by their end time.
+     * The end times are kept in a primitive array so that the heap does not
+     * read them from the events.
+     */
+    private static final class InFlightActivities {
+        private long[] fEndTimes = new long[16];
+        private InFlightActivity[] fActivities = new InFlightActivity[16];
+        private int fSize = 0;
+
+        public void add(InFlightActivity activity) {
+            if (fSize == fEndTimes.length) {
+                fEndTimes = Arrays.copyOf(fEndTimes, fSize * 2);
+                fActivities = Arrays.copyOf(fActivities, fSize * 2);
+            }
+            int index = fSize++;
+            long endTime = activity.fEndTime;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (fEndTimes[parent] <= endTime) {
+                    break;
+                }
+                fEndTimes[index] = fEndTimes[parent];
+                fActivities[index] = fActivities[parent];
+                index = parent;
+            }
+            fEndTimes[index] = endTime;
+            fActivities[index] = activity;
+        }
+
+        /**
+         * Remove the activities that end at or before a time
+         */
+        public void removeUntil(long time) {
+            while (fSize > 0 && fEndTimes[0] <= time) {
+                removeFirst();
             }
-            return (int) (endTime1 - endTime2);
+        }
+
+        private void removeFirst() {
+            int last = --fSize;
+            long endTime = fEndTimes[last];
+            InFlightActivity activity = fActivities[last];
+            fActivities[last] = null;
+            if (last == 0) {
+                return;
+            }
+            int index = 0;
+            int half = last >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                if (child + 1 < last && fEndTimes[child + 1] < fEndTimes[child]) {
+                    child++;
+                }
+                if (endTime <= fEndTimes[child]) {
+                    break;
+                }
+                fEndTimes[index] = fEndTimes[child];
+                fActivities[index] = fActivities[child];
+                index = child;
+            }
+            fEndTimes[index] = endTime;
+            fActivities[index] = activity;
+        }
+
+        public int size() {
+            return fSize;
+        }
+
+        public InFlightActivity get(int index) {
+            return fActivities[index];
         }
     }
 
     @Override
     public void processEvent(ITmfEvent event, ITmfStateSystemBuilder ssb) {
         // Remove events that ended before this event
-        removeInFlightEvents(event);
+        fInFlightEvents.removeUntil(event.getTimestamp().getValue());
         // The eventName is the API function name where the event type name is
         // the API name (HIP/HSA)
         String eventName;
@@ -77,15 +197,18 @@ public class HipApiHipActivityDependencyMaker extends AbstractDependencyMaker {
             eventName = ApiEventHandler.getFunctionApiName(event);
             // GPU Kernel dispatch
             if (eventName.equals(RocmStrings.KERNEL_LAUNCH)) {
-                addGpuActivityDispatch(event, 7);
+                long correlationId = Long.parseLong(ApiEventHandler.getArg(event.getContent(), 7));
+                long hipStreamId = Long.parseLong(ApiEventHandler.getArg(event.getContent(), 4));
+                addGpuActivityDispatch(event, correlationId, hipStreamId);
             }
             // Memory Copy dispatch
             else if (eventName.equals("hipMemcpy")) { //$NON-NLS-1$
-                addGpuActivityDispatch(event, 4);
+                long correlationId = Long.parseLong(ApiEventHandler.getArg(event.getContent(), 4));
+                addGpuActivityDispatch(event, correlationId, correlationId);
             }
             // Wait Api Events
             else if (eventName.equals(RocmStrings.HIP_DEVICE_SYNCHRONIZE)) {
-                addWaitDependencies(event, ssb);
+                addWaitEvent(event, ssb);
             }
             break;
         case RocmStrings.HIP_ACTIVITY:
@@ -96,15 +219,29 @@ public class HipApiHipActivityDependencyMaker extends AbstractDependencyMaker {
                 addMemoryDependency(event, ssb);
             }
             Long correlationId = event.getContent().getFieldValue(Long.class, RocmStrings.CORRELATION_ID);
-            fApiEventCorrelationMap.remove(correlationId);
+            fApiCalls.remove(correlationId);
             break;
         default:
         }
     }
 
-    private void addGpuActivityDispatch(ITmfEvent event, int argPosition) {
-        Long correlationId = Long.parseLong(ApiEventHandler.getArg(event.getContent(), argPosition));
-        fApiEventCorrelationMap.put(correlationId, event);
+    private HostThread getHostThread(ITmfEvent event, int threadId) {
+        Map<Integer, HostThread> hostThreads = fHostThreads.computeIfAbsent(event.getTrace().getHostId(), hostId -> new HashMap<>());
+        return hostThreads.computeIfAbsent(threadId, id -> new HostThread(event.getTrace().getHostId(), id));
+    }
+
+    private HostThread getApiHostThread(ITmfEvent event, int tid) {
+        return getHostThread(event, new HostThreadIdentifier(event, tid).hashCode());
+    }
+
+    private HostThread getGpuLaneHostThread(ITmfEvent event, int categoryId, KERNEL_CATEGORY category, int gpuId) {
+        return getHostThread(event, HostThreadIdentifier.getGpuLaneId(categoryId, category, gpuId));
+    }
+
+    private void addGpuActivityDispatch(ITmfEvent event, long correlationId, long hipStreamId) {
+        Integer tid = event.getContent().getFieldValue(Integer.class, RocmStrings.TID);
+        HostThread hostThread = (tid == null) ? null : getApiHostThread(event, tid);
+        fApiCalls.put(correlationId, new ApiCall(event, hipStreamId, hostThread));
     }
 
     private void addKernelDependency(ITmfEvent hipActivityEvent, ITmfStateSystemBuilder ssb) {
@@ -113,31 +250,24 @@ public class HipApiHipActivityDependencyMaker extends AbstractDependencyMaker {
         Long correlationId = hipActivityEvent.getContent().getFieldValue(Long.class, RocmStrings.CORRELATION_ID);
         Long gpuId = hipActivityEvent.getContent().getFieldValue(Long.class, RocmStrings.DEVICE_ID);
         if (correlationId != null && queueId != null && gpuId != null) {
-            ITmfEvent hipEvent = fApiEventCorrelationMap.get(correlationId);
-            if (hipEvent == null) {
+            ApiCall apiCall = fApiCalls.get(correlationId);
+            if (apiCall == null) {
                 return; // no correlation
             }
-            addInFlightEvent(hipEvent, hipActivityEvent, ssb);
-            Integer tid = hipEvent.getContent().getFieldValue(Integer.class, RocmStrings.TID);
-            if (tid == null) {
+            addInFlightEvent(apiCall, hipActivityEvent, ssb);
+            HostThread src = apiCall.fHostThread;
+            if (src == null) {
                 return;
             }
-            int hipStreamId = Integer.parseInt(ApiEventHandler.getArg(hipEvent.getContent(), 4));
-            HostThreadIdentifier srcHostThreadIdentifier = new HostThreadIdentifier(hipEvent, tid);
-            HostThreadIdentifier dstStreamHostThreadIdentifier = new HostThreadIdentifier(hipStreamId, KERNEL_CATEGORY.STREAM, gpuId.intValue());
-            HostThreadIdentifier dstQueueHostThreadIdentifier = new HostThreadIdentifier(queueId.intValue(), KERNEL_CATEGORY.QUEUE, gpuId.intValue());
             // HostThreads
-            HostThread src = new HostThread(hipEvent.getTrace().getHostId(), srcHostThreadIdentifier.hashCode());
-            HostThread destStream = new HostThread(hipEvent.getTrace().getHostId(), dstStreamHostThreadIdentifier.hashCode());
-            HostThread destQueue = new HostThread(hipEvent.getTrace().getHostId(), dstQueueHostThreadIdentifier.hashCode());
+            HostThread destStream = getGpuLaneHostThread(apiCall.fEvent, Math.toIntExact(apiCall.fStreamArg), KERNEL_CATEGORY.STREAM, gpuId.intValue());
+            HostThread destQueue = getGpuLaneHostThread(apiCall.fEvent, queueId.intValue(), KERNEL_CATEGORY.QUEUE, gpuId.intValue());
             // Arrows
-            Long hipStreamEventEndTimestamp = AbstractGpuEventHandler.getEndTime(hipEvent);
-            if (hipStreamEventEndTimestamp != null) {
-                addArrow(ssb, hipStreamEventEndTimestamp - 1, hipActivityEvent.getTimestamp().getValue(),
-                        Math.toIntExact(correlationId), src, destQueue);
-                addArrow(ssb, hipStreamEventEndTimestamp - 1, hipActivityEvent.getTimestamp().getValue(),
-                        Math.toIntExact(correlationId), src, destStream);
-            }
+            long hipStreamEventEndTimestamp = apiCall.fEndTime;
+            addArrow(ssb, hipStreamEventEndTimestamp - 1, hipActivityEvent.getTimestamp().getValue(),
+                    Math.toIntExact(correlationId), src, destQueue);
+            addArrow(ssb, hipStreamEventEndTimestamp - 1, hipActivityEvent.getTimestamp().getValue(),
+                    Math.toIntExact(correlationId), src, destStream);
         }
     }
 
@@ -146,37 +276,33 @@ public class HipApiHipActivityDependencyMaker extends AbstractDependencyMaker {
         if (correlationId == null) {
             return;
         }
-        ITmfEvent hipEvent = fApiEventCorrelationMap.get(correlationId);
-        if (hipEvent == null) {
+        ApiCall apiCall = fApiCalls.get(correlationId);
+        if (apiCall == null) {
             return; // no correlation
         }
-        addInFlightEvent(hipEvent, hipActivityEvent, ssb);
-        Integer tid = hipEvent.getContent().getFieldValue(Integer.class, RocmStrings.TID);
-        if (tid == null) {
+        addInFlightEvent(apiCall, hipActivityEvent, ssb);
+        HostThread src = apiCall.fHostThread;
+        if (src == null) {
             return;
         }
-        HostThreadIdentifier srcHostThreadIdentifier = new HostThreadIdentifier(hipEvent, tid);
-        HostThreadIdentifier dstHostThreadIdentifier = new HostThreadIdentifier();
-        // HostThreads
-        HostThread src = new HostThread(hipEvent.getTrace().getHostId(), srcHostThreadIdentifier.hashCode());
-        HostThread dst = new HostThread(hipEvent.getTrace().getHostId(), dstHostThreadIdentifier.hashCode());
+        HostThread dst = getHostThread(apiCall.fEvent, MEMORY_THREAD_ID);
         // Arrow
-        addArrow(ssb, hipEvent.getTimestamp().getValue(), hipActivityEvent.getTimestamp().getValue(),
+        addArrow(ssb, apiCall.fEvent.getTimestamp().getValue(), hipActivityEvent.getTimestamp().getValue(),
                 Math.toIntExact(correlationId), src, dst);
     }
 
-    private void addInFlightEvent(ITmfEvent hipApiEvent, ITmfEvent hipActivityEvent, ITmfStateSystemBuilder ssb) {
-        fInFlightEvents.add(new Pair<>(hipApiEvent, hipActivityEvent));
+    private void addInFlightEvent(ApiCall apiCall, ITmfEvent hipActivityEvent, ITmfStateSystemBuilder ssb) {
+        fInFlightEvents.add(new InFlightActivity(apiCall, hipActivityEvent));
 
-        Long beginTs = hipApiEvent.getTimestamp().getValue();
-        Long endTs = AbstractGpuEventHandler.getEndTime(hipApiEvent);
+        long beginTs = apiCall.fEvent.getTimestamp().getValue();
+        long endTs = apiCall.fEndTime;
         // Check all waiting events to see if we are already waiting for this
         // operation.
-        Iterator<ITmfEvent> waitEventIterator = fWaitEventPerThread.iterator();
+        Iterator<WaitCall> waitEventIterator = fWaitEventPerThread.iterator();
         while (waitEventIterator.hasNext()) {
-            ITmfEvent waitEvent = waitEventIterator.next();
-            Long dependencyBeginTs = waitEvent.getTimestamp().getValue();
-            Long dependencyEndTs = AbstractGpuEventHandler.getEndTime(waitEvent);
+            WaitCall waitEvent = waitEventIterator.next();
+            long dependencyBeginTs = waitEvent.fBeginTime;
+            long dependencyEndTs = waitEvent.fEndTime;
             if (beginTs > dependencyEndTs) {
                 // The wait event has finished without any other activity so
                 // there can be no wait dependency beyond this point.
@@ -197,64 +323,53 @@ public class HipApiHipActivityDependencyMaker extends AbstractDependencyMaker {
         }
     }
 
-    private void addWaitDependencies(ITmfEvent hipWaitEvent, ITmfStateSystemBuilder ssb) {
-        String apiFunctionName = ApiEventHandler.getFunctionApiName(hipWaitEvent);
-
+    private void addWaitEvent(ITmfEvent hipWaitEvent, ITmfStateSystemBuilder ssb) {
         Integer waitTid = hipWaitEvent.getContent().getFieldValue(Integer.class, RocmStrings.TID);
         if (waitTid == null) {
             return;
         }
         // Add the wait event for already queued operation that we cannot make
         // dependencies for yet.
-        if (!fWaitEventPerThread.contains(hipWaitEvent)) {
-            fWaitEventPerThread.add(hipWaitEvent);
-        }
-        if (apiFunctionName.equals(RocmStrings.HIP_DEVICE_SYNCHRONIZE)) {
-            // Make arrows for current activity
-            // TODO register deviceId per thread
-            int waitingForDevice = 0;
-            for (Pair<ITmfEvent, ITmfEvent> inFlightEventPair : fInFlightEvents) {
-                Integer deviceId = inFlightEventPair.getSecond().getContent().getFieldValue(Integer.class, RocmStrings.DEVICE_ID);
-                if (deviceId != null && deviceId == waitingForDevice) {
-                    int hipStreamId = Integer.parseInt(ApiEventHandler.getArg(inFlightEventPair.getFirst().getContent(), 4));
-                    addWaitArrow(ssb, inFlightEventPair.getSecond(), hipWaitEvent, waitTid, waitingForDevice, hipStreamId);
-                }
+        WaitCall waitCall = new WaitCall(hipWaitEvent, getApiHostThread(hipWaitEvent, waitTid));
+        fWaitEventPerThread.add(waitCall);
+        addWaitDependencies(waitCall, ssb);
+    }
+
+    private void addWaitDependencies(WaitCall waitCall, ITmfStateSystemBuilder ssb) {
+        // Only the device synchronization events are waiting, make arrows for
+        // current activity
+        // TODO register deviceId per thread
+        int waitingForDevice = 0;
+        for (int i = 0; i < fInFlightEvents.size(); i++) {
+            InFlightActivity inFlightActivity = fInFlightEvents.get(i);
+            Integer deviceId = inFlightActivity.fDeviceId;
+            if (deviceId != null && deviceId == waitingForDevice) {
+                int hipStreamId = Math.toIntExact(inFlightActivity.fApiCall.fStreamArg);
+                addWaitArrow(ssb, inFlightActivity, waitCall, waitingForDevice, hipStreamId);
             }
         }
     }
 
-    private static void addWaitArrow(ITmfStateSystemBuilder ssb, ITmfEvent deviceEvent, ITmfEvent waitEvent, int waitTid, int deviceId, int hipStreamId) {
-        Integer queueId = deviceEvent.getContent().getFieldValue(Integer.class, RocmStrings.QUEUE_ID);
+    private void addWaitArrow(ITmfStateSystemBuilder ssb, InFlightActivity deviceActivity, WaitCall waitCall, int deviceId, int hipStreamId) {
+        Integer queueId = deviceActivity.fQueueId;
         if (queueId == null) {
             return;
         }
-        HostThreadIdentifier srcHostThreadIdentifier = new HostThreadIdentifier(waitEvent, waitTid);
-        HostThreadIdentifier dstStreamHostThreadIdentifier = new HostThreadIdentifier(hipStreamId, KERNEL_CATEGORY.STREAM, deviceId);
-        HostThreadIdentifier dstQueueHostThreadIdentifier = new HostThreadIdentifier(queueId, KERNEL_CATEGORY.QUEUE, deviceId);
         // HostThreads
-        HostThread destThread = new HostThread(waitEvent.getTrace().getHostId(), srcHostThreadIdentifier.hashCode());
-        HostThread srcStream = new HostThread(deviceEvent.getTrace().getHostId(), dstStreamHostThreadIdentifier.hashCode());
-        HostThread srcQueue = new HostThread(deviceEvent.getTrace().getHostId(), dstQueueHostThreadIdentifier.hashCode());
+        HostThread destThread = waitCall.fHostThread;
+        HostThread srcStream = getGpuLaneHostThread(deviceActivity.fEvent, hipStreamId, KERNEL_CATEGORY.STREAM, deviceId);
+        HostThread srcQueue = getGpuLaneHostThread(deviceActivity.fEvent, queueId, KERNEL_CATEGORY.QUEUE, deviceId);
         // Arrows
-        Long hipStreamEventEndTimestamp = AbstractGpuEventHandler.getEndTime(waitEvent) - 1;
-        Long correlationId = deviceEvent.getContent().getFieldValue(Long.class, RocmStrings.CORRELATION_ID);
+        long hipStreamEventEndTimestamp = waitCall.fEndTime - 1;
+        Long correlationId = deviceActivity.fCorrelationId;
         if (correlationId != null) {
-            addArrow(ssb, AbstractGpuEventHandler.getEndTime(deviceEvent) - 1, hipStreamEventEndTimestamp,
+            addArrow(ssb, deviceActivity.fEndTime - 1, hipStreamEventEndTimestamp,
                     Math.toIntExact(correlationId), srcStream, destThread);
-            addArrow(ssb, AbstractGpuEventHandler.getEndTime(deviceEvent) - 1, hipStreamEventEndTimestamp,
+            addArrow(ssb, deviceActivity.fEndTime - 1, hipStreamEventEndTimestamp,
                     Math.toIntExact(correlationId), srcQueue, destThread);
         }
     }
 
-    private void removeInFlightEvents(ITmfEvent event) {
-        Long currentTime = event.getTimestamp().getValue();
-        Pair<ITmfEvent, ITmfEvent> inFlightEvent = fInFlightEvents.peek();
-        while (inFlightEvent != null && (currentTime >= AbstractGpuEventHandler.getEndTime(inFlightEvent.getSecond()))) {
-            fInFlightEvents.remove();
-            inFlightEvent = fInFlightEvents.peek();
-        }
-    }
-
     @Override
     public Map<Long, ITmfEvent> getApiEventCorrelationMap() {
         return fApiEventCorrelationMap;
@@ -57,6 +57,8 @@ public class HostThreadIdentifier {
         MEMORY
     }
 
+    private static final int NB_ROCM_CATEGORIES = ROCM_CATEGORY.values().length;
+
     private final int fApiId; // Api type, Queue id, Stream id
     private final int fThreadId; // Tid, Queue type, Stream type
     private final int fCategoryId; // System, Memory, GPU id
@@ -89,7 +91,7 @@ public class HostThreadIdentifier {
     public HostThreadIdentifier(int categoryId, KERNEL_CATEGORY category, int gpuId) {
         // There are other categories (system, memory), this will separate the
         // GPU categories.
-        this(categoryId, category.ordinal(), gpuId + ROCM_CATEGORY.values().length);
+        this(categoryId, category.ordinal(), gpuId + NB_ROCM_CATEGORIES);
     }
 
     /**
@@ -104,9 +106,32 @@ public class HostThreadIdentifier {
         this(((RocmTrace) event.getTrace()).getApiId(event.getName()), tid, ROCM_CATEGORY.SYSTEM.ordinal());
     }
 
+    /**
+     * Get the hash code of the identifier of a GPU lane, without creating the
+     * identifier. It is the thread ID of the lane's host thread.
+     *
+     * @param categoryId
+     *            stream id or queue id
+     * @param category
+     *            Either queues or streams
+     * @param gpuId
+     *            the id of the GPU
+     * @return The hash code of the identifier
+     */
+    public static int getGpuLaneId(int categoryId, KERNEL_CATEGORY category, int gpuId) {
+        return hash(categoryId, category.ordinal(), gpuId + NB_ROCM_CATEGORIES);
+    }
+
+    /**
+     * Same value as {@link Objects#hash(Object...)}, without the boxing
+     */
+    private static int hash(int apiId, int threadId, int categoryId) {
+        return 31 * (31 * (31 + apiId) + threadId) + categoryId;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(fApiId, fThreadId, fCategoryId);
+        return hash(fApiId, fThreadId, fCategoryId);
     }
 
     @Override
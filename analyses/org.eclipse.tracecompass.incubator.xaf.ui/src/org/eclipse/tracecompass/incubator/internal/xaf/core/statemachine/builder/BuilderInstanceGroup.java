@@ -578,7 +578,7 @@ public class BuilderInstanceGroup {
      * String[]{"A", "B", "D", "C"}))); //$NON-NLS-1$ //$NON-NLS-2$
      * //$NON-NLS-3$ //$NON-NLS-4$
      *
-     * StateMachineBenchmark bb = new StateMachineBenchmark("LCS");
+     * Measure bb = StateMachinePerformance.start(Phase.CONSTRAINT_INFERENCE, "LCS");
      * //$NON-NLS-1$ List<String> common = new
      * LongestCommonSubsequence<String>().lcs(objects); bb.stop(); for (int i =
      * 0; i < common.size(); i++) { System.out.println(i + ": " +
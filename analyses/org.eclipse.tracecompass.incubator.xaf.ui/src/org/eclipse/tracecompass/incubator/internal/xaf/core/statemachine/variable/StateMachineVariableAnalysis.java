@@ -28,7 +28,14 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.analysis.graph.core.base.IGraphWorker;
 import org.eclipse.tracecompass.analysis.graph.core.criticalpath.CriticalPathAlgorithmException;
@@ -63,9 +70,11 @@ import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variabl
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variable.utils.IsiSampleIterator;
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variable.utils.ResponsibilityMap;
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variable.utils.State;
-import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineBenchmark;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineInstance.InstanceStepInformation;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineInstanceGroup;
+import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachinePerformance;
+import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachinePerformance.Measure;
+import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachinePerformance.Phase;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineReport;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineSegment;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineUtils.TimestampInterval;
@@ -91,6 +100,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
@@ -108,11 +118,16 @@ public class StateMachineVariableAnalysis {
     private Multimap<Map<InterruptionReason, Integer>, InstanceStepInformation> invalidKeyToIsiMap;
     private Map<Map<InterruptionReason, Integer>, Collection<InstanceStepInformation>> keyMapToclosestValidIsiListMap;
     private ResponsibilityMap<InterruptionReason> analysisResponsibilityMap = null;
+    private final StateMachinePerformance performance;
 
     private int differentInvalidCases = -1;
     private int differentValidCases = -1;
 
     private static final int MAXIMUM_REORDERED_ISI = 10000;
+    /** The number of threads to analyze the instance steps */
+    private static final int NB_THREADS = Runtime.getRuntime().availableProcessors();
+    /** The number of chunks of instance steps per thread, to balance the load */
+    private static final int CHUNKS_PER_THREAD = 4;
 
     static final double REALISTIC_FACTOR = 0.1; // 10%
 
@@ -138,6 +153,7 @@ public class StateMachineVariableAnalysis {
         this.validIsiList = validIsiList;
         this.invalidKeyToIsiMap = null;
         this.keyMapToclosestValidIsiListMap = null;
+        this.performance = getPerformance(invalidIsiList, validIsiList);
     }
 
     /**
@@ -156,6 +172,21 @@ public class StateMachineVariableAnalysis {
         this.validIsiList = validIsiList;
         this.invalidKeyToIsiMap = invalidKeyToIsiMap;
         this.keyMapToclosestValidIsiListMap = closestValidKeyToIsiListMap;
+        this.performance = getPerformance(invalidIsiList, validIsiList);
+    }
+
+    /**
+     * Get the performance statistics of the analysis run the instance steps
+     * are part of
+     */
+    private static StateMachinePerformance getPerformance(List<InstanceStepInformation> invalidIsiList, List<InstanceStepInformation> validIsiList) {
+        if (invalidIsiList != null && !invalidIsiList.isEmpty()) {
+            return invalidIsiList.get(0).instance.getStateMachineInstanceGroup().getPerformance();
+        }
+        if (validIsiList != null && !validIsiList.isEmpty()) {
+            return validIsiList.get(0).instance.getStateMachineInstanceGroup().getPerformance();
+        }
+        return new StateMachinePerformance();
     }
 
     /**
@@ -192,6 +223,11 @@ public class StateMachineVariableAnalysis {
          */
         protected ResponsibilityMapGetter<InterruptionReason> responsibilityMapGetter = new DefaultResponsibilityMapGetter();
 
+        /* The contexts are per thread, as instances can be analyzed in parallel */
+        private final ThreadLocal<Map<ITmfTrace, ITmfContext>> contextPerTrace = ThreadLocal.withInitial(HashMap::new);
+        /* All the contexts still opened by the threads, to dispose them */
+        private final Set<ITmfContext> openedContexts = ConcurrentHashMap.newKeySet();
+
         /**
          * Method to get the ResponsibilityMap of InterruptionReason for a given InterruptionIntervalSetDiff
          * @param iisd The InterruptionIntervalSetDiff for which to get the ResponsibilityMap
@@ -210,6 +246,47 @@ public class StateMachineVariableAnalysis {
          * @throws StateMachineStateSystemTimeRangeException When the time requested is outside the state machine state system time range
          */
         public abstract List<InterruptionEventList> execute(InstanceStepInformation isi) throws StateMachineStateSystemNotFoundException, StateMachineTIDNotFoundException, StateMachineStateSystemTimeRangeException;
+
+        /**
+         * Get the context of the current thread for a trace, to continue
+         * reading the trace where the previous instance step stopped
+         * @param trace The trace
+         * @return The context of the current thread, or null if it has none
+         */
+        protected ITmfContext getContext(ITmfTrace trace) {
+            return contextPerTrace.get().get(trace);
+        }
+
+        /**
+         * Seek a new context of the current thread for a trace, the previous
+         * context of the thread for that trace is disposed
+         * @param trace The trace
+         * @param timestamp The timestamp to seek
+         * @return The new context
+         */
+        protected ITmfContext seekContext(ITmfTrace trace, ITmfTimestamp timestamp) {
+            ITmfContext ctx = trace.seekEvent(timestamp);
+            openedContexts.add(ctx);
+            ITmfContext previous = contextPerTrace.get().put(trace, ctx);
+            if (previous != null) {
+                openedContexts.remove(previous);
+                previous.dispose();
+            }
+            return ctx;
+        }
+
+        /**
+         * Dispose the contexts opened by the runner. It is called at the end
+         * of an analysis, once the threads analyzing the instances are
+         * terminated.
+         */
+        public void dispose() {
+            // The other threads are terminated, only the current one may still
+            // reference its contexts
+            contextPerTrace.remove();
+            openedContexts.forEach(ITmfContext::dispose);
+            openedContexts.clear();
+        }
     }
 
     /**
@@ -229,6 +306,16 @@ public class StateMachineVariableAnalysis {
          * @throws StateMachineUnexpectedEventException  When the event received is not of the type we expected (can happen when two events share the same timestamp)
          */
         public abstract InterruptionEventList execute(TimestampInterval ti, ITmfStateInterval si, ITmfEvent e) throws StateMachineStateSystemNotFoundException, StateMachineTIDNotFoundException, StateMachineStateSystemTimeRangeException, StateMachineUnexpectedEventException;
+
+        /**
+         * Get the getter to use for the events of one instance step. The
+         * instance steps are analyzed in parallel, so getters that keep some
+         * state from one event to the next should return a new getter.
+         * @return The getter for an instance step, this getter by default
+         */
+        public InterruptionEventGetter getInstanceStepGetter() {
+            return this;
+        }
     }
 
     /**
@@ -264,7 +351,6 @@ public class StateMachineVariableAnalysis {
         private StateMachineVariable variable = null;
         private String attribute = null;
         private InterruptionEventGetter interruptionEventGetter = null;
-        private Map<ITmfTrace, ITmfContext> contextPerTrace = new HashMap<>();
 
         /**
          * Constructor for the default interruption event runner
@@ -323,6 +409,11 @@ public class StateMachineVariableAnalysis {
              */
             List<InterruptionEventList> interruptionEventList = new ArrayList<>();
 
+            /* The events of this instance step do not depend on the previous
+             * instance steps analyzed
+             */
+            InterruptionEventGetter getter = interruptionEventGetter.getInstanceStepGetter();
+
             /// USING THE NEW STATE ATTRIBUTE
             boolean analysisDone = false;
             // For each analysis module...
@@ -343,15 +434,19 @@ public class StateMachineVariableAnalysis {
                 ITmfContext ctx = null;
 
                 // Get all the intervals for the period of time
-                StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("Analysis SS Get"); //$NON-NLS-1$
-                List<ITmfStateInterval> intervals = stateMachineBackendAnalysis.getAllStateIntervalInPeriod(tid, ti.getStartTime().getValue(), ti.getEndTime().getValue(), attribute);
-                benchmarkObject.stop();
+                List<ITmfStateInterval> intervals;
+                Measure benchmarkObject = group.getPerformance().start(Phase.VARIABLE_ANALYSIS, "Analysis SS Get"); //$NON-NLS-1$
+                try {
+                    intervals = stateMachineBackendAnalysis.getAllStateIntervalInPeriod(tid, ti.getStartTime().getValue(), ti.getEndTime().getValue(), attribute);
+                } finally {
+                    benchmarkObject.stop();
+                }
                 //System.out.println(intervals.size() + " intervals for attribute " + attribute);
 
                 //StateMachineReport.debug("NUMBER OF INTERVALS: " + intervals.size());
                 for (ITmfStateInterval si : intervals) {
                     if (e == null) {
-                        ctx = contextPerTrace.get(trace);
+                        ctx = getContext(trace);
                         if (ctx != null) {
                             // Get the next event in the trace
                             e = trace.getNext(ctx);
@@ -362,14 +457,12 @@ public class StateMachineVariableAnalysis {
                              * more) events share the same timestamp
                              */
                             if (e.getTimestamp().getValue() > si.getStartTime()) {
-                                ctx.dispose();
                                 ctx = null;
                             }
                         }
 
                         if (ctx == null) {
-                            ctx = trace.seekEvent(TmfTimestamp.create(si.getStartTime(), ITmfTimestamp.NANOSECOND_SCALE));
-                            contextPerTrace.put(trace, ctx);
+                            ctx = seekContext(trace, TmfTimestamp.create(si.getStartTime(), ITmfTimestamp.NANOSECOND_SCALE));
 
                             // Get the initial event of the interval
                             e = trace.getNext(ctx);
@@ -388,7 +481,7 @@ public class StateMachineVariableAnalysis {
                     InterruptionEventList events = null;
                     while (events == null && e.getTimestamp().getValue() == si.getStartTime()) {
                         try {
-                            events = interruptionEventGetter.execute(ti, si, e);
+                            events = getter.execute(ti, si, e);
                         } catch (StateMachineUnexpectedEventException ex) {
                             e = trace.getNext(ctx);
                         }
@@ -411,13 +504,215 @@ public class StateMachineVariableAnalysis {
         }
     }
 
+    /**
+     * The result of the analysis of an instance step: its interruption
+     * duration set and its distances to the valid cases, or the exception for
+     * which it was dropped
+     */
+    private static class IsiResult {
+        private final InstanceStepInformation isi;
+        private InterruptionDurationSet ids = null;
+        private List<InterruptionDurationSet> distances = null;
+        private Exception dropped = null;
+
+        public IsiResult(InstanceStepInformation isi) {
+            this.isi = isi;
+        }
+    }
+
+    /**
+     * Get the next instance steps to analyze from the sample iterator. When
+     * sampling, up to {@link #MAXIMUM_REORDERED_ISI} instance steps are
+     * ordered by time, so that the runners read the traces forward.
+     */
+    private static List<InstanceStepInformation> nextIsiBatch(IsiSampleIterator isiIterator, Comparator<InstanceStepInformation> isiComparator) {
+        if (isiIterator.useFullPopulation) {
+            List<InstanceStepInformation> isiList = new ArrayList<>(isiIterator.count());
+            while (isiIterator.hasNext()) {
+                isiList.add(isiIterator.next());
+            }
+            return isiList;
+        }
+        Set<InstanceStepInformation> isiSet = new TreeSet<>(isiComparator);
+        int limit = MAXIMUM_REORDERED_ISI;
+        while (isiIterator.hasNext() && --limit > 0) {
+            isiSet.add(isiIterator.next());
+        }
+        return new ArrayList<>(isiSet);
+    }
+
+    /**
+     * Create the thread pool of an analysis, whose threads are
+     * {@link AnalysisWorker}s
+     */
+    private static ExecutorService createPool() {
+        return Executors.newFixedThreadPool(NB_THREADS, AnalysisWorker::new);
+    }
+
+    /**
+     * Get whether the current thread is a worker of the pool of an analysis.
+     * The instance steps already keep all the workers busy, so the work done
+     * for an instance step on a worker should not be split in parallel tasks.
+     *
+     * @return Whether the current thread analyzes instance steps in parallel
+     */
+    public static boolean isAnalysisWorker() {
+        return Thread.currentThread() instanceof AnalysisWorker;
+    }
+
+    /**
+     * A thread of the pool of an analysis
+     */
+    private static final class AnalysisWorker extends Thread {
+        public AnalysisWorker(Runnable runnable) {
+            super(runnable, "State machine variable analysis worker"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Shut down the thread pool of an analysis and wait for its threads to
+     * terminate, so that no instance is still analyzed when the contexts of
+     * the runner are disposed. The tasks still running are interrupted and
+     * stop after their current instance step.
+     */
+    private static void shutdownPool(ExecutorService pool) {
+        pool.shutdownNow();
+        boolean interrupted = false;
+        while (!pool.isTerminated()) {
+            try {
+                pool.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Analyze instance steps in parallel. The steps are split in contiguous
+     * chunks, so each thread reads its part of the traces forward, with its
+     * own trace contexts. The results are returned in the order of the steps,
+     * to be merged by the caller thread.
+     *
+     * @param pool
+     *            The thread pool of the analysis
+     * @param runner
+     *            The runner to use to get the interruption event lists
+     * @param isiList
+     *            The instance steps to analyze
+     * @param validIisList
+     *            The interval sets of the valid cases to compute the distance
+     *            to, or <code>null</code> not to compute distances
+     * @return The results, in the order of the instance steps
+     * @throws OperationCanceledException
+     *             If the thread is interrupted while the steps are analyzed
+     */
+    private List<IsiResult> analyzeInstances(ExecutorService pool, InterruptionEventRunner runner, List<InstanceStepInformation> isiList, List<InterruptionIntervalSet> validIisList) {
+        IsiResult[] results = new IsiResult[isiList.size()];
+        int nbChunks = Math.min(isiList.size(), NB_THREADS * CHUNKS_PER_THREAD);
+        if (NB_THREADS == 1 || nbChunks <= 1) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = analyzeInstance(runner, isiList.get(i), validIisList);
+            }
+            countAnalyzedInstances(results);
+            return Arrays.asList(results);
+        }
+
+        List<Future<?>> futures = new ArrayList<>(nbChunks);
+        try {
+            for (int chunk = 0; chunk < nbChunks; chunk++) {
+                int from = (int) ((long) chunk * results.length / nbChunks);
+                int to = (int) ((long) (chunk + 1) * results.length / nbChunks);
+                futures.add(pool.submit(() -> {
+                    for (int i = from; i < to && !Thread.currentThread().isInterrupted(); i++) {
+                        results[i] = analyzeInstance(runner, isiList.get(i), validIisList);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            /*
+             * Do not return partial results, the tasks still running are
+             * stopped and awaited when the pool of the analysis is shut down
+             */
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+        countAnalyzedInstances(results);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Count the instance steps that were analyzed, the dropped ones are
+     * counted separately by the caller
+     */
+    private void countAnalyzedInstances(IsiResult[] results) {
+        int analyzed = 0;
+        for (IsiResult result : results) {
+            if (result.ids != null) {
+                analyzed++;
+            }
+        }
+        performance.count(Phase.VARIABLE_ANALYSIS, "Analyzed instances", analyzed); //$NON-NLS-1$
+    }
+
+    private static IsiResult analyzeInstance(InterruptionEventRunner runner, InstanceStepInformation isi, List<InterruptionIntervalSet> validIisList) {
+        IsiResult result = new IsiResult(isi);
+        List<InterruptionEventList> interruptionEventLists;
+        try {
+            interruptionEventLists = runner.execute(isi);
+        } catch (StateMachineStateSystemNotFoundException | StateMachineTIDNotFoundException | StateMachineStateSystemTimeRangeException e) {
+            result.dropped = e;
+            return result;
+        }
+
+        // Then, create an InterruptionDurationSet that will represent this case, we will put in it all
+        // the events and it will represents globally what happened in here
+        InterruptionDurationSet ids = new InterruptionDurationSet();
+        for (InterruptionEventList taskList : interruptionEventLists) {
+            for (InterruptionDuration id : taskList.split()) {
+                ids.add(id);
+            }
+        }
+        result.ids = ids;
+
+        if (validIisList != null) {
+            List<InterruptionDurationSet> distances = new ArrayList<>(validIisList.size());
+            for (InterruptionIntervalSet iis : validIisList) {
+                distances.add(iis.distance(ids));
+            }
+            result.distances = distances;
+        }
+        return result;
+    }
+
     /**
      * To perform a partial analysis using only invalid instances
      * @param runner The runner to use to get the interruption event list and the responsibility map
      * @throws StateMachineNoInvalidCaseException When no invalid case is found
+     * @throws OperationCanceledException When the thread is interrupted during the analysis
      */
     public void doPartialAnalysis(InterruptionEventRunner runner) throws StateMachineNoInvalidCaseException {
-        StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("Initial analysis (PARTIAL)"); //$NON-NLS-1$
+        ExecutorService pool = createPool();
+        Measure benchmarkObjectAnalysis = performance.start(Phase.VARIABLE_ANALYSIS, "Initial analysis (PARTIAL)"); //$NON-NLS-1$
+        try {
+            doPartialAnalysis(pool, runner);
+        } finally {
+            benchmarkObjectAnalysis.stop();
+            shutdownPool(pool);
+            runner.dispose();
+        }
+    }
+
+    private void doPartialAnalysis(ExecutorService pool, InterruptionEventRunner runner) throws StateMachineNoInvalidCaseException {
         // Local variables
         //List<InterruptionIntervalSet> invalidiisList = new ArrayList<>();
         Map<Map<InterruptionReason, Integer>, InterruptionIntervalSet> keyMapToiisMap = new HashMap<>();
@@ -440,7 +735,7 @@ public class StateMachineVariableAnalysis {
             }
         };
 
-        StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("Analysis get data"); //$NON-NLS-1$
+        Measure benchmarkObject = performance.start(Phase.VARIABLE_ANALYSIS, "Analysis get data"); //$NON-NLS-1$
         /////////////////////////////////////////////
         // COMPUTE SETS FOR INVALID INSTANCE STEPS //
         /////////////////////////////////////////////
@@ -452,38 +747,15 @@ public class StateMachineVariableAnalysis {
         StateMachineReport.debug("Invalid instances: " + invalidIsiList.size()); //$NON-NLS-1$
         StateMachineReport.debug("Treating ? " + invalidIsiIterator.size()); //$NON-NLS-1$
         while (invalidIsiIterator.hasNext()) {
-            Iterator<InstanceStepInformation> isiIterator;
-            if (invalidIsiIterator.useFullPopulation) {
-                isiIterator = invalidIsiIterator;
-            } else {
-                Set<InstanceStepInformation> isiSet = new TreeSet<>(isiComparator);
-                int limit = MAXIMUM_REORDERED_ISI;
-                while (invalidIsiIterator.hasNext() && --limit > 0) {
-                    isiSet.add(invalidIsiIterator.next());
-                }
-                isiIterator = isiSet.iterator();
-            }
-
-            while (isiIterator.hasNext()) {
-                InstanceStepInformation isi = isiIterator.next();
-                List<InterruptionEventList> interruptionEventLists;
-                try {
-                    interruptionEventLists = runner.execute(isi);
-                } catch (StateMachineStateSystemNotFoundException | StateMachineTIDNotFoundException | StateMachineStateSystemTimeRangeException e) {
-                    addDroppedInstance(e);
+            for (IsiResult result : analyzeInstances(pool, runner, nextIsiBatch(invalidIsiIterator, isiComparator), null)) {
+                InstanceStepInformation isi = result.isi;
+                InterruptionDurationSet ids = result.ids;
+                if (ids == null) {
+                    addDroppedInstance(result.dropped);
                     invalidIsiIterator.inc();
                     continue;
                 }
 
-                // Then, create an InterruptionDurationSet that will represent this case, we will put in it all
-                // the events and it will represents globally what happened in here
-                InterruptionDurationSet ids = new InterruptionDurationSet();
-                for (InterruptionEventList taskList : interruptionEventLists) {
-                    for (InterruptionDuration id : taskList.split()) {
-                        ids.add(id);
-                    }
-                }
-
                 Map<InterruptionReason, Integer> keyMap = ids.keyMap();
                 invalidKeyToIsiMap.put(keyMap, isi);
 
@@ -510,7 +782,7 @@ public class StateMachineVariableAnalysis {
         }
 
         benchmarkObject.stop();
-        benchmarkObject = new StateMachineBenchmark("Analysis weight data"); //$NON-NLS-1$
+        benchmarkObject = performance.start(Phase.VARIABLE_ANALYSIS, "Analysis weight data"); //$NON-NLS-1$
 
         InterruptionIntervalSetDiff iisd = new InterruptionIntervalSetDiff();
         for (InterruptionIntervalSet iis : keyMapToiisMap.values()) {
@@ -530,8 +802,6 @@ public class StateMachineVariableAnalysis {
         // Update counters
         differentValidCases = -1;
         differentInvalidCases = invalidKeyToIsiMap.keySet().size();
-
-        benchmarkObjectAnalysis.stop();
     }
 
     /**
@@ -539,9 +809,21 @@ public class StateMachineVariableAnalysis {
      * @param runner The runner to use to get the interruption event list and the responsibility map
      * @throws StateMachineNoValidCaseException When no valid case is found for the comparison
      * @throws StateMachineNoInvalidCaseException When no invalid case is found for the comparison
+     * @throws OperationCanceledException When the thread is interrupted during the analysis
      */
     public void doAnalysis(InterruptionEventRunner runner) throws StateMachineNoValidCaseException, StateMachineNoInvalidCaseException {
-        StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("Initial analysis (FULL)"); //$NON-NLS-1$
+        ExecutorService pool = createPool();
+        Measure benchmarkObjectAnalysis = performance.start(Phase.VARIABLE_ANALYSIS, "Initial analysis (FULL)"); //$NON-NLS-1$
+        try {
+            doAnalysis(pool, runner);
+        } finally {
+            benchmarkObjectAnalysis.stop();
+            shutdownPool(pool);
+            runner.dispose();
+        }
+    }
+
+    private void doAnalysis(ExecutorService pool, InterruptionEventRunner runner) throws StateMachineNoValidCaseException, StateMachineNoInvalidCaseException {
         // Local variables
         // List of the InterruptionIntervalSet
         Map<Map<InterruptionReason, Integer>, InterruptionIntervalSet> validiisMap = new HashMap<>();
@@ -568,7 +850,7 @@ public class StateMachineVariableAnalysis {
             }
         };
 
-        StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("Analysis get data"); //$NON-NLS-1$
+        Measure benchmarkObject = performance.start(Phase.VARIABLE_ANALYSIS, "Analysis get data"); //$NON-NLS-1$
         ///////////////////////////////////////////
         // COMPUTE SETS FOR VALID INSTANCE STEPS //
         ///////////////////////////////////////////
@@ -580,37 +862,15 @@ public class StateMachineVariableAnalysis {
         StateMachineReport.debug("Valid instances: " + validIsiList.size()); //$NON-NLS-1$
         StateMachineReport.debug("Treating ? " + validIsiIterator.size()); //$NON-NLS-1$
         while (validIsiIterator.hasNext()) {
-            Iterator<InstanceStepInformation> isiIterator;
-            if (validIsiIterator.useFullPopulation) {
-                isiIterator = validIsiIterator;
-            } else {
-                Set<InstanceStepInformation> isiSet = new TreeSet<>(isiComparator);
-                int limit = MAXIMUM_REORDERED_ISI;
-                while (validIsiIterator.hasNext() && --limit > 0) {
-                    isiSet.add(validIsiIterator.next());
-                }
-                isiIterator = isiSet.iterator();
-            }
-
-            while (isiIterator.hasNext()) {
-                InstanceStepInformation isi = isiIterator.next();
-                List<InterruptionEventList> interruptionEventLists;
-                try {
-                    interruptionEventLists = runner.execute(isi);
-                } catch (StateMachineStateSystemNotFoundException | StateMachineTIDNotFoundException | StateMachineStateSystemTimeRangeException e) {
-                    addDroppedInstance(e);
+            for (IsiResult result : analyzeInstances(pool, runner, nextIsiBatch(validIsiIterator, isiComparator), null)) {
+                InstanceStepInformation isi = result.isi;
+                InterruptionDurationSet ids = result.ids;
+                if (ids == null) {
+                    addDroppedInstance(result.dropped);
                     validIsiIterator.inc();
                     continue;
                 }
 
-                InterruptionDurationSet ids = new InterruptionDurationSet();
-                for (InterruptionEventList taskList : interruptionEventLists) {
-                    for (InterruptionDuration id : taskList.split()) {
-                        ids.add(id);
-                    }
-                }
-                //interruptionEventLists.clear();
-
                 Map<InterruptionReason, Integer> keyMap = ids.keyMap();
                 validKeyToIsiMap.put(keyMap, isi);
 
@@ -638,43 +898,22 @@ public class StateMachineVariableAnalysis {
 
         // For invalid instances
         IsiSampleIterator invalidIsiIterator = new IsiSampleIterator(invalidIsiList);
+        // The distances of the invalid instances to the valid cases are computed with them
+        List<InterruptionIntervalSet> validIisList = new ArrayList<>(validiisMap.values());
 
         i = 0;
         StateMachineReport.debug("Invalid instances: " + invalidIsiList.size()); //$NON-NLS-1$
         StateMachineReport.debug("Treating ? " + invalidIsiIterator.size()); //$NON-NLS-1$
         while (invalidIsiIterator.hasNext()) {
-            Iterator<InstanceStepInformation> isiIterator;
-            if (invalidIsiIterator.useFullPopulation) {
-                isiIterator = invalidIsiIterator;
-            } else {
-                Set<InstanceStepInformation> isiSet = new TreeSet<>(isiComparator);
-                int limit = MAXIMUM_REORDERED_ISI;
-                while (invalidIsiIterator.hasNext() && --limit > 0) {
-                    isiSet.add(invalidIsiIterator.next());
-                }
-                isiIterator = isiSet.iterator();
-            }
-
-            while (isiIterator.hasNext()) {
-                InstanceStepInformation isi = isiIterator.next();
-                List<InterruptionEventList> interruptionEventLists;
-                try {
-                    interruptionEventLists = runner.execute(isi);
-                } catch (StateMachineStateSystemNotFoundException | StateMachineTIDNotFoundException | StateMachineStateSystemTimeRangeException e) {
-                    addDroppedInstance(e);
+            for (IsiResult result : analyzeInstances(pool, runner, nextIsiBatch(invalidIsiIterator, isiComparator), validIisList)) {
+                InstanceStepInformation isi = result.isi;
+                InterruptionDurationSet ids = result.ids;
+                if (ids == null) {
+                    addDroppedInstance(result.dropped);
                     invalidIsiIterator.inc();
                     continue;
                 }
 
-                // Then, create an InterruptionDurationSet that will represent this case, we will put in it all
-                // the events and it will represents globally what happened in here
-                InterruptionDurationSet ids = new InterruptionDurationSet();
-                for (InterruptionEventList taskList : interruptionEventLists) {
-                    for (InterruptionDuration id : taskList.split()) {
-                        ids.add(id);
-                    }
-                }
-
                 Map<InterruptionReason, Integer> keyMap = ids.keyMap();
                 invalidKeyToIsiMap.put(keyMap, isi);
 
@@ -691,14 +930,16 @@ public class StateMachineVariableAnalysis {
                     keyMapToSolutionsMap.put(keyMap, dataMap);
                 }
 
-                for (InterruptionIntervalSet iis : validiisMap.values()) {
+                List<InterruptionDurationSet> distances = Objects.requireNonNull(result.distances);
+                for (int k = 0; k < validIisList.size(); k++) {
+                    InterruptionIntervalSet iis = validIisList.get(k);
                     List<InterruptionDurationSet> data = dataMap.get(iis);
                     if (data == null) {
                         data = new ArrayList<>();
                         dataMap.put(iis, data);
                     }
 
-                    data.add(iis.distance(ids));
+                    data.add(distances.get(k));
                 }
 
                 // DEBUG
@@ -713,7 +954,7 @@ public class StateMachineVariableAnalysis {
         }
 
         benchmarkObject.stop();
-        benchmarkObject = new StateMachineBenchmark("Analysis weight data"); //$NON-NLS-1$
+        benchmarkObject = performance.start(Phase.VARIABLE_ANALYSIS, "Analysis weight data"); //$NON-NLS-1$
 
         // Compute distance and store it accordingly
         for (Entry<Map<InterruptionReason, Integer>, Map<InterruptionIntervalSet, List<InterruptionDurationSet>>> entryReasonSolutions : keyMapToSolutionsMap.entrySet()) {
@@ -857,8 +1098,6 @@ public class StateMachineVariableAnalysis {
         // Update counters
         differentValidCases = validKeyToIsiMap.keySet().size();
         differentInvalidCases = invalidKeyToIsiMap.keySet().size();
-
-        benchmarkObjectAnalysis.stop();
     }
 
     /**
@@ -882,7 +1121,15 @@ public class StateMachineVariableAnalysis {
      * @param receivedIntervals The intervals on which to run the analysis
      */
     public void runCpuTop(Collection<Integer> cpus, Collection<TimestampInterval> receivedIntervals) {
-        StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("CPUTop analysis"); //$NON-NLS-1$
+        Measure benchmarkObjectAnalysis = performance.start(Phase.VARIABLE_ANALYSIS, "CPUTop analysis"); //$NON-NLS-1$
+        try {
+            cpuTopAnalysis(cpus, receivedIntervals);
+        } finally {
+            benchmarkObjectAnalysis.stop();
+        }
+    }
+
+    private void cpuTopAnalysis(Collection<Integer> cpus, Collection<TimestampInterval> receivedIntervals) {
         StateMachineReport.R.println_subsubsubsection("CPUTop analysis:"); //$NON-NLS-1$
 
         Set<Integer> sortedCpusSet = new TreeSet<>(cpus);
@@ -995,7 +1242,6 @@ public class StateMachineVariableAnalysis {
                 Activator.getInstance().logWarning("Error running cpu top analysis: " + e.getMessage()); //$NON-NLS-1$
             }
         }
-        benchmarkObjectAnalysis.stop();
     }
 
     /**
@@ -1003,7 +1249,15 @@ public class StateMachineVariableAnalysis {
      * @return The percent of time spent in sched_pi_setprio for invalid instances compared to valid ones
      */
     public double runPriorityInheritance() {
-        StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("PI analysis"); //$NON-NLS-1$
+        Measure benchmarkObjectAnalysis = performance.start(Phase.VARIABLE_ANALYSIS, "PI analysis"); //$NON-NLS-1$
+        try {
+            return priorityInheritanceAnalysis();
+        } finally {
+            benchmarkObjectAnalysis.stop();
+        }
+    }
+
+    private double priorityInheritanceAnalysis() {
         double meanSchedPiInvalid = 0;
         double meanSchedPiInvalidNb = invalidIsiList.size();
         for (InstanceStepInformation isi : invalidIsiList) {
@@ -1094,7 +1348,6 @@ public class StateMachineVariableAnalysis {
                 ));
         StateMachineReport.R.println();
 
-        benchmarkObjectAnalysis.stop();
         return piProba;
     }
 
@@ -1102,7 +1355,83 @@ public class StateMachineVariableAnalysis {
      * To run the critical path analysis
      */
     public void runCriticalPath() {
-        StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("Critical path analysis"); //$NON-NLS-1$
+        ResponsibilityMap<InterruptionInterval> responsibilityMap;
+        Measure benchmarkObjectAnalysis = performance.start(Phase.VARIABLE_ANALYSIS, "Critical path analysis"); //$NON-NLS-1$
+        try {
+            responsibilityMap = criticalPathAnalysis();
+        } finally {
+            benchmarkObjectAnalysis.stop();
+        }
+
+        StateMachineReport.R.println_subsubsubsubsection("Analysis of the states to keep for consideration:"); //$NON-NLS-1$
+        for (Entry<InterruptionInterval, Double> entry : responsibilityMap.getTopStdDevCollection()) {
+            StateMachineReport.R.println(String.format(
+                            "%s for %.2f%% of the time", //$NON-NLS-1$
+                            entry.getKey().getReason().getID(),
+                            (entry.getValue() * 100)
+                    ));
+            StateMachineReport.R.inc();
+
+            if (!(entry.getKey().getReason() instanceof CriticalPathState)) {
+                throw new RuntimeException("Well, shouldn't happen now!!"); //$NON-NLS-1$
+            }
+
+            CriticalPathState cps = (CriticalPathState)entry.getKey().getReason();
+
+            switch (cps.getType()) {
+            case PREEMPTED:
+                Set<Integer> setOfCpu = new TreeSet<>();
+                Set<Integer> setOfPrio = new TreeSet<>();
+
+                /* Search on which CPU we should run: these CPUs are the ones on which the preempted process
+                 * was running at some point during the intervals we saved for the preempted state.
+                 *
+                 * We also take advantage of that loop to get the priority of our preempted process during
+                 * those intervals. This part will probably be changed once the main state system is fixed
+                 * to get the best priority information.
+                 */
+                int tid = cps.getWorker().getHostThread().getTid();
+                StateMachineInstanceGroup group = invalidIsiList.get(0).instance.getStateMachineInstanceGroup();
+                for (StateMachineBackendAnalysis smss : group.getStateMachineBackendAnalysisModules()) {
+                    for (TimestampInterval ti : entry.getKey().getTsIntervals()) {
+                        for (ITmfStateInterval itsi : smss.getAllStateIntervalInPeriod(tid, ti.getStartTime().getValue(), ti.getEndTime().getValue(), Attributes.CPU)) {
+                            setOfCpu.add(itsi.getStateValue().unboxInt());
+                        }
+                        for (ITmfStateInterval itsi : smss.getAllStateIntervalInPeriod(tid, ti.getStartTime().getValue(), ti.getEndTime().getValue(), Attributes.PRIO)) {
+                            setOfPrio.add(itsi.getStateValue().unboxInt());
+                        }
+                    }
+                }
+
+                runCpuTop(setOfCpu, entry.getKey().getTsIntervals());
+
+                StateMachineReport.R.println(String.format(
+                        "Priorities of the PREEMPTED process during that interval: %s", //$NON-NLS-1$
+                        Joiner.on(", ").join(setOfPrio) //$NON-NLS-1$
+                        ));
+                break;
+            case BLOCKED:
+            case BLOCK_DEVICE:
+            case DEFAULT:
+            case EPS:
+            case INTERRUPTED:
+            case IPI:
+            case NETWORK:
+            case RUNNING:
+            case TIMER:
+            case UNKNOWN:
+            case USER_INPUT:
+                StateMachineReport.R.println("We don't know what to do for that yet!"); //$NON-NLS-1$
+                break;
+            default:
+                throw new RuntimeException("We never should arrive there."); //$NON-NLS-1$
+            }
+
+            StateMachineReport.R.dec();
+        }
+    }
+
+    private ResponsibilityMap<InterruptionInterval> criticalPathAnalysis() {
         StateMachineReport.R.println_subsubsubsection("Critical path analysis:"); //$NON-NLS-1$
 
         ResponsibilityMap<InterruptionInterval> responsibilityMap = new ResponsibilityMap<>(new InterruptionInterval.IntervalToReasonComparator());
@@ -1197,74 +1526,7 @@ public class StateMachineVariableAnalysis {
                 ));
         StateMachineReport.R.println();
 
-        benchmarkObjectAnalysis.stop();
-
-        StateMachineReport.R.println_subsubsubsubsection("Analysis of the states to keep for consideration:"); //$NON-NLS-1$
-        for (Entry<InterruptionInterval, Double> entry : responsibilityMap.getTopStdDevCollection()) {
-            StateMachineReport.R.println(String.format(
-                            "%s for %.2f%% of the time", //$NON-NLS-1$
-                            entry.getKey().getReason().getID(),
-                            (entry.getValue() * 100)
-                    ));
-            StateMachineReport.R.inc();
-
-            if (!(entry.getKey().getReason() instanceof CriticalPathState)) {
-                throw new RuntimeException("Well, shouldn't happen now!!"); //$NON-NLS-1$
-            }
-
-            CriticalPathState cps = (CriticalPathState)entry.getKey().getReason();
-
-            switch (cps.getType()) {
-            case PREEMPTED:
-                Set<Integer> setOfCpu = new TreeSet<>();
-                Set<Integer> setOfPrio = new TreeSet<>();
-
-                /* Search on which CPU we should run: these CPUs are the ones on which the preempted process
-                 * was running at some point during the intervals we saved for the preempted state.
-                 *
-                 * We also take advantage of that loop to get the priority of our preempted process during
-                 * those intervals. This part will probably be changed once the main state system is fixed
-                 * to get the best priority information.
-                 */
-                int tid = cps.getWorker().getHostThread().getTid();
-                StateMachineInstanceGroup group = invalidIsiList.get(0).instance.getStateMachineInstanceGroup();
-                for (StateMachineBackendAnalysis smss : group.getStateMachineBackendAnalysisModules()) {
-                    for (TimestampInterval ti : entry.getKey().getTsIntervals()) {
-                        for (ITmfStateInterval itsi : smss.getAllStateIntervalInPeriod(tid, ti.getStartTime().getValue(), ti.getEndTime().getValue(), Attributes.CPU)) {
-                            setOfCpu.add(itsi.getStateValue().unboxInt());
-                        }
-                        for (ITmfStateInterval itsi : smss.getAllStateIntervalInPeriod(tid, ti.getStartTime().getValue(), ti.getEndTime().getValue(), Attributes.PRIO)) {
-                            setOfPrio.add(itsi.getStateValue().unboxInt());
-                        }
-                    }
-                }
-
-                runCpuTop(setOfCpu, entry.getKey().getTsIntervals());
-
-                StateMachineReport.R.println(String.format(
-                        "Priorities of the PREEMPTED process during that interval: %s", //$NON-NLS-1$
-                        Joiner.on(", ").join(setOfPrio) //$NON-NLS-1$
-                        ));
-                break;
-            case BLOCKED:
-            case BLOCK_DEVICE:
-            case DEFAULT:
-            case EPS:
-            case INTERRUPTED:
-            case IPI:
-            case NETWORK:
-            case RUNNING:
-            case TIMER:
-            case UNKNOWN:
-            case USER_INPUT:
-                StateMachineReport.R.println("We don't know what to do for that yet!"); //$NON-NLS-1$
-                break;
-            default:
-                throw new RuntimeException("We never should arrive there."); //$NON-NLS-1$
-            }
-
-            StateMachineReport.R.dec();
-        }
+        return responsibilityMap;
     }
 
     private List<InterruptionDuration> getCriticalPathSteps(InstanceStepInformation isi) throws CriticalPathAlgorithmException, StateMachineTIDNotFoundException {
@@ -1410,7 +1672,15 @@ public class StateMachineVariableAnalysis {
      * To run an analysis on the instances duration
      */
     public void runInstancesDurationAnalysis() {
-        StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("Instances duration analysis"); //$NON-NLS-1$
+        Measure benchmarkObjectAnalysis = performance.start(Phase.VARIABLE_ANALYSIS, "Instances duration analysis"); //$NON-NLS-1$
+        try {
+            instancesDurationAnalysis();
+        } finally {
+            benchmarkObjectAnalysis.stop();
+        }
+    }
+
+    private void instancesDurationAnalysis() {
         StateMachineReport.R.println_subsubsubsection("Instances duration analysis:"); //$NON-NLS-1$
 
         double minValid = Double.MAX_VALUE, maxValid = Double.MIN_VALUE, sumValid = 0;
@@ -1482,7 +1752,6 @@ public class StateMachineVariableAnalysis {
 
         StateMachineReport.R.println_table(header, strs, Arrays.asList(new Integer[]{1, 2, 3, 4, 5}));
         StateMachineReport.R.println();
-        benchmarkObjectAnalysis.stop();
     }
 
     private ResponsibilityMap<InterruptionReason> cpuFrequencyScalingAnalysisRunner(Collection<InstanceStepInformation> isiCollection) {
@@ -1578,8 +1847,15 @@ public class StateMachineVariableAnalysis {
      * To run an analysis on the cpu frequency
      */
     public void runCpuFrequencyScalingAnalysis() {
-        StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("CPU Frequency scaling analysis"); //$NON-NLS-1$
+        Measure benchmarkObjectAnalysis = performance.start(Phase.VARIABLE_ANALYSIS, "CPU Frequency scaling analysis"); //$NON-NLS-1$
+        try {
+            cpuFrequencyScalingAnalysis();
+        } finally {
+            benchmarkObjectAnalysis.stop();
+        }
+    }
 
+    private void cpuFrequencyScalingAnalysis() {
         ResponsibilityMap<InterruptionReason> responsibilityMapValid, responsibilityMapInvalid;
 
         responsibilityMapInvalid = cpuFrequencyScalingAnalysisRunner(invalidIsiList);
@@ -1663,8 +1939,6 @@ public class StateMachineVariableAnalysis {
                 probaLvlTxt
                 ));
         StateMachineReport.R.println();
-
-        benchmarkObjectAnalysis.stop();
     }
 
     private InterruptionIntervalSet stateMachineStateAnalysisRunner(Collection<InstanceStepInformation> isiCollection) {
@@ -1705,7 +1979,15 @@ public class StateMachineVariableAnalysis {
      * To run an analysis on the state machine states
      */
     public void runStateMachineStateAnalysis() {
-        StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("State machine state analysis"); //$NON-NLS-1$
+        Measure benchmarkObjectAnalysis = performance.start(Phase.VARIABLE_ANALYSIS, "State machine state analysis"); //$NON-NLS-1$
+        try {
+            stateMachineStateAnalysis();
+        } finally {
+            benchmarkObjectAnalysis.stop();
+        }
+    }
+
+    private void stateMachineStateAnalysis() {
         StateMachineReport.R.println_subsubsubsection("State machine state analysis:"); //$NON-NLS-1$
 
         InterruptionIntervalSet validIis = stateMachineStateAnalysisRunner(validIsiList);
@@ -1727,8 +2009,6 @@ public class StateMachineVariableAnalysis {
         }
         StateMachineReport.R.println_table(header, strs, Arrays.asList(new Integer[]{1}));
         StateMachineReport.R.println();
-
-        benchmarkObjectAnalysis.stop();
     }
 
     /**
@@ -1755,6 +2035,7 @@ public class StateMachineVariableAnalysis {
      * @param e The exception that happened
      */
     private void addDroppedInstance(Exception e) {
+        performance.count(Phase.VARIABLE_ANALYSIS, "Dropped instances", 1); //$NON-NLS-1$
         if (e instanceof StateMachineStateSystemNotFoundException) {
             droppedInstances[NO_STATE_SYSTEM_FOUND]++;
         } else if (e instanceof StateMachineTIDNotFoundException) {
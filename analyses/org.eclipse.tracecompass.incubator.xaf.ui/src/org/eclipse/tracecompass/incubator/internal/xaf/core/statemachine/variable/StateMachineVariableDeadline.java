@@ -289,6 +289,12 @@ public class StateMachineVariableDeadline extends StateMachineVariable {
     private static class StateInterruptionEventGetter extends InterruptionEventGetter {
         private String lastSyscall = null;
 
+        @Override
+        public InterruptionEventGetter getInstanceStepGetter() {
+            // The last system call is only valid within an instance step
+            return new StateInterruptionEventGetter();
+        }
+
         @Override
         public InterruptionEventList execute(TimestampInterval ti, ITmfStateInterval si, ITmfEvent e)
                 throws StateMachineStateSystemNotFoundException, StateMachineTIDNotFoundException, StateMachineStateSystemTimeRangeException, StateMachineUnexpectedEventException {
@@ -13,9 +13,7 @@ package org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variab
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 
 import org.eclipse.tracecompass.analysis.os.linux.core.trace.IKernelAnalysisEventLayout;
@@ -39,12 +37,13 @@ import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variabl
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variable.utils.State;
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variable.utils.StateMachineVariableHelpers;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.Activator;
-import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineBenchmark;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineInstance;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineInstanceGroup;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineReport;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineUtils;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineInstance.InstanceStepInformation;
+import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachinePerformance.Measure;
+import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachinePerformance.Phase;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineUtils.TimestampInterval;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
@@ -173,7 +172,6 @@ public abstract class StateMachineVariableTimer extends StateMachineVariable {
     public class DefaultTimerInterruptionEventRunner extends InterruptionEventRunner {
         private final StateMachineVariableTimer variable;
         private final String attribute;
-        private Map<ITmfTrace, ITmfContext> contextPerTrace = new HashMap<>();
 
         /**
          * To create a DefaultTimerInterruptionEventRunner
@@ -238,7 +236,7 @@ public abstract class StateMachineVariableTimer extends StateMachineVariable {
                 ITmfEvent e = null;
 
                 // To store the context for this trace
-                ITmfContext ctx = contextPerTrace.get(trace);
+                ITmfContext ctx = getContext(trace);
 
                 if (ctx != null) {
                     // Get the next event in the trace
@@ -247,14 +245,12 @@ public abstract class StateMachineVariableTimer extends StateMachineVariable {
                     // If our event is after our intervalStart... we'll need to
                     // seek :(
                     if (e.getTimestamp().compareTo(ti.getStartTime()) > 0) {
-                        ctx.dispose();
                         ctx = null;
                     }
                 }
 
                 if (ctx == null) {
-                    ctx = trace.seekEvent(ti.getStartTime());
-                    contextPerTrace.put(trace, ctx);
+                    ctx = seekContext(trace, ti.getStartTime());
 
                     // Get the initial event of the interval
                     e = trace.getNext(ctx);
@@ -273,9 +269,7 @@ public abstract class StateMachineVariableTimer extends StateMachineVariable {
                  * Get the whole interval for which the counter had the same
                  * value as the one it has at seeking time 'seek'
                  */
-                StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("Analysis SS Get"); //$NON-NLS-1$
-                ITmfStateInterval si = stateMachineBackendAnalysis.getStateInterval(tid, seek, attribute);
-                benchmarkObject.stop();
+                ITmfStateInterval si = getStateInterval(group, stateMachineBackendAnalysis, tid, seek);
 
                 /*
                  * Change the value of 'seek' to reference the start of the next
@@ -303,9 +297,7 @@ public abstract class StateMachineVariableTimer extends StateMachineVariable {
                      * Get the whole interval for which the counter had the same
                      * value as the one it has at seeking time 'seek'
                      */
-                    benchmarkObject = new StateMachineBenchmark("Analysis SS Get"); //$NON-NLS-1$
-                    si = stateMachineBackendAnalysis.getStateInterval(tid, seek, attribute);
-                    benchmarkObject.stop();
+                    si = getStateInterval(group, stateMachineBackendAnalysis, tid, seek);
 
                     /*
                      * The event should never be 'null'. If it is, show an
@@ -322,9 +314,7 @@ public abstract class StateMachineVariableTimer extends StateMachineVariable {
 
                         InterruptionEventList taskList = new InterruptionEventList();
 
-                        benchmarkObject = new StateMachineBenchmark("Analysis SS Get"); //$NON-NLS-1$
-                        ITmfStateInterval si2 = stateMachineBackendAnalysis.getStateInterval(tasktid, seek, attribute);
-                        benchmarkObject.stop();
+                        ITmfStateInterval si2 = getStateInterval(group, stateMachineBackendAnalysis, tasktid, seek);
 
                         while (si2.getStartTime() < si.getEndTime()) {
                             State stateObj = new State(
@@ -344,18 +334,14 @@ public abstract class StateMachineVariableTimer extends StateMachineVariable {
                                 break;
                             }
 
-                            benchmarkObject = new StateMachineBenchmark("Analysis SS Get"); //$NON-NLS-1$
-                            si2 = stateMachineBackendAnalysis.getStateInterval(tasktid, si2.getEndTime() + 1, attribute);
-                            benchmarkObject.stop();
+                            si2 = getStateInterval(group, stateMachineBackendAnalysis, tasktid, si2.getEndTime() + 1);
                         }
 
                         if (tasktid != tid) {
-                            benchmarkObject = new StateMachineBenchmark("Analysis SS Get"); //$NON-NLS-1$
                             taskList.events.add(new InterruptionEvent(e,
                                     TmfTimestamp.create(
-                                            si.getEndTime() - stateMachineBackendAnalysis.getTimerIntvl(tid, si.getStartTime(), si.getEndTime(), attribute),
+                                            si.getEndTime() - getTimerIntvl(group, stateMachineBackendAnalysis, tid, si.getStartTime(), si.getEndTime()),
                                             ITmfTimestamp.NANOSECOND_SCALE)));
-                            benchmarkObject.stop();
                         }
 
                         interruptionEventList.add(taskList);
@@ -376,6 +362,28 @@ public abstract class StateMachineVariableTimer extends StateMachineVariable {
 
             return interruptionEventList;
         }
+
+        /*
+         * The state system queries are measured in the performance statistics
+         * of the analysis run of the group
+         */
+        private ITmfStateInterval getStateInterval(StateMachineInstanceGroup group, StateMachineBackendAnalysis stateMachineBackendAnalysis, long tid, long ts) {
+            Measure benchmarkObject = group.getPerformance().start(Phase.VARIABLE_ANALYSIS, "Analysis SS Get"); //$NON-NLS-1$
+            try {
+                return stateMachineBackendAnalysis.getStateInterval(tid, ts, attribute);
+            } finally {
+                benchmarkObject.stop();
+            }
+        }
+
+        private long getTimerIntvl(StateMachineInstanceGroup group, StateMachineBackendAnalysis stateMachineBackendAnalysis, long tid, long start, long end) {
+            Measure benchmarkObject = group.getPerformance().start(Phase.VARIABLE_ANALYSIS, "Analysis SS Get"); //$NON-NLS-1$
+            try {
+                return stateMachineBackendAnalysis.getTimerIntvl(tid, start, end, attribute);
+            } finally {
+                benchmarkObject.stop();
+            }
+        }
     }
 
     /**
@@ -22,8 +22,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.constraint.Direction;
+import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variable.StateMachineVariableAnalysis;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineUtils.TimestampInterval;
 
 import com.google.common.collect.HashMultimap;
@@ -34,6 +39,11 @@ import com.google.common.collect.HashMultimap;
  * @author Raphaël Beamonte
  */
 public class InterruptionIntervalSet implements Cloneable {
+    /* Number of combinations read at once when looking for the closest one */
+    private static final int COMBINATIONS_BATCH_SIZE = 512;
+    /* Minimum number of combinations to evaluate them in parallel */
+    private static final int PARALLEL_COMBINATIONS_THRESHOLD = 64;
+
     private HashMultimap<InterruptionReason, InterruptionInterval> map = HashMultimap.create();
     private int counter = 0;
     private Direction fDirection = null;
@@ -272,6 +282,70 @@ public class InterruptionIntervalSet implements Cloneable {
      * return closestDistPair; }
      */
 
+    /**
+     * A combination evaluated by the closest permutation search, with the
+     * elements that are not part of the combination
+     */
+    private static class Candidate<T> {
+        private final List<T> fClosestList;
+        private final List<T> fCopy;
+        private final double fDistance;
+
+        public Candidate(List<T> closestList, List<T> copy, double distance) {
+            fClosestList = closestList;
+            fCopy = copy;
+            fDistance = distance;
+        }
+
+        public List<T> toList() {
+            List<T> list = new ArrayList<>(fClosestList);
+            if (fCopy != null) {
+                list.addAll(fCopy);
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Find the closest of the combinations. The combinations are read in
+     * batches and the combinations of a batch are evaluated in parallel, but
+     * the first closest combination is kept, as when evaluating them one after
+     * the other. On the workers of an analysis, which already analyze instance
+     * steps in parallel, the combinations are evaluated one after the other.
+     *
+     * @throws OperationCanceledException
+     *             If the thread is interrupted between two batches
+     */
+    private static <T> List<T> closestCombination(Iterator<List<T>> uniqueCombinationsIterator, Function<List<T>, Candidate<T>> evaluate) {
+        double closestDist = Double.MAX_VALUE;
+        Candidate<T> closest = null;
+        boolean parallel = !StateMachineVariableAnalysis.isAnalysisWorker();
+        while (uniqueCombinationsIterator.hasNext()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new OperationCanceledException();
+            }
+            List<List<T>> batch = new ArrayList<>(COMBINATIONS_BATCH_SIZE);
+            while (uniqueCombinationsIterator.hasNext() && batch.size() < COMBINATIONS_BATCH_SIZE) {
+                batch.add(uniqueCombinationsIterator.next());
+            }
+
+            Stream<List<T>> stream = (parallel && batch.size() >= PARALLEL_COMBINATIONS_THRESHOLD) ? batch.parallelStream() : batch.stream();
+            List<Candidate<T>> candidates = stream.map(evaluate).collect(Collectors.toList());
+            for (Candidate<T> candidate : candidates) {
+                if (candidate.fDistance < closestDist) {
+                    closestDist = candidate.fDistance;
+                    closest = candidate;
+
+                    if (closestDist == 0) {
+                        return closest.toList();
+                    }
+                }
+            }
+        }
+
+        return (closest == null) ? null : closest.toList();
+    }
+
     private static List<InterruptionDuration> closestPermutationDuration(List<InterruptionInterval> intervalList, List<InterruptionDuration> durationList, Direction direction) {
         if (durationList.size() == intervalList.size()) {
             return closestDurationList(durationList, intervalList, direction);
@@ -281,11 +355,7 @@ public class InterruptionIntervalSet implements Cloneable {
         @SuppressWarnings("null")
         Iterator<List<InterruptionDuration>> uniqueCombinationsIterator = new UniqueCombinationsIteratorSample<>(durationList, minSize);
 
-        double closestDist = Double.MAX_VALUE;
-        List<InterruptionDuration> closestDistList = null;
-
-        while (uniqueCombinationsIterator.hasNext()) {
-            List<InterruptionDuration> list = uniqueCombinationsIterator.next();
+        return closestCombination(uniqueCombinationsIterator, list -> {
             List<InterruptionDuration> closestList = closestDurationList(list, intervalList, direction);
 
             double dist = 0;
@@ -305,20 +375,8 @@ public class InterruptionIntervalSet implements Cloneable {
                 }
             }
 
-            if (dist < closestDist) {
-                closestDist = dist;
-                closestDistList = new ArrayList<>(closestList);
-                if (copy != null) {
-                    closestDistList.addAll(copy);
-                }
-
-                if (dist == 0) {
-                    break;
-                }
-            }
-        }
-
-        return closestDistList;
+            return new Candidate<>(closestList, copy, dist);
+        });
     }
 
     private static List<InterruptionInterval> closestPermutationInterval(List<InterruptionInterval> intervalList, List<InterruptionDuration> durationList, Direction direction) {
@@ -330,11 +388,7 @@ public class InterruptionIntervalSet implements Cloneable {
         @SuppressWarnings("null")
         Iterator<List<InterruptionInterval>> uniqueCombinationsIterator = new UniqueCombinationsIteratorSample<>(intervalList, minSize);
 
-        double closestDist = Double.MAX_VALUE;
-        List<InterruptionInterval> closestDistList = null;
-
-        while (uniqueCombinationsIterator.hasNext()) {
-            List<InterruptionInterval> list = uniqueCombinationsIterator.next();
+        return closestCombination(uniqueCombinationsIterator, list -> {
             List<InterruptionInterval> closestList = closestIntervalList(durationList, list, direction);
 
             double dist = 0;
@@ -354,20 +408,8 @@ public class InterruptionIntervalSet implements Cloneable {
                 }
             }
 
-            if (dist < closestDist) {
-                closestDist = dist;
-                closestDistList = new ArrayList<>(closestList);
-                if (copy != null) {
-                    closestDistList.addAll(copy);
-                }
-
-                if (dist == 0) {
-                    break;
-                }
-            }
-        }
-
-        return closestDistList;
+            return new Candidate<>(closestList, copy, dist);
+        });
     }
 
     /**
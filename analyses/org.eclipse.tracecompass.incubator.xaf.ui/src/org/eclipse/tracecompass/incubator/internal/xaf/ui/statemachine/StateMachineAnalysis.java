@@ -15,6 +15,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -54,6 +55,8 @@ import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.backend
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.builder.BuilderInstanceGroup;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.Activator;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.handlers.XaFParameterProvider;
+import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachinePerformance.Measure;
+import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachinePerformance.Phase;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineUtils.TimestampInterval;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
@@ -128,6 +131,9 @@ public class StateMachineAnalysis extends AbstractSegmentStoreAnalysisModule {
         TmfExperiment expKernel = new TmfExperiment(CtfTmfEvent.class, trace.getName()+" (Kernel only)", kernelTraces.toArray(new CtfTmfTrace[kernelTraces.size()]), TmfExperiment.DEFAULT_INDEX_PAGE_SIZE, null);
         TmfExperiment expOther = new TmfExperiment(CtfTmfEvent.class, trace.getName()+" (No kernel)", otherTraces.toArray(new CtfTmfTrace[otherTraces.size()]), TmfExperiment.DEFAULT_INDEX_PAGE_SIZE, null);
 
+        // The performance statistics of this analysis only
+        StateMachinePerformance performance = new StateMachinePerformance();
+
         // Get the environment variables
         Map<String, String> env = System.getenv();
         String envv;
@@ -173,43 +179,46 @@ public class StateMachineAnalysis extends AbstractSegmentStoreAnalysisModule {
             }
         }
 
-        StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("State system build");
-
         List<StateMachineBackendAnalysis> stateMachineBackendAnalysisList = new ArrayList<>();
-        for (ITmfTrace kernelTrace : expKernel.getTraces()) {
-            StateMachineBackendAnalysis stateMachineBackendAnalysis = TmfTraceUtils.getAnalysisModuleOfClass(kernelTrace, StateMachineBackendAnalysis.class, StateMachineBackendAnalysis.ID);
-            stateMachineBackendAnalysisList.add(stateMachineBackendAnalysis);
-            if (stateMachineBackendAnalysis != null) {
-                IStatus status = stateMachineBackendAnalysis.schedule();
-                if (status.isOK()) {
-                    stateMachineBackendAnalysis.waitForCompletion();
+        Measure benchmarkObject = performance.start(Phase.BACKEND_ANALYSIS, "State system build");
+        try {
+            for (ITmfTrace kernelTrace : expKernel.getTraces()) {
+                StateMachineBackendAnalysis stateMachineBackendAnalysis = TmfTraceUtils.getAnalysisModuleOfClass(kernelTrace, StateMachineBackendAnalysis.class, StateMachineBackendAnalysis.ID);
+                stateMachineBackendAnalysisList.add(stateMachineBackendAnalysis);
+                if (stateMachineBackendAnalysis != null) {
+                    IStatus status = stateMachineBackendAnalysis.schedule();
+                    if (status.isOK()) {
+                        stateMachineBackendAnalysis.waitForCompletion();
+                    } else {
+                        Activator.logWarning("stateMachineAnalysisModule status is not ok");
+                    }
                 } else {
-                    Activator.logWarning("stateMachineAnalysisModule status is not ok");
+                    Activator.logWarning("stateMachineAnalysisModule is null");
                 }
-            } else {
-                Activator.logWarning("stateMachineAnalysisModule is null");
             }
+        } finally {
+            benchmarkObject.stop();
         }
 
-        benchmarkObject.stop();
-        benchmarkObject = new StateMachineBenchmark("Critical path build");
-
         List<OsExecutionGraph> criticalPathModulesList = new ArrayList<>();
-        for (ITmfTrace kernelTrace : expKernel.getTraces()) {
-            OsExecutionGraph criticalPathAnalysisModule = TmfTraceUtils.getAnalysisModuleOfClass(kernelTrace, OsExecutionGraph.class, OsExecutionGraph.ANALYSIS_ID);
-            criticalPathModulesList.add(criticalPathAnalysisModule);
-            if (criticalPathAnalysisModule != null) {
-                IStatus status = criticalPathAnalysisModule.schedule();
-                if (!status.isOK()) {
-                    Activator.logWarning("fModuleCriticalPath status is not ok");
+        benchmarkObject = performance.start(Phase.BACKEND_ANALYSIS, "Critical path build");
+        try {
+            for (ITmfTrace kernelTrace : expKernel.getTraces()) {
+                OsExecutionGraph criticalPathAnalysisModule = TmfTraceUtils.getAnalysisModuleOfClass(kernelTrace, OsExecutionGraph.class, OsExecutionGraph.ANALYSIS_ID);
+                criticalPathModulesList.add(criticalPathAnalysisModule);
+                if (criticalPathAnalysisModule != null) {
+                    IStatus status = criticalPathAnalysisModule.schedule();
+                    if (!status.isOK()) {
+                        Activator.logWarning("fModuleCriticalPath status is not ok");
+                    }
+                } else {
+                    Activator.logWarning("fModuleCriticalPath is null");
                 }
-            } else {
-                Activator.logWarning("fModuleCriticalPath is null");
             }
+        } finally {
+            benchmarkObject.stop();
         }
 
-        benchmarkObject.stop();
-
 
         // Either load the initial transitions from the file or generate them from the trace
         List<StateMachineTransition> initialTransitions = null;
@@ -218,28 +227,30 @@ public class StateMachineAnalysis extends AbstractSegmentStoreAnalysisModule {
         boolean allInstancesAsValid = Boolean.parseBoolean(xafproperties.getProperty(XaFParameterProvider.PROPERTY_ALL_INSTANCES_VALID, Boolean.FALSE.toString()));
         String model = xafproperties.getProperty(XaFParameterProvider.PROPERTY_MODEL_LOCATION);
         if (!modelProvided) {
-            benchmarkObject = new StateMachineBenchmark("Building model");
-
-            Set<String> variablesTypes = new HashSet<>(Arrays.asList(
-                    xafproperties.getProperty(XaFParameterProvider.PROPERTY_SELECTED_VARIABLES)
-                                 .split(XaFParameterProvider.PROPERTY_SEPARATOR)));
-
-            Set<TimestampInterval> timestampIntervals = null;
-            String timestampIntervalsStr = xafproperties.getProperty(XaFParameterProvider.PROPERTY_SELECTED_TIMERANGES);
-            if (timestampIntervalsStr != null && !timestampIntervalsStr.isEmpty()) {
-                timestampIntervals = new TreeSet<>();
-                for (String intervalStr : timestampIntervalsStr.split(XaFParameterProvider.PROPERTY_SEPARATOR)) {
-                    String[] intervalStrVal = intervalStr.split(XaFParameterProvider.PROPERTY_SELECTED_TIMERANGES_SEPARATOR);
-                    long startTime = Long.parseLong(intervalStrVal[0]);
-                    long endTime = Long.parseLong(intervalStrVal[1]);
-                    timestampIntervals.add(new TimestampInterval(startTime, endTime));
+            benchmarkObject = performance.start(Phase.CONSTRAINT_INFERENCE, "Building model");
+            try {
+                Set<String> variablesTypes = new HashSet<>(Arrays.asList(
+                        xafproperties.getProperty(XaFParameterProvider.PROPERTY_SELECTED_VARIABLES)
+                                     .split(XaFParameterProvider.PROPERTY_SEPARATOR)));
+
+                Set<TimestampInterval> timestampIntervals = null;
+                String timestampIntervalsStr = xafproperties.getProperty(XaFParameterProvider.PROPERTY_SELECTED_TIMERANGES);
+                if (timestampIntervalsStr != null && !timestampIntervalsStr.isEmpty()) {
+                    timestampIntervals = new TreeSet<>();
+                    for (String intervalStr : timestampIntervalsStr.split(XaFParameterProvider.PROPERTY_SEPARATOR)) {
+                        String[] intervalStrVal = intervalStr.split(XaFParameterProvider.PROPERTY_SELECTED_TIMERANGES_SEPARATOR);
+                        long startTime = Long.parseLong(intervalStrVal[0]);
+                        long endTime = Long.parseLong(intervalStrVal[1]);
+                        timestampIntervals.add(new TimestampInterval(startTime, endTime));
+                    }
                 }
-            }
 
-            builderInstanceGroup = new BuilderInstanceGroup(stateMachineBackendAnalysisList, criticalPathModulesList, variablesTypes, timestampIntervals);
-            builderInstanceGroup.buildOn(expOther);
-            initialTransitions = builderInstanceGroup.getBasicInitialTransitions();
-            benchmarkObject.stop();
+                builderInstanceGroup = new BuilderInstanceGroup(stateMachineBackendAnalysisList, criticalPathModulesList, variablesTypes, timestampIntervals);
+                builderInstanceGroup.buildOn(expOther);
+                initialTransitions = builderInstanceGroup.getBasicInitialTransitions();
+            } finally {
+                benchmarkObject.stop();
+            }
         } else {
             try {
                 initialTransitions = StateMachineUtils.getModelFromXML(model);
@@ -254,26 +265,31 @@ public class StateMachineAnalysis extends AbstractSegmentStoreAnalysisModule {
 
 
 
-        benchmarkObject = new StateMachineBenchmark("Instances construction and constraint verification");
+        StateMachineInstanceGroup smig;
+        benchmarkObject = performance.start(Phase.INSTANCES_VERIFICATION, "Instances construction and constraint verification");
+        try {
+            smig = new StateMachineInstanceGroup(initialTransitions, stateMachineBackendAnalysisList, criticalPathModulesList, allInstancesAsValid, performance);
 
-        StateMachineInstanceGroup smig = new StateMachineInstanceGroup(initialTransitions, stateMachineBackendAnalysisList, criticalPathModulesList, allInstancesAsValid);
+            smig.buildOn(expOther);
+            /*ITmfContext ctx = expOther.seekEvent(0);
+            ITmfEvent event = null;
 
-        smig.buildOn(expOther);
-        /*ITmfContext ctx = expOther.seekEvent(0);
-        ITmfEvent event = null;
-
-        event = expOther.getNext(ctx);
-        while (event != null) {
-            smig.receivedEvent(event);
             event = expOther.getNext(ctx);
-        }*/
-
-        benchmarkObject.stop();
+            while (event != null) {
+                smig.receivedEvent(event);
+                event = expOther.getNext(ctx);
+            }*/
+        } finally {
+            benchmarkObject.stop();
+        }
 
         if (builderInstanceGroup != null) {
-            benchmarkObject = new StateMachineBenchmark("Clean up the model built");
-            builderInstanceGroup.cleanUnusedVariablesAndConstraints(initialTransitions);
-            benchmarkObject.stop();
+            benchmarkObject = performance.start(Phase.CONSTRAINT_INFERENCE, "Clean up the model built");
+            try {
+                builderInstanceGroup.cleanUnusedVariablesAndConstraints(initialTransitions);
+            } finally {
+                benchmarkObject.stop();
+            }
 
             try (PrintWriter writer = new PrintWriter("/tmp/sm.dot", "UTF-8")) { // FIXME: DEBUG PRINT SM
                 Display.getDefault().asyncExec(()->
@@ -427,7 +443,7 @@ public class StateMachineAnalysis extends AbstractSegmentStoreAnalysisModule {
                             }
 
                             // We need to rebuild the state machine instance group as everything could have changed...
-                            smig = new StateMachineInstanceGroup(initialTransitions, stateMachineBackendAnalysisList, criticalPathModulesList, allInstancesAsValid);
+                            smig = new StateMachineInstanceGroup(initialTransitions, stateMachineBackendAnalysisList, criticalPathModulesList, allInstancesAsValid, performance);
                             smig.buildOn(expOther);
                         } catch (SAXException | IOException | ParserConfigurationException e) {
                             MessageBox messageBox = new MessageBox(Display.getDefault().getActiveShell(), SWT.ICON_ERROR);
@@ -442,23 +458,24 @@ public class StateMachineAnalysis extends AbstractSegmentStoreAnalysisModule {
             }
         }
 
-        benchmarkObject = new StateMachineBenchmark("Printing checked instances");
-
-        boolean print = true;
-        envv = env.get("PRINTCHECK");
-        if (envv != null) {
-            if (Boolean.parseBoolean(envv)) {
-                print = true;
-            } else {
-                print = false;
+        benchmarkObject = performance.start(Phase.REPORT_GENERATION, "Printing checked instances");
+        try {
+            boolean print = true;
+            envv = env.get("PRINTCHECK");
+            if (envv != null) {
+                if (Boolean.parseBoolean(envv)) {
+                    print = true;
+                } else {
+                    print = false;
+                }
             }
-        }
-        if (print) {
-            Activator.logWarning(smig.toString());
+            if (print) {
+                Activator.logWarning(smig.toString());
+            }
+        } finally {
+            benchmarkObject.stop();
         }
 
-        benchmarkObject.stop();
-
         // All instances must be considered valid, there's no analysis to be ran
         if (!modelProvided && allInstancesAsValid) {
             return true;
@@ -478,12 +495,23 @@ public class StateMachineAnalysis extends AbstractSegmentStoreAnalysisModule {
             StateMachineReport.debug("\nVérification des instances:");
             StateMachineReport.debug("===");
 
-            benchmarkObject = new StateMachineBenchmark("Analyze");
-            smig.analyze(expKernel);
-            benchmarkObject.stop();
+            benchmarkObject = performance.start(Phase.VARIABLE_ANALYSIS, "Analyze");
+            try {
+                smig.analyze(expKernel);
+            } finally {
+                benchmarkObject.stop();
+            }
         }
 
-        StateMachineBenchmark.printBenchmarks();
+        performance.printReport();
+        envv = env.get("BENCHMARK_OUTPUT");
+        if (envv != null && !envv.isEmpty()) {
+            try {
+                performance.exportJson(Paths.get(envv));
+            } catch (IOException e) {
+                Activator.logError("Could not export the performance statistics to " + envv, e);
+            }
+        }
 
         // TODO: Takes a lot of time !!!
         segmentStore.addAll(smig.getSegmentStore());
@@ -31,6 +31,8 @@ import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.constra
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variable.StateMachineVariable;
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variable.StateMachineVariableAnalysis;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineInstance.InstanceStepInformation;
+import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachinePerformance.Measure;
+import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachinePerformance.Phase;
 import org.eclipse.tracecompass.internal.segmentstore.core.treemap.TreeMapStore;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
@@ -70,6 +72,9 @@ public class StateMachineInstanceGroup {
     /** Whether or not all the instances have to be considered valid for adaptive constraints */
     private final boolean allInstancesValid;
 
+    /** The performance statistics of the analysis run this group is part of */
+    private final StateMachinePerformance performance;
+
     /**
      * @param initialTransition the initial transition
      */
@@ -81,6 +86,7 @@ public class StateMachineInstanceGroup {
         this.stateMachineStateSystemAnalysisModules = null;
         this.osExecutionGraph = null;
         this.allInstancesValid = false;
+        this.performance = new StateMachinePerformance();
 
         prepareModelEvents();
     }
@@ -98,6 +104,7 @@ public class StateMachineInstanceGroup {
         this.stateMachineStateSystemAnalysisModules = stateMachineBackendAnalysis;
         this.osExecutionGraph = lttngKernelExecutionGraphModules;
         this.allInstancesValid = false;
+        this.performance = new StateMachinePerformance();
 
         prepareModelEvents();
     }
@@ -120,6 +127,7 @@ public class StateMachineInstanceGroup {
         this.stateMachineStateSystemAnalysisModules = stateMachineBackendAnalysis;
         this.osExecutionGraph = lttngKernelExecutionGraphModules;
         this.allInstancesValid = false;
+        this.performance = new StateMachinePerformance();
 
         prepareModelEvents();
     }
@@ -136,6 +144,7 @@ public class StateMachineInstanceGroup {
         this.stateMachineStateSystemAnalysisModules = null;
         this.osExecutionGraph = null;
         this.allInstancesValid = allInstancesValid;
+        this.performance = new StateMachinePerformance();
 
         prepareModelEvents();
     }
@@ -154,6 +163,7 @@ public class StateMachineInstanceGroup {
         this.stateMachineStateSystemAnalysisModules = stateMachineBackendAnalysis;
         this.osExecutionGraph = lttngKernelExecutionGraphModules;
         this.allInstancesValid = allInstancesValid;
+        this.performance = new StateMachinePerformance();
 
         prepareModelEvents();
     }
@@ -165,6 +175,17 @@ public class StateMachineInstanceGroup {
      * @param allInstancesValid Whether or not all the instances have to be considered valid for adaptive constraints
      */
     public StateMachineInstanceGroup(List<StateMachineTransition> initialTransitions, List<StateMachineBackendAnalysis> stateMachineBackendAnalysis, List<OsExecutionGraph> lttngKernelExecutionGraphModules, boolean allInstancesValid) {
+        this(initialTransitions, stateMachineBackendAnalysis, lttngKernelExecutionGraphModules, allInstancesValid, new StateMachinePerformance());
+    }
+
+    /**
+     * @param initialTransitions the list of initial transitions
+     * @param stateMachineBackendAnalysis the state machine state system analysis modules
+     * @param lttngKernelExecutionGraphModules the critical path analysis modules
+     * @param allInstancesValid Whether or not all the instances have to be considered valid for adaptive constraints
+     * @param performance the performance statistics of the analysis run
+     */
+    public StateMachineInstanceGroup(List<StateMachineTransition> initialTransitions, List<StateMachineBackendAnalysis> stateMachineBackendAnalysis, List<OsExecutionGraph> lttngKernelExecutionGraphModules, boolean allInstancesValid, StateMachinePerformance performance) {
         for (StateMachineTransition smt : initialTransitions) {
             List<StateMachineTransition> initialTransitionList = this.initialTransitions.get(smt.getEventName());
             if (initialTransitionList == null) {
@@ -177,6 +198,7 @@ public class StateMachineInstanceGroup {
         this.stateMachineStateSystemAnalysisModules = stateMachineBackendAnalysis;
         this.osExecutionGraph = lttngKernelExecutionGraphModules;
         this.allInstancesValid = allInstancesValid;
+        this.performance = performance;
 
         prepareModelEvents();
     }
@@ -239,9 +261,12 @@ public class StateMachineInstanceGroup {
             this.receivedEvent(event);
             event = exp.getNext(ctx);
         }
-        StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("Treating adaptive constraints"); //$NON-NLS-1$
-        this.finishedReceiving();
-        benchmarkObject.stop();
+        Measure benchmarkObject = performance.start(Phase.CONSTRAINT_INFERENCE, "Treating adaptive constraints"); //$NON-NLS-1$
+        try {
+            this.finishedReceiving();
+        } finally {
+            benchmarkObject.stop();
+        }
     }
 
     /**
@@ -381,7 +406,7 @@ public class StateMachineInstanceGroup {
         // We need to keep in mind the valid instances step too to be able to compare
         Map<StateMachineConstraint, ArrayList<InstanceStepInformation>> valid = new HashMap<>();
 
-        StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("Split data"); //$NON-NLS-1$
+        Measure benchmarkObject = performance.start(Phase.VARIABLE_ANALYSIS, "Split data"); //$NON-NLS-1$
         for (StateMachineInstance smi : instancesList) {
             // If the instance status is invalid
             //if (smi.getStatus() == Status.INVALID) {
@@ -464,6 +489,13 @@ public class StateMachineInstanceGroup {
         return osExecutionGraph;
     }
 
+    /**
+     * @return The performance statistics of the analysis run
+     */
+    public StateMachinePerformance getPerformance() {
+        return performance;
+    }
+
     /**
      * @return The segment store for that state machine instance group
      */
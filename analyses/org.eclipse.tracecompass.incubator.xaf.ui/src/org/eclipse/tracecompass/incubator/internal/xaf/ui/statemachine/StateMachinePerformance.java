@@ -0,0 +1,380 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.google.common.base.Strings;
+
+/**
+ * Performance instrumentation of the XaF analysis. The time spent in the
+ * measures of each phase of the analysis is aggregated in a
+ * {@link Statistics} object per measure name, with the number of calls, the
+ * total, minimum and maximum durations and a histogram of the durations.
+ * Counters can also be incremented for each phase.
+ *
+ * An object holds the statistics of one run of the analysis, so concurrent
+ * analyses do not mix their statistics. The measures can be started and
+ * stopped from any thread, a measure started while another one is in progress
+ * in the same thread is nested in it. The statistics can be read through
+ * {@link #getStatistics()}, printed to the report or exported as JSON.
+ */
+public final class StateMachinePerformance {
+
+    /**
+     * The phases of the XaF analysis
+     */
+    public enum Phase {
+        /** Build of the backend state systems and critical paths */
+        BACKEND_ANALYSIS("backendAnalysis"), //$NON-NLS-1$
+        /** Inference of the state machine model and its constraints */
+        CONSTRAINT_INFERENCE("constraintInference"), //$NON-NLS-1$
+        /** Construction of the instances and verification of the constraints */
+        INSTANCES_VERIFICATION("instancesVerification"), //$NON-NLS-1$
+        /** Analysis of the variables of the invalid instances */
+        VARIABLE_ANALYSIS("variableAnalysis"), //$NON-NLS-1$
+        /** Generation of the reports */
+        REPORT_GENERATION("reportGeneration"); //$NON-NLS-1$
+
+        private final String fJsonName;
+
+        private Phase(String jsonName) {
+            fJsonName = jsonName;
+        }
+
+        /**
+         * @return The name of the phase in the JSON export
+         */
+        public String getJsonName() {
+            return fJsonName;
+        }
+    }
+
+    /**
+     * A measure in progress, to stop once the measured code is done
+     */
+    public static final class Measure {
+        private final StateMachinePerformance fPerformance;
+        private final @Nullable Measure fParent;
+        private final int fDepth;
+        private final Statistics fStatistics;
+        private final long fStartTime;
+        private volatile boolean fStopped = false;
+
+        private Measure(StateMachinePerformance performance, @Nullable Measure parent, Phase phase, String name) {
+            fPerformance = performance;
+            fParent = parent;
+            fDepth = (parent == null) ? 0 : parent.fDepth + 1;
+            fStatistics = performance.fMeasures.computeIfAbsent(getKey(phase, name), key -> new Statistics(phase, name, fDepth));
+            fStartTime = System.nanoTime();
+        }
+
+        /**
+         * Stop the measure and add its duration to the statistics. The
+         * measures nested in this one in the current thread that are still in
+         * progress are stopped first. Stopping a measure more than once has no
+         * effect.
+         */
+        public void stop() {
+            if (fStopped) {
+                return;
+            }
+            Measure current = fPerformance.fCurrent.get();
+            if (current != null && contains(current)) {
+                for (Measure measure = current; measure != null && measure != this; measure = measure.fParent) {
+                    measure.stop();
+                }
+                fPerformance.fCurrent.set(fParent);
+            }
+            fStopped = true;
+            fStatistics.add(System.nanoTime() - fStartTime);
+        }
+
+        /* Whether the measure is this one or nested in it */
+        private boolean contains(Measure measure) {
+            for (Measure parent = measure; parent != null; parent = parent.fParent) {
+                if (parent == this) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Statistics of the measures with the same name. A duration falls in the
+     * histogram bucket <code>i</code> if it is shorter than
+     * <code>2<sup>i</sup></code> ns and not shorter than the bound of the
+     * previous bucket.
+     */
+    public static final class Statistics {
+        private final Phase fPhase;
+        private final String fName;
+        private final int fDepth;
+        private final long fFirstStartTime;
+        private final LongAdder fCount = new LongAdder();
+        private final LongAdder fTotal = new LongAdder();
+        private final AtomicLong fMin = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong fMax = new AtomicLong(0);
+        private final AtomicLongArray fHistogram = new AtomicLongArray(Long.SIZE);
+
+        private Statistics(Phase phase, String name, int depth) {
+            fPhase = phase;
+            fName = name;
+            fDepth = depth;
+            fFirstStartTime = System.nanoTime();
+        }
+
+        private void add(long duration) {
+            fCount.increment();
+            fTotal.add(duration);
+            fMin.accumulateAndGet(duration, Math::min);
+            fMax.accumulateAndGet(duration, Math::max);
+            fHistogram.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(Math.max(duration, 0)));
+        }
+
+        /**
+         * @return The phase of the measures
+         */
+        public Phase getPhase() {
+            return fPhase;
+        }
+
+        /**
+         * @return The name of the measures
+         */
+        public String getName() {
+            return fName;
+        }
+
+        /**
+         * @return The number of completed measures, or the value of a counter
+         */
+        public long getCount() {
+            return fCount.sum();
+        }
+
+        /**
+         * @return The total duration of the measures, in ns
+         */
+        public long getTotal() {
+            return fTotal.sum();
+        }
+
+        /**
+         * @return The shortest duration of the measures, in ns, or 0 if there
+         *         is none
+         */
+        public long getMin() {
+            long min = fMin.get();
+            return (min == Long.MAX_VALUE) ? 0 : min;
+        }
+
+        /**
+         * @return The longest duration of the measures, in ns
+         */
+        public long getMax() {
+            return fMax.get();
+        }
+
+        /**
+         * @return The number of measures in each bucket of the histogram
+         */
+        public long[] getHistogram() {
+            long[] histogram = new long[fHistogram.length()];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = fHistogram.get(i);
+            }
+            return histogram;
+        }
+
+        private JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("name", fName); //$NON-NLS-1$
+            json.put("count", getCount()); //$NON-NLS-1$
+            json.put("totalNs", getTotal()); //$NON-NLS-1$
+            json.put("minNs", getMin()); //$NON-NLS-1$
+            json.put("maxNs", getMax()); //$NON-NLS-1$
+            JSONArray histogram = new JSONArray();
+            long[] buckets = getHistogram();
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] != 0) {
+                    JSONObject bucket = new JSONObject();
+                    bucket.put("upperBoundNs", (i < Long.SIZE - 1) ? 1L << i : Long.MAX_VALUE); //$NON-NLS-1$
+                    bucket.put("count", buckets[i]); //$NON-NLS-1$
+                    histogram.put(bucket);
+                }
+            }
+            json.put("histogram", histogram); //$NON-NLS-1$
+            return json;
+        }
+    }
+
+    /* Measures, then counters, per phase and name */
+    private final Map<String, Statistics> fMeasures = new ConcurrentHashMap<>();
+    private final Map<String, Statistics> fCounters = new ConcurrentHashMap<>();
+    /* Innermost measure in progress in each thread */
+    private final ThreadLocal<@Nullable Measure> fCurrent = new ThreadLocal<>();
+
+    private static String getKey(Phase phase, String name) {
+        return phase.name() + '/' + name;
+    }
+
+    /**
+     * Start a measure
+     *
+     * @param phase
+     *            The phase of the analysis the measured code is part of
+     * @param name
+     *            The name of the measure. The measures with the same name are
+     *            aggregated.
+     * @return The measure, to stop when the measured code is done
+     */
+    public Measure start(Phase phase, String name) {
+        /* Measures stopped from another thread are not parents anymore */
+        Measure parent = fCurrent.get();
+        while (parent != null && parent.fStopped) {
+            parent = parent.fParent;
+        }
+        Measure measure = new Measure(this, parent, phase, name);
+        fCurrent.set(measure);
+        return measure;
+    }
+
+    /**
+     * Increment a counter
+     *
+     * @param phase
+     *            The phase of the analysis the counted elements are part of
+     * @param name
+     *            The name of the counter
+     * @param delta
+     *            The value to add to the counter
+     */
+    public void count(Phase phase, String name, long delta) {
+        fCounters.computeIfAbsent(getKey(phase, name), key -> new Statistics(phase, name, 0)).fCount.add(delta);
+    }
+
+    /**
+     * Get the statistics of the measures, by phase and in the order the
+     * measures were first started
+     *
+     * @return The statistics of the measures
+     */
+    public List<Statistics> getStatistics() {
+        return sorted(fMeasures);
+    }
+
+    /**
+     * Get the counters, by phase and in the order they were first incremented
+     *
+     * @return The counters, their value is the count of the statistics
+     */
+    public List<Statistics> getCounters() {
+        return sorted(fCounters);
+    }
+
+    private static List<Statistics> sorted(Map<String, Statistics> map) {
+        List<Statistics> list = new ArrayList<>(map.values());
+        list.sort(Comparator.<Statistics, Phase> comparing(s -> s.fPhase)
+                .thenComparing(s -> s.fFirstStartTime, (t1, t2) -> Long.compare(t1 - t2, 0)));
+        return list;
+    }
+
+    /**
+     * Print the statistics of the measures and the counters to the benchmark
+     * and debug reports
+     */
+    public void printReport() {
+        for (Statistics statistics : getStatistics()) {
+            StateMachineReport.benchmark(String.format("%s = %d ns", //$NON-NLS-1$
+                    statistics.fName, statistics.getTotal()));
+            StateMachineReport.debug(String.format(Strings.repeat("\t", statistics.fDepth) + "%s = %f ms (%d calls)", //$NON-NLS-1$ //$NON-NLS-2$
+                    statistics.fName, statistics.getTotal() / 1e6, statistics.getCount()));
+        }
+        for (Statistics counter : getCounters()) {
+            StateMachineReport.benchmark(String.format("%s = %d", //$NON-NLS-1$
+                    counter.fName, counter.getCount()));
+        }
+    }
+
+    /**
+     * Get the statistics of the measures and the counters as JSON. The object
+     * has a member per phase, with the <code>measures</code> and
+     * <code>counters</code> arrays of the phase.
+     *
+     * @return The JSON object
+     * @throws JSONException
+     *             If the JSON object could not be built
+     */
+    public JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        for (Phase phase : Phase.values()) {
+            JSONArray measures = new JSONArray();
+            for (Statistics statistics : getStatistics()) {
+                if (statistics.fPhase == phase) {
+                    measures.put(statistics.toJson());
+                }
+            }
+            JSONArray counters = new JSONArray();
+            for (Statistics counter : getCounters()) {
+                if (counter.fPhase == phase) {
+                    JSONObject counterJson = new JSONObject();
+                    counterJson.put("name", counter.fName); //$NON-NLS-1$
+                    counterJson.put("value", counter.getCount()); //$NON-NLS-1$
+                    counters.put(counterJson);
+                }
+            }
+            if (measures.length() == 0 && counters.length() == 0) {
+                continue;
+            }
+            JSONObject phaseJson = new JSONObject();
+            phaseJson.put("measures", measures); //$NON-NLS-1$
+            phaseJson.put("counters", counters); //$NON-NLS-1$
+            json.put(phase.getJsonName(), phaseJson);
+        }
+        return json;
+    }
+
+    /**
+     * Export the statistics of the measures and the counters as JSON to a file
+     *
+     * @param path
+     *            The path of the file to write
+     * @throws IOException
+     *             If the file could not be written
+     */
+    public void exportJson(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(toJson().toString(2));
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+    }
+}
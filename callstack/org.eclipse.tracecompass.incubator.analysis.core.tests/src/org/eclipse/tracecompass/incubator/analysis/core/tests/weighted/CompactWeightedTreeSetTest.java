@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.analysis.core.tests.weighted;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.CompactWeightedTreeSet;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.WeightedTree;
+import org.junit.Test;
+
+/**
+ * Test the {@link CompactWeightedTreeSet} class
+ */
+@NonNullByDefault
+public class CompactWeightedTreeSetTest {
+
+    private static final String OBJ1 = "obj1";
+    private static final String OBJ2 = "obj2";
+    private static final String OBJ3 = "obj3";
+
+    private static @Nullable WeightedTree<String> findTree(Collection<WeightedTree<String>> trees, String object) {
+        for (WeightedTree<String> tree : trees) {
+            if (tree.getObject().equals(object)) {
+                return tree;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Test adding trees to simple elements in the set
+     */
+    @Test
+    public void testAddingSimpleData() {
+        int initialWeight = 10;
+        String element1 = "element1";
+        String element2 = "element2";
+
+        // Initialization
+        CompactWeightedTreeSet<String, WeightedTree<String>> treeSet = new CompactWeightedTreeSet<>();
+        assertTrue(treeSet.getElements().isEmpty());
+        assertTrue(treeSet.getTreesFor(element1).isEmpty());
+
+        // Add a first tree to the set and make sure we can retrieve it
+        treeSet.addWeightedTree(element1, new WeightedTree<>(OBJ1, initialWeight));
+        Collection<Object> elements = treeSet.getElements();
+        assertEquals(1, elements.size());
+        assertEquals(element1, elements.iterator().next());
+        Collection<WeightedTree<String>> trees = treeSet.getTreesFor(element1);
+        assertEquals(1, trees.size());
+        WeightedTree<String> tree = trees.iterator().next();
+        assertEquals(OBJ1, tree.getObject());
+        assertEquals(initialWeight, tree.getWeight());
+
+        // Add a second tree for the same object, should be merged
+        treeSet.addWeightedTree(element1, new WeightedTree<>(OBJ1, initialWeight));
+        trees = treeSet.getTreesFor(element1);
+        assertEquals(1, trees.size());
+        assertEquals(initialWeight * 2, trees.iterator().next().getWeight());
+
+        // Add a tree for another object
+        treeSet.addWeightedTree(element1, new WeightedTree<>(OBJ2, initialWeight));
+        assertEquals(2, treeSet.getTreesFor(element1).size());
+
+        // Add tree to second element, first element should not be affected
+        treeSet.addWeightedTree(element2, new WeightedTree<>(OBJ1, initialWeight));
+        assertEquals(2, treeSet.getElements().size());
+        assertEquals(2, treeSet.getTreesFor(element1).size());
+        assertEquals(1, treeSet.getTreesFor(element2).size());
+    }
+
+    /**
+     * Test that the hierarchy of added trees is kept and merged, without
+     * modifying the original trees
+     */
+    @Test
+    public void testHierarchy() {
+        String element = "element";
+
+        // Build a tree obj1 -> (obj2 -> obj3, obj3)
+        WeightedTree<String> root = new WeightedTree<>(OBJ1, 20);
+        WeightedTree<String> child = new WeightedTree<>(OBJ2, 10);
+        child.addChild(new WeightedTree<>(OBJ3, 5));
+        root.addChild(child);
+        root.addChild(new WeightedTree<>(OBJ3, 4));
+
+        CompactWeightedTreeSet<String, WeightedTree<String>> treeSet = new CompactWeightedTreeSet<>();
+        treeSet.addWeightedTree(element, root);
+        // Add it a second time, all weights should be doubled
+        treeSet.addWeightedTree(element, root);
+        treeSet.trimToSize();
+        // The original tree should not have been modified
+        assertEquals(20, root.getWeight());
+        assertEquals(2, root.getChildren().size());
+
+        // 1 element node + 4 tree nodes
+        assertEquals(5, treeSet.getNodeCount());
+
+        Collection<WeightedTree<String>> trees = treeSet.getTreesFor(element);
+        assertEquals(1, trees.size());
+        WeightedTree<String> compactRoot = trees.iterator().next();
+        assertEquals(40, compactRoot.getWeight());
+        assertEquals(3, compactRoot.getMaxDepth());
+
+        Collection<WeightedTree<String>> children = compactRoot.getChildren();
+        assertEquals(2, children.size());
+        WeightedTree<String> compactChild = findTree(children, OBJ2);
+        assertNotNull(compactChild);
+        assertEquals(20, compactChild.getWeight());
+        WeightedTree<String> leaf = findTree(children, OBJ3);
+        assertNotNull(leaf);
+        assertEquals(8, leaf.getWeight());
+        assertTrue(leaf.getChildren().isEmpty());
+
+        WeightedTree<String> grandChild = findTree(compactChild.getChildren(), OBJ3);
+        assertNotNull(grandChild);
+        assertEquals(10, grandChild.getWeight());
+
+        // Views of the same node should be equal
+        assertEquals(compactRoot, treeSet.getTreesFor(element).iterator().next());
+
+        // Trees can still be added after the set is trimmed
+        treeSet.addWeightedTree(element, child);
+        assertEquals(2, treeSet.getTreesFor(element).size());
+        assertEquals(7, treeSet.getNodeCount());
+    }
+
+    /**
+     * Test the original trees of the nodes and the copies of the compact trees
+     */
+    @Test
+    public void testOriginalTrees() {
+        String element = "element";
+        WeightedTree<String> root1 = new WeightedTree<>(OBJ1, 20);
+        WeightedTree<String> child1 = new WeightedTree<>(OBJ2, 10);
+        root1.addChild(child1);
+        WeightedTree<String> root2 = new WeightedTree<>(OBJ1, 5);
+        root2.addChild(new WeightedTree<>(OBJ3, 2));
+
+        CompactWeightedTreeSet<String, WeightedTree<String>> treeSet = new CompactWeightedTreeSet<>();
+        treeSet.addWeightedTree(element, root1);
+        treeSet.addWeightedTree(element, root2);
+
+        WeightedTree<String> tree = treeSet.getTreesFor(element).iterator().next();
+        assertTrue(tree instanceof CompactWeightedTreeSet.CompactTree);
+        CompactWeightedTreeSet<String, WeightedTree<String>>.CompactTree compactRoot = (CompactWeightedTreeSet<String, WeightedTree<String>>.CompactTree) tree;
+
+        // A node with many original trees merges them in a copy
+        WeightedTree<String> merged = compactRoot.getTree();
+        assertNotSame(root1, merged);
+        assertNotSame(root2, merged);
+        assertEquals(25, merged.getWeight());
+        assertEquals(2, merged.getChildren().size());
+        assertSame(merged, compactRoot.getTree());
+        assertEquals(20, root1.getWeight());
+        assertEquals(1, root1.getChildren().size());
+
+        // A node with one original tree returns it
+        WeightedTree<String> child = findTree(compactRoot.getChildren(), OBJ2);
+        assertTrue(child instanceof CompactWeightedTreeSet.CompactTree);
+        assertSame(child1, ((CompactWeightedTreeSet<String, WeightedTree<String>>.CompactTree) child).getTree());
+        assertSame(child1, ((CompactWeightedTreeSet<String, WeightedTree<String>>.CompactTree) child).getFirstTree());
+
+        // Copies are independent modifiable trees
+        WeightedTree<String> copy = compactRoot.copyOf();
+        assertEquals(25, copy.getWeight());
+        assertEquals(2, copy.getChildren().size());
+        copy.addToWeight(5);
+        assertEquals(30, copy.getWeight());
+        assertEquals(25, compactRoot.getWeight());
+        assertEquals(25, compactRoot.getTree().getWeight());
+    }
+
+}
@@ -30,9 +30,9 @@ import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.AllGroupDe
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.DepthGroupDescriptor;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.ITree;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.IWeightedTreeGroupDescriptor;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.IWeightedTreeSet;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.WeightedTree;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.WeightedTreeGroupBy;
-import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.WeightedTreeSet;
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableMap;
@@ -142,7 +142,7 @@ public class WeightedTreeGroupByTest {
     public void testGroupByAll() {
         SimpleWeightedTreeProvider wtProvider = getProvider(true);
 
-        groupByAll(wtProvider);
+        groupByAll(wtProvider, false);
     }
 
     /**
@@ -155,7 +155,7 @@ public class WeightedTreeGroupByTest {
         IWeightedTreeGroupDescriptor groupDescriptor = wtProvider.getGroupDescriptor();
         assertNotNull(groupDescriptor);
 
-        groupByLevel1(wtProvider, groupDescriptor);
+        groupByLevel1(wtProvider, groupDescriptor, false);
     }
 
     /**
@@ -170,7 +170,7 @@ public class WeightedTreeGroupByTest {
         groupDescriptor = groupDescriptor.getNextGroup();
         assertNotNull(groupDescriptor);
 
-        groupByLevel2(wtProvider, groupDescriptor);
+        groupByLevel2(wtProvider, groupDescriptor, false);
     }
 
     /**
@@ -186,22 +186,22 @@ public class WeightedTreeGroupByTest {
         assertNotNull(groupDescriptor2);
 
         // First, group by process
-        groupByLevel1(wtProvider, groupDescriptor1);
+        groupByLevel1(wtProvider, groupDescriptor1, false);
 
         // Then, regroup by thread
-        groupByLevel2(wtProvider, groupDescriptor2);
+        groupByLevel2(wtProvider, groupDescriptor2, false);
 
         // Then, group by all
-        groupByAll(wtProvider);
+        groupByAll(wtProvider, false);
 
         // Group by process again
-        groupByLevel1(wtProvider, groupDescriptor1);
+        groupByLevel1(wtProvider, groupDescriptor1, false);
 
         // Group by all
-        groupByAll(wtProvider);
+        groupByAll(wtProvider, false);
 
         // Finally by thread
-        groupByLevel2(wtProvider, groupDescriptor2);
+        groupByLevel2(wtProvider, groupDescriptor2, false);
 
     }
 
@@ -213,7 +213,7 @@ public class WeightedTreeGroupByTest {
     public void testGroupByAllNoGrouping() {
         SimpleWeightedTreeProvider wtProvider = getProvider(false);
 
-        groupByAll(wtProvider);
+        groupByAll(wtProvider, false);
     }
 
     /**
@@ -226,7 +226,7 @@ public class WeightedTreeGroupByTest {
         IWeightedTreeGroupDescriptor groupDescriptor = wtProvider.getGroupDescriptor();
         assertTrue(groupDescriptor instanceof DepthGroupDescriptor);
 
-        groupByLevel1(wtProvider, groupDescriptor);
+        groupByLevel1(wtProvider, groupDescriptor, false);
     }
 
     /**
@@ -242,7 +242,7 @@ public class WeightedTreeGroupByTest {
         assertTrue(groupDescriptor instanceof DepthGroupDescriptor);
         assertNull(groupDescriptor.getNextGroup());
 
-        groupByLevel2(wtProvider, groupDescriptor);
+        groupByLevel2(wtProvider, groupDescriptor, false);
     }
 
     /**
@@ -258,27 +258,73 @@ public class WeightedTreeGroupByTest {
         assertTrue(groupDescriptor2 instanceof DepthGroupDescriptor);
 
         // First, group by process
-        groupByLevel1(wtProvider, groupDescriptor1);
+        groupByLevel1(wtProvider, groupDescriptor1, false);
 
         // Then, regroup by thread
-        groupByLevel2(wtProvider, groupDescriptor2);
+        groupByLevel2(wtProvider, groupDescriptor2, false);
 
         // Then, group by all
-        groupByAll(wtProvider);
+        groupByAll(wtProvider, false);
 
         // Group by process again
-        groupByLevel1(wtProvider, groupDescriptor1);
+        groupByLevel1(wtProvider, groupDescriptor1, false);
 
         // Group by all
-        groupByAll(wtProvider);
+        groupByAll(wtProvider, false);
 
         // Finally by thread
-        groupByLevel2(wtProvider, groupDescriptor2);
+        groupByLevel2(wtProvider, groupDescriptor2, false);
 
     }
 
-    private void groupByAll(SimpleWeightedTreeProvider wtProvider) {
-        WeightedTreeSet<String, Object> wts = WeightedTreeGroupBy.groupWeightedTreeBy(AllGroupDescriptor.getInstance(), wtProvider.getTreeSet(), wtProvider);
+    /**
+     * Test the groupings in a compact tree set, they should give the same
+     * trees as the groupings in a weighted tree set
+     */
+    @Test
+    public void testMultiGroupBysCompact() {
+        SimpleWeightedTreeProvider wtProvider = getProvider(true);
+        IWeightedTreeGroupDescriptor groupDescriptor1 = wtProvider.getGroupDescriptor();
+        assertNotNull(groupDescriptor1);
+        IWeightedTreeGroupDescriptor groupDescriptor2 = groupDescriptor1.getNextGroup();
+        assertNotNull(groupDescriptor2);
+
+        groupByLevel1(wtProvider, groupDescriptor1, true);
+        groupByLevel2(wtProvider, groupDescriptor2, true);
+        groupByAll(wtProvider, true);
+
+        // Grouping in a compact set should not modify the original trees
+        groupByLevel1(wtProvider, groupDescriptor1, false);
+        groupByLevel2(wtProvider, groupDescriptor2, false);
+        groupByAll(wtProvider, false);
+    }
+
+    /**
+     * Test the groupings in a compact tree set, with a tree that does not
+     * provide groups
+     */
+    @Test
+    public void testMultiGroupBysCompactNoGrouping() {
+        SimpleWeightedTreeProvider wtProvider = getProvider(false);
+        IWeightedTreeGroupDescriptor groupDescriptor1 = wtProvider.getGroupDescriptor();
+        assertTrue(groupDescriptor1 instanceof DepthGroupDescriptor);
+        IWeightedTreeGroupDescriptor groupDescriptor2 = groupDescriptor1.getNextGroup();
+        assertTrue(groupDescriptor2 instanceof DepthGroupDescriptor);
+
+        groupByLevel1(wtProvider, groupDescriptor1, true);
+        groupByLevel2(wtProvider, groupDescriptor2, true);
+        groupByAll(wtProvider, true);
+    }
+
+    private static IWeightedTreeSet<String, Object, WeightedTree<String>> groupBy(SimpleWeightedTreeProvider wtProvider, IWeightedTreeGroupDescriptor descriptor, boolean compact) {
+        if (compact) {
+            return WeightedTreeGroupBy.groupCompactWeightedTreeBy(descriptor, wtProvider.getTreeSet(), wtProvider);
+        }
+        return WeightedTreeGroupBy.groupWeightedTreeBy(descriptor, wtProvider.getTreeSet(), wtProvider);
+    }
+
+    private void groupByAll(SimpleWeightedTreeProvider wtProvider, boolean compact) {
+        IWeightedTreeSet<String, Object, WeightedTree<String>> wts = groupBy(wtProvider, AllGroupDescriptor.getInstance(), compact);
         Collection<@NonNull ?> elements = wts.getElements();
         assertEquals(1, elements.size());
 
@@ -291,9 +337,9 @@ public class WeightedTreeGroupByTest {
     /**
      * Test the group by intermediate level for a weighted tree
      */
-    private void groupByLevel1(SimpleWeightedTreeProvider wtProvider, IWeightedTreeGroupDescriptor descriptor) {
+    private void groupByLevel1(SimpleWeightedTreeProvider wtProvider, IWeightedTreeGroupDescriptor descriptor, boolean compact) {
 
-        WeightedTreeSet<String, Object> wts = WeightedTreeGroupBy.groupWeightedTreeBy(descriptor, wtProvider.getTreeSet(), wtProvider);
+        IWeightedTreeSet<String, Object, WeightedTree<String>> wts = groupBy(wtProvider, descriptor, compact);
         Collection<?> elements = wts.getElements();
         assertEquals(2, elements.size());
 
@@ -318,9 +364,9 @@ public class WeightedTreeGroupByTest {
     /**
      * Test the group by leaf level of the weighted tree
      */
-    private void groupByLevel2(SimpleWeightedTreeProvider wtProvider, IWeightedTreeGroupDescriptor descriptor) {
+    private void groupByLevel2(SimpleWeightedTreeProvider wtProvider, IWeightedTreeGroupDescriptor descriptor, boolean compact) {
 
-        WeightedTreeSet<String, Object> wts = WeightedTreeGroupBy.groupWeightedTreeBy(descriptor, wtProvider.getTreeSet(), wtProvider);
+        IWeightedTreeSet<String, Object, WeightedTree<String>> wts = groupBy(wtProvider, descriptor, compact);
         Collection<?> elements = wts.getElements();
         assertEquals(2, elements.size());
 
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.analysis.core.tests.weighted.diff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.profiling.core.tests.stubs.weighted.WeightedTreeProviderStub;
+import org.eclipse.tracecompass.analysis.profiling.core.tree.IWeightedTreeSet;
+import org.eclipse.tracecompass.analysis.profiling.core.tree.WeightedTree;
+import org.eclipse.tracecompass.analysis.profiling.core.tree.WeightedTreeSet;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.diff.DifferentialWeightedTree;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.diff.DifferentialWeightedTreeProvider;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.diff.IncrementalTreeSetDiff;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.junit.Test;
+
+/**
+ * Test the {@link IncrementalTreeSetDiff} class
+ */
+@NonNullByDefault
+public class IncrementalTreeSetDiffTest {
+
+    private static final String ELEMENT = "element";
+    private static final Integer VALUE1 = 1;
+    private static final Integer VALUE2 = 2;
+
+    /**
+     * Provider whose selection has a single tree, with a weight equal to the
+     * start time of the selection. There is no selection for the ranges
+     * starting at 0.
+     */
+    private static class SelectionProviderStub extends WeightedTreeProviderStub<Integer, String> {
+
+        private final AtomicInteger fQueries = new AtomicInteger();
+
+        @Override
+        public @Nullable IWeightedTreeSet<Integer, String, WeightedTree<Integer>> getSelection(ITmfTimestamp start, ITmfTimestamp end) {
+            fQueries.incrementAndGet();
+            long weight = start.toNanos();
+            if (weight == 0) {
+                return null;
+            }
+            WeightedTreeSet<Integer, String> treeSet = new WeightedTreeSet<>();
+            WeightedTree<Integer> tree = new WeightedTree<>(VALUE1, weight);
+            tree.addChild(new WeightedTree<>(VALUE2, weight / 2));
+            treeSet.addWeightedTree(ELEMENT, tree);
+            return treeSet;
+        }
+
+        public int getQueries() {
+            return fQueries.get();
+        }
+    }
+
+    /**
+     * Test that only the ranges that changed are queried again
+     */
+    @Test
+    public void testIncrementalDiff() {
+        SelectionProviderStub provider = new SelectionProviderStub();
+        IncrementalTreeSetDiff<Integer> incrementalDiff = new IncrementalTreeSetDiff<>(provider);
+
+        // Both ranges are new
+        DifferentialWeightedTreeProvider<Integer> diff = incrementalDiff.diff(ts(10), ts(20), ts(20), ts(30));
+        assertEquals("Queries", 2, provider.getQueries());
+        verifyDiff(diff, 20, 1.0);
+
+        // Same ranges, the previous differential is returned
+        assertSame(diff, incrementalDiff.diff(ts(10), ts(20), ts(20), ts(30)));
+        assertEquals("Queries", 2, provider.getQueries());
+
+        // Only the second range moved
+        diff = incrementalDiff.diff(ts(10), ts(20), ts(40), ts(50));
+        assertEquals("Queries", 3, provider.getQueries());
+        verifyDiff(diff, 40, 3.0);
+
+        // Only the first range moved
+        diff = incrementalDiff.diff(ts(20), ts(30), ts(40), ts(50));
+        assertEquals("Queries", 4, provider.getQueries());
+        verifyDiff(diff, 40, 1.0);
+
+        // After a reset, both ranges are queried again
+        incrementalDiff.reset();
+        DifferentialWeightedTreeProvider<Integer> newDiff = incrementalDiff.diff(ts(20), ts(30), ts(40), ts(50));
+        assertEquals("Queries", 6, provider.getQueries());
+        assertNotSame(diff, newDiff);
+        verifyDiff(newDiff, 40, 1.0);
+    }
+
+    /**
+     * Test that a range without a selection is queried again at the next call
+     */
+    @Test
+    public void testMissingSelection() {
+        SelectionProviderStub provider = new SelectionProviderStub();
+        IncrementalTreeSetDiff<Integer> incrementalDiff = new IncrementalTreeSetDiff<>(provider);
+
+        assertNull(incrementalDiff.diff(ts(0), ts(10), ts(20), ts(30)));
+        assertEquals("Queries", 2, provider.getQueries());
+
+        // The missing selection is queried again, not the other one
+        assertNull(incrementalDiff.diff(ts(0), ts(10), ts(20), ts(30)));
+        assertEquals("Queries", 3, provider.getQueries());
+
+        // Once the selection is available, the differential is computed
+        DifferentialWeightedTreeProvider<Integer> diff = incrementalDiff.diff(ts(10), ts(20), ts(20), ts(30));
+        assertEquals("Queries", 4, provider.getQueries());
+        verifyDiff(diff, 20, 1.0);
+    }
+
+    private static ITmfTimestamp ts(long time) {
+        return TmfTimestamp.fromNanos(time);
+    }
+
+    private static void verifyDiff(@Nullable DifferentialWeightedTreeProvider<Integer> diff, long expectedWeight, double expectedDiff) {
+        assertNotNull(diff);
+        Collection<DifferentialWeightedTree<Integer>> trees = diff.getTreeSet().getTreesFor(ELEMENT);
+        assertEquals("Number of trees", 1, trees.size());
+        DifferentialWeightedTree<Integer> tree = trees.iterator().next();
+        assertEquals("Tree object", VALUE1, tree.getObject());
+        assertEquals("Base weight", expectedWeight, tree.getWeight());
+        assertEquals("Differential value", expectedDiff, tree.getDifference(), 0.001);
+    }
+}
@@ -135,6 +135,34 @@ public class WeightedTreeUtilsTest {
 
     }
 
+    /**
+     * Test that the copies of the differential trees are modifiable trees with
+     * the same values
+     */
+    @Test
+    public void testDiffTreeCopy() {
+        List<WeightedTree<Integer>> tree1 = fTree1;
+        List<WeightedTree<Integer>> tree2 = fTree2;
+        assertNotNull(tree1);
+        assertNotNull(tree2);
+
+        Collection<DifferentialWeightedTree<Integer>> diffTrees = WeightedTreeUtils.diffTrees(tree1, tree2);
+        List<DifferentialWeightedTree<Integer>> copies = new ArrayList<>();
+        for (DifferentialWeightedTree<Integer> diffTree : diffTrees) {
+            WeightedTree<Integer> copy = diffTree.copyOf();
+            assertTrue(copy instanceof DifferentialWeightedTree);
+            assertEquals("Max depth of copy", diffTree.getMaxDepth(), copy.getMaxDepth());
+            copies.add((DifferentialWeightedTree<Integer>) copy);
+        }
+        verifyDiffTrees12(copies);
+
+        // Modifying the copies should not modify the differential trees
+        for (DifferentialWeightedTree<Integer> copy : copies) {
+            copy.addToWeight(100);
+        }
+        verifyDiffTrees12(diffTrees);
+    }
+
     /**
      * Test the
      * {@link WeightedTreeUtils#diffTreeSets(IWeightedTreeProvider, IWeightedTreeSet, IWeightedTreeSet)}
@@ -377,6 +405,57 @@ public class WeightedTreeUtilsTest {
         assertNull(diffProvider);
     }
 
+    /**
+     * Test the
+     * {@link WeightedTreeUtils#diffTreeSetsNormalized(IWeightedTreeProvider, List)}
+     * method with many tree sets, where the trees' weights are normalized
+     */
+    @Test
+    public void testDiffTreeSetsNormalized() {
+        String element = "element";
+
+        WeightedTreeSet<Integer, String> treeSet1 = new WeightedTreeSet<>();
+        WeightedTreeSet<Integer, String> treeSet2 = new WeightedTreeSet<>();
+        WeightedTreeSet<Integer, String> treeSet3 = new WeightedTreeSet<>();
+        List<WeightedTree<Integer>> tree1 = Objects.requireNonNull(fTree1);
+        List<WeightedTree<Integer>> tree2 = Objects.requireNonNull(fTree2);
+        tree1.forEach(t -> treeSet1.addWeightedTree(element, t));
+        tree2.forEach(t -> treeSet2.addWeightedTree(element, t));
+        // The third tree set has the same proportions as the first, with
+        // twice the weight
+        tree1.forEach(t -> treeSet3.addWeightedTree(element, t.copyOf()));
+        tree1.forEach(t -> treeSet3.addWeightedTree(element, t.copyOf()));
+
+        WeightedTreeProviderStub<Integer, String> provider = new WeightedTreeProviderStub<>();
+        List<@Nullable DifferentialWeightedTreeProvider<Integer>> diffProviders = WeightedTreeUtils.diffTreeSetsNormalized(provider, List.of(treeSet1, treeSet2, treeSet3));
+        assertEquals("Number of differential providers", 2, diffProviders.size());
+
+        // The total weight of tree2 is 30 and tree1 is 20, so tree2's weights
+        // are scaled by 2/3 before comparison
+        DifferentialWeightedTreeProvider<Integer> diffProvider = diffProviders.get(0);
+        assertNotNull(diffProvider);
+        Collection<DifferentialWeightedTree<Integer>> diffTrees = diffProvider.getTreeSet().getTreesFor(element);
+        assertEquals("Size of differential tree", 2, diffTrees.size());
+        Collection<DifferentialWeightedTree<Integer>> nextTree = getAndVerifyTree(diffTrees, VALUE1, 10, -0.33333);
+        getAndVerifyTree(nextTree, VALUE2, 3, -0.5);
+        nextTree = getAndVerifyTree(nextTree, VALUE3, 3, -0.33333);
+        getAndVerifyTree(nextTree, VALUE3, 1, -0.33333);
+        nextTree = getAndVerifyTree(diffTrees, VALUE2, 20, 0.33333);
+        getAndVerifyTree(nextTree, VALUE4, 10, 0.33333);
+        nextTree = getAndVerifyTree(nextTree, VALUE5, 10, 0.33333);
+        getAndVerifyTree(nextTree, VALUE3, 5, Double.NaN);
+
+        // Same proportions, there should be no difference
+        diffProvider = diffProviders.get(1);
+        assertNotNull(diffProvider);
+        diffTrees = diffProvider.getTreeSet().getTreesFor(element);
+        assertEquals("Size of differential tree", 2, diffTrees.size());
+        nextTree = getAndVerifyTree(diffTrees, VALUE1, 20, 0);
+        getAndVerifyTree(nextTree, VALUE2, 8, 0);
+        nextTree = getAndVerifyTree(diffTrees, VALUE2, 20, 0);
+        getAndVerifyTree(nextTree, VALUE5, 10, 0);
+    }
+
     private static void verifyDiffTrees12(Collection<DifferentialWeightedTree<Integer>> diffTrees) {
         assertEquals("Size of differential tree", 2, diffTrees.size());
         // Compare the first element
@@ -0,0 +1,451 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.analysis.core.weighted.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.weighted.tree.CompactTreeNodes;
+
+/**
+ * A memory efficient weighted tree set that merges trees without copying them.
+ * The nodes of the merged trees are kept in parallel primitive arrays (the
+ * structure, the symbol of the object and the weight) and each node keeps a
+ * reference to the original trees that were merged into it, called its
+ * sources. The original trees are not copied nor modified.
+ *
+ * The {@link WeightedTree} objects returned by {@link #getTreesFor(Object)}
+ * and their children are read-only {@link CompactTree} views on those arrays,
+ * created on demand. The weight, object and children of a view come from the
+ * arrays. The data specific to the implementation of the trees, like the
+ * statistics, come from the sources: the first source is enough for the data
+ * that depends only on the object, like the display string, and the sources
+ * are merged on demand for the other data, with {@link CompactTree#getTree()}.
+ *
+ * @param <N>
+ *            The type of objects represented by each node in the tree
+ * @param <T>
+ *            The type of the original trees
+ */
+public class CompactWeightedTreeSet<@NonNull N, T extends WeightedTree<N>> implements IWeightedTreeSet<N, Object, WeightedTree<N>> {
+
+    private static final int NO_NODE = CompactTreeNodes.NO_NODE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Set<Object> fRootElements = new HashSet<>();
+    /* The element nodes are sentinel nodes whose children are the root trees */
+    private final Map<Object, Integer> fElementNodes = new HashMap<>();
+
+    /* Symbol table */
+    private final List<N> fSymbols = new ArrayList<>();
+    private final Map<N, Integer> fSymbolIds = new HashMap<>();
+
+    /* The nodes, their data is in arrays indexed by node */
+    private final CompactTreeNodes fNodes = new CompactTreeNodes();
+    private int[] fNodeSymbols = new int[INITIAL_CAPACITY];
+    private long[] fWeights = new long[INITIAL_CAPACITY];
+    private int[] fFirstSources = new int[INITIAL_CAPACITY];
+
+    /* The sources of the nodes, as linked lists in arrays */
+    private @Nullable Object[] fSources = new Object[INITIAL_CAPACITY];
+    private int[] fNextSources = new int[INITIAL_CAPACITY];
+    private int fSourceCount = 0;
+
+    /*
+     * Open addressing index of the children, the key is the parent node and
+     * the symbol of the child, the value is the child node + 1, 0 means an
+     * empty slot. It is only needed while trees are added and is released by
+     * trimToSize().
+     */
+    private long @Nullable [] fChildKeys = null;
+    private int @Nullable [] fChildValues = null;
+    private int fChildCount = 0;
+
+    @Override
+    public Collection<Object> getElements() {
+        return fRootElements;
+    }
+
+    @Override
+    public Collection<WeightedTree<N>> getTreesFor(Object element) {
+        Integer elementNode = fElementNodes.get(element);
+        if (elementNode == null) {
+            return Collections.emptyList();
+        }
+        return getChildrenViews(elementNode);
+    }
+
+    /**
+     * Add a weighted tree for an element in this set. If a tree for the same
+     * object already exists, their nodes will be merged. The tree is not
+     * copied, its nodes are kept as sources of the nodes of this set, so it
+     * should not be modified afterwards.
+     *
+     * @param dstGroup
+     *            The group to which to add this tree
+     * @param tree
+     *            The weighted tree to add to this set
+     */
+    public void addWeightedTree(Object dstGroup, T tree) {
+        // Make sure the root element is present
+        Object root = dstGroup;
+        if (dstGroup instanceof ITree) {
+            ITree parent = ((ITree) dstGroup).getParent();
+            while (parent != null) {
+                root = parent;
+                parent = parent.getParent();
+            }
+        }
+        fRootElements.add(root);
+
+        Integer elementNode = fElementNodes.get(dstGroup);
+        if (elementNode == null) {
+            elementNode = newNode(NO_NODE, NO_NODE);
+            fElementNodes.put(dstGroup, elementNode);
+        }
+
+        // Iteratively add the tree, to support very deep trees
+        Deque<WeightedTree<N>> toAdd = new ArrayDeque<>();
+        Deque<Integer> parents = new ArrayDeque<>();
+        toAdd.push(tree);
+        parents.push(elementNode);
+        while (!toAdd.isEmpty()) {
+            WeightedTree<N> current = toAdd.pop();
+            int node = getOrAddChild(parents.pop(), getSymbolId(current.getObject()));
+            fWeights[node] += current.getWeight();
+            addSource(node, current);
+            for (WeightedTree<N> child : current.getChildren()) {
+                toAdd.push(child);
+                parents.push(node);
+            }
+        }
+    }
+
+    /**
+     * Get the total number of nodes in this set, including one internal node
+     * per element.
+     *
+     * @return The number of nodes
+     */
+    public int getNodeCount() {
+        return fNodes.size();
+    }
+
+    /**
+     * Trim the internal arrays of this set to their actual size and release
+     * the index used to merge the trees. It should be called once the set is
+     * complete.
+     */
+    public void trimToSize() {
+        int size = fNodes.size();
+        fNodes.trimToSize();
+        fNodeSymbols = Arrays.copyOf(fNodeSymbols, size);
+        fWeights = Arrays.copyOf(fWeights, size);
+        fFirstSources = Arrays.copyOf(fFirstSources, size);
+        fSources = Arrays.copyOf(fSources, fSourceCount);
+        fNextSources = Arrays.copyOf(fNextSources, fSourceCount);
+        fChildKeys = null;
+        fChildValues = null;
+        fChildCount = 0;
+    }
+
+    // ------------------------------------------------------------------------
+    // Node manipulation
+    // ------------------------------------------------------------------------
+
+    private int getSymbolId(N object) {
+        Integer id = fSymbolIds.get(object);
+        if (id == null) {
+            id = fSymbols.size();
+            fSymbols.add(object);
+            fSymbolIds.put(object, id);
+        }
+        return id;
+    }
+
+    private int newNode(int parent, int symbol) {
+        int node = fNodes.addNode(parent);
+        int capacity = fNodes.capacity();
+        if (fWeights.length < capacity) {
+            fNodeSymbols = Arrays.copyOf(fNodeSymbols, capacity);
+            fWeights = Arrays.copyOf(fWeights, capacity);
+            fFirstSources = Arrays.copyOf(fFirstSources, capacity);
+        }
+        fNodeSymbols[node] = symbol;
+        fWeights[node] = 0;
+        fFirstSources[node] = NO_NODE;
+        return node;
+    }
+
+    private void addSource(int node, WeightedTree<N> source) {
+        if (fSourceCount == fSources.length) {
+            int newLength = Math.max(INITIAL_CAPACITY, fSourceCount + (fSourceCount >> 1));
+            fSources = Arrays.copyOf(fSources, newLength);
+            fNextSources = Arrays.copyOf(fNextSources, newLength);
+        }
+        int slot = fSourceCount++;
+        fSources[slot] = source;
+        fNextSources[slot] = fFirstSources[node];
+        fFirstSources[node] = slot;
+    }
+
+    private int getOrAddChild(int parent, int symbol) {
+        long[] keys = fChildKeys;
+        int[] values = fChildValues;
+        if (keys == null || values == null) {
+            rehashChildren(INITIAL_CAPACITY * 2);
+            keys = Objects.requireNonNull(fChildKeys);
+            values = Objects.requireNonNull(fChildValues);
+        }
+        long key = ((long) parent << 32) | (symbol & 0xffffffffL);
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int child = newNode(parent, symbol);
+        keys[slot] = key;
+        values[slot] = child + 1;
+        fChildCount++;
+        if (fChildCount * 2 > keys.length) {
+            rehashChildren(keys.length * 2);
+        }
+        return child;
+    }
+
+    /*
+     * (Re)build the child index from the nodes, the index is released when the
+     * set is trimmed
+     */
+    private void rehashChildren(int minLength) {
+        int length = minLength;
+        while (length < fNodes.size() * 2) {
+            length *= 2;
+        }
+        long[] keys = new long[length];
+        int[] values = new int[length];
+        int mask = length - 1;
+        int count = 0;
+        for (int node = 0; node < fNodes.size(); node++) {
+            int parent = fNodes.getParent(node);
+            if (parent == NO_NODE) {
+                continue;
+            }
+            long key = ((long) parent << 32) | (fNodeSymbols[node] & 0xffffffffL);
+            int slot = hash(key) & mask;
+            while (values[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = node + 1;
+            count++;
+        }
+        fChildKeys = keys;
+        fChildValues = values;
+        fChildCount = count;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private List<WeightedTree<N>> getChildrenViews(int node) {
+        int child = fNodes.getFirstChild(node);
+        if (child == NO_NODE) {
+            return Collections.emptyList();
+        }
+        List<WeightedTree<N>> children = new ArrayList<>();
+        while (child != NO_NODE) {
+            children.add(new CompactTree(child));
+            child = fNodes.getNextSibling(child);
+        }
+        return children;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getSource(int slot) {
+        return (T) Objects.requireNonNull(fSources[slot]);
+    }
+
+    /**
+     * A read-only view of a node of this tree set. The structure and weight of
+     * the node are read from the arrays of the set, the other data come from
+     * the original trees merged in this node.
+     *
+     * Since the merged trees are not copied, this view cannot be modified and
+     * it should not be merged in other trees, a copy obtained with
+     * {@link #copyOf()} should be used instead.
+     */
+    public final class CompactTree extends WeightedTree<N> {
+
+        private final int fNode;
+        private @Nullable T fMergedTree = null;
+
+        private CompactTree(int node) {
+            super(fSymbols.get(fNodeSymbols[node]), fWeights[node]);
+            fNode = node;
+        }
+
+        /**
+         * Get one of the original trees merged in this node. Since all those
+         * trees are for the same object, it can be used for the data that
+         * depend only on the object, like the display string or the style,
+         * without merging the trees.
+         *
+         * @return An original tree of this node
+         */
+        public T getFirstTree() {
+            return getSource(fFirstSources[fNode]);
+        }
+
+        /**
+         * Get the tree with the data of all the original trees merged in this
+         * node. If only one tree was merged in this node, it is returned
+         * as is, otherwise, the trees are merged in a copy the first time this
+         * method is called. The returned tree should not be modified.
+         *
+         * @return The tree with the merged data of this node
+         */
+        @SuppressWarnings("unchecked")
+        public T getTree() {
+            int slot = fFirstSources[fNode];
+            if (fNextSources[slot] == NO_NODE) {
+                return getSource(slot);
+            }
+            T merged = fMergedTree;
+            if (merged == null) {
+                WeightedTree<N> copy = getSource(slot).copyOf();
+                for (slot = fNextSources[slot]; slot != NO_NODE; slot = fNextSources[slot]) {
+                    copy.merge(getSource(slot));
+                }
+                merged = (T) copy;
+                fMergedTree = merged;
+            }
+            return merged;
+        }
+
+        @Override
+        public long getWeight() {
+            return fWeights[fNode];
+        }
+
+        @Override
+        protected @Nullable WeightedTree<N> getParent() {
+            int parent = fNodes.getParent(fNode);
+            // The parent of root trees is the element's sentinel node
+            if (parent == NO_NODE || fNodes.getParent(parent) == NO_NODE) {
+                return null;
+            }
+            return new CompactTree(parent);
+        }
+
+        @Override
+        public Collection<WeightedTree<N>> getChildren() {
+            return getChildrenViews(fNode);
+        }
+
+        @Override
+        public WeightedTree<N> copyOf() {
+            return getTree().copyOf();
+        }
+
+        @Override
+        public void addToWeight(long weight) {
+            throw new UnsupportedOperationException("Compact weighted trees are read-only, add trees to the set instead"); //$NON-NLS-1$
+        }
+
+        @Override
+        public void addChild(WeightedTree<N> child) {
+            throw new UnsupportedOperationException("Compact weighted trees are read-only, add trees to the set instead"); //$NON-NLS-1$
+        }
+
+        @Override
+        public @Nullable IStatistics<?> getStatistics(int metricIndex) {
+            return getTree().getStatistics(metricIndex);
+        }
+
+        @Override
+        public int getMaxDepth() {
+            return fNodes.getMaxDepth(fNode);
+        }
+
+        @Override
+        public Collection<WeightedTree<@NonNull N>> getExtraDataTrees(int index) {
+            int slot = fFirstSources[fNode];
+            if (fNextSources[slot] == NO_NODE) {
+                return getSource(slot).getExtraDataTrees(index);
+            }
+            // Merge the extra trees of the sources by object, without merging
+            // the sources themselves
+            Map<N, WeightedTree<N>> extraTrees = new LinkedHashMap<>();
+            for (; slot != NO_NODE; slot = fNextSources[slot]) {
+                for (WeightedTree<N> extraTree : getSource(slot).getExtraDataTrees(index)) {
+                    WeightedTree<N> merged = extraTrees.get(extraTree.getObject());
+                    if (merged == null) {
+                        extraTrees.put(extraTree.getObject(), extraTree.copyOf());
+                    } else {
+                        merged.merge(extraTree);
+                    }
+                }
+            }
+            return extraTrees.values();
+        }
+
+        @Override
+        public int compareTo(WeightedTree<N> o) {
+            return Long.compare(getWeight(), o.getWeight());
+        }
+
+        @Override
+        public int hashCode() {
+            return fNode;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (!(obj instanceof CompactWeightedTreeSet.CompactTree)) {
+                return false;
+            }
+            CompactWeightedTreeSet<?, ?>.CompactTree other = (CompactWeightedTreeSet<?, ?>.CompactTree) obj;
+            return fNode == other.fNode && getSet() == other.getSet();
+        }
+
+        private CompactWeightedTreeSet<N, T> getSet() {
+            return CompactWeightedTreeSet.this;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + getObject() + "]: " + getWeight(); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+    }
+
+}
@@ -13,6 +13,7 @@ package org.eclipse.tracecompass.incubator.analysis.core.weighted.tree;
 
 import java.util.Collection;
 import java.util.Objects;
+import java.util.function.BiConsumer;
 
 import org.eclipse.jdt.annotation.NonNull;
 
@@ -52,15 +53,56 @@ public final class WeightedTreeGroupBy {
      *         descriptor
      */
     public static <@NonNull N, E, T extends WeightedTree<N>> WeightedTreeSet<N, Object> groupWeightedTreeBy(IWeightedTreeGroupDescriptor groupBy, IWeightedTreeSet<N, E, T> weightedTreeSet, IWeightedTreeProvider<N, E, T> provider) {
+        WeightedTreeSet<N, Object> newTreeSet = new WeightedTreeSet<>();
+        groupTrees(groupBy, weightedTreeSet, provider, (group, tree) -> newTreeSet.addWeightedTree(group, tree.copyOf()));
+        return newTreeSet;
+    }
+
+    /**
+     * Group callgraph groups by one of the descriptor, in a compact tree set.
+     * Contrary to
+     * {@link #groupWeightedTreeBy(IWeightedTreeGroupDescriptor, IWeightedTreeSet, IWeightedTreeProvider)},
+     * the trees are not copied and merged, the nodes of the resulting trees
+     * keep a reference to the original trees they come from, so the original
+     * tree set should not be modified while the result is used.
+     *
+     * @param <N>
+     *            The type of objects represented by each node in the tree
+     * @param <E>
+     *            The type of elements used to group the trees. If this type
+     *            extends {@link ITree}, then the elements and their associated
+     *            weighted trees will be grouped in a hierarchical style
+     * @param <T>
+     *            The type of the tree provided
+     *
+     * @param groupBy
+     *            The group descriptor by which to group the call graph
+     *            elements.
+     * @param weightedTreeSet
+     *            The weighted tree set to group trees for
+     * @param provider
+     *            The weighted tree provider
+     * @return A compact weighted tree set that is the result of the grouping
+     *         by the descriptor
+     */
+    public static <@NonNull N, E, T extends WeightedTree<N>> CompactWeightedTreeSet<N, T> groupCompactWeightedTreeBy(IWeightedTreeGroupDescriptor groupBy, IWeightedTreeSet<N, E, T> weightedTreeSet, IWeightedTreeProvider<N, E, T> provider) {
+        CompactWeightedTreeSet<N, T> newTreeSet = new CompactWeightedTreeSet<>();
+        groupTrees(groupBy, weightedTreeSet, provider, newTreeSet::addWeightedTree);
+        newTreeSet.trimToSize();
+        return newTreeSet;
+    }
+
+    private static <@NonNull N, E, T extends WeightedTree<N>> void groupTrees(IWeightedTreeGroupDescriptor groupBy, IWeightedTreeSet<N, E, T> weightedTreeSet, IWeightedTreeProvider<N, E, T> provider, BiConsumer<Object, T> addTree) {
         // Fast return: just aggregated all groups together
         if (groupBy.equals(AllGroupDescriptor.getInstance())) {
-            return groupWeightedTreeByAll(weightedTreeSet);
+            groupWeightedTreeByAll(weightedTreeSet, addTree);
+            return;
         }
 
-        return searchForGroups(groupBy, weightedTreeSet, provider);
+        searchForGroups(groupBy, weightedTreeSet, provider, addTree);
     }
 
-    private static <@NonNull N, E, T extends WeightedTree<N>> WeightedTreeSet<N, Object> searchForGroups(IWeightedTreeGroupDescriptor groupBy, IWeightedTreeSet<N, E, T> callGraph, IWeightedTreeProvider<N, E, T> provider) {
+    private static <@NonNull N, E, T extends WeightedTree<N>> void searchForGroups(IWeightedTreeGroupDescriptor groupBy, IWeightedTreeSet<N, E, T> callGraph, IWeightedTreeProvider<N, E, T> provider, BiConsumer<Object, T> addTree) {
         IWeightedTreeGroupDescriptor groupDescriptor = provider.getGroupDescriptor();
         int level = 0;
         while (groupDescriptor != null && !groupDescriptor.equals(groupBy)) {
@@ -68,14 +110,11 @@ public final class WeightedTreeGroupBy {
             level++;
         }
 
-        WeightedTreeSet<N, Object> newCg = new WeightedTreeSet<>();
-
         Collection<E> elements = callGraph.getElements();
         for (E element : elements) {
             Object groupElement = (element instanceof ITree) ? ((ITree) element).copyElement() : Objects.requireNonNull(element);
-            recurseAddElementData(element, groupElement, callGraph, newCg, 0, level);
+            recurseAddElementData(element, groupElement, callGraph, addTree, 0, level);
         }
-        return newCg;
     }
 
     /*
@@ -85,8 +124,8 @@ public final class WeightedTreeGroupBy {
      *            The last group element
      * @param treeSet
      *            The original weighted tree set
-     * @param newTreeSet
-     *            The new weighted tree set to fill
+     * @param addTree
+     *            The function adding a tree to a group of the new tree set
      * @param elDepth
      *            The current element depth
      * @param groupDepth
@@ -95,11 +134,11 @@ public final class WeightedTreeGroupBy {
      *            treeset, otherwise, they are merged with the trees for the
      *            element at the group depth
      */
-    private static <@NonNull N, E, T extends WeightedTree<N>> void recurseAddElementData(E originalElement, Object groupElement, IWeightedTreeSet<@NonNull N, E, T> treeSet, WeightedTreeSet<@NonNull N, Object> newTreeSet, int elDepth, int groupDepth) {
+    private static <@NonNull N, E, T extends WeightedTree<N>> void recurseAddElementData(E originalElement, Object groupElement, IWeightedTreeSet<@NonNull N, E, T> treeSet, BiConsumer<Object, T> addTree, int elDepth, int groupDepth) {
 
         // Add the current level of trees to the new tree set
         for (T tree : treeSet.getTreesFor(originalElement)) {
-            newTreeSet.addWeightedTree(groupElement, tree.copyOf());
+            addTree.accept(groupElement, tree);
         }
 
         // Recursively add the next level of elements
@@ -112,20 +151,18 @@ public final class WeightedTreeGroupBy {
                     nextGroupEl = child.copyElement();
                     ((ITree) groupElement).addChild(nextGroupEl);
                 }
-                recurseAddElementData((E) child, nextGroupEl, treeSet, newTreeSet, elDepth + 1, groupDepth);
+                recurseAddElementData((E) child, nextGroupEl, treeSet, addTree, elDepth + 1, groupDepth);
             }
         }
 
     }
 
-    private static <@NonNull N, E, T extends WeightedTree<N>> WeightedTreeSet<N, Object> groupWeightedTreeByAll(IWeightedTreeSet<N, E, T> weightedTree) {
-        WeightedTreeSet<N, Object> newTreeSet = new WeightedTreeSet<>();
+    private static <@NonNull N, E, T extends WeightedTree<N>> void groupWeightedTreeByAll(IWeightedTreeSet<N, E, T> weightedTree, BiConsumer<Object, T> addTree) {
         Collection<E> elements = weightedTree.getElements();
         String mainGroup = "All"; //$NON-NLS-1$
         for (E element : elements) {
-            recurseAddElementData(element, mainGroup, weightedTree, newTreeSet);
+            recurseAddElementData(element, mainGroup, weightedTree, addTree);
         }
-        return newTreeSet;
     }
 
     /*
@@ -135,14 +172,14 @@ public final class WeightedTreeGroupBy {
      *            The last group element
      * @param treeSet
      *            The original weighted tree set
-     * @param newTreeSet
-     *            The new weighted tree set to fill
+     * @param addTree
+     *            The function adding a tree to a group of the new tree set
      */
-    private static <@NonNull N, E, T extends WeightedTree<N>> void recurseAddElementData(E element, String group, IWeightedTreeSet<@NonNull N, E, T> treeSet, WeightedTreeSet<@NonNull N, Object> newTreeSet) {
+    private static <@NonNull N, E, T extends WeightedTree<N>> void recurseAddElementData(E element, String group, IWeightedTreeSet<@NonNull N, E, T> treeSet, BiConsumer<Object, T> addTree) {
 
         // Add the current level of trees to the new tree set
         for (T tree : treeSet.getTreesFor(element)) {
-            newTreeSet.addWeightedTree(group, tree.copyOf());
+            addTree.accept(group, tree);
         }
 
         // Recursively add the next level of elements
@@ -150,7 +187,7 @@ public final class WeightedTreeGroupBy {
             ITree treeEl = (ITree) element;
             Collection<?> children = treeEl.getChildren();
             for (Object child : children) {
-                recurseAddElementData((E) child, group, treeSet, newTreeSet);
+                recurseAddElementData((E) child, group, treeSet, addTree);
             }
         }
     }
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.profiling.core.tree.WeightedTree;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.weighted.tree.CompactTreeNodes;
+
+/**
+ * A differential weighted tree whose nodes are kept in arrays: the structure,
+ * the base tree each node was computed from and the differential value. The
+ * object and weight of the nodes come from their base tree, so the nodes only
+ * cost a few primitives and a reference, instead of a
+ * {@link DifferentialWeightedTree} object with its map of children.
+ *
+ * The {@link DifferentialWeightedTree} objects returned by {@link #getRoot()}
+ * and their children are read-only views created on demand.
+ *
+ * @param <N>
+ *            The type of objects represented by each node in the tree
+ */
+final class CompactDifferentialTree<@NonNull N> {
+
+    private static final int NO_NODE = CompactTreeNodes.NO_NODE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final CompactTreeNodes fNodes = new CompactTreeNodes();
+    private @Nullable Object[] fOriginalTrees = new Object[INITIAL_CAPACITY];
+    private double[] fDifferences = new double[INITIAL_CAPACITY];
+
+    /**
+     * Add a node to this tree. The first node added is the root.
+     *
+     * @param parent
+     *            The parent node, or {@link CompactTreeNodes#NO_NODE} for the
+     *            root
+     * @param originalTree
+     *            The base tree from which this node was computed
+     * @param difference
+     *            The differential value of the node
+     * @return The new node
+     */
+    int addNode(int parent, WeightedTree<N> originalTree, double difference) {
+        int node = fNodes.addNode(parent);
+        int capacity = fNodes.capacity();
+        if (fDifferences.length < capacity) {
+            fOriginalTrees = Arrays.copyOf(fOriginalTrees, capacity);
+            fDifferences = Arrays.copyOf(fDifferences, capacity);
+        }
+        fOriginalTrees[node] = originalTree;
+        fDifferences[node] = difference;
+        return node;
+    }
+
+    /**
+     * Trim the arrays of this tree to its number of nodes, once the tree is
+     * complete
+     */
+    void trimToSize() {
+        int size = fNodes.size();
+        fNodes.trimToSize();
+        fOriginalTrees = Arrays.copyOf(fOriginalTrees, size);
+        fDifferences = Arrays.copyOf(fDifferences, size);
+    }
+
+    /**
+     * Get the view of the root of this tree
+     *
+     * @return The root differential weighted tree
+     */
+    DifferentialWeightedTree<N> getRoot() {
+        return new CompactNode(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private WeightedTree<N> getBaseTree(int node) {
+        return (WeightedTree<N>) Objects.requireNonNull(fOriginalTrees[node]);
+    }
+
+    /**
+     * A read-only view of a node of the tree
+     */
+    private final class CompactNode extends DifferentialWeightedTree<N> {
+
+        private final int fNode;
+
+        public CompactNode(int node) {
+            super(getBaseTree(node), getBaseTree(node).getObject(), getBaseTree(node).getWeight(), fDifferences[node]);
+            fNode = node;
+        }
+
+        @Override
+        public @Nullable WeightedTree<N> getParent() {
+            int parent = fNodes.getParent(fNode);
+            return parent == NO_NODE ? null : new CompactNode(parent);
+        }
+
+        @Override
+        public Collection<WeightedTree<N>> getChildren() {
+            int child = fNodes.getFirstChild(fNode);
+            if (child == NO_NODE) {
+                return Collections.emptyList();
+            }
+            List<WeightedTree<N>> children = new ArrayList<>();
+            for (; child != NO_NODE; child = fNodes.getNextSibling(child)) {
+                children.add(new CompactNode(child));
+            }
+            return children;
+        }
+
+        @Override
+        public WeightedTree<N> copyOf() {
+            DifferentialWeightedTree<N> copy = new DifferentialWeightedTree<>(getOriginalTree(), getObject(), getWeight(), getDifference());
+            for (WeightedTree<N> child : getChildren()) {
+                copy.addChild(child.copyOf());
+            }
+            return copy;
+        }
+
+        @Override
+        public void addToWeight(long weight) {
+            throw new UnsupportedOperationException("Compact differential trees are read-only, use a copy instead"); //$NON-NLS-1$
+        }
+
+        @Override
+        public void addChild(WeightedTree<N> child) {
+            throw new UnsupportedOperationException("Compact differential trees are read-only, use a copy instead"); //$NON-NLS-1$
+        }
+
+        @Override
+        public int getMaxDepth() {
+            return fNodes.getMaxDepth(fNode);
+        }
+
+        @Override
+        public int hashCode() {
+            return fNode;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (!(obj instanceof CompactDifferentialTree.CompactNode)) {
+                return false;
+            }
+            CompactDifferentialTree<?>.CompactNode other = (CompactDifferentialTree<?>.CompactNode) obj;
+            return fNode == other.fNode && getTree() == other.getTree();
+        }
+
+        private CompactDifferentialTree<N> getTree() {
+            return CompactDifferentialTree.this;
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.diff;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.analysis.profiling.core.tree.ITree;
+import org.eclipse.tracecompass.analysis.profiling.core.tree.IWeightedTreeSet;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * A tree set of {@link CompactDifferentialTree}, the differential weighted
+ * trees returned by this set are read-only views on the compact trees.
+ *
+ * @param <N>
+ *            The type of objects represented by each node in the tree
+ */
+final class CompactDifferentialWeightedTreeSet<@NonNull N> implements IWeightedTreeSet<N, Object, DifferentialWeightedTree<N>> {
+
+    private final Set<Object> fRootElements = new HashSet<>();
+    private final ListMultimap<Object, CompactDifferentialTree<N>> fTrees = ArrayListMultimap.create();
+
+    @Override
+    public Collection<Object> getElements() {
+        return fRootElements;
+    }
+
+    @Override
+    public Collection<DifferentialWeightedTree<N>> getTreesFor(Object element) {
+        List<CompactDifferentialTree<N>> trees = fTrees.get(element);
+        List<DifferentialWeightedTree<N>> roots = new ArrayList<>(trees.size());
+        for (CompactDifferentialTree<N> tree : trees) {
+            roots.add(tree.getRoot());
+        }
+        return roots;
+    }
+
+    /**
+     * Add a compact differential tree for an element in this set
+     *
+     * @param dstGroup
+     *            The group to which to add this tree
+     * @param tree
+     *            The complete compact differential tree
+     */
+    void addTree(Object dstGroup, CompactDifferentialTree<N> tree) {
+        // Make sure the root element is present
+        Object root = dstGroup;
+        if (dstGroup instanceof ITree) {
+            ITree parent = ((ITree) dstGroup).getParent();
+            while (parent != null) {
+                root = parent;
+                parent = parent.getParent();
+            }
+        }
+        fRootElements.add(root);
+        fTrees.put(dstGroup, tree);
+    }
+
+}
@@ -100,7 +100,7 @@ public class DifferentialWeightedTreeProvider<@NonNull N> implements IWeightedTr
      * @param treeSet
      *            The differential tree set
      */
-    public DifferentialWeightedTreeProvider(IWeightedTreeProvider<N, ?, WeightedTree<N>> originalTree, DifferentialWeightedTreeSet<N> treeSet) {
+    public DifferentialWeightedTreeProvider(IWeightedTreeProvider<N, ?, WeightedTree<N>> originalTree, IWeightedTreeSet<N, Object, DifferentialWeightedTree<N>> treeSet) {
         fOriginalTree = originalTree;
         fTreeSet = treeSet;
         fAdditionalMetrics.addAll(fOriginalTree.getAdditionalMetrics());
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.diff;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.profiling.core.tree.IWeightedTreeProvider;
+import org.eclipse.tracecompass.analysis.profiling.core.tree.IWeightedTreeSet;
+import org.eclipse.tracecompass.analysis.profiling.core.tree.WeightedTree;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.util.Pair;
+
+/**
+ * Computes the differential between the trees of 2 time ranges of a weighted
+ * tree provider, typically when the user moves the selections to compare. The
+ * tree set of each range is kept, so that when only one of the ranges changes,
+ * the tree set of the other range is reused and only the new range's tree set
+ * is queried from the provider. When both ranges change, their tree sets are
+ * computed in parallel.
+ *
+ * This class is thread-safe.
+ *
+ * @param <N>
+ *            The type of objects represented by each node in the tree
+ */
+public class IncrementalTreeSetDiff<@NonNull N> {
+
+    private final IWeightedTreeProvider<N, ?, WeightedTree<N>> fProvider;
+
+    private @Nullable RangeTreeSet<N> fFirst = null;
+    private @Nullable RangeTreeSet<N> fSecond = null;
+    private @Nullable DifferentialWeightedTreeProvider<N> fLastDiff = null;
+
+    /** The tree set of a time range */
+    private static class RangeTreeSet<@NonNull N> {
+        private final Pair<ITmfTimestamp, ITmfTimestamp> fRange;
+        private final IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>> fTreeSet;
+
+        public RangeTreeSet(Pair<ITmfTimestamp, ITmfTimestamp> range, IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>> treeSet) {
+            fRange = range;
+            fTreeSet = treeSet;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param provider
+     *            The weighted tree provider for the trees to compare. It is
+     *            also used by the differential weighted tree provider to
+     *            display the metrics and titles.
+     */
+    public IncrementalTreeSetDiff(IWeightedTreeProvider<N, ?, WeightedTree<N>> provider) {
+        fProvider = provider;
+    }
+
+    /**
+     * Get the differential between the trees of 2 time ranges. The base
+     * weights come from the second range and the differential values show the
+     * difference with the first range, as in
+     * {@link WeightedTreeUtils#diffTreeSets(IWeightedTreeProvider, IWeightedTreeSet, IWeightedTreeSet)}.
+     *
+     * @param start1
+     *            The start of the first range
+     * @param end1
+     *            The end of the first range
+     * @param start2
+     *            The start of the second range
+     * @param end2
+     *            The end of the second range
+     * @return A differential weighted tree provider wrapping the resulting tree
+     *         set, or <code>null</code> if the tree sets could not be computed
+     *         or have no elements in common
+     */
+    public synchronized @Nullable DifferentialWeightedTreeProvider<N> diff(ITmfTimestamp start1, ITmfTimestamp end1, ITmfTimestamp start2, ITmfTimestamp end2) {
+        Pair<ITmfTimestamp, ITmfTimestamp> range1 = new Pair<>(start1, end1);
+        Pair<ITmfTimestamp, ITmfTimestamp> range2 = new Pair<>(start2, end2);
+        RangeTreeSet<N> first = fFirst;
+        RangeTreeSet<N> second = fSecond;
+        boolean firstChanged = first == null || !first.fRange.equals(range1);
+        boolean secondChanged = second == null || !second.fRange.equals(range2);
+        if (!firstChanged && !secondChanged) {
+            return fLastDiff;
+        }
+
+        if (firstChanged && secondChanged) {
+            // Both ranges changed, compute them in parallel
+            CompletableFuture<@Nullable RangeTreeSet<N>> future = CompletableFuture.supplyAsync(() -> getTreeSet(range2));
+            first = getTreeSet(range1);
+            second = future.join();
+        } else if (firstChanged) {
+            first = getTreeSet(range1);
+        } else {
+            second = getTreeSet(range2);
+        }
+        // A range whose tree set is not available is not kept, so that it is
+        // queried again at the next call
+        fFirst = first;
+        fSecond = second;
+
+        DifferentialWeightedTreeProvider<N> diff = (first == null || second == null) ? null : WeightedTreeUtils.diffTreeSets(fProvider, first.fTreeSet, second.fTreeSet);
+        fLastDiff = diff;
+        return diff;
+    }
+
+    /**
+     * Clear the tree sets kept by this object, for instance when the provider
+     * has been updated and the tree sets of the same ranges may be different.
+     */
+    public synchronized void reset() {
+        fFirst = null;
+        fSecond = null;
+        fLastDiff = null;
+    }
+
+    private @Nullable RangeTreeSet<N> getTreeSet(Pair<ITmfTimestamp, ITmfTimestamp> range) {
+        IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>> treeSet = fProvider.getSelection(range.getFirst(), range.getSecond());
+        return (treeSet == null) ? null : new RangeTreeSet<>(range, treeSet);
+    }
+
+}
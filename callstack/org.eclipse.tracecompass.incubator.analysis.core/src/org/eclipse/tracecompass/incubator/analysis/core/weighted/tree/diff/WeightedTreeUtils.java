@@ -14,7 +14,12 @@ package org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.diff;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -22,6 +27,7 @@ import org.eclipse.tracecompass.analysis.profiling.core.tree.ITree;
 import org.eclipse.tracecompass.analysis.profiling.core.tree.IWeightedTreeProvider;
 import org.eclipse.tracecompass.analysis.profiling.core.tree.IWeightedTreeSet;
 import org.eclipse.tracecompass.analysis.profiling.core.tree.WeightedTree;
+import org.eclipse.tracecompass.incubator.internal.analysis.core.weighted.tree.CompactTreeNodes;
 import org.eclipse.tracecompass.tmf.core.util.Pair;
 
 import com.google.common.collect.ImmutableList;
@@ -33,6 +39,12 @@ import com.google.common.collect.ImmutableList;
  */
 public final class WeightedTreeUtils {
 
+    /**
+     * Number of trees under which a linear search for an object is faster
+     * than building an index of the trees
+     */
+    private static final int LINEAR_SEARCH_THRESHOLD = 8;
+
     private WeightedTreeUtils() {
         // Nothing to do
     }
@@ -52,22 +64,61 @@ public final class WeightedTreeUtils {
      */
     public static <@NonNull T> Collection<DifferentialWeightedTree<T>> diffTrees(Collection<WeightedTree<T>> first, Collection<WeightedTree<T>> second) {
         List<DifferentialWeightedTree<T>> diffTrees = new ArrayList<>();
-        for (WeightedTree<T> base : second) {
-            T object = base.getObject();
-            // Find the equivalent tree in the first collection
-            WeightedTree<T> other = findObject(first, object);
-            double diffWeight = other == null ? Double.NaN : (double) (base.getWeight() - other.getWeight()) / other.getWeight();
-            DifferentialWeightedTree<@NonNull T> diffTree = new DifferentialWeightedTree<>(base, object, base.getWeight(), diffWeight);
-            diffTrees.add(diffTree);
-
-            // Make the differential of the children
-            for (DifferentialWeightedTree<T> childTree : diffTrees(other == null ? Collections.emptyList() : other.getChildren(), base.getChildren())) {
-                diffTree.addChild(childTree);
-            }
+        for (CompactDifferentialTree<T> diffTree : diffTrees(first, second, 1.0)) {
+            diffTrees.add(diffTree.getRoot());
         }
         return diffTrees;
     }
 
+    /**
+     * Does the differential between 2 collections of weighted trees, with the
+     * weights of the second collection multiplied by a scale factor before
+     * being compared with the first one. The top-level trees are
+     * differentiated in parallel, as they are independent from each other.
+     * The resulting trees are compact trees, that refer to the base trees
+     * instead of copying them.
+     */
+    private static <@NonNull T> List<CompactDifferentialTree<T>> diffTrees(Collection<WeightedTree<T>> first, Collection<WeightedTree<T>> second, double scale) {
+        Map<T, WeightedTree<T>> firstIndex = indexByObject(first);
+        Stream<WeightedTree<T>> stream = second.size() > 1 ? second.parallelStream() : second.stream();
+        return stream.map(base -> {
+            CompactDifferentialTree<T> diffTree = new CompactDifferentialTree<>();
+            diffTree(diffTree, CompactTreeNodes.NO_NODE, base, firstIndex.get(base.getObject()), scale);
+            diffTree.trimToSize();
+            return diffTree;
+        }).collect(Collectors.toList());
+    }
+
+    private static <@NonNull T> void diffTree(CompactDifferentialTree<T> diffTree, int parent, WeightedTree<T> base, @Nullable WeightedTree<T> other, double scale) {
+        double diffWeight = other == null ? Double.NaN : (base.getWeight() * scale - other.getWeight()) / other.getWeight();
+        int node = diffTree.addNode(parent, base, diffWeight);
+
+        // Make the differential of the children
+        Collection<WeightedTree<T>> baseChildren = base.getChildren();
+        if (baseChildren.isEmpty()) {
+            return;
+        }
+        Collection<WeightedTree<T>> otherChildren = other == null ? Collections.emptyList() : other.getChildren();
+        if (otherChildren.size() <= LINEAR_SEARCH_THRESHOLD) {
+            for (WeightedTree<T> child : baseChildren) {
+                diffTree(diffTree, node, child, findObject(otherChildren, child.getObject()), scale);
+            }
+            return;
+        }
+        Map<T, WeightedTree<T>> otherIndex = indexByObject(otherChildren);
+        for (WeightedTree<T> child : baseChildren) {
+            diffTree(diffTree, node, child, otherIndex.get(child.getObject()), scale);
+        }
+    }
+
+    private static <@NonNull T> Map<T, WeightedTree<T>> indexByObject(Collection<WeightedTree<T>> trees) {
+        Map<T, WeightedTree<T>> index = new HashMap<>();
+        for (WeightedTree<T> tree : trees) {
+            index.putIfAbsent(tree.getObject(), tree);
+        }
+        return index;
+    }
+
     /**
      * Does the differential between 2 weighted tree sets, ie for each
      * comparable elements, what happened in tree set 2 differently than in tree
@@ -116,23 +167,86 @@ public final class WeightedTreeUtils {
     public static <@NonNull N> @Nullable DifferentialWeightedTreeProvider<N> diffTreeSets(IWeightedTreeProvider<N, ?, WeightedTree<N>> provider,
             IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>> first,
             IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>> second) {
+        return diffTreeSets(provider, first, second, false);
+    }
+
+    /**
+     * Does the differential between many weighted tree sets, typically the
+     * trees of many time ranges or runs. Each tree set, except the first one,
+     * is compared to the first tree set, which is the baseline. The elements
+     * are paired the same way as in
+     * {@link #diffTreeSets(IWeightedTreeProvider, IWeightedTreeSet, IWeightedTreeSet)}.
+     * <p>
+     * Since the tree sets may come from ranges of different durations, the
+     * comparison is normalized: for each paired element, the weights of the
+     * compared trees are scaled so that their total weight is the same as the
+     * total weight of the baseline's trees for this element. The differential
+     * value thus compares the proportion of each tree in its set. The weight
+     * of the resulting differential trees is the original weight of the
+     * compared tree.
+     * </p>
+     * <p>
+     * The differentials of the tree sets are computed in parallel.
+     * </p>
+     *
+     * @param <N>
+     *            The type of element in the tree
+     * @param provider
+     *            The base provider of the trees, it will be used by the
+     *            differential weighted tree providers to display the metrics
+     *            and titles, etc.
+     * @param treeSets
+     *            The tree sets to compare. The first tree set is the baseline
+     *            for the comparison
+     * @return A list of differential weighted tree providers, where the
+     *         provider at index <code>i</code> is the normalized differential
+     *         of the tree set at index <code>i + 1</code> with the baseline,
+     *         or <code>null</code> if this tree set has no elements in common
+     *         with the baseline
+     */
+    public static <@NonNull N> List<@Nullable DifferentialWeightedTreeProvider<N>> diffTreeSetsNormalized(IWeightedTreeProvider<N, ?, WeightedTree<N>> provider,
+            List<IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>>> treeSets) {
+        if (treeSets.size() < 2) {
+            return Collections.emptyList();
+        }
+        IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>> baseline = treeSets.get(0);
+        return IntStream.range(1, treeSets.size()).parallel()
+                .mapToObj(i -> diffTreeSets(provider, baseline, treeSets.get(i), true))
+                .collect(Collectors.toList());
+    }
+
+    private static <@NonNull N> @Nullable DifferentialWeightedTreeProvider<N> diffTreeSets(IWeightedTreeProvider<N, ?, WeightedTree<N>> provider,
+            IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>> first,
+            IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>> second, boolean normalize) {
         Collection<Pair<@NonNull ?, @NonNull ?>> pairedElements = pairElementsFromTrees(first, second);
         if (pairedElements.isEmpty()) {
             return null;
         }
-        DifferentialWeightedTreeSet<N> treeSet = new DifferentialWeightedTreeSet<>();
+        CompactDifferentialWeightedTreeSet<N> treeSet = new CompactDifferentialWeightedTreeSet<>();
         for (Pair<@NonNull ?, @NonNull ?> pair : pairedElements) {
             Collection<WeightedTree<N>> trees1 = first.getTreesFor(pair.getFirst());
             Collection<WeightedTree<N>> trees2 = second.getTreesFor(pair.getSecond());
-            Collection<DifferentialWeightedTree<N>> diffTrees = WeightedTreeUtils.diffTrees(trees1, trees2);
-            for (DifferentialWeightedTree<N> tree: diffTrees) {
-                treeSet.addWeightedTree(pair.getFirst(), tree);
+            double scale = 1.0;
+            if (normalize) {
+                long total2 = getTotalWeight(trees2);
+                scale = total2 == 0 ? 1.0 : (double) getTotalWeight(trees1) / total2;
+            }
+            for (CompactDifferentialTree<N> tree : diffTrees(trees1, trees2, scale)) {
+                treeSet.addTree(pair.getFirst(), tree);
             }
         }
 
         return new DifferentialWeightedTreeProvider<>(provider, treeSet);
     }
 
+    private static <@NonNull N> long getTotalWeight(Collection<WeightedTree<N>> trees) {
+        long total = 0;
+        for (WeightedTree<N> tree : trees) {
+            total += tree.getWeight();
+        }
+        return total;
+    }
+
     private static <@NonNull N> Collection<Pair<@NonNull ?, @NonNull ?>> pairElementsFromTrees(IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>> first, IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>> second) {
         Collection<@NonNull ?> elements1 = first.getElements();
         Collection<@NonNull ?> elements2 = second.getElements();
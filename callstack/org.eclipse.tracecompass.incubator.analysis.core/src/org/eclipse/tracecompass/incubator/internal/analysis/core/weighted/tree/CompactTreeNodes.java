@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.analysis.core.weighted.tree;
+
+import java.util.Arrays;
+
+/**
+ * The structure of compact trees: the nodes are integer indexes and their
+ * parent, first child and next sibling are kept in parallel arrays. The data
+ * of the nodes is kept by the users of this class, in arrays indexed by node
+ * that should be at least as large as {@link #capacity()}.
+ *
+ * This class is not thread-safe.
+ */
+public class CompactTreeNodes {
+
+    /** Value of the node references when there is no node */
+    public static final int NO_NODE = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] fParents = new int[INITIAL_CAPACITY];
+    private int[] fFirstChildren = new int[INITIAL_CAPACITY];
+    private int[] fNextSiblings = new int[INITIAL_CAPACITY];
+    private int fSize = 0;
+
+    /**
+     * Add a node to the structure. The node is added as the first child of
+     * its parent.
+     *
+     * @param parent
+     *            The parent node, or {@link #NO_NODE} for a root node
+     * @return The new node
+     */
+    public int addNode(int parent) {
+        if (fSize == fParents.length) {
+            int newLength = Math.max(INITIAL_CAPACITY, fSize + (fSize >> 1));
+            fParents = Arrays.copyOf(fParents, newLength);
+            fFirstChildren = Arrays.copyOf(fFirstChildren, newLength);
+            fNextSiblings = Arrays.copyOf(fNextSiblings, newLength);
+        }
+        int node = fSize++;
+        fParents[node] = parent;
+        fFirstChildren[node] = NO_NODE;
+        if (parent == NO_NODE) {
+            fNextSiblings[node] = NO_NODE;
+        } else {
+            fNextSiblings[node] = fFirstChildren[parent];
+            fFirstChildren[parent] = node;
+        }
+        return node;
+    }
+
+    /**
+     * Get the number of nodes
+     *
+     * @return The number of nodes
+     */
+    public int size() {
+        return fSize;
+    }
+
+    /**
+     * Get the number of nodes the structure can hold before its arrays grow.
+     * The data arrays of the users should be grown to this size after adding
+     * a node.
+     *
+     * @return The capacity of the arrays
+     */
+    public int capacity() {
+        return fParents.length;
+    }
+
+    /**
+     * Get the parent of a node
+     *
+     * @param node
+     *            The node
+     * @return The parent node, or {@link #NO_NODE} if it is a root node
+     */
+    public int getParent(int node) {
+        return fParents[node];
+    }
+
+    /**
+     * Get the first child of a node
+     *
+     * @param node
+     *            The node
+     * @return The first child, or {@link #NO_NODE} if the node has no children
+     */
+    public int getFirstChild(int node) {
+        return fFirstChildren[node];
+    }
+
+    /**
+     * Get the next sibling of a node
+     *
+     * @param node
+     *            The node
+     * @return The next sibling, or {@link #NO_NODE} if it is the last child of
+     *         its parent
+     */
+    public int getNextSibling(int node) {
+        return fNextSiblings[node];
+    }
+
+    /**
+     * Get the maximum depth under and including a node. The tree is traversed
+     * iteratively, so very deep trees are supported.
+     *
+     * @param node
+     *            The node
+     * @return The maximum depth, the minimal value is 1
+     */
+    public int getMaxDepth(int node) {
+        int maxDepth = 0;
+        int[] nodes = new int[16];
+        int[] depths = new int[16];
+        int count = 0;
+        nodes[count] = node;
+        depths[count++] = 1;
+        while (count > 0) {
+            count--;
+            int current = nodes[count];
+            int depth = depths[count];
+            maxDepth = Math.max(maxDepth, depth);
+            for (int child = fFirstChildren[current]; child != NO_NODE; child = fNextSiblings[child]) {
+                if (count == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, count * 2);
+                    depths = Arrays.copyOf(depths, count * 2);
+                }
+                nodes[count] = child;
+                depths[count++] = depth + 1;
+            }
+        }
+        return maxDepth;
+    }
+
+    /**
+     * Trim the arrays to the number of nodes. It should be called once the
+     * trees are complete, the data arrays of the users should be trimmed to
+     * {@link #size()} as well.
+     */
+    public void trimToSize() {
+        fParents = Arrays.copyOf(fParents, fSize);
+        fFirstChildren = Arrays.copyOf(fFirstChildren, fSize);
+        fNextSiblings = Arrays.copyOf(fNextSiblings, fSize);
+    }
+
+}
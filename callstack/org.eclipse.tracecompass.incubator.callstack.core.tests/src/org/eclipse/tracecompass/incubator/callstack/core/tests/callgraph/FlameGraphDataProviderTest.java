@@ -36,6 +36,7 @@ import org.eclipse.tracecompass.incubator.internal.callstack.core.flamegraph.Fla
 import org.eclipse.tracecompass.incubator.internal.callstack.core.instrumented.provider.FlameChartEntryModel;
 import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
 import org.eclipse.tracecompass.tmf.core.model.OutputElementStyle;
+import org.eclipse.tracecompass.tmf.core.model.StyleProperties;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphState;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
@@ -62,6 +63,8 @@ public class FlameGraphDataProviderTest extends CallStackTestBase {
 
     // Keep the map of values to style, to make sure a same value always has the same style
     private static final Map<String, String> VALUE_TO_STYLE = new HashMap<>();
+    // Value in the expected files of the states merging narrow call sites
+    private static final String MERGED_VALUE = "...";
 
     /**
      * Test the {@link FlameGraphDataProvider} for the test callstack, with all
@@ -142,6 +145,29 @@ public class FlameGraphDataProviderTest extends CallStackTestBase {
 
     }
 
+    /**
+     * Test the {@link FlameGraphDataProvider} for the test callstack, with a
+     * resolution where call sites are narrower than a pixel. The adjacent
+     * narrow call sites are merged in a state with a neutral "..." label and
+     * style, while the call sites separated by a gap are kept apart.
+     *
+     * @throws IOException
+     *             if an I/O error occurs reading from the expected value file
+     *             or a malformed or unmappable byte sequence is read
+     */
+    @Test
+    public void testFlameGraphDataProviderNarrowCallSites() throws IOException {
+        CallStackAnalysisStub cga = getModule();
+
+        FlameGraphDataProvider<?, ?, ?> provider = new FlameGraphDataProvider<>(getTrace(), cga, cga.getId());
+
+        Map<Long, FlameChartEntryModel> idsToNames = assertAndGetTree(provider, "expectedFgTreeOne", ImmutableMap.of(FlameGraphDataProvider.GROUP_BY_KEY, AllGroupDescriptor.getInstance().getName()));
+
+        // A resolution of 14 ns, where op3, op2 and op4 are adjacent call
+        // sites at the second level between 44 and 64
+        assertRows(provider, idsToNames, ImmutableList.of(0L, 45L, 52L, 60L, 71L), "expectedFgRowOne", "Narrow");
+    }
+
     private static void assertRowsRequests(FlameGraphDataProvider<?, ?, ?> provider, Map<Long, FlameChartEntryModel> idsToNames, String resultFileSuffix, long maxDuration) throws IOException {
         String filePrefix = "expectedFgRow" + resultFileSuffix;
         // Test getting all the states
@@ -257,6 +283,11 @@ public class FlameGraphDataProviderTest extends CallStackTestBase {
             OutputElementStyle style = state.getStyle();
             if (strValue.equals("-")) {
                 assertNull(descriptor + ": style at position " + i, style);
+            } else if (strValue.equals(MERGED_VALUE)) {
+                // Merged narrow call sites have a neutral style of their own
+                assertNotNull(descriptor + ": existing style at position " + i, style);
+                assertNull(descriptor + ": merged style at position " + i, style.getParentKey());
+                assertNotNull(descriptor + ": merged color at position " + i, style.getStyleValues().get(StyleProperties.BACKGROUND_COLOR));
             } else {
                 assertNotNull(descriptor + ": existing style at position " + i, style);
                 String parentKey = style.getParentKey();
@@ -41,6 +41,7 @@ import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils.FlowScopeLo
 import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
 import org.eclipse.tracecompass.incubator.analysis.core.model.IHostModel;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.AllGroupDescriptor;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.CompactWeightedTreeSet;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.IDataPalette;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.ITree;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.IWeightedTreeGroupDescriptor;
@@ -66,7 +67,9 @@ import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils
 import org.eclipse.tracecompass.tmf.core.model.AbstractTmfTraceDataProvider;
 import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
 import org.eclipse.tracecompass.tmf.core.model.IOutputStyleProvider;
+import org.eclipse.tracecompass.tmf.core.model.OutputElementStyle;
 import org.eclipse.tracecompass.tmf.core.model.OutputStyleModel;
+import org.eclipse.tracecompass.tmf.core.model.StyleProperties;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphArrow;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphDataProvider;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
@@ -133,6 +136,13 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
      */
     private static final Logger LOGGER = TraceCompassLog.getLogger(FlameGraphDataProvider.class);
 
+    /* Label and style of the states merging many narrow call sites */
+    private static final String MERGED_LABEL = "..."; //$NON-NLS-1$
+    private static final OutputElementStyle MERGED_STYLE = new OutputElementStyle(null, ImmutableMap.of(
+            StyleProperties.STYLE_NAME, MERGED_LABEL,
+            StyleProperties.BACKGROUND_COLOR, "#C0C0C0", //$NON-NLS-1$
+            StyleProperties.OPACITY, 1.0f));
+
     /* State System attributes for the root levels */
     private static final String FUNCTION_LEVEL = "::Function"; //$NON-NLS-1$
 
@@ -329,7 +339,7 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
         // Look if we need to group the callgraph
         IWeightedTreeGroupDescriptor groupDescriptor = extractGroupDescriptor(fetchParameters, wtProvider);
         if (groupDescriptor != null) {
-            return WeightedTreeGroupBy.groupWeightedTreeBy(groupDescriptor, callGraph, wtProvider);
+            return WeightedTreeGroupBy.groupCompactWeightedTreeBy(groupDescriptor, callGraph, wtProvider);
         }
 
         return (IWeightedTreeSet<@NonNull N, Object, WeightedTree<@NonNull N>>) callGraph;
@@ -530,6 +540,11 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
             return new TmfModelResponse<>(null, ITmfResponse.Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
         }
 
+        // The duration of a pixel, adjacent call sites smaller than this will
+        // be aggregated. The call sites must be matched one by one against
+        // the filters, so they are not aggregated when there are filters.
+        long resolution = predicates.isEmpty() ? getResolution(times) : 0;
+
         // For each element and callgraph, get the states
         try {
             for (WeightedTreeEntry element : requested.keySet()) {
@@ -537,7 +552,7 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
                     return new TmfModelResponse<>(null, ITmfResponse.Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
                 }
                 Collection<Pair<Integer, Long>> depths = Objects.requireNonNull(requested.get(element));
-                rowModels.addAll(getStatesForElement(times, predicates, subMonitor, element.fSs, depths));
+                rowModels.addAll(getStatesForElement(times, resolution, predicates, subMonitor, element.fSs, depths));
             }
         } catch (StateSystemDisposedException e) {
             // Nothing to do
@@ -546,7 +561,21 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
         return new TmfModelResponse<>(new TimeGraphModel(rowModels), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
     }
 
-    private List<ITimeGraphRowModel> getStatesForElement(List<Long> times, Map<Integer, Predicate<Multimap<String, Object>>> predicates, IProgressMonitor monitor,
+    private static long getResolution(List<Long> times) {
+        if (times.size() < 2) {
+            return 0;
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (Long time : times) {
+            min = Math.min(min, time);
+            max = Math.max(max, time);
+        }
+        // Each requested time stands for an equal part of the range
+        return (max - min + 1) / times.size();
+    }
+
+    private List<ITimeGraphRowModel> getStatesForElement(List<Long> times, long resolution, Map<Integer, Predicate<Multimap<String, Object>>> predicates, IProgressMonitor monitor,
             ITmfStateSystem ss, Collection<Pair<Integer, Long>> depths) throws StateSystemDisposedException {
         List<Integer> quarks = new ArrayList<>();
         for (Pair<Integer, Long> pair : depths) {
@@ -579,25 +608,69 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
             }
             List<ITimeGraphState> eventList = new ArrayList<>();
             Long key = Objects.requireNonNull(pair.getSecond());
-            states.forEach(i -> {
-                ITimeGraphState timegraphState = createTimeGraphState(i, ssEndTime);
+            /*
+             * Call sites narrower than the resolution that follow each other
+             * without a gap are merged in a single state, as they would be
+             * drawn in the same pixels anyway. The intervals were sampled at
+             * the requested times, so call sites that are not adjacent have
+             * a gap between them that must still be shown.
+             */
+            List<ITmfStateInterval> narrowIntervals = new ArrayList<>();
+            for (ITmfStateInterval interval : states) {
+                if (!narrowIntervals.isEmpty() && narrowIntervals.get(narrowIntervals.size() - 1).getEndTime() + 1 != interval.getStartTime()) {
+                    addNarrowStates(narrowIntervals, eventList, key, ssEndTime, predicates, monitor);
+                }
+                if (interval.getValue() != null && getDuration(interval, ssEndTime) < resolution) {
+                    narrowIntervals.add(interval);
+                    continue;
+                }
+                addNarrowStates(narrowIntervals, eventList, key, ssEndTime, predicates, monitor);
+                ITimeGraphState timegraphState = createTimeGraphState(interval, ssEndTime);
                 applyFilterAndAddState(eventList, timegraphState, key, predicates, monitor);
-            });
+            }
+            addNarrowStates(narrowIntervals, eventList, key, ssEndTime, predicates, monitor);
             rows.add(new TimeGraphRowModel(key, eventList));
         }
         return rows;
 
     }
 
+    /**
+     * Add the states for adjacent call sites narrower than the resolution. If
+     * there are more than one call site, they are merged in a single state
+     * with a neutral label and style, as it does not represent any of them,
+     * otherwise, the call site is added as is. The list of intervals is
+     * cleared after this call.
+     */
+    private void addNarrowStates(List<ITmfStateInterval> narrowIntervals, List<ITimeGraphState> eventList, Long key, long ssEndTime, Map<Integer, Predicate<Multimap<String, Object>>> predicates, IProgressMonitor monitor) {
+        if (narrowIntervals.isEmpty()) {
+            return;
+        }
+        ITimeGraphState state;
+        if (narrowIntervals.size() == 1) {
+            state = createTimeGraphState(narrowIntervals.get(0), ssEndTime);
+        } else {
+            ITmfStateInterval last = narrowIntervals.get(narrowIntervals.size() - 1);
+            long start = narrowIntervals.get(0).getStartTime();
+            state = new TimeGraphState(start, last.getStartTime() + getDuration(last, ssEndTime) - start, MERGED_LABEL, MERGED_STYLE);
+        }
+        applyFilterAndAddState(eventList, state, key, predicates, monitor);
+        narrowIntervals.clear();
+    }
+
+    private static long getDuration(ITmfStateInterval interval, long ssEndTime) {
+        return interval.getEndTime() - interval.getStartTime() + (ssEndTime == interval.getEndTime() ? 0 : 1);
+    }
+
     private ITimeGraphState createTimeGraphState(ITmfStateInterval interval, long ssEndTime) {
         IWeightedTreeProvider<N, E, T> wtProvider = fWtProvider;
         long startTime = interval.getStartTime();
-        long duration = interval.getEndTime() - startTime + (ssEndTime == interval.getEndTime() ? 0 : 1);
+        long duration = getDuration(interval, ssEndTime);
         Object valueObject = interval.getValue();
         if (valueObject instanceof CalleeCustomValue) {
 
-            WeightedTree<N> callsite = ((CalleeCustomValue) valueObject).fCallSite;
-            String displayString = wtProvider.toDisplayString((T) callsite);
+            T callsite = getProviderTree(((CalleeCustomValue<N>) valueObject).fCallSite, false);
+            String displayString = wtProvider.toDisplayString(callsite);
             return new TimeGraphState(startTime, duration, displayString, fWtProvider.getPalette().getStyleFor(callsite));
         }
         return new TimeGraphState(startTime, duration, Integer.MIN_VALUE);
@@ -625,8 +698,9 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
             return new TmfModelResponse<>(Collections.emptyMap(), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
         }
 
-        WeightedTree<@NonNull N> callSite = findCallSite(callGraphEntry, time);
-        if (callSite != null) {
+        WeightedTree<@NonNull N> site = findCallSite(callGraphEntry, time);
+        if (site != null) {
+            T callSite = getProviderTree(site, true);
             Object actions = fetchParameters.get(TOOLTIP_ACTION_KEY);
             if (actions == null) {
                 // Return the normal tooltip
@@ -639,11 +713,11 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
         return new TmfModelResponse<>(Collections.emptyMap(), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
     }
 
-    private Map<String, String> getTooltipActions(WeightedTree<@NonNull N> callSite) {
+    private Map<String, String> getTooltipActions(T callSite) {
         ImmutableMap.Builder<String, String> builder = new ImmutableMap.Builder<>();
         /* Goto min/max actions */
         // Try to get the statistics of the main metric
-        IStatistics<?> statistics = fWtProvider.getStatistics((T) callSite, -1);
+        IStatistics<?> statistics = fWtProvider.getStatistics(callSite, -1);
         if (statistics != null) {
             Object minObject = statistics.getMinObject();
             if (minObject instanceof ISegment) {
@@ -659,11 +733,11 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
         return builder.build();
     }
 
-    private Map<String, String> getTooltip(WeightedTree<@NonNull N> callSite) {
+    private Map<String, String> getTooltip(T callSite) {
         ImmutableMap.Builder<String, String> builder = new ImmutableMap.Builder<>();
         // Display the object name first
         String string = callSite.getObject().toString();
-        String displayString = fWtProvider.toDisplayString((T) callSite);
+        String displayString = fWtProvider.toDisplayString(callSite);
         builder.put(Objects.requireNonNull(Messages.FlameGraph_Object), string.equals(displayString) ? displayString : displayString + ' ' + '(' + string + ')');
         List<MetricType> additionalMetrics = fWtProvider.getAdditionalMetrics();
 
@@ -676,7 +750,7 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
         for (int i = 0; i < additionalMetrics.size(); i++) {
             MetricType otherMetric = additionalMetrics.get(i);
             if (!otherMetric.hasStatistics()) {
-                builder.put(otherMetric.getTitle(), otherMetric.format(fWtProvider.getAdditionalMetric((T) callSite, i)));
+                builder.put(otherMetric.getTitle(), otherMetric.format(fWtProvider.getAdditionalMetric(callSite, i)));
             }
         }
 
@@ -694,9 +768,9 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
         return builder.build();
     }
 
-    private Map<String, String> getMetricWithStatTooltip(MetricType metric, WeightedTree<@NonNull N> callSite, int metricIndex) {
-        Object metricValue = metricIndex < 0 ? callSite.getWeight() : fWtProvider.getAdditionalMetric((T) callSite, metricIndex);
-        IStatistics<?> statistics = fWtProvider.getStatistics((T) callSite, metricIndex);
+    private Map<String, String> getMetricWithStatTooltip(MetricType metric, T callSite, int metricIndex) {
+        Object metricValue = metricIndex < 0 ? callSite.getWeight() : fWtProvider.getAdditionalMetric(callSite, metricIndex);
+        IStatistics<?> statistics = fWtProvider.getStatistics(callSite, metricIndex);
         Map<String, String> map = new LinkedHashMap<>();
         if (statistics == null || statistics.getMax() == IHostModel.TIME_UNKNOWN) {
             map.put(metric.getTitle(), metric.format(metricValue));
@@ -712,6 +786,22 @@ public class FlameGraphDataProvider<@NonNull N, E, @NonNull T extends WeightedTr
         return map;
     }
 
+    /**
+     * Get the tree of the weighted tree provider for a call site of the state
+     * system. The call sites of grouped call graphs are views on the nodes of
+     * a compact tree set: one of the original trees of the node is enough for
+     * the data that depends on the object only, like the display string and
+     * style, but the statistics and metrics need the trees of the node merged.
+     */
+    @SuppressWarnings("unchecked")
+    private T getProviderTree(WeightedTree<N> callSite, boolean merged) {
+        if (callSite instanceof CompactWeightedTreeSet.CompactTree) {
+            CompactWeightedTreeSet<N, T>.CompactTree compactTree = (CompactWeightedTreeSet<N, T>.CompactTree) callSite;
+            return merged ? compactTree.getTree() : compactTree.getFirstTree();
+        }
+        return (T) callSite;
+    }
+
     /** Find the callsite at the time and depth requested */
     private @Nullable WeightedTree<@NonNull N> findCallSite(WeightedTreeEntry cgEntry, Long time) {
         try {
@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.scripting.core.tests.perf.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.ease.service.ScriptService;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.scripting.core.ScriptExecutionHelper;
+import org.eclipse.tracecompass.incubator.scripting.core.analysis.AnalysisScriptingModule;
+import org.eclipse.tracecompass.incubator.scripting.core.analysis.ScriptedAnalysis;
+import org.eclipse.tracecompass.incubator.scripting.core.data.provider.DataProviderScriptingModule;
+import org.eclipse.tracecompass.incubator.scripting.core.tests.ActivatorTest;
+import org.eclipse.tracecompass.incubator.scripting.core.tests.stubs.ScriptingTestUtils;
+import org.eclipse.tracecompass.incubator.scripting.core.trace.ScriptEventsIterator;
+import org.eclipse.tracecompass.incubator.scripting.core.trace.TraceScriptingModule;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphDataProvider;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphEntryModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Benchmarks the hot paths of scripted analyses for each scripting engine, and
+ * in java as a baseline: iterating through the events with the
+ * {@link ScriptEventsIterator}, writing to the state system of a
+ * {@link ScriptedAnalysis} and fetching from a scripted time graph data
+ * provider. The benchmarks run on a generated trace.
+ * <p>
+ * These benchmarks do not need the UI nor the performance framework. They are
+ * not run with the unit tests, but can be run with
+ * <code>mvn verify -Dtest=ScriptedAnalysisBenchmark</code>. The engines that
+ * are not installed are skipped. The results are written as JSON in the file
+ * of the <code>scripting.benchmark.output</code> system property, by default
+ * <code>target/scripting-benchmark.json</code>. The
+ * <code>scripting.benchmark.events</code> and
+ * <code>scripting.benchmark.iterations</code> properties set the number of
+ * events in the trace and the number of measured runs.
+ * </p>
+ */
+@RunWith(Parameterized.class)
+public class ScriptedAnalysisBenchmark {
+
+    private static final int NB_EVENTS = Integer.getInteger("scripting.benchmark.events", 20000); //$NON-NLS-1$
+    private static final int NB_ITERATIONS = Integer.getInteger("scripting.benchmark.iterations", 5); //$NON-NLS-1$
+    private static final String OUTPUT_FILE = System.getProperty("scripting.benchmark.output", "target/scripting-benchmark.json"); //$NON-NLS-1$ //$NON-NLS-2$
+    private static final int NB_WARMUP = 1;
+    private static final int NB_THREADS = 32;
+    private static final int NB_FETCHES = 20;
+    private static final String[] EVENT_NAMES = { "sched_switch", "sys_read", "sys_write", "irq_handler_entry" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+    private static final String SCRIPT_PATH = "testfiles/scripts/perf/"; //$NON-NLS-1$
+    private static final String ITERATE_EVENTS = "iterateEvents"; //$NON-NLS-1$
+    private static final String WRITE_STATE_SYSTEM = "writeStateSystem"; //$NON-NLS-1$
+    private static final String FETCH_TIME_GRAPH = "fetchTimeGraph"; //$NON-NLS-1$
+    private static final String TID_FIELD = "tid"; //$NON-NLS-1$
+
+    private static final String RHINO_ENGINE = "org.eclipse.ease.javascript.rhino"; //$NON-NLS-1$
+    private static final String NASHORN_ENGINE = "org.eclipse.ease.javascript.nashorn"; //$NON-NLS-1$
+    private static final String JYTHON_ENGINE = "org.eclipse.ease.python.jython"; //$NON-NLS-1$
+    private static final String PY4J_ENGINE = "org.eclipse.ease.lang.python.py4j.engine"; //$NON-NLS-1$
+
+    private static final List<Map<String, Object>> RESULTS = Collections.synchronizedList(new ArrayList<>());
+    private static @Nullable Path sfTraceDir = null;
+    private static @Nullable ITmfTrace sfTrace = null;
+
+    private final String fEngineName;
+    private final @Nullable String fEngineId;
+    private final String fExtension;
+
+    /**
+     * @return The engines to benchmark
+     */
+    @Parameters(name = "{index}: {0}")
+    public static Iterable<Object[]> getParameters() {
+        return Arrays.asList(new Object[][] {
+                { "Java", null, "" }, //$NON-NLS-1$ //$NON-NLS-2$
+                { "Rhino", RHINO_ENGINE, ".js" }, //$NON-NLS-1$ //$NON-NLS-2$
+                { "Nashorn", NASHORN_ENGINE, ".js" }, //$NON-NLS-1$ //$NON-NLS-2$
+                { "Jython", JYTHON_ENGINE, ".py" }, //$NON-NLS-1$ //$NON-NLS-2$
+                { "Py4J", PY4J_ENGINE, ".py" }, //$NON-NLS-1$ //$NON-NLS-2$
+        });
+    }
+
+    /**
+     * Constructor
+     *
+     * @param engineName
+     *            The name of the engine, for the results
+     * @param engineId
+     *            The ID of the EASE engine, or <code>null</code> to run the
+     *            java version of the benchmarks
+     * @param extension
+     *            The extension of the scripts for this engine
+     */
+    public ScriptedAnalysisBenchmark(String engineName, @Nullable String engineId, String extension) {
+        fEngineName = engineName;
+        fEngineId = engineId;
+        fExtension = extension;
+    }
+
+    /**
+     * Generate the trace and open it, so it is the active trace of the
+     * scripts
+     *
+     * @throws IOException
+     *             Exceptions thrown writing the trace
+     */
+    @BeforeClass
+    public static void setUp() throws IOException {
+        Path traceDir = Files.createTempDirectory("scriptingBenchmark"); //$NON-NLS-1$
+        sfTraceDir = traceDir;
+        Path tracePath = traceDir.resolve("synthetic.xml"); //$NON-NLS-1$
+        try (Writer writer = Files.newBufferedWriter(tracePath, StandardCharsets.UTF_8)) {
+            writer.write("<trace>\n"); //$NON-NLS-1$
+            for (int i = 0; i < NB_EVENTS; i++) {
+                writer.write(String.format("<event timestamp=\"%d\" name=\"%s\">\n" //$NON-NLS-1$
+                        + "<field name=\"tid\" type=\"int\" value=\"%d\" />\n" //$NON-NLS-1$
+                        + "<field name=\"cpu\" type=\"int\" value=\"%d\" />\n" //$NON-NLS-1$
+                        + "</event>\n", //$NON-NLS-1$
+                        (i + 1) * 10L, EVENT_NAMES[i % EVENT_NAMES.length], 100 + (i * 7) % NB_THREADS, i % 4));
+            }
+            writer.write("</trace>\n"); //$NON-NLS-1$
+        }
+        sfTrace = ScriptingTestUtils.getTrace(tracePath.toString());
+    }
+
+    /**
+     * Write the results and delete the trace
+     *
+     * @throws IOException
+     *             Exceptions thrown writing the results
+     */
+    @AfterClass
+    public static void tearDown() throws IOException {
+        ITmfTrace trace = sfTrace;
+        if (trace != null) {
+            deleteSupplementaryFiles(trace);
+            trace.dispose();
+        }
+        Path traceDir = sfTraceDir;
+        if (traceDir != null) {
+            FileUtils.deleteDirectory(traceDir.toFile());
+        }
+        Path output = Paths.get(OUTPUT_FILE);
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(output, new GsonBuilder().setPrettyPrinting().create().toJson(RESULTS).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Benchmark iterating through the events of the trace
+     */
+    @Test
+    public void iterateEvents() {
+        benchmark("Event iteration", ITERATE_EVENTS, NB_EVENTS, () -> { //$NON-NLS-1$
+            ScriptedAnalysis analysis = createAnalysis();
+            ScriptEventsIterator iterator = analysis.getEventIterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Benchmark writing a value in the state system for each event
+     */
+    @Test
+    public void writeStateSystem() {
+        benchmark("State system writes", WRITE_STATE_SYSTEM, NB_EVENTS, () -> { //$NON-NLS-1$
+            ScriptedAnalysis analysis = createAnalysis();
+            return buildStateSystem(analysis, getStateSystem(analysis));
+        });
+    }
+
+    /**
+     * Benchmark fetching the entries and rows of a scripted time graph data
+     * provider, after building its state system
+     */
+    @Test
+    public void fetchTimeGraph() {
+        benchmark("Time graph fetches", FETCH_TIME_GRAPH, NB_FETCHES * NB_THREADS, () -> { //$NON-NLS-1$
+            ScriptedAnalysis analysis = createAnalysis();
+            ITmfStateSystemBuilder ss = getStateSystem(analysis);
+            buildStateSystem(analysis, ss);
+
+            DataProviderScriptingModule module = new DataProviderScriptingModule();
+            List<ITimeGraphEntryModel> entries = new ArrayList<>();
+            List<Long> ids = new ArrayList<>();
+            for (int quark : ss.getQuarks("*")) { //$NON-NLS-1$
+                ITimeGraphEntryModel entry = (ITimeGraphEntryModel) module.createEntry(ss.getAttributeName(quark), ImmutableMap.of(DataProviderScriptingModule.ENTRY_FIELD_QUARK, quark));
+                assertNotNull(entry);
+                entries.add(entry);
+                ids.add(entry.getId());
+            }
+            ITimeGraphDataProvider<ITimeGraphEntryModel> provider = module.createScriptedTimeGraphProvider(analysis, parameters -> entries, null, null);
+            Map<String, Object> parameters = ImmutableMap.of(DataProviderParameterUtils.REQUESTED_TIME_KEY, ImmutableList.of(ss.getStartTime(), ss.getCurrentEndTime()),
+                    DataProviderParameterUtils.REQUESTED_ITEMS_KEY, ids);
+            int rows = 0;
+            for (int i = 0; i < NB_FETCHES; i++) {
+                provider.fetchTree(parameters, null);
+                TimeGraphModel model = provider.fetchRowModel(parameters, null).getModel();
+                assertNotNull(model);
+                rows += model.getRows().size();
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Run a benchmark with the java method or the script of the engine, and
+     * save the results
+     */
+    private void benchmark(String name, String script, int expected, IntSupplier javaMethod) {
+        ITmfTrace trace = Objects.requireNonNull(sfTrace);
+        String engineId = fEngineId;
+        IntSupplier method = javaMethod;
+        if (engineId != null) {
+            assumeTrue("Engine not installed: " + engineId, ScriptService.getInstance().getEngineByID(engineId) != null); //$NON-NLS-1$
+            String scriptPath = String.valueOf(ActivatorTest.getAbsoluteFilePath(SCRIPT_PATH + script + fExtension).toOSString());
+            List<String> arguments = ImmutableList.of(getAnalysisName(), String.valueOf(NB_FETCHES));
+            method = () -> {
+                Object result = ScriptExecutionHelper.executeScript(scriptPath, engineId, arguments);
+                assertNotNull("Script execution failed: " + scriptPath, result); //$NON-NLS-1$
+                return ((Number) result).intValue();
+            };
+        }
+
+        long[] samples = new long[NB_ITERATIONS];
+        for (int i = 0; i < NB_WARMUP + NB_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            int count = method.getAsInt();
+            long duration = System.nanoTime() - start;
+            assertEquals(name, expected, count);
+            if (i >= NB_WARMUP) {
+                samples[i - NB_WARMUP] = duration;
+            }
+            /* Rebuild the state systems at each iteration */
+            deleteSupplementaryFiles(trace);
+        }
+        RESULTS.add(toResult(name, samples));
+    }
+
+    private Map<String, Object> toResult(String name, long[] samples) {
+        long[] sorted = Arrays.copyOf(samples, samples.length);
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long sample : sorted) {
+            total += sample;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", name); //$NON-NLS-1$
+        result.put("engine", fEngineName); //$NON-NLS-1$
+        result.put("events", NB_EVENTS); //$NON-NLS-1$
+        result.put("unit", "ns"); //$NON-NLS-1$ //$NON-NLS-2$
+        result.put("min", sorted[0]); //$NON-NLS-1$
+        result.put("median", sorted[sorted.length / 2]); //$NON-NLS-1$
+        result.put("mean", total / sorted.length); //$NON-NLS-1$
+        result.put("max", sorted[sorted.length - 1]); //$NON-NLS-1$
+        result.put("samples", samples); //$NON-NLS-1$
+        return result;
+    }
+
+    private String getAnalysisName() {
+        return "benchmark" + fEngineName; //$NON-NLS-1$
+    }
+
+    private ScriptedAnalysis createAnalysis() {
+        ScriptedAnalysis analysis = new AnalysisScriptingModule().createScriptedAnalysis(Objects.requireNonNull(sfTrace), getAnalysisName());
+        assertNotNull(analysis);
+        return analysis;
+    }
+
+    private static ITmfStateSystemBuilder getStateSystem(ScriptedAnalysis analysis) {
+        ITmfStateSystemBuilder ss = analysis.getStateSystem(false);
+        assertNotNull(ss);
+        return ss;
+    }
+
+    /**
+     * The java equivalent of the scripts writing the state system
+     */
+    private static int buildStateSystem(ScriptedAnalysis analysis, ITmfStateSystemBuilder ss) {
+        TraceScriptingModule traceModule = new TraceScriptingModule();
+        ScriptEventsIterator iterator = analysis.getEventIterator();
+        int count = 0;
+        ITmfEvent event = null;
+        while (iterator.hasNext()) {
+            event = iterator.next();
+            int quark = ss.getQuarkAbsoluteAndAdd(String.valueOf(traceModule.getEventFieldValue(event, TID_FIELD)));
+            ss.modifyAttribute(event.getTimestamp().toNanos(), event.getName(), quark);
+            count++;
+        }
+        if (event != null) {
+            ss.closeHistory(event.getTimestamp().toNanos());
+        }
+        return count;
+    }
+
+    private static void deleteSupplementaryFiles(ITmfTrace trace) {
+        File suppDir = new File(TmfTraceManager.getSupplementaryFileDir(trace));
+        File[] files = suppDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            file.delete();
+        }
+    }
+}
@@ -11,14 +11,19 @@
 
 package org.eclipse.tracecompass.incubator.scripting.core.tests.trace;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
@@ -35,7 +40,9 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.incubator.internal.scripting.core.trace.Messages;
 import org.eclipse.tracecompass.incubator.scripting.core.tests.ActivatorTest;
 import org.eclipse.tracecompass.incubator.scripting.core.tests.stubs.ScriptingTestUtils;
+import org.eclipse.tracecompass.incubator.scripting.core.trace.ScriptEventsIterator;
 import org.eclipse.tracecompass.incubator.scripting.core.trace.TraceScriptingModule;
+import org.eclipse.tracecompass.incubator.scripting.core.utils.ColumnarExport;
 import org.eclipse.tracecompass.tmf.core.TmfCommonConstants;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.io.ResourceUtil;
@@ -286,4 +293,104 @@ public class TraceModuleTest {
         }
     }
 
+    /**
+     * Test the event iterator with event names and time range filters
+     */
+    @Test
+    public void testEventIteratorWithFilters() {
+        TraceScriptingModule traceScriptingModule = new TraceScriptingModule();
+
+        ITmfTrace trace = ScriptingTestUtils.getTrace();
+        try {
+            Iterator<ITmfEvent> eventIterator = traceScriptingModule.getEventIterator(trace, Collections.singleton("exit"), 5L, 10L);
+            int count = 0;
+            while (eventIterator.hasNext()) {
+                ITmfEvent event = eventIterator.next();
+                assertEquals("exit", event.getName());
+                long time = event.getTimestamp().toNanos();
+                assertTrue(time >= 5L && time <= 10L);
+                count++;
+            }
+            assertEquals(8, count);
+
+            // Only the time range, with the default names
+            eventIterator = traceScriptingModule.getEventIterator(trace, null, 5L, 10L);
+            count = 0;
+            while (eventIterator.hasNext()) {
+                eventIterator.next();
+                count++;
+            }
+            assertEquals(14, count);
+
+        } finally {
+            trace.dispose();
+        }
+    }
+
+    /**
+     * Test getting batches of events from the event iterator
+     */
+    @Test
+    public void testEventIteratorBatch() {
+        TraceScriptingModule traceScriptingModule = new TraceScriptingModule();
+
+        ITmfTrace trace = ScriptingTestUtils.getTrace();
+        try {
+            ScriptEventsIterator eventIterator = traceScriptingModule.getEventIterator(trace, Collections.singleton("entry"), Long.MIN_VALUE, Long.MAX_VALUE);
+            List<String> fields = Arrays.asList("op", "pid", "notAField");
+
+            Object[][] batch = eventIterator.nextBatch(10, fields);
+            assertEquals(10, batch.length);
+            assertArrayEquals(new Object[] { 1L, "entry", "op1", "1", null }, batch[0]);
+            assertArrayEquals(new Object[] { 1L, "entry", "op1", "5", null }, batch[1]);
+
+            batch = eventIterator.nextBatch(10, fields);
+            assertEquals(8, batch.length);
+            for (Object[] row : batch) {
+                assertEquals(5, row.length);
+                assertEquals("entry", row[1]);
+            }
+
+            batch = eventIterator.nextBatch(10, fields);
+            assertEquals(0, batch.length);
+            assertFalse(eventIterator.hasNext());
+
+        } finally {
+            trace.dispose();
+        }
+    }
+
+    /**
+     * Test getting the events as columns
+     *
+     * @throws InterruptedException
+     *             Exceptions thrown by the request
+     */
+    @Test
+    public void testEventColumns() throws InterruptedException {
+        TraceScriptingModule traceScriptingModule = new TraceScriptingModule();
+
+        ITmfTrace trace = ScriptingTestUtils.getTrace();
+        try {
+            ColumnarExport columns = traceScriptingModule.getEventColumns(trace, Arrays.asList("op", "tid"), null, 5L, 10L);
+            assertEquals(14, columns.getRowCount());
+            assertEquals(Arrays.asList("timestamp", "name", "op", "tid"), columns.getColumnNames());
+            long[] timestamps = columns.getLongColumn("timestamp");
+            assertEquals(5L, timestamps[0]);
+            assertEquals(10L, timestamps[13]);
+
+            String[] names = columns.getDictionary("name");
+            assertNotNull(names);
+            assertEquals(2, names.length);
+            // The tid field is a string in this trace
+            assertEquals(ColumnarExport.INT32, columns.getColumnType("tid"));
+
+            columns = traceScriptingModule.getEventColumns(trace, Collections.emptyList(), Collections.singleton("entry"), Long.MIN_VALUE, Long.MAX_VALUE);
+            assertEquals(18, columns.getRowCount());
+            assertArrayEquals(new String[] { "entry" }, columns.getDictionary("name"));
+
+        } finally {
+            trace.dispose();
+        }
+    }
 }
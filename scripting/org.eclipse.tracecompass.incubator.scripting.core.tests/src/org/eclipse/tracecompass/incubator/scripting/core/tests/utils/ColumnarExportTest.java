@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.scripting.core.tests.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.eclipse.tracecompass.incubator.scripting.core.utils.ColumnarExport;
+import org.junit.Test;
+
+/**
+ * Test the {@link ColumnarExport} class
+ */
+public class ColumnarExportTest {
+
+    private static ColumnarExport buildTable() {
+        ColumnarExport.Builder builder = new ColumnarExport.Builder(Arrays.asList("long", "double", "string", "empty"));
+        for (int i = 0; i < 100; i++) {
+            builder.set(0, i * 10L);
+            // The first values are integers, the column is promoted to double
+            builder.set(1, (i < 50) ? (Object) i : (Object) (i + 0.5));
+            // Skip some values to have nulls
+            if (i % 3 != 0) {
+                builder.set(2, (i < 90) ? "value" + (i % 2) : (Object) 42);
+            }
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Test the types and values of the columns
+     */
+    @Test
+    public void testColumns() {
+        ColumnarExport table = buildTable();
+        assertEquals(100, table.getRowCount());
+        assertEquals(Arrays.asList("long", "double", "string", "empty"), table.getColumnNames());
+
+        assertEquals(ColumnarExport.INT64, table.getColumnType("long"));
+        long[] longs = table.getLongColumn("long");
+        assertEquals(100, longs.length);
+        assertEquals(990L, longs[99]);
+        assertNull(table.getDictionary("long"));
+        assertNull(table.getValidityBytes("long"));
+
+        assertEquals(ColumnarExport.FLOAT64, table.getColumnType("double"));
+        double[] doubles = table.getDoubleColumn("double");
+        assertEquals(49.0, doubles[49], 0.0);
+        assertEquals(50.5, doubles[50], 0.0);
+
+        assertEquals(ColumnarExport.INT32, table.getColumnType("string"));
+        String[] dictionary = table.getDictionary("string");
+        assertNotNull(dictionary);
+        assertArrayEquals(new String[] { "value1", "value0", "42" }, dictionary);
+        long[] indexes = table.getLongColumn("string");
+        assertTrue(table.isNull("string", 0));
+        assertEquals(0L, indexes[0]);
+        assertFalse(table.isNull("string", 1));
+        assertEquals("value1", dictionary[(int) indexes[1]]);
+        assertEquals("42", dictionary[(int) indexes[91]]);
+        byte[] validity = table.getValidityBytes("string");
+        assertNotNull(validity);
+        assertEquals(13, validity.length);
+        // Rows 0, 3 and 6 are null in the first byte
+        assertEquals((byte) 0b10110110, validity[0]);
+
+        assertEquals(ColumnarExport.INT64, table.getColumnType("empty"));
+        assertTrue(table.isNull("empty", 99));
+    }
+
+    /**
+     * Test the bytes of the columns, as returned and as written to a file
+     *
+     * @throws IOException
+     *             Exceptions thrown by the file
+     */
+    @Test
+    public void testBytes() throws IOException {
+        ColumnarExport table = buildTable();
+        ByteBuffer longs = ByteBuffer.wrap(table.getColumnBytes("long")).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(800, longs.capacity());
+        assertEquals(10L, longs.getLong(8));
+        ByteBuffer strings = ByteBuffer.wrap(table.getColumnBytes("string")).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(400, strings.capacity());
+        assertEquals(0, strings.getInt(4));
+
+        assertEquals(-1L, table.getColumnOffset("long"));
+        String path = table.toFile();
+        assertEquals(path, table.toFile());
+        ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(Paths.get(path))).order(ByteOrder.LITTLE_ENDIAN);
+        for (String name : table.getColumnNames()) {
+            long offset = table.getColumnOffset(name);
+            assertEquals(0, offset % 64);
+            byte[] bytes = table.getColumnBytes(name);
+            byte[] written = new byte[bytes.length];
+            file.position((int) offset);
+            file.get(written);
+            assertArrayEquals(name, bytes, written);
+        }
+        assertEquals(-1L, table.getValidityOffset("long"));
+        long validityOffset = table.getValidityOffset("string");
+        assertTrue(validityOffset >= 0);
+        assertEquals((byte) 0b10110110, file.get((int) validityOffset));
+        Files.delete(Paths.get(path));
+    }
+
+    /**
+     * Test that duplicate column names are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateColumns() {
+        new ColumnarExport.Builder(Arrays.asList("a", "b", "a"));
+    }
+}
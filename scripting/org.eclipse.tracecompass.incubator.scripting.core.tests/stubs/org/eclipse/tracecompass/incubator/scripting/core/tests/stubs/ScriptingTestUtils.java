@@ -48,15 +48,27 @@ public class ScriptingTestUtils {
      * @return A trace to run tests on
      */
     public static ITmfTrace getTrace() {
+        IPath filePath = ActivatorTest.getAbsoluteFilePath(CALLSTACK_FILE);
+        return getTrace(String.valueOf(filePath.toOSString()));
+    }
+
+    /**
+     * Get an XML stub trace from a file. The trace will be initialized and
+     * opened. The caller should dispose of it at the end of the test.
+     *
+     * @param absolutePath
+     *            The absolute path of the XML trace file
+     * @return A trace to run tests on
+     */
+    public static ITmfTrace getTrace(String absolutePath) {
         TmfXmlTraceStub trace = new TmfXmlTraceStubNs();
         try {
 
-            IPath filePath = ActivatorTest.getAbsoluteFilePath(CALLSTACK_FILE);
-            IStatus status = trace.validate(null, filePath.toOSString());
+            IStatus status = trace.validate(null, absolutePath);
             if (!status.isOK()) {
                 fail(status.getException().getMessage());
             }
-            trace.initTrace(null, filePath.toOSString(), TmfEvent.class);
+            trace.initTrace(null, absolutePath, TmfEvent.class);
 
             TmfTraceOpenedSignal signal = new TmfTraceOpenedSignal(null, trace, null);
             trace.traceOpened(signal);
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+// Benchmark: build a state system, then fetch the entries and rows of a
+// scripted time graph data provider on it
+// argv[0]: the name of the analysis
+// argv[1]: the number of fetches
+
+loadModule('/TraceCompass/Analysis');
+loadModule('/TraceCompass/Trace');
+loadModule('/TraceCompass/Utils');
+loadModule('/TraceCompass/DataProvider');
+
+var analysis = createScriptedAnalysis(getActiveTrace(), argv[0]);
+var ss = analysis.getStateSystem(false);
+
+var iter = analysis.getEventIterator();
+var event = null;
+while (iter.hasNext()) {
+	event = iter.next();
+	var quark = ss.getQuarkAbsoluteAndAdd(strToArray(String(getEventFieldValue(event, "tid"))));
+	ss.modifyAttribute(event.getTimestamp().toNanos(), event.getName(), quark);
+}
+if (event != null) {
+	ss.closeHistory(event.getTimestamp().toNanos());
+}
+
+var entries = createListWrapper();
+var ids = createListWrapper();
+var quarks = ss.getQuarks(strToArray("*"));
+for (var i = 0; i < quarks.size(); i++) {
+	var entry = createEntry(ss.getAttributeName(quarks.get(i)), {'quark' : quarks.get(i)});
+	entries.getList().add(entry);
+	ids.getList().add(entry.getId());
+}
+
+function getEntries(parameters) {
+	return entries.getList();
+}
+
+var provider = createScriptedTimeGraphProvider(analysis, getEntries, null, null);
+
+var times = createListWrapper();
+times.getList().add(ss.getStartTime());
+times.getList().add(ss.getCurrentEndTime());
+var parameters = {'requested_times' : times.getList(), 'requested_items' : ids.getList()};
+
+var rows = 0;
+for (var i = 0; i < Number(argv[1]); i++) {
+	provider.fetchTree(parameters, null);
+	rows += provider.fetchRowModel(parameters, null).getModel().getRows().size();
+}
+
+exit(rows);
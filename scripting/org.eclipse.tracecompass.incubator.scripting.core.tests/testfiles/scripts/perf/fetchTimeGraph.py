@@ -0,0 +1,70 @@
+################################################################################
+# Copyright (c) 2026 École Polytechnique de Montréal
+# All rights reserved. This program and the accompanying materials
+# are made available under the terms of the Eclipse Public License 2.0
+# which accompanies this distribution, and is available at
+# https://www.eclipse.org/legal/epl-2.0
+#
+# SPDX-License-Identifier: EPL-2.0
+################################################################################
+
+# Benchmark: build a state system, then fetch the entries and rows of a
+# scripted time graph data provider on it
+# argv[0]: the name of the analysis
+# argv[1]: the number of fetches
+
+loadModule('/TraceCompass/Analysis')
+loadModule('/TraceCompass/Trace')
+loadModule('/TraceCompass/Utils')
+loadModule('/TraceCompass/DataProvider')
+
+analysis = createScriptedAnalysis(getActiveTrace(), argv[0])
+ss = analysis.getStateSystem(False)
+
+# With py4j, the java objects need to be detached from the gateway
+isPy4j = 'gateway' in globals()
+detach = gateway.detach if isPy4j else (lambda obj: None)
+
+iter = analysis.getEventIterator()
+event = None
+while iter.hasNext():
+    if not(event is None):
+        detach(event)
+    event = iter.next()
+    quark = ss.getQuarkAbsoluteAndAdd(strToArray(str(getEventFieldValue(event, "tid"))))
+    ss.modifyAttribute(event.getTimestamp().toNanos(), event.getName(), quark)
+
+if not(event is None):
+    ss.closeHistory(event.getTimestamp().toNanos())
+
+entries = createListWrapper()
+ids = createListWrapper()
+quarks = ss.getQuarks(strToArray("*"))
+for i in range(quarks.size()):
+    entry = createEntry(ss.getAttributeName(quarks.get(i)), {'quark' : quarks.get(i)})
+    entries.getList().add(entry)
+    ids.getList().add(entry.getId())
+
+# py4j needs an object implementing the java interface, jython converts functions
+class EntriesFunction(object):
+    def apply(self, parameters):
+        return entries.getList()
+
+    class Java:
+        implements = ['java.util.function.Function']
+
+getEntries = EntriesFunction() if isPy4j else (lambda parameters: entries.getList())
+
+provider = createScriptedTimeGraphProvider(analysis, getEntries, None, None)
+
+times = createListWrapper()
+times.getList().add(ss.getStartTime())
+times.getList().add(ss.getCurrentEndTime())
+parameters = {'requested_times' : times.getList(), 'requested_items' : ids.getList()}
+
+rows = 0
+for i in range(int(argv[1])):
+    provider.fetchTree(parameters, None)
+    rows = rows + provider.fetchRowModel(parameters, None).getModel().getRows().size()
+
+exit(rows)
@@ -0,0 +1,28 @@
+################################################################################
+# Copyright (c) 2026 École Polytechnique de Montréal
+# All rights reserved. This program and the accompanying materials
+# are made available under the terms of the Eclipse Public License 2.0
+# which accompanies this distribution, and is available at
+# https://www.eclipse.org/legal/epl-2.0
+#
+# SPDX-License-Identifier: EPL-2.0
+################################################################################
+
+# Benchmark: iterate through all the events of the active trace
+# argv[0]: the name of the analysis
+
+loadModule('/TraceCompass/Analysis')
+loadModule('/TraceCompass/Trace')
+
+analysis = createScriptedAnalysis(getActiveTrace(), argv[0])
+
+# With py4j, the java objects need to be detached from the gateway
+detach = gateway.detach if 'gateway' in globals() else (lambda obj: None)
+
+iter = analysis.getEventIterator()
+count = 0
+while iter.hasNext():
+    detach(iter.next())
+    count = count + 1
+
+exit(count)
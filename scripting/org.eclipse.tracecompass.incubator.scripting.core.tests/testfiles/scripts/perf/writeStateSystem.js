@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+// Benchmark: write the name of each event in the state system, for the
+// attribute of the event's thread
+// argv[0]: the name of the analysis
+
+loadModule('/TraceCompass/Analysis');
+loadModule('/TraceCompass/Trace');
+loadModule('/TraceCompass/Utils');
+
+var analysis = createScriptedAnalysis(getActiveTrace(), argv[0]);
+var ss = analysis.getStateSystem(false);
+
+var iter = analysis.getEventIterator();
+var count = 0;
+var event = null;
+while (iter.hasNext()) {
+	event = iter.next();
+	var quark = ss.getQuarkAbsoluteAndAdd(strToArray(String(getEventFieldValue(event, "tid"))));
+	ss.modifyAttribute(event.getTimestamp().toNanos(), event.getName(), quark);
+	count++;
+}
+if (event != null) {
+	ss.closeHistory(event.getTimestamp().toNanos());
+}
+
+exit(count);
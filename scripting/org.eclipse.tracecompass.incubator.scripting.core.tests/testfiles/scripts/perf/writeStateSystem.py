@@ -0,0 +1,39 @@
+################################################################################
+# Copyright (c) 2026 École Polytechnique de Montréal
+# All rights reserved. This program and the accompanying materials
+# are made available under the terms of the Eclipse Public License 2.0
+# which accompanies this distribution, and is available at
+# https://www.eclipse.org/legal/epl-2.0
+#
+# SPDX-License-Identifier: EPL-2.0
+################################################################################
+
+# Benchmark: write the name of each event in the state system, for the
+# attribute of the event's thread
+# argv[0]: the name of the analysis
+
+loadModule('/TraceCompass/Analysis')
+loadModule('/TraceCompass/Trace')
+loadModule('/TraceCompass/Utils')
+
+analysis = createScriptedAnalysis(getActiveTrace(), argv[0])
+ss = analysis.getStateSystem(False)
+
+# With py4j, the java objects need to be detached from the gateway
+detach = gateway.detach if 'gateway' in globals() else (lambda obj: None)
+
+iter = analysis.getEventIterator()
+count = 0
+event = None
+while iter.hasNext():
+    if not(event is None):
+        detach(event)
+    event = iter.next()
+    quark = ss.getQuarkAbsoluteAndAdd(strToArray(str(getEventFieldValue(event, "tid"))))
+    ss.modifyAttribute(event.getTimestamp().toNanos(), event.getName(), quark)
+    count = count + 1
+
+if not(event is None):
+    ss.closeHistory(event.getTimestamp().toNanos())
+
+exit(count)
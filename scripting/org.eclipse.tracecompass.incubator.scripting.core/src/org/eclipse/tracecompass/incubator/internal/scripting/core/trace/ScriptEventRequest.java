@@ -11,14 +11,21 @@
 
 package org.eclipse.tracecompass.incubator.internal.scripting.core.trace;
 
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.collect.BufferedBlockingQueue;
 import org.eclipse.tracecompass.incubator.scripting.core.trace.ScriptEventsIterator;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
 import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
@@ -27,6 +34,10 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
  * #getEventIterator()} method which returns the iterator to go through the
  * events. Callers need to explicitly send the request to a trace or experiment,
  * using {@link ITmfTrace#sendRequest(ITmfEventRequest)}.
+ * <p>
+ * The time range and event names to return are applied by the request itself,
+ * so that the events filtered out are never queued for the script.
+ * </p>
  *
  * @author Geneviève Bastien
  */
@@ -50,21 +61,41 @@ public class ScriptEventRequest extends TmfEventRequest {
     }
 
     private final BufferedBlockingQueue<ITmfEvent> fEventsQueue;
+    private final Set<String> fNames = ConcurrentHashMap.newKeySet();
     private final ScriptEventsIterator fEventIterator;
 
     /**
-     * Constructor
+     * Constructor for a request of all the events of the trace
      */
     public ScriptEventRequest() {
-        super(ITmfEvent.class, TmfTimeRange.ETERNITY, 0, ITmfEventRequest.ALL_DATA, ExecutionType.BACKGROUND, 100);
+        this(TmfTimeRange.ETERNITY, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param range
+     *            The time range of the events to return
+     * @param eventNames
+     *            The names of the events to return. If <code>null</code> or
+     *            empty, all events are returned, unless names are later added
+     *            to the iterator
+     */
+    public ScriptEventRequest(TmfTimeRange range, @Nullable Collection<String> eventNames) {
+        super(ITmfEvent.class, range, 0, ITmfEventRequest.ALL_DATA, ExecutionType.BACKGROUND, 100);
         fEventsQueue = new BufferedBlockingQueue<>(DEFAULT_EVENTS_QUEUE_SIZE, DEFAULT_EVENTS_CHUNK_SIZE);
-        fEventIterator = new ScriptEventsIterator(fEventsQueue);
+        if (eventNames != null) {
+            fNames.addAll(eventNames);
+        }
+        fEventIterator = new ScriptEventsIterator(fEventsQueue, fNames);
     }
 
     @Override
     public void handleData(@NonNull ITmfEvent event) {
         super.handleData(event);
-        fEventsQueue.put(event);
+        if (fNames.isEmpty() || fNames.contains(event.getName())) {
+            fEventsQueue.put(event);
+        }
     }
 
     @Override
@@ -86,6 +117,28 @@ public class ScriptEventRequest extends TmfEventRequest {
         fEventsQueue.flushInputBuffer();
     }
 
+    /**
+     * Get the time range of events to request from the start and end times
+     * passed by scripts, where the minimal and maximal values mean no bound
+     *
+     * @param startTime
+     *            The start time, in nanoseconds
+     * @param endTime
+     *            The end time, in nanoseconds
+     * @return The time range
+     */
+    public static TmfTimeRange getTimeRange(long startTime, long endTime) {
+        if (startTime == Long.MIN_VALUE && endTime == Long.MAX_VALUE) {
+            return TmfTimeRange.ETERNITY;
+        }
+        if (startTime > endTime) {
+            throw new IllegalArgumentException("The start time should not be after the end time"); //$NON-NLS-1$
+        }
+        ITmfTimestamp start = startTime == Long.MIN_VALUE ? TmfTimestamp.BIG_BANG : TmfTimestamp.fromNanos(startTime);
+        ITmfTimestamp end = endTime == Long.MAX_VALUE ? TmfTimestamp.BIG_CRUNCH : TmfTimestamp.fromNanos(endTime);
+        return new TmfTimeRange(start, end);
+    }
+
     /**
      * Get the event iterator that will contain the events being read.
      *
@@ -11,6 +11,8 @@
 
 package org.eclipse.tracecompass.incubator.scripting.core.analysis;
 
+import java.util.Collection;
+
 import org.eclipse.ease.modules.ScriptParameter;
 import org.eclipse.ease.modules.WrapToScript;
 import org.eclipse.jdt.annotation.Nullable;
@@ -105,7 +107,46 @@ public class ScriptedAnalysis {
      */
     @WrapToScript
     public ScriptEventsIterator getEventIterator() {
-        ScriptEventRequest scriptEventRequest = new ScriptEventRequest();
+        return getEventIterator(null, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Get an iterator to iterate chronologically through the events of the
+     * trace with the given names. The events are filtered by the event
+     * request, so the other events are never returned to the script.
+     *
+     * <pre>
+     * var iter = analysis.getEventIterator(["sched_switch", "sched_wakeup"]);
+     * </pre>
+     *
+     * @param eventNames
+     *            The names of the events to return. If <code>null</code> or
+     *            empty, all events are returned
+     * @return The event iterator, starting from the first event
+     */
+    @WrapToScript
+    public ScriptEventsIterator getEventIterator(@Nullable Collection<String> eventNames) {
+        return getEventIterator(eventNames, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Get an iterator to iterate chronologically through the events of the
+     * trace with the given names, in a time range. The events are filtered by
+     * the event request, so the other events are never returned to the
+     * script.
+     *
+     * @param eventNames
+     *            The names of the events to return. If <code>null</code> or
+     *            empty, all events are returned
+     * @param startTime
+     *            The timestamp in nanoseconds from which to return events
+     * @param endTime
+     *            The timestamp in nanoseconds up to which to return events
+     * @return The event iterator, starting from the first event of the range
+     */
+    @WrapToScript
+    public ScriptEventsIterator getEventIterator(@Nullable Collection<String> eventNames, long startTime, long endTime) {
+        ScriptEventRequest scriptEventRequest = new ScriptEventRequest(ScriptEventRequest.getTimeRange(startTime, endTime), eventNames);
         fTrace.sendRequest(scriptEventRequest);
         return scriptEventRequest.getEventIterator();
     }
@@ -11,6 +11,8 @@
 
 package org.eclipse.tracecompass.incubator.scripting.core.callstack;
 
+import java.util.List;
+
 import org.eclipse.ease.modules.ScriptParameter;
 import org.eclipse.ease.modules.WrapToScript;
 import org.eclipse.jdt.annotation.NonNull;
@@ -21,10 +23,12 @@ import org.eclipse.tracecompass.analysis.profiling.core.tree.IWeightedTreeSet;
 import org.eclipse.tracecompass.analysis.profiling.core.tree.WeightedTree;
 import org.eclipse.tracecompass.analysis.profiling.core.tree.WeightedTreeGroupBy;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.diff.DifferentialWeightedTreeProvider;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.diff.IncrementalTreeSetDiff;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.diff.WeightedTreeUtils;
 import org.eclipse.tracecompass.incubator.internal.scripting.core.data.provider.ScriptingDataProviderManager;
 import org.eclipse.tracecompass.internal.analysis.profiling.core.flamegraph.FlameGraphDataProvider;
 import org.eclipse.tracecompass.internal.analysis.profiling.core.tree.AllGroupDescriptor;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 /**
@@ -47,6 +51,13 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
  */
 public class CallStackScriptingModule {
 
+    /*
+     * The differential of the time ranges last compared, kept so that the tree
+     * set of a range that did not move is not queried again
+     */
+    private @Nullable IWeightedTreeProvider<?, ?, ?> fRangeDiffProvider = null;
+    private @Nullable IncrementalTreeSetDiff<?> fRangeDiff = null;
+
     /**
      * Group the trees of the provider's main treeset, up to the requested
      * level. For example, if a treeset's elements are grouped in a hierarchical
@@ -136,6 +147,78 @@ public class CallStackScriptingModule {
         return diffTrees;
     }
 
+    /**
+     * Differentiates the trees of 2 time ranges of a provider. Successive
+     * calls with the same provider reuse the trees of a range that did not
+     * change since the previous call, so that moving one of the ranges only
+     * computes the trees of this range.
+     *
+     * @param provider
+     *            The weighted tree provider whose selections are compared. Its
+     *            values will be used for the metrics, palettes, etc
+     * @param start1
+     *            The start time of the base range for comparison, in
+     *            nanoseconds
+     * @param end1
+     *            The end time of the base range for comparison, in nanoseconds
+     * @param start2
+     *            The start time of the range to compare to, in nanoseconds
+     * @param end2
+     *            The end time of the range to compare to, in nanoseconds
+     * @param minSignificantValue
+     *            The value as a percentage (between 0 and 100), under which is
+     *            difference should not be highlighted
+     * @param maxSignificantValue
+     *            The value as a percentage (between 0 and 100), above which the
+     *            difference should be highlighted at the maximal value.
+     * @param <N>
+     *            The type of data that goes in the trees
+     * @return The resulting differential weighted tree provider containing the
+     *         result of the difference between the trees of the 2 ranges
+     */
+    @WrapToScript
+    public synchronized <@NonNull N> @Nullable DifferentialWeightedTreeProvider<N> diffTimeRanges(IWeightedTreeProvider<N, ?, WeightedTree<N>> provider,
+            long start1, long end1, long start2, long end2,
+            @ScriptParameter(defaultValue = "-1") int minSignificantValue,
+            @ScriptParameter(defaultValue = "-1") int maxSignificantValue) {
+        IncrementalTreeSetDiff<?> rangeDiff = fRangeDiff;
+        if (rangeDiff == null || fRangeDiffProvider != provider) {
+            rangeDiff = new IncrementalTreeSetDiff<>(provider);
+            fRangeDiff = rangeDiff;
+            fRangeDiffProvider = provider;
+        }
+        @SuppressWarnings("unchecked")
+        DifferentialWeightedTreeProvider<@NonNull N> diffTrees = ((IncrementalTreeSetDiff<N>) rangeDiff).diff(TmfTimestamp.fromNanos(start1), TmfTimestamp.fromNanos(end1),
+                TmfTimestamp.fromNanos(start2), TmfTimestamp.fromNanos(end2));
+        if (diffTrees != null && minSignificantValue >= 0) {
+            diffTrees.setHeatThresholds(minSignificantValue, maxSignificantValue);
+        }
+        return diffTrees;
+    }
+
+    /**
+     * Differentiates many treesets with a base treeset. The weights of each
+     * tree set are normalized before comparison, so that tree sets from time
+     * ranges of different durations can be compared.
+     *
+     * @param provider
+     *            The original weighted tree provider, whose values will be used
+     *            for the metrics, palettes, etc
+     * @param treeSets
+     *            The treesets to compare, the first one is the base treeset
+     *            for comparison
+     * @param <N>
+     *            The type of data that goes in the trees
+     * @return The resulting differential weighted tree providers, one for each
+     *         treeset after the base one. A provider is <code>null</code> if
+     *         its treeset has nothing in common with the base treeset.
+     */
+    @WrapToScript
+    public <@NonNull N> List<@Nullable DifferentialWeightedTreeProvider<N>> diffTreeSetsNormalized(IWeightedTreeProvider<N, ?, WeightedTree<N>> provider,
+            List<IWeightedTreeSet<N, @NonNull ?, WeightedTree<N>>> treeSets) {
+        return WeightedTreeUtils.diffTreeSetsNormalized(provider, treeSets);
+    }
+
     /**
      * Get a flame graph data provider for a weighted tree provider. The
      * weighted tree provider can be the result of the {@link #diffTreeSets}
@@ -12,6 +12,7 @@
 package org.eclipse.tracecompass.incubator.scripting.core.data.provider;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,7 @@ import org.eclipse.tracecompass.incubator.internal.scripting.core.data.provider.
 import org.eclipse.tracecompass.incubator.internal.scripting.core.data.provider.ScriptedTimeGraphDataProvider;
 import org.eclipse.tracecompass.incubator.internal.scripting.core.data.provider.ScriptingDataProviderManager;
 import org.eclipse.tracecompass.incubator.scripting.core.analysis.ScriptedAnalysis;
+import org.eclipse.tracecompass.incubator.scripting.core.utils.ColumnarExport;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenStateSystemPath;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValueConstant;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.output.DataDrivenOutputEntry;
@@ -32,6 +34,8 @@ import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.output.DataDriven
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.output.DataDrivenXYProviderFactory;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
 import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.analysis.TmfAbstractAnalysisModule;
@@ -46,6 +50,8 @@ import org.eclipse.tracecompass.tmf.core.model.xy.ITmfTreeXYDataProvider;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfAnalysisModuleWithStateSystems;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
+import com.google.common.collect.ImmutableList;
+
 /**
  * Scripting module to create data providers from scripted analyzes. Data
  * providers are used to define what and how data will be exported, either as
@@ -68,6 +74,10 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 @SuppressWarnings("restriction")
 public class DataProviderScriptingModule {
 
+    private static final String DEFAULT_START_TIME = "" + Long.MIN_VALUE; //$NON-NLS-1$
+    private static final String DEFAULT_END_TIME = "" + Long.MAX_VALUE; //$NON-NLS-1$
+    private static final List<String> INTERVAL_COLUMNS = ImmutableList.of("quark", "start", "end", "value"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
     /** Path key to create data providers */
     @WrapToScript
     public static final String ENTRY_PATH = "path"; //$NON-NLS-1$
@@ -456,4 +466,61 @@ public class DataProviderScriptingModule {
         return provider;
     }
 
+    /**
+     * Get the intervals of some attributes of a state system as a table of
+     * columns of primitive values, to avoid a call between the script and java
+     * for each interval. The table has a <code>quark</code>, a
+     * <code>start</code> and an <code>end</code> column, and a
+     * <code>value</code> column, whose type depends on the values of the
+     * intervals. The intervals are not sorted.
+     *
+     * For instance, to get the intervals of the threads of a scripted analysis
+     * in numpy arrays (python)
+     *
+     * <pre>
+     * ss = analysis.getStateSystem(True)
+     * columns = getIntervalColumns(ss, ss.getQuarks("Threads", "*"))
+     * starts = numpy.frombuffer(columns.getColumnBytes("start"), dtype='&lt;i8')
+     * </pre>
+     *
+     * @param stateSystem
+     *            The state system to query
+     * @param quarks
+     *            The quarks of the attributes whose intervals to export
+     * @param startTime
+     *            The time in nanoseconds from which to export intervals,
+     *            intervals are exported from the start of the state system by
+     *            default
+     * @param endTime
+     *            The time in nanoseconds up to which to export intervals,
+     *            intervals are exported until the current end of the state
+     *            system by default
+     * @return The table of intervals
+     * @throws StateSystemDisposedException
+     *             If the state system was disposed during the query
+     */
+    @WrapToScript
+    public ColumnarExport getIntervalColumns(ITmfStateSystem stateSystem, Collection<? extends Number> quarks,
+            @ScriptParameter(defaultValue = DEFAULT_START_TIME) long startTime,
+            @ScriptParameter(defaultValue = DEFAULT_END_TIME) long endTime) throws StateSystemDisposedException {
+        ColumnarExport.Builder builder = new ColumnarExport.Builder(INTERVAL_COLUMNS);
+        long start = Math.max(startTime, stateSystem.getStartTime());
+        long end = Math.min(endTime, stateSystem.getCurrentEndTime());
+        if (quarks.isEmpty() || start > end) {
+            return builder.build();
+        }
+        List<Integer> quarkList = new ArrayList<>(quarks.size());
+        for (Number quark : quarks) {
+            quarkList.add(quark.intValue());
+        }
+        for (ITmfStateInterval interval : stateSystem.query2D(quarkList, start, end)) {
+            builder.set(0, interval.getAttribute());
+            builder.set(1, interval.getStartTime());
+            builder.set(2, interval.getEndTime());
+            builder.set(3, interval.getValue());
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
 }
@@ -11,28 +11,37 @@
 
 package org.eclipse.tracecompass.incubator.scripting.core.trace;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.collect.BufferedBlockingQueue;
 import org.eclipse.tracecompass.incubator.internal.scripting.core.trace.ScriptEventRequest;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 
 /**
  * An event iterator class for scripting which allows to return to the script
  * only the requested events, by setting the desired event names with the
  * {@link #addEvent(String)} method. If no event is added, all events will be
  * returned.
+ * <p>
+ * To reduce the number of calls between the script and java, the
+ * {@link #nextBatch(int, List)} method returns many events at once, with the
+ * values of the requested fields already extracted.
+ * </p>
  *
  * @author Geneviève Bastien
  */
 public class ScriptEventsIterator implements Iterator<ITmfEvent> {
 
     private final BufferedBlockingQueue<ITmfEvent> fEventsQueue;
-    private final Collection<String> fNames = new HashSet<>();
+    private final Collection<String> fNames;
     private @Nullable ITmfEvent fNext;
 
     /**
@@ -42,7 +51,24 @@ public class ScriptEventsIterator implements Iterator<ITmfEvent> {
      *            The blocking queue from which to get the events
      */
     public ScriptEventsIterator(BufferedBlockingQueue<ITmfEvent> eventsQueue) {
+        this(eventsQueue, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Constructor with the collection of event names to return. This
+     * collection can be shared with the producer of the events, so that the
+     * names added to this iterator also filter the events before they are
+     * queued. It must then be thread-safe.
+     *
+     * @param eventsQueue
+     *            The blocking queue from which to get the events
+     * @param names
+     *            The names of the events to return, all events are returned if
+     *            empty
+     */
+    public ScriptEventsIterator(BufferedBlockingQueue<ITmfEvent> eventsQueue, Collection<String> names) {
         fEventsQueue = eventsQueue;
+        fNames = names;
     }
 
     @Override
@@ -92,4 +118,67 @@ public class ScriptEventsIterator implements Iterator<ITmfEvent> {
         throw new NoSuchElementException("No more elements in the queue"); //$NON-NLS-1$
     }
 
+    /**
+     * Get the next events of this iterator in a batch, with the values of the
+     * requested fields. Each event is a row of the returned array, containing
+     * the timestamp of the event in nanoseconds, the event name, then the
+     * value of each field, in the order of the field names. A field that does
+     * not exist in the event is resolved as an aspect of the trace, like
+     * {@link TraceScriptingModule#getEventFieldValue(ITmfEvent, String)}, or
+     * is <code>null</code>.
+     *
+     * This method waits until the batch is full or there are no more events.
+     * Thus, to iterate through a trace with batches of events, one can do the
+     * following snippet (python)
+     *
+     * <pre>
+     * batch = iter.nextBatch(1000, ["tid", "prev_tid"])
+     * while len(batch) &gt; 0:
+     *     for event in batch:
+     *         # event[0] is the timestamp, event[1] the name, event[2] the tid
+     *         handleEvent(event)
+     *     batch = iter.nextBatch(1000, ["tid", "prev_tid"])
+     * </pre>
+     *
+     * @param maxEvents
+     *            The maximum number of events to return
+     * @param fields
+     *            The names of the fields to extract from each event
+     * @return The events, or an empty array if there are no more events
+     */
+    public synchronized @Nullable Object[][] nextBatch(int maxEvents, List<String> fields) {
+        if (maxEvents <= 0) {
+            throw new IllegalArgumentException("The number of events should be positive"); //$NON-NLS-1$
+        }
+        String[] fieldNames = fields.toArray(new String[fields.size()]);
+        Object[][] batch = new Object[maxEvents][];
+        int count = 0;
+        while (count < maxEvents && hasNext()) {
+            ITmfEvent event = next();
+            Object[] row = new Object[fieldNames.length + 2];
+            row[0] = event.getTimestamp().toNanos();
+            row[1] = event.getName();
+            for (int i = 0; i < fieldNames.length; i++) {
+                row[i + 2] = getFieldValue(event, fieldNames[i]);
+            }
+            batch[count++] = row;
+        }
+        return (count == maxEvents) ? batch : Arrays.copyOf(batch, count);
+    }
+
+    /**
+     * Get the value of an event field, or of the aspect of this name if the
+     * field does not exist
+     */
+    static @Nullable Object getFieldValue(ITmfEvent event, String fieldName) {
+        final ITmfEventField field = event.getContent().getField(fieldName);
+
+        /* If the field does not exist, see if it's a special case */
+        if (field == null) {
+            // This will allow to use any column as input
+            return TmfTraceUtils.resolveAspectOfNameForEvent(event.getTrace(), fieldName, event);
+        }
+        return field.getValue();
+    }
+
 }
@@ -13,8 +13,13 @@ package org.eclipse.tracecompass.incubator.scripting.core.trace;
 
 import java.io.FileNotFoundException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -30,15 +35,16 @@ import org.eclipse.ease.modules.WrapToScript;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.scripting.core.trace.Messages;
 import org.eclipse.tracecompass.incubator.internal.scripting.core.trace.ScriptEventRequest;
+import org.eclipse.tracecompass.incubator.scripting.core.utils.ColumnarExport;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
-import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceImportException;
 import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceType;
 import org.eclipse.tracecompass.tmf.core.project.model.TraceTypeHelper;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
-import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 
 /**
  * Scripting modules to open and manipulate traces
@@ -47,6 +53,11 @@ import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
  */
 public class TraceScriptingModule extends AbstractScriptModule {
 
+    private static final String DEFAULT_START_TIME = "" + Long.MIN_VALUE; //$NON-NLS-1$
+    private static final String DEFAULT_END_TIME = "" + Long.MAX_VALUE; //$NON-NLS-1$
+    private static final String TIMESTAMP_COLUMN = "timestamp"; //$NON-NLS-1$
+    private static final String NAME_COLUMN = "name"; //$NON-NLS-1$
+
     /**
      * The trace will be opened, its events can be queried, but the analyses
      * will not have been run on it, they will not be available. The trace
@@ -134,16 +145,19 @@ public class TraceScriptingModule extends AbstractScriptModule {
     /**
      * Get an iterator to iterate chronologically through the events of the
      * trace. To reduce overhead of passing all events to/from the script when
-     * only a subset of events is requested, the
-     * {@link ScriptEventsIterator#addEvent(String)} method can be used to set
-     * the events to filter.
+     * only a subset of events is requested, the {@link ScriptEventsIterator}
+     * can be restricted to the events of some names and of a time range. Those
+     * filters are applied by the event request, so the other events are never
+     * returned to the script. The
+     * {@link ScriptEventsIterator#addEvent(String)} method can also be used to
+     * add events to filter.
      *
      * Thus, to iterate through the events of a trace in a scripted analysis,
      * one can just do the following snippet (javascript)
      *
      * <pre>
      * var trace = getActiveTrace();
-     * var iter = getEventIterator(trace);
+     * var iter = getEventIterator(trace, ["sched_switch", "sched_wakeup"]);
      *
      * var event = null;
      * while (iter.hasNext()) {
@@ -156,22 +170,119 @@ public class TraceScriptingModule extends AbstractScriptModule {
      *
      * @param trace
      *            The trace for which to get the event iterator
+     * @param eventNames
+     *            The names of the events to return. If <code>null</code> or
+     *            empty, all events are returned
+     * @param startTime
+     *            The timestamp in nanoseconds from which to return events,
+     *            events are returned from the start of the trace by default
+     * @param endTime
+     *            The timestamp in nanoseconds up to which to return events,
+     *            events are returned until the end of the trace by default
      *
      * @return The event iterator, starting from the first event
      */
     @WrapToScript
-    public ScriptEventsIterator getEventIterator(@Nullable ITmfTrace trace) {
+    public ScriptEventsIterator getEventIterator(@Nullable ITmfTrace trace,
+            @ScriptParameter(defaultValue = ScriptParameter.NULL) @Nullable Collection<String> eventNames,
+            @ScriptParameter(defaultValue = DEFAULT_START_TIME) long startTime,
+            @ScriptParameter(defaultValue = DEFAULT_END_TIME) long endTime) {
         if (trace == null) {
             throw new IllegalArgumentException("Trace should not be null"); //$NON-NLS-1$
         }
 
-        ScriptEventRequest scriptEventRequest = new ScriptEventRequest();
+        ScriptEventRequest scriptEventRequest = new ScriptEventRequest(ScriptEventRequest.getTimeRange(startTime, endTime), eventNames);
         trace.sendRequest(scriptEventRequest);
         setupEventIteratorExecutionListener(scriptEventRequest);
 
         return scriptEventRequest.getEventIterator();
     }
 
+    /**
+     * Get an iterator to iterate chronologically through all the events of the
+     * trace, not to be used by scripts, which have default values for the
+     * {@link #getEventIterator(ITmfTrace, Collection, long, long)} method.
+     *
+     * @param trace
+     *            The trace for which to get the event iterator
+     * @return The event iterator, starting from the first event
+     */
+    public ScriptEventsIterator getEventIterator(@Nullable ITmfTrace trace) {
+        return getEventIterator(trace, null, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the events of a trace as a table of columns of primitive values, to
+     * avoid a call between the script and java for each event and each field.
+     * The table has a <code>timestamp</code> column, with the event timestamps
+     * in nanoseconds, a <code>name</code> column, with the event names as
+     * dictionary-encoded strings, and one column for each requested field. The
+     * values of the fields are obtained as with the
+     * {@link #getEventFieldValue(ITmfEvent, String)} method.
+     *
+     * This method reads the events before returning. For instance, to get the
+     * previous and next threads of all sched_switch events in numpy arrays
+     * (python)
+     *
+     * <pre>
+     * columns = getEventColumns(trace, ["prev_tid", "next_tid"], ["sched_switch"])
+     * nextTids = numpy.frombuffer(columns.getColumnBytes("next_tid"), dtype=columns.getColumnType("next_tid"))
+     * </pre>
+     *
+     * @param trace
+     *            The trace for which to get the events
+     * @param fields
+     *            The names of the fields to export
+     * @param eventNames
+     *            The names of the events to export. If <code>null</code> or
+     *            empty, all events are exported
+     * @param startTime
+     *            The timestamp in nanoseconds from which to export events,
+     *            events are exported from the start of the trace by default
+     * @param endTime
+     *            The timestamp in nanoseconds up to which to export events,
+     *            events are exported until the end of the trace by default
+     * @return The table of events
+     * @throws InterruptedException
+     *             If the thread was interrupted while reading the events
+     */
+    @WrapToScript
+    public ColumnarExport getEventColumns(@Nullable ITmfTrace trace, List<String> fields,
+            @ScriptParameter(defaultValue = ScriptParameter.NULL) @Nullable Collection<String> eventNames,
+            @ScriptParameter(defaultValue = DEFAULT_START_TIME) long startTime,
+            @ScriptParameter(defaultValue = DEFAULT_END_TIME) long endTime) throws InterruptedException {
+        if (trace == null) {
+            throw new IllegalArgumentException("Trace should not be null"); //$NON-NLS-1$
+        }
+        Set<String> names = (eventNames == null) ? Collections.emptySet() : new HashSet<>(eventNames);
+        String[] fieldNames = fields.toArray(new String[fields.size()]);
+        List<String> columns = new ArrayList<>();
+        columns.add(TIMESTAMP_COLUMN);
+        columns.add(NAME_COLUMN);
+        columns.addAll(fields);
+        ColumnarExport.Builder builder = new ColumnarExport.Builder(columns);
+
+        TmfEventRequest request = new TmfEventRequest(ITmfEvent.class, ScriptEventRequest.getTimeRange(startTime, endTime), 0, ITmfEventRequest.ALL_DATA, ExecutionType.FOREGROUND) {
+            @Override
+            public void handleData(ITmfEvent event) {
+                super.handleData(event);
+                String name = event.getName();
+                if (!names.isEmpty() && !names.contains(name)) {
+                    return;
+                }
+                builder.set(0, event.getTimestamp().toNanos());
+                builder.set(1, name);
+                for (int i = 0; i < fieldNames.length; i++) {
+                    builder.set(i + 2, ScriptEventsIterator.getFieldValue(event, fieldNames[i]));
+                }
+                builder.endRow();
+            }
+        };
+        trace.sendRequest(request);
+        request.waitForCompletion();
+        return builder.build();
+    }
+
     private void setupEventIteratorExecutionListener(ScriptEventRequest scriptEventRequest) {
         IScriptEngine scriptEngine = getScriptEngine();
         if (scriptEngine == null) {
@@ -202,15 +313,6 @@ public class TraceScriptingModule extends AbstractScriptModule {
      */
     @WrapToScript
     public @Nullable Object getEventFieldValue(ITmfEvent event, String fieldName) {
-
-        final ITmfEventField field = event.getContent().getField(fieldName);
-
-        /* If the field does not exist, see if it's a special case */
-        if (field == null) {
-            // This will allow to use any column as input
-            return TmfTraceUtils.resolveAspectOfNameForEvent(event.getTrace(), fieldName, event);
-        }
-        return field.getValue();
-
+        return ScriptEventsIterator.getFieldValue(event, fieldName);
     }
 }
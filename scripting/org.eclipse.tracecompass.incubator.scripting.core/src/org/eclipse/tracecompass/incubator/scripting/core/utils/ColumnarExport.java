@@ -0,0 +1,537 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.scripting.core.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A table of data exported in columns of primitive values, so that scripts can
+ * get large amounts of data, like the events of a trace or the intervals of a
+ * state system, without one call per value between the script and java.
+ * <p>
+ * Each column is an array of little-endian values of type <code>int64</code>,
+ * <code>float64</code> or <code>int32</code>, with an optional validity bitmap
+ * where the bit of a row is 0 if the value is <code>null</code>, as in the
+ * Apache Arrow columnar format. Columns of strings are dictionary-encoded: the
+ * values are <code>int32</code> indexes in the dictionary of the column.
+ * </p>
+ * <p>
+ * The bytes of a column can be obtained in a single call with
+ * {@link #getColumnBytes(String)}, or all columns can be written to a file
+ * with {@link #toFile()}, that python can map in memory. For instance, with
+ * numpy
+ * </p>
+ *
+ * <pre>
+ * columns = getEventColumns(trace, ["tid"])
+ * path = columns.toFile()
+ * timestamps = numpy.memmap(path, dtype='&lt;i8', mode='r', offset=columns.getColumnOffset("timestamp"), shape=(columns.getRowCount(),))
+ * # or, without a file
+ * timestamps = numpy.frombuffer(columns.getColumnBytes("timestamp"), dtype='&lt;i8')
+ * </pre>
+ */
+public class ColumnarExport {
+
+    /** Type of columns of 64 bits integers */
+    public static final String INT64 = "int64"; //$NON-NLS-1$
+    /** Type of columns of 64 bits floating point values */
+    public static final String FLOAT64 = "float64"; //$NON-NLS-1$
+    /** Type of columns of 32 bits integers, for dictionary-encoded strings */
+    public static final String INT32 = "int32"; //$NON-NLS-1$
+
+    /** The alignment of the buffers in the file, as recommended by Arrow */
+    private static final int ALIGNMENT = 64;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final int fRowCount;
+    private final Map<String, Column> fColumns;
+    private @Nullable File fFile = null;
+
+    /**
+     * A column of the table
+     */
+    private static class Column {
+        private final String fType;
+        private final long[] fValues;
+        private final long @Nullable [] fValidity;
+        private final String @Nullable [] fDictionary;
+        private long fOffset = -1;
+        private long fValidityOffset = -1;
+
+        public Column(String type, long[] values, long @Nullable [] validity, String @Nullable [] dictionary) {
+            fType = type;
+            fValues = values;
+            fValidity = validity;
+            fDictionary = dictionary;
+        }
+
+        public int getValueSize() {
+            return fType.equals(INT32) ? Integer.BYTES : Long.BYTES;
+        }
+    }
+
+    private ColumnarExport(int rowCount, Map<String, Column> columns) {
+        fRowCount = rowCount;
+        fColumns = columns;
+    }
+
+    /**
+     * Get the number of rows in this table
+     *
+     * @return The number of rows
+     */
+    public int getRowCount() {
+        return fRowCount;
+    }
+
+    /**
+     * Get the names of the columns of this table
+     *
+     * @return The column names
+     */
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(new ArrayList<>(fColumns.keySet()));
+    }
+
+    /**
+     * Get the type of a column, one of {@link #INT64}, {@link #FLOAT64} or
+     * {@link #INT32}. This is also the name of the numpy data type of the
+     * column.
+     *
+     * @param name
+     *            The name of the column
+     * @return The type of the column
+     */
+    public String getColumnType(String name) {
+        return getColumn(name).fType;
+    }
+
+    /**
+     * Get the dictionary of a column of strings. The values of the column are
+     * the indexes of the strings in this dictionary.
+     *
+     * @param name
+     *            The name of the column
+     * @return The dictionary, or <code>null</code> if the column does not
+     *         contain strings
+     */
+    public String @Nullable [] getDictionary(String name) {
+        String[] dictionary = getColumn(name).fDictionary;
+        return dictionary == null ? null : Arrays.copyOf(dictionary, dictionary.length);
+    }
+
+    /**
+     * Get the values of a column of type {@link #INT64} or {@link #INT32}.
+     * Null values are 0.
+     *
+     * @param name
+     *            The name of the column
+     * @return The values of the column
+     */
+    public long[] getLongColumn(String name) {
+        Column column = getColumn(name);
+        if (column.fType.equals(FLOAT64)) {
+            throw new IllegalArgumentException("Column " + name + " contains floating point values"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return Arrays.copyOf(column.fValues, fRowCount);
+    }
+
+    /**
+     * Get the values of a column as floating point values. Null values are
+     * 0.0.
+     *
+     * @param name
+     *            The name of the column
+     * @return The values of the column
+     */
+    public double[] getDoubleColumn(String name) {
+        Column column = getColumn(name);
+        double[] values = new double[fRowCount];
+        boolean isDouble = column.fType.equals(FLOAT64);
+        for (int i = 0; i < fRowCount; i++) {
+            values[i] = isDouble ? Double.longBitsToDouble(column.fValues[i]) : column.fValues[i];
+        }
+        return values;
+    }
+
+    /**
+     * Get whether a value of a column is <code>null</code>
+     *
+     * @param name
+     *            The name of the column
+     * @param row
+     *            The row of the value
+     * @return Whether the value is <code>null</code>
+     */
+    public boolean isNull(String name, int row) {
+        long[] validity = getColumn(name).fValidity;
+        return validity != null && (validity[row >> 6] & (1L << row)) == 0;
+    }
+
+    /**
+     * Get the values of a column as little-endian bytes of the column type.
+     * Scripting engines like Py4J transfer byte arrays in one call.
+     *
+     * @param name
+     *            The name of the column
+     * @return The bytes of the values
+     */
+    public byte[] getColumnBytes(String name) {
+        Column column = getColumn(name);
+        ByteBuffer buffer = ByteBuffer.allocate(fRowCount * column.getValueSize()).order(ByteOrder.LITTLE_ENDIAN);
+        putValues(buffer, column, 0, fRowCount);
+        return buffer.array();
+    }
+
+    /**
+     * Get the validity bitmap of a column, where the bit of each row, starting
+     * with the least significant bit of the first byte, is 0 if the value is
+     * <code>null</code>.
+     *
+     * @param name
+     *            The name of the column
+     * @return The bitmap, or <code>null</code> if the column has no null
+     *         values
+     */
+    public byte @Nullable [] getValidityBytes(String name) {
+        long[] validity = getColumn(name).fValidity;
+        if (validity == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(validity.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(validity);
+        return Arrays.copyOf(buffer.array(), (fRowCount + 7) / 8);
+    }
+
+    /**
+     * Write the columns to a temporary file, to be mapped in memory by the
+     * script. The values of each column start at the offset returned by
+     * {@link #getColumnOffset(String)} and the validity bitmap, if any, at the
+     * offset returned by {@link #getValidityOffset(String)}. The file is
+     * deleted when the application exits. Subsequent calls return the same
+     * file.
+     *
+     * @return The absolute path of the file
+     * @throws IOException
+     *             If the file could not be written
+     */
+    public synchronized String toFile() throws IOException {
+        File file = fFile;
+        if (file != null) {
+            return file.getAbsolutePath();
+        }
+        file = File.createTempFile("tracecompass-columns", ".bin"); //$NON-NLS-1$ //$NON-NLS-2$
+        file.deleteOnExit();
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            for (Column column : fColumns.values()) {
+                long[] validity = column.fValidity;
+                if (validity != null) {
+                    position = align(channel, buffer, position);
+                    column.fValidityOffset = position;
+                    for (long word : validity) {
+                        flushIfFull(channel, buffer, Long.BYTES);
+                        buffer.putLong(word);
+                    }
+                    position += validity.length * Long.BYTES;
+                }
+                position = align(channel, buffer, position);
+                column.fOffset = position;
+                int valueSize = column.getValueSize();
+                int chunk = WRITE_BUFFER_SIZE / valueSize;
+                for (int i = 0; i < fRowCount; i += chunk) {
+                    int count = Math.min(chunk, fRowCount - i);
+                    flushIfFull(channel, buffer, count * valueSize);
+                    putValues(buffer, column, i, count);
+                }
+                position += (long) fRowCount * valueSize;
+            }
+            flush(channel, buffer);
+        }
+        fFile = file;
+        return file.getAbsolutePath();
+    }
+
+    /**
+     * Get the offset of the values of a column in the file written by
+     * {@link #toFile()}
+     *
+     * @param name
+     *            The name of the column
+     * @return The offset in bytes, or -1 if the file was not written
+     */
+    public synchronized long getColumnOffset(String name) {
+        return getColumn(name).fOffset;
+    }
+
+    /**
+     * Get the offset of the validity bitmap of a column in the file written
+     * by {@link #toFile()}
+     *
+     * @param name
+     *            The name of the column
+     * @return The offset in bytes, or -1 if the file was not written or the
+     *         column has no null values
+     */
+    public synchronized long getValidityOffset(String name) {
+        return getColumn(name).fValidityOffset;
+    }
+
+    private Column getColumn(String name) {
+        Column column = fColumns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("No column named " + name); //$NON-NLS-1$
+        }
+        return column;
+    }
+
+    private static void putValues(ByteBuffer buffer, Column column, int from, int count) {
+        if (column.fType.equals(INT32)) {
+            for (int i = from; i < from + count; i++) {
+                buffer.putInt((int) column.fValues[i]);
+            }
+        } else {
+            buffer.asLongBuffer().put(column.fValues, from, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+        }
+    }
+
+    private static long align(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int padding = (int) ((ALIGNMENT - position % ALIGNMENT) % ALIGNMENT);
+        flushIfFull(channel, buffer, padding);
+        for (int i = 0; i < padding; i++) {
+            buffer.put((byte) 0);
+        }
+        return position + padding;
+    }
+
+    private static void flushIfFull(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() < needed) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Builder of a columnar table. Values are added row by row, the type of
+     * each column is deduced from its values: integers are stored as
+     * {@link ColumnarExport#INT64}, a column with floating point numbers
+     * becomes {@link ColumnarExport#FLOAT64} and any other value makes it a
+     * column of dictionary-encoded strings.
+     */
+    public static class Builder {
+
+        private final List<String> fNames;
+        private final ColumnBuilder[] fBuilders;
+        private int fRowCount = 0;
+
+        /**
+         * Constructor
+         *
+         * @param columnNames
+         *            The names of the columns, in order
+         * @throws IllegalArgumentException
+         *             If a column name is duplicated
+         */
+        public Builder(List<String> columnNames) {
+            fNames = new ArrayList<>(columnNames);
+            if (new HashSet<>(fNames).size() != fNames.size()) {
+                throw new IllegalArgumentException("Duplicate column names in " + fNames); //$NON-NLS-1$
+            }
+            fBuilders = new ColumnBuilder[fNames.size()];
+            for (int i = 0; i < fBuilders.length; i++) {
+                fBuilders[i] = new ColumnBuilder();
+            }
+        }
+
+        /**
+         * Set an integer value of a column in the current row
+         *
+         * @param column
+         *            The index of the column
+         * @param value
+         *            The value
+         * @return This builder
+         */
+        public Builder set(int column, long value) {
+            fBuilders[column].set(fRowCount, value);
+            return this;
+        }
+
+        /**
+         * Set a value of a column in the current row
+         *
+         * @param column
+         *            The index of the column
+         * @param value
+         *            The value, can be <code>null</code>
+         * @return This builder
+         */
+        public Builder set(int column, @Nullable Object value) {
+            fBuilders[column].set(fRowCount, value);
+            return this;
+        }
+
+        /**
+         * End the current row. The columns without a value in this row will be
+         * <code>null</code>.
+         */
+        public void endRow() {
+            fRowCount++;
+        }
+
+        /**
+         * Build the table
+         *
+         * @return The columnar table
+         */
+        public ColumnarExport build() {
+            Map<String, Column> columns = new LinkedHashMap<>();
+            for (int i = 0; i < fBuilders.length; i++) {
+                columns.put(fNames.get(i), fBuilders[i].build(fRowCount));
+            }
+            return new ColumnarExport(fRowCount, columns);
+        }
+    }
+
+    /**
+     * Growable column where values of all types are kept in a long array:
+     * integers as is, floating point numbers as their bits and strings as
+     * their index in the dictionary. The type is promoted when a value does
+     * not fit the current type.
+     */
+    private static class ColumnBuilder {
+
+        private enum Type {
+            NONE, LONG, DOUBLE, STRING
+        }
+
+        private Type fType = Type.NONE;
+        private long[] fValues = new long[16];
+        /* Rows that have a value */
+        private final BitSet fValid = new BitSet();
+        private final Map<String, Integer> fDictionary = new LinkedHashMap<>();
+
+        public void set(int row, long value) {
+            switch (fType) {
+            case NONE:
+                fType = Type.LONG;
+                store(row, value);
+                break;
+            case LONG:
+                store(row, value);
+                break;
+            case DOUBLE:
+                store(row, Double.doubleToRawLongBits(value));
+                break;
+            case STRING:
+            default:
+                store(row, getIndex(String.valueOf(value)));
+                break;
+            }
+        }
+
+        public void set(int row, @Nullable Object value) {
+            if (value == null) {
+                return;
+            }
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                set(row, ((Number) value).longValue());
+                return;
+            }
+            if (value instanceof Number && fType != Type.STRING) {
+                if (fType != Type.DOUBLE) {
+                    promoteToDouble();
+                }
+                store(row, Double.doubleToRawLongBits(((Number) value).doubleValue()));
+                return;
+            }
+            if (fType != Type.STRING) {
+                promoteToString();
+            }
+            store(row, getIndex(String.valueOf(value)));
+        }
+
+        private void store(int row, long value) {
+            if (row >= fValues.length) {
+                fValues = Arrays.copyOf(fValues, Math.max(row + 1, fValues.length * 2));
+            }
+            fValues[row] = value;
+            fValid.set(row);
+        }
+
+        private int getIndex(String value) {
+            return fDictionary.computeIfAbsent(value, v -> fDictionary.size());
+        }
+
+        private void promoteToDouble() {
+            if (fType == Type.LONG) {
+                for (int row = fValid.nextSetBit(0); row >= 0; row = fValid.nextSetBit(row + 1)) {
+                    fValues[row] = Double.doubleToRawLongBits(fValues[row]);
+                }
+            }
+            fType = Type.DOUBLE;
+        }
+
+        private void promoteToString() {
+            if (fType == Type.LONG || fType == Type.DOUBLE) {
+                for (int row = fValid.nextSetBit(0); row >= 0; row = fValid.nextSetBit(row + 1)) {
+                    String value = (fType == Type.LONG) ? String.valueOf(fValues[row]) : String.valueOf(Double.longBitsToDouble(fValues[row]));
+                    fValues[row] = getIndex(value);
+                }
+            }
+            fType = Type.STRING;
+        }
+
+        public Column build(int rowCount) {
+            /* The rows without a value were never written, they are 0 */
+            long[] values = Arrays.copyOf(fValues, rowCount);
+            long[] validity = null;
+            if (fValid.nextClearBit(0) < rowCount) {
+                validity = Arrays.copyOf(fValid.toLongArray(), (rowCount + 63) / 64);
+            }
+            switch (fType) {
+            case DOUBLE:
+                return new Column(FLOAT64, values, validity, null);
+            case STRING:
+                return new Column(INT32, values, validity, fDictionary.keySet().toArray(new String[fDictionary.size()]));
+            case LONG:
+            case NONE:
+            default:
+                return new Column(INT64, values, validity, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.otf2.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.LocationEventPipeline;
+import org.junit.Test;
+
+/**
+ * Test the {@link LocationEventPipeline}, that handles the location-local
+ * events of OTF2 traces concurrently
+ */
+public class LocationEventPipelineTest {
+
+    private static final int NB_LOCATIONS = 10;
+
+    /**
+     * An event of the test, with its rank in the trace
+     */
+    private static final class TestEvent {
+        private final int fRank;
+        private final long fLocation;
+
+        public TestEvent(int rank, long location) {
+            fRank = rank;
+            fLocation = location;
+        }
+    }
+
+    /**
+     * Test that the events of a location are handled in order by the workers,
+     * and that the changes and the other events are run in the order of the
+     * events
+     */
+    @Test
+    public void testOrder() {
+        Random random = new Random(42);
+        Map<Long, Integer> lastHandled = new ConcurrentHashMap<>();
+        List<String> errors = new ArrayList<>();
+        List<Integer> applied = new ArrayList<>();
+        Thread thread = Thread.currentThread();
+
+        LocationEventPipeline<TestEvent> pipeline = new LocationEventPipeline<>(event -> {
+            Integer previous = lastHandled.put(event.fLocation, event.fRank);
+            if (previous != null && previous > event.fRank) {
+                synchronized (errors) {
+                    errors.add("Event " + event.fRank + " handled after " + previous); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+            // Some local events do not change anything
+            if (event.fRank % 5 == 0) {
+                return null;
+            }
+            return () -> {
+                assertTrue(Thread.currentThread() == thread);
+                applied.add(event.fRank);
+            };
+        }, event -> {
+            assertTrue(Thread.currentThread() == thread);
+            applied.add(event.fRank);
+        }, 4, 16);
+
+        List<Integer> expected = new ArrayList<>();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                boolean local = random.nextInt(4) != 0;
+                long location = local ? random.nextInt(NB_LOCATIONS) : LocationEventPipeline.NOT_LOCAL;
+                pipeline.add(new TestEvent(i, location), location);
+                if (!local || i % 5 != 0) {
+                    expected.add(i);
+                }
+                // A flush in the middle of a batch, like for a late definition
+                if (i == 500) {
+                    pipeline.flush();
+                    assertEquals(expected, applied);
+                }
+            }
+            pipeline.flush();
+        } finally {
+            pipeline.dispose();
+        }
+        assertEquals(expected, applied);
+        assertEquals(NB_LOCATIONS, lastHandled.size());
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+
+    /**
+     * Test that an exception of the handler of the local events is reported
+     * when the changes are run
+     */
+    @Test
+    public void testHandlerException() {
+        LocationEventPipeline<TestEvent> pipeline = new LocationEventPipeline<>(event -> {
+            throw new IllegalArgumentException("bad event"); //$NON-NLS-1$
+        }, event -> {
+            // Do nothing
+        }, 2, 16);
+        try {
+            pipeline.add(new TestEvent(0, 1), 1);
+            pipeline.flush();
+            fail("The exception of the handler was not reported"); //$NON-NLS-1$
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        } finally {
+            pipeline.dispose();
+        }
+    }
+}
@@ -76,6 +76,39 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
      */
     private final Map<Integer, @Nullable ArrayList<Long>> fGroupMembers;
 
+    /**
+     * Group id to location id to rank mapping, built lazily from the group
+     * members
+     */
+    private final Map<Integer, Map<Long, Integer>> fGroupRanks;
+
+    /**
+     * CTF event name to OTF2 event type and name, to match the event name
+     * pattern only once per event name
+     */
+    private final Map<String, String[]> fEventNames;
+
+    /**
+     * Pipeline of the events, created at the first location-local event
+     */
+    private @Nullable LocationEventPipeline<Otf2Event> fPipeline = null;
+    private boolean fDefinitionsRead = false;
+
+    /**
+     * An OTF2 event or attribute in the pipeline
+     */
+    private static final class Otf2Event {
+        private final ITmfEvent fEvent;
+        private final String fType;
+        private final String fName;
+
+        public Otf2Event(ITmfEvent event, String type, String name) {
+            fEvent = event;
+            fType = type;
+            fName = name;
+        }
+    }
+
     /**
      * Constructor
      *
@@ -90,6 +123,8 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
         fRegionStringId = new HashMap<>();
         fCommunicatorGroup = new HashMap<>();
         fGroupMembers = new HashMap<>();
+        fGroupRanks = new HashMap<>();
+        fEventNames = new HashMap<>();
         fAttributeDefinitions = new HashMap<>();
     }
 
@@ -113,27 +148,46 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
         if (ssb == null) {
             return;
         }
-        String ctfEventName = event.getName();
-        Matcher matcher = IOtf2Constants.OTF2_EVENT_NAME_PATTERN.matcher(ctfEventName);
-        if (!matcher.matches()) {
-            return;
-        }
-        String eventType = matcher.group(IOtf2Constants.OTF2_TYPE_GROUP);
-        String otf2EventName = matcher.group(IOtf2Constants.OTF2_NAME_GROUP);
-        if (otf2EventName == null) {
+        String[] eventName = fEventNames.computeIfAbsent(event.getName(), AbstractOtf2StateProvider::parseEventName);
+        if (eventName.length < 2) {
             return;
         }
+        String eventType = eventName[0];
+        String otf2EventName = eventName[1];
         switch (eventType) {
         case IOtf2Constants.OTF2_GLOBAL_DEFINITION: {
+            // The location event handlers read the definitions
+            flushPipeline();
             processGlobalDefinition(event, otf2EventName);
             break;
         }
         case IOtf2Constants.OTF2_EVENT: {
-            processOtf2Event(event, otf2EventName, ssb);
+            if (!fDefinitionsRead) {
+                processDefinitionsEnd(ssb);
+                fDefinitionsRead = true;
+            }
+            LocationEventPipeline<Otf2Event> pipeline = fPipeline;
+            if (pipeline == null && isLocationEvent(otf2EventName)) {
+                pipeline = new LocationEventPipeline<>(
+                        otf2Event -> processLocationEvent(otf2Event.fEvent, otf2Event.fName, ssb),
+                        otf2Event -> processOrderedEvent(otf2Event, ssb));
+                fPipeline = pipeline;
+            }
+            if (pipeline == null) {
+                processOtf2Event(event, otf2EventName, ssb);
+            } else {
+                long location = isLocationEvent(otf2EventName) ? getLocationId(event) : LocationEventPipeline.NOT_LOCAL;
+                pipeline.add(new Otf2Event(event, eventType, otf2EventName), location);
+            }
             break;
         }
         case IOtf2Constants.OTF2_ATTRIBUTE: {
-            processOtf2EventAttribute(event, otf2EventName, ssb);
+            LocationEventPipeline<Otf2Event> pipeline = fPipeline;
+            if (pipeline == null) {
+                processOtf2EventAttribute(event, otf2EventName, ssb);
+            } else {
+                pipeline.add(new Otf2Event(event, eventType, otf2EventName), LocationEventPipeline.NOT_LOCAL);
+            }
             break;
         }
         default:
@@ -141,6 +195,105 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
         }
     }
 
+    private void processOrderedEvent(Otf2Event otf2Event, ITmfStateSystemBuilder ssb) {
+        if (otf2Event.fType.equals(IOtf2Constants.OTF2_EVENT)) {
+            processOtf2Event(otf2Event.fEvent, otf2Event.fName, ssb);
+        } else {
+            processOtf2EventAttribute(otf2Event.fEvent, otf2Event.fName, ssb);
+        }
+    }
+
+    private void flushPipeline() {
+        LocationEventPipeline<Otf2Event> pipeline = fPipeline;
+        if (pipeline != null) {
+            pipeline.flush();
+        }
+    }
+
+    @Override
+    public void done() {
+        LocationEventPipeline<Otf2Event> pipeline = fPipeline;
+        if (pipeline != null) {
+            pipeline.flush();
+            pipeline.dispose();
+            fPipeline = null;
+        }
+        super.done();
+    }
+
+    @Override
+    public void dispose() {
+        LocationEventPipeline<Otf2Event> pipeline = fPipeline;
+        if (pipeline != null) {
+            pipeline.dispose();
+            fPipeline = null;
+        }
+        super.dispose();
+    }
+
+    /**
+     * Split a CTF event name in OTF2 event type and name
+     *
+     * @return the type and name, or an empty array if this is not an OTF2
+     *         event
+     */
+    private static String[] parseEventName(String ctfEventName) {
+        Matcher matcher = IOtf2Constants.OTF2_EVENT_NAME_PATTERN.matcher(ctfEventName);
+        if (!matcher.matches()) {
+            return new String[0];
+        }
+        String eventType = matcher.group(IOtf2Constants.OTF2_TYPE_GROUP);
+        String otf2EventName = matcher.group(IOtf2Constants.OTF2_NAME_GROUP);
+        if (eventType == null || otf2EventName == null) {
+            return new String[0];
+        }
+        return new String[] { eventType, otf2EventName };
+    }
+
+    /**
+     * Called before the first OTF2 event is processed, once all the global
+     * definitions are read
+     *
+     * @param ssb
+     *            The state system builder
+     */
+    protected void processDefinitionsEnd(ITmfStateSystemBuilder ssb) {
+        // Do nothing
+    }
+
+    /**
+     * Whether the events with a name only change the state of their location.
+     * Those events are processed by {@link #processLocationEvent}, concurrently
+     * for the different locations, instead of {@link #processOtf2Event}.
+     *
+     * @param name
+     *            The name of the OTF2 event
+     * @return Whether the events are location-local
+     */
+    protected boolean isLocationEvent(String name) {
+        return false;
+    }
+
+    /**
+     * Process a location-local event. The events of a location are processed
+     * in order, but concurrently with the events of the other locations and
+     * ahead of the other events, so this method may only read the state of
+     * the location of the event and the global definitions. The changes to the
+     * state system are returned, and run in the order of the events.
+     *
+     * @param event
+     *            The event to process
+     * @param name
+     *            The name of the event
+     * @param ssb
+     *            The state system builder, to use only in the returned change
+     * @return The change to the state system, or <code>null</code> if there is
+     *         none
+     */
+    protected @Nullable Runnable processLocationEvent(ITmfEvent event, String name, ITmfStateSystemBuilder ssb) {
+        return () -> processOtf2Event(event, name, ssb);
+    }
+
     /**
      * Process OTF2 Event attribute
      *
@@ -262,6 +415,7 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
         }
         membersArray.set(rank, locationReference);
         fGroupMembers.put(groupReference, membersArray);
+        fGroupRanks.remove(groupReference);
     }
 
     /**
@@ -330,10 +484,18 @@ public abstract class AbstractOtf2StateProvider extends AbstractTmfStateProvider
     protected int getRank(Long location, Integer communicatorReference) {
         Integer groupReference = fCommunicatorGroup.get(communicatorReference);
         ArrayList<Long> members = fGroupMembers.get(groupReference);
-        if (members == null) {
+        if (groupReference == null || members == null) {
             return UNKNOWN_RANK;
         }
-        return members.indexOf(location);
+        Map<Long, Integer> ranks = fGroupRanks.computeIfAbsent(groupReference, group -> {
+            Map<Long, Integer> groupRanks = new HashMap<>();
+            for (int i = 0; i < members.size(); i++) {
+                // Keep the first rank of a location, like indexOf
+                groupRanks.putIfAbsent(members.get(i), i);
+            }
+            return groupRanks;
+        });
+        return ranks.getOrDefault(location, UNKNOWN_RANK);
     }
 
     /**
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Pipeline handling the events of the locations of an OTF2 trace
+ * concurrently.
+ *
+ * The events are added in the order of the trace and gathered in batches.
+ * The location-local events of a batch are handled by workers, the events of a
+ * location always going to the same worker, so that they are handled in order
+ * and their handler only needs the state of that location. The handler of a
+ * local event returns the change it makes, for example to a state system,
+ * which is run with the handling of the other events in the order of the
+ * trace, on the thread adding the events. The local events of a batch are
+ * handled while the changes of the previous batch are run.
+ *
+ * This class is not thread safe, the events must be added, flushed and the
+ * pipeline disposed from the same thread.
+ *
+ * @param <E>
+ *            The type of events
+ */
+public class LocationEventPipeline<E> {
+
+    /**
+     * Location of the events that are not local to a location, to handle in
+     * order
+     */
+    public static final long NOT_LOCAL = -1;
+
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final Function<E, @Nullable Runnable> fLocalHandler;
+    private final Consumer<E> fOrderedHandler;
+    private final ExecutorService[] fWorkers;
+    private final int fBatchSize;
+    private Batch<E> fBatch;
+    private @Nullable Batch<E> fPending = null;
+
+    private static final class Batch<E> {
+        private final List<E> fEvents;
+        private final long[] fLocations;
+        private final @Nullable Runnable[] fChanges;
+        private final List<Future<?>> fFutures = new ArrayList<>();
+
+        public Batch(int size) {
+            fEvents = new ArrayList<>(size);
+            fLocations = new long[size];
+            fChanges = new @Nullable Runnable[size];
+        }
+
+        public int size() {
+            return fEvents.size();
+        }
+    }
+
+    /**
+     * Constructor, with a worker per processor
+     *
+     * @param localHandler
+     *            The handler of the location-local events, called by the
+     *            workers. It returns the change to run in the order of the
+     *            events, or <code>null</code> if there is none.
+     * @param orderedHandler
+     *            The handler of the other events, called in the order of the
+     *            events
+     */
+    public LocationEventPipeline(Function<E, @Nullable Runnable> localHandler, Consumer<E> orderedHandler) {
+        this(localHandler, orderedHandler, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param localHandler
+     *            The handler of the location-local events, called by the
+     *            workers. It returns the change to run in the order of the
+     *            events, or <code>null</code> if there is none.
+     * @param orderedHandler
+     *            The handler of the other events, called in the order of the
+     *            events
+     * @param nbWorkers
+     *            The number of workers
+     * @param batchSize
+     *            The number of events per batch
+     */
+    public LocationEventPipeline(Function<E, @Nullable Runnable> localHandler, Consumer<E> orderedHandler, int nbWorkers, int batchSize) {
+        fLocalHandler = localHandler;
+        fOrderedHandler = orderedHandler;
+        fWorkers = new ExecutorService[Math.max(1, nbWorkers)];
+        for (int i = 0; i < fWorkers.length; i++) {
+            // A single thread per worker keeps the order of its tasks
+            fWorkers[i] = Executors.newSingleThreadExecutor();
+        }
+        fBatchSize = Math.max(1, batchSize);
+        fBatch = new Batch<>(fBatchSize);
+    }
+
+    /**
+     * Add an event
+     *
+     * @param event
+     *            The event
+     * @param location
+     *            The location of the event if it is location-local, or
+     *            {@link #NOT_LOCAL}
+     */
+    public void add(E event, long location) {
+        Batch<E> batch = fBatch;
+        batch.fLocations[batch.size()] = location;
+        batch.fEvents.add(event);
+        if (batch.size() == fBatchSize) {
+            submit(batch);
+            Batch<E> pending = fPending;
+            if (pending != null) {
+                run(pending);
+            }
+            fPending = batch;
+            fBatch = new Batch<>(fBatchSize);
+        }
+    }
+
+    /**
+     * Handle all the events added so far and run their changes
+     */
+    public void flush() {
+        Batch<E> batch = fBatch;
+        if (batch.size() > 0) {
+            submit(batch);
+            fBatch = new Batch<>(fBatchSize);
+        }
+        Batch<E> pending = fPending;
+        fPending = null;
+        if (pending != null) {
+            run(pending);
+        }
+        if (batch.size() > 0) {
+            run(batch);
+        }
+    }
+
+    /**
+     * Stop the workers, the events not flushed are not handled
+     */
+    public void dispose() {
+        for (ExecutorService worker : fWorkers) {
+            worker.shutdownNow();
+        }
+    }
+
+    private void submit(Batch<E> batch) {
+        int nbWorkers = fWorkers.length;
+        int[][] indexes = new int[nbWorkers][];
+        int[] counts = new int[nbWorkers];
+        for (int i = 0; i < batch.size(); i++) {
+            long location = batch.fLocations[i];
+            if (location == NOT_LOCAL) {
+                continue;
+            }
+            int worker = Math.floorMod(Long.hashCode(location), nbWorkers);
+            int[] workerIndexes = indexes[worker];
+            if (workerIndexes == null) {
+                workerIndexes = new int[batch.size()];
+                indexes[worker] = workerIndexes;
+            }
+            workerIndexes[counts[worker]++] = i;
+        }
+        for (int worker = 0; worker < nbWorkers; worker++) {
+            int[] workerIndexes = indexes[worker];
+            if (workerIndexes == null) {
+                continue;
+            }
+            int count = counts[worker];
+            batch.fFutures.add(fWorkers[worker].submit(() -> {
+                for (int i = 0; i < count; i++) {
+                    int index = workerIndexes[i];
+                    batch.fChanges[index] = fLocalHandler.apply(batch.fEvents.get(index));
+                }
+            }));
+        }
+    }
+
+    private void run(Batch<E> batch) {
+        try {
+            for (Future<?> future : batch.fFutures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handling the location events", e); //$NON-NLS-1$
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error handling the location events", e.getCause()); //$NON-NLS-1$
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.fLocations[i] == NOT_LOCAL) {
+                fOrderedHandler.accept(batch.fEvents.get(i));
+            } else {
+                Runnable change = batch.fChanges[i];
+                if (change != null) {
+                    change.run();
+                }
+            }
+        }
+    }
+}
@@ -14,10 +14,12 @@ package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.callstack
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -189,23 +191,35 @@ public class Otf2CallStackStateProvider extends AbstractOtf2StateProvider {
             fCallStackQuark = ssb.getQuarkRelativeAndAdd(fLocationQuark, InstrumentedCallStackAnalysis.CALL_STACK);
         }
 
-        // This method is called when the location enters a code region
-        public void enter(ITmfEvent event, ITmfStateSystemBuilder ssb) {
+        /*
+         * This method is called when the location enters a code region, it
+         * returns the change to the state system
+         */
+        public Runnable enter(ITmfEvent event, ITmfStateSystemBuilder ssb) {
             ITmfEventField content = event.getContent();
             long timestamp = event.getTimestamp().toNanos();
-            ssb.updateOngoingState(TmfStateValue.newValueLong(getId()), fLocationQuark);
+            TmfStateValue locationValue = TmfStateValue.newValueLong(getId());
             Integer regionRef = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_REGION);
             if (regionRef == null) {
-                ssb.modifyAttribute(timestamp, null, fCallStackQuark);
-                return;
+                return () -> {
+                    ssb.updateOngoingState(locationValue, fLocationQuark);
+                    ssb.modifyAttribute(timestamp, null, fCallStackQuark);
+                };
             }
-            ssb.pushAttribute(timestamp, getRegionNameFromRegionId(regionRef), fCallStackQuark);
+            String regionName = getRegionNameFromRegionId(regionRef);
+            return () -> {
+                ssb.updateOngoingState(locationValue, fLocationQuark);
+                ssb.pushAttribute(timestamp, regionName, fCallStackQuark);
+            };
         }
 
-        // This method is called when the location leaves a code region
-        public void leave(ITmfEvent event, ITmfStateSystemBuilder ssb) {
+        /*
+         * This method is called when the location leaves a code region, it
+         * returns the change to the state system
+         */
+        public Runnable leave(ITmfEvent event, ITmfStateSystemBuilder ssb) {
             long timestamp = event.getTimestamp().toNanos();
-            ssb.popAttribute(timestamp, fCallStackQuark);
+            return () -> ssb.popAttribute(timestamp, fCallStackQuark);
         }
 
         /**
@@ -313,7 +327,7 @@ public class Otf2CallStackStateProvider extends AbstractOtf2StateProvider {
             if (associatedOperation == null) {
                 srcEvent = destEvent;
                 ArrayList<Long> members = getMembersFromCommunicatorReference(communicator);
-                ArrayList<Long> pendingLocations = new ArrayList<>(members);
+                Set<Long> pendingLocations = new HashSet<>(members);
                 associatedOperation = new RootToAllIdentifiers(operationCode, communicator, srcLocationId, srcEvent, pendingLocations);
                 fRootToAllQueue.add(associatedOperation);
             }
@@ -375,7 +389,7 @@ public class Otf2CallStackStateProvider extends AbstractOtf2StateProvider {
              */
             if (associatedOperation == null) {
                 ArrayList<Long> members = getMembersFromCommunicatorReference(communicator);
-                ArrayList<Long> pendingLocations = new ArrayList<>(members);
+                Set<Long> pendingLocations = new HashSet<>(members);
                 associatedOperation = new AllToRootIdentifiers(operationCode, communicator, destLocationId, pendingLocations);
                 fAllToRootQueue.add(associatedOperation);
             }
@@ -412,7 +426,6 @@ public class Otf2CallStackStateProvider extends AbstractOtf2StateProvider {
     private final Map<MessageIdentifiers, ITmfEvent> fMsgDataEvent = new HashMap<>();
     private final Queue<RootToAllIdentifiers> fRootToAllQueue = new LinkedList<>();
     private final Queue<AllToRootIdentifiers> fAllToRootQueue = new LinkedList<>();
-    private boolean fAllDefinitionsRead;
 
     /**
      * @param trace
@@ -420,7 +433,6 @@ public class Otf2CallStackStateProvider extends AbstractOtf2StateProvider {
      */
     public Otf2CallStackStateProvider(@Nullable ITmfTrace trace) {
         super(trace, ID);
-        fAllDefinitionsRead = false;
     }
 
     @Override
@@ -489,17 +501,41 @@ public class Otf2CallStackStateProvider extends AbstractOtf2StateProvider {
     }
 
     @Override
-    protected void processOtf2Event(ITmfEvent event, String name, ITmfStateSystemBuilder ssb) {
+    protected void processDefinitionsEnd(ITmfStateSystemBuilder ssb) {
         /*
-         * If an OTF2 event is encountered, it means all definitions were read :
-         * if this is the first event to be read then quarks associated to the
-         * locations need to be initialized
+         * All definitions were read: the quarks associated to the locations
+         * need to be initialized
          */
-        if (!fAllDefinitionsRead) {
-            initializeQuarks(ssb);
-            fAllDefinitionsRead = true;
+        initializeQuarks(ssb);
+    }
+
+    @Override
+    protected boolean isLocationEvent(String name) {
+        /*
+         * The enter and leave events only modify the call stack of their
+         * location, the MPI events are matched between locations
+         */
+        return name.equals(IOtf2Events.OTF2_ENTER) || name.equals(IOtf2Events.OTF2_LEAVE);
+    }
+
+    @Override
+    protected @Nullable Runnable processLocationEvent(ITmfEvent event, String name, ITmfStateSystemBuilder ssb) {
+        CallstackLocation location = fMapLocation.get(getLocationId(event));
+        if (location == null) {
+            return null;
+        }
+        switch (name) {
+        case IOtf2Events.OTF2_ENTER:
+            return location.enter(event, ssb);
+        case IOtf2Events.OTF2_LEAVE:
+            return location.leave(event, ssb);
+        default:
+            return null;
         }
+    }
 
+    @Override
+    protected void processOtf2Event(ITmfEvent event, String name, ITmfStateSystemBuilder ssb) {
         long locationId = getLocationId(event);
         CallstackLocation location = fMapLocation.get(locationId);
         if (location == null) {
@@ -507,14 +543,6 @@ public class Otf2CallStackStateProvider extends AbstractOtf2StateProvider {
         }
 
         switch (name) {
-        case IOtf2Events.OTF2_ENTER: {
-            location.enter(event, ssb);
-            break;
-        }
-        case IOtf2Events.OTF2_LEAVE: {
-            location.leave(event, ssb);
-            break;
-        }
         case IOtf2Events.OTF2_MPI_SEND:
         case IOtf2Events.OTF2_MPI_ISEND: {
             location.mpiSend(event);
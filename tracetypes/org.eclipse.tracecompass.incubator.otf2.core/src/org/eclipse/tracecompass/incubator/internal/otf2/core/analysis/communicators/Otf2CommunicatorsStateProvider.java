@@ -11,11 +11,13 @@
 
 package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.communicators;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -113,9 +115,18 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
         private boolean fInCommunication;
         private boolean fInIRecvRequest;
         private int fRank;
-        private final List<MessageIdentifiers> fSentMessages;
+        /**
+         * The messages sent by this location and not received yet, in FIFO
+         * queues indexed by (communicator, source, destination, tag)
+         */
+        private final Map<MessageIdentifiers, Deque<MessageIdentifiers>> fSentMessages;
         private final Map<Long, Long> fRequestIdBeginTimestamp;
         private final Deque<IRecvRequest> fIRecvRequests;
+        /**
+         * The unresolved requests of fIRecvRequests, in FIFO queues indexed by
+         * request ID
+         */
+        private final Map<Long, Deque<IRecvRequest>> fUnresolvedIRecvRequests;
         private final Deque<StateSystemUpdateTriplet> fPendingStateSystemUpdates;
 
         public CommunicatorsLocation(ITmfEvent event) {
@@ -126,10 +137,11 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             fInCommunication = false;
             fInIRecvRequest = false;
             fRank = UNKNOWN_RANK;
-            fSentMessages = new ArrayList<>();
+            fSentMessages = new HashMap<>();
             fRequestIdBeginTimestamp = new HashMap<>();
-            fIRecvRequests = new LinkedList<>();
-            fPendingStateSystemUpdates = new LinkedList<>();
+            fIRecvRequests = new ArrayDeque<>();
+            fUnresolvedIRecvRequests = new HashMap<>();
+            fPendingStateSystemUpdates = new ArrayDeque<>();
         }
 
         /**
@@ -138,14 +150,17 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
          * IRecvRequest object created for this request
          */
         private void searchAndUpdateIRecvRequest(long requestID, Communicator communicator, int rank) {
-            for (IRecvRequest request : fIRecvRequests) {
-                if (request.fRequestID == requestID) {
-                    request.fCommunicator = communicator;
-                    request.fRank = rank;
-                    request.fRequestResolved = true;
-                    break;
-                }
+            Deque<IRecvRequest> requests = fUnresolvedIRecvRequests.get(requestID);
+            if (requests == null) {
+                return;
             }
+            IRecvRequest request = requests.removeFirst();
+            if (requests.isEmpty()) {
+                fUnresolvedIRecvRequests.remove(requestID);
+            }
+            request.fCommunicator = communicator;
+            request.fRank = rank;
+            request.fRequestResolved = true;
         }
 
         /**
@@ -254,7 +269,9 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             fInCommunication = true;
             fInIRecvRequest = true;
             fRequestIdBeginTimestamp.put(requestID, fLatestEnteredTimestamp);
-            fIRecvRequests.add(new IRecvRequest(fLatestEnteredRegion, fLatestEnteredTimestamp, requestID));
+            IRecvRequest request = new IRecvRequest(fLatestEnteredRegion, fLatestEnteredTimestamp, requestID);
+            fIRecvRequests.add(request);
+            fUnresolvedIRecvRequests.computeIfAbsent(requestID, id -> new ArrayDeque<>()).add(request);
         }
 
         /**
@@ -305,7 +322,8 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             if (destRank == null || messageTag == null || srcRank == UNKNOWN_RANK) {
                 return;
             }
-            fSentMessages.add(new MessageIdentifiers(communicator.fId, srcRank, destRank, messageTag, srcEvent.getTimestamp().toNanos()));
+            MessageIdentifiers message = new MessageIdentifiers(communicator.fId, srcRank, destRank, messageTag, srcEvent.getTimestamp().toNanos());
+            fSentMessages.computeIfAbsent(message, m -> new ArrayDeque<>()).add(message);
             fCurrentCommunicator = communicator;
             fRank = srcRank;
         }
@@ -335,10 +353,16 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             if (srcLocation == null) {
                 return;
             }
-            // Searches for the associated sent message
+            // Searches for the oldest associated sent message
             MessageIdentifiers message = new MessageIdentifiers(communicator.fId, srcRank, destRank, messageTag);
-            int messageIndex = srcLocation.fSentMessages.indexOf(message);
-            MessageIdentifiers sentMessage = srcLocation.fSentMessages.remove(messageIndex);
+            Deque<MessageIdentifiers> sentMessages = srcLocation.fSentMessages.get(message);
+            if (sentMessages == null) {
+                return;
+            }
+            MessageIdentifiers sentMessage = sentMessages.removeFirst();
+            if (sentMessages.isEmpty()) {
+                srcLocation.fSentMessages.remove(message);
+            }
 
             Long recvBeginTimestamp = fLatestEnteredTimestamp;
             /*
@@ -398,9 +422,14 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             fRank = getRank(id, communicator.fId);
             /*
              * The associated collective operation is searched in the list of
-             * ongoing collective operations in the associated communicator
+             * ongoing collective operations with the same operation code and
+             * root in the associated communicator
              */
-            for (CollectiveOperationIdentifiers collectiveOperation : communicator.fCollectiveOperations) {
+            long operationKey = getCollectiveOperationKey(operationCode, root);
+            List<CollectiveOperationIdentifiers> collectiveOperations = communicator.fCollectiveOperations.computeIfAbsent(operationKey, key -> new ArrayList<>());
+            Iterator<CollectiveOperationIdentifiers> iterator = collectiveOperations.iterator();
+            while (iterator.hasNext()) {
+                CollectiveOperationIdentifiers collectiveOperation = iterator.next();
                 /*
                  * If the communication is found, the state of the communication
                  * and of the communicator are updated
@@ -423,7 +452,10 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
                          * and it is needed to store this change
                          */
                         communicator.incrementPendingThreads(Collections.min(collectiveOperation.getEnterTimestamps()), communicator.fLocations.size());
-                        communicator.fCollectiveOperations.remove(collectiveOperation);
+                        iterator.remove();
+                        if (collectiveOperations.isEmpty()) {
+                            communicator.fCollectiveOperations.remove(operationKey);
+                        }
                     }
                     return;
                 }
@@ -434,15 +466,18 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
              * This code is reached if no associated operation was found : it
              * means
              */
-            CollectiveOperationIdentifiers collectiveOperation = new CollectiveOperationIdentifiers(operationCode, root, new ArrayList<>(communicator.fLocations));
-            communicator.fCollectiveOperations.add(collectiveOperation);
+            CollectiveOperationIdentifiers collectiveOperation = new CollectiveOperationIdentifiers(operationCode, root, new HashSet<>(communicator.fLocations));
             collectiveOperation.locationCalledOperation(id, fLatestEnteredTimestamp);
 
             communicator.incrementPendingThreads(event.getTimestamp().toNanos(), -1L);
 
             if (collectiveOperation.isOperationDone()) {
                 communicator.incrementPendingThreads(Collections.min(collectiveOperation.getEnterTimestamps()), communicator.fLocations.size());
-                communicator.fCollectiveOperations.remove(collectiveOperation);
+            } else {
+                collectiveOperations.add(collectiveOperation);
+            }
+            if (collectiveOperations.isEmpty()) {
+                communicator.fCollectiveOperations.remove(operationKey);
             }
         }
     }
@@ -459,7 +494,11 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
         protected boolean fQuarkInitialized;
         protected int fQuark;
         protected List<Long> fLocations;
-        protected final List<CollectiveOperationIdentifiers> fCollectiveOperations;
+        /**
+         * The ongoing collective operations, indexed by operation code and
+         * root, see {@link Otf2CommunicatorsStateProvider#getCollectiveOperationKey(int, int)}
+         */
+        protected final Map<Long, List<CollectiveOperationIdentifiers>> fCollectiveOperations;
         /**
          * Sorted map that links timestamp with changes in the number of pending
          * locations. This sorted map will be iterated over at the end of the
@@ -481,7 +520,7 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
             fId = id;
             fQuarkInitialized = false;
             fLocations = new ArrayList<>();
-            fCollectiveOperations = new ArrayList<>();
+            fCollectiveOperations = new HashMap<>();
             fQuark = -1;
             fTimestampsPendingThreads = new TreeMap<>();
         }
@@ -658,6 +697,14 @@ public class Otf2CommunicatorsStateProvider extends AbstractOtf2StateProvider {
         }
     }
 
+    /**
+     * Get the key of a collective operation in the ongoing operations of a
+     * communicator
+     */
+    private static long getCollectiveOperationKey(int operationCode, int root) {
+        return ((long) operationCode << 32) | (root & 0xFFFFFFFFL);
+    }
+
     /**
      * Checks whether this event is the last one in the trace
      */
@@ -18,6 +18,7 @@ import java.util.Stack;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.AbstractOtf2StateProvider;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Events;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.IOtf2Fields;
@@ -50,7 +51,7 @@ public class Otf2SummaryTimelineStateProvider extends AbstractOtf2StateProvider
      * Strings used to define a regex and capture specific groups in order to
      * select the correct quark depending on the region name
      */
-    private static final String API_FUNCTION_PATTERN = "^(?<API>[a-zA-Z0-9]*)_(?<function>.*)"; //$NON-NLS-1$
+    private static final Pattern API_FUNCTION_PATTERN = Pattern.compile("^(?<API>[a-zA-Z0-9]*)_(?<function>.*)"); //$NON-NLS-1$
     private static final String FUNCTION = "function"; //$NON-NLS-1$
     private static final String API = "API"; //$NON-NLS-1$
 
@@ -72,8 +73,7 @@ public class Otf2SummaryTimelineStateProvider extends AbstractOtf2StateProvider
      * @return the quark associated to the function
      */
     private static int getQuarkFromRegion(String regionName, ITmfStateSystemBuilder ssb) {
-        Pattern functionPattern = Pattern.compile(API_FUNCTION_PATTERN);
-        Matcher matcher = functionPattern.matcher(regionName);
+        Matcher matcher = API_FUNCTION_PATTERN.matcher(regionName);
         if (!matcher.matches()) {
             int defaultQuark = ssb.getQuarkAbsoluteAndAdd(OTHER);
             return defaultQuark;
@@ -96,44 +96,52 @@ public class Otf2SummaryTimelineStateProvider extends AbstractOtf2StateProvider
         return applicationQuark;
     }
 
+    /*
+     * The locations only keep the stack of the regions they entered, the
+     * status quarks of the regions are resolved when the changes are applied
+     * to the state system, in the order of the events
+     */
     private class Location {
 
-        private final Stack<Integer> fStatusQuarkStack;
+        private final Stack<Integer> fRegionStack;
 
         public Location() {
-            fStatusQuarkStack = new Stack<>();
+            fRegionStack = new Stack<>();
         }
 
-        public void enter(ITmfEvent event, ITmfStateSystemBuilder ssb) {
+        public @Nullable Runnable enter(ITmfEvent event, ITmfStateSystemBuilder ssb) {
             ITmfEventField content = event.getContent();
             Integer regionId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_REGION);
             if (regionId == null) {
-                return;
+                return null;
             }
             long timestamp = event.getTimestamp().toNanos();
-            String regionName = getRegionNameFromRegionId(regionId);
-            int newTypeQuark = getQuarkFromRegion(regionName, ssb);
-            if (!fStatusQuarkStack.empty()) {
-                Integer currentQuark = Objects.requireNonNull(fStatusQuarkStack.peek());
-                incrementConcernedQuarks(ssb, timestamp, currentQuark, -1. / fNumberOfLocations);
-            }
-            incrementConcernedQuarks(ssb, timestamp, newTypeQuark, 1. / fNumberOfLocations);
-            fStatusQuarkStack.push(newTypeQuark);
+            @Nullable Integer currentRegion = fRegionStack.empty() ? null : fRegionStack.peek();
+            fRegionStack.push(regionId);
+            return () -> {
+                int newTypeQuark = getRegionQuark(regionId, ssb);
+                if (currentRegion != null) {
+                    incrementConcernedQuarks(ssb, timestamp, getRegionQuark(currentRegion, ssb), -1. / fNumberOfLocations);
+                }
+                incrementConcernedQuarks(ssb, timestamp, newTypeQuark, 1. / fNumberOfLocations);
+            };
         }
 
-        public void leave(ITmfEvent event, ITmfStateSystemBuilder ssb) {
+        public @Nullable Runnable leave(ITmfEvent event, ITmfStateSystemBuilder ssb) {
             ITmfEventField content = event.getContent();
             Integer regionId = content.getFieldValue(Integer.class, IOtf2Fields.OTF2_REGION);
             if (regionId == null) {
-                return;
+                return null;
             }
             long timestamp = event.getTimestamp().toNanos();
-            Integer currentTypeQuark = Objects.requireNonNull(fStatusQuarkStack.pop());
-            incrementConcernedQuarks(ssb, timestamp, currentTypeQuark, -1. / fNumberOfLocations);
-            if (!fStatusQuarkStack.empty()) {
-                Integer newTypeQuark = Objects.requireNonNull(fStatusQuarkStack.peek());
-                incrementConcernedQuarks(ssb, timestamp, newTypeQuark, 1. / fNumberOfLocations);
-            }
+            Integer currentRegion = Objects.requireNonNull(fRegionStack.pop());
+            @Nullable Integer newRegion = fRegionStack.empty() ? null : fRegionStack.peek();
+            return () -> {
+                incrementConcernedQuarks(ssb, timestamp, getRegionQuark(currentRegion, ssb), -1. / fNumberOfLocations);
+                if (newRegion != null) {
+                    incrementConcernedQuarks(ssb, timestamp, getRegionQuark(newRegion, ssb), 1. / fNumberOfLocations);
+                }
+            };
         }
 
         private void incrementConcernedQuarks(ITmfStateSystemBuilder ssb, long timestamp, int quark, double increment) {
@@ -153,6 +161,8 @@ public class Otf2SummaryTimelineStateProvider extends AbstractOtf2StateProvider
     }
 
     private final Map<Long, Location> fMapLocation;
+    /** Region id to status quark, the regions being entered many times */
+    private final Map<Integer, Integer> fRegionQuarks;
     private long fNumberOfLocations;
 
     /**
@@ -164,6 +174,7 @@ public class Otf2SummaryTimelineStateProvider extends AbstractOtf2StateProvider
     public Otf2SummaryTimelineStateProvider(ITmfTrace trace) {
         super(trace, Otf2SummaryTimelineAnalysis.getFullAnalysisId());
         fMapLocation = new HashMap<>();
+        fRegionQuarks = new HashMap<>();
         fNumberOfLocations = 0;
     }
 
@@ -200,24 +211,33 @@ public class Otf2SummaryTimelineStateProvider extends AbstractOtf2StateProvider
 
     }
 
+    private int getRegionQuark(int regionId, ITmfStateSystemBuilder ssb) {
+        return fRegionQuarks.computeIfAbsent(regionId, region -> getQuarkFromRegion(getRegionNameFromRegionId(region), ssb));
+    }
+
     @Override
-    protected void processOtf2Event(ITmfEvent event, String name, ITmfStateSystemBuilder ssb) {
-        Long locationId = getLocationId(event);
-        Location location = fMapLocation.get(locationId);
+    protected boolean isLocationEvent(String name) {
+        return name.equals(IOtf2Events.OTF2_ENTER) || name.equals(IOtf2Events.OTF2_LEAVE);
+    }
+
+    @Override
+    protected @Nullable Runnable processLocationEvent(ITmfEvent event, String name, ITmfStateSystemBuilder ssb) {
+        Location location = fMapLocation.get(getLocationId(event));
         if (location == null) {
-            return;
+            return null;
         }
         switch (name) {
-        case IOtf2Events.OTF2_ENTER: {
-            location.enter(event, ssb);
-            break;
-        }
-        case IOtf2Events.OTF2_LEAVE: {
-            location.leave(event, ssb);
-            break;
-        }
+        case IOtf2Events.OTF2_ENTER:
+            return location.enter(event, ssb);
+        case IOtf2Events.OTF2_LEAVE:
+            return location.leave(event, ssb);
         default:
-            break;
+            return null;
         }
     }
+
+    @Override
+    protected void processOtf2Event(ITmfEvent event, String name, ITmfStateSystemBuilder ssb) {
+        // The enter and leave events are processed by processLocationEvent
+    }
 }
@@ -69,7 +69,8 @@ public class MessageIdentifiers {
 
     @Override
     public int hashCode() {
-        return Objects.hash(fCommunicator, fSrcRank, fDestRank, fMessageTag, fBeginTimestamp);
+        // The begin timestamp is not part of the identity, as in equals
+        return Objects.hash(fCommunicator, fSrcRank, fDestRank, fMessageTag);
     }
 
     @Override
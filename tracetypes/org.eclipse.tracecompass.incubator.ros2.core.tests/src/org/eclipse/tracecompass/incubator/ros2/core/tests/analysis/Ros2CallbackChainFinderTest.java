@@ -0,0 +1,231 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.ros2.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency.Ros2CallbackChainFinder;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.objects.Ros2ObjectsAnalysis;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.objects.Ros2ObjectsUtil;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.HostInfo;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.HostProcess;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.HostProcessPointer;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow.Ros2MessageFlowBuildInfo;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow.Ros2MessageFlowSegment;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow.Ros2PublicationMessageFlowSegment;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow.Ros2SubCallbackMessageFlowSegment;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messagelinks.Ros2MessageCausalLinksModel;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2CallbackInstance;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2PubInstance;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2SubCallbackInstance;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2TakeInstance;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Gid;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2NodeObject;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2ObjectHandle;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2PublisherObject;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2SubscriptionObject;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests for {@link Ros2CallbackChainFinder}, with publications and
+ * subscription callbacks whose successors are given instead of being found in
+ * the state systems
+ */
+public class Ros2CallbackChainFinderTest {
+
+    private static final @NonNull String NODE_A_NAME = "node_a";
+    private static final @NonNull String SEP = Ros2CallbackChainFinder.CHAIN_SEPARATOR;
+
+    @NonNull
+    HostInfo hostInfo = new HostInfo("hostid-a", "hostname-a");
+    @NonNull
+    HostProcess hostProcess = new HostProcess(hostInfo, 1L);
+    @NonNull
+    Ros2ObjectHandle nodeA = new Ros2ObjectHandle(hostProcess, 0x1L);
+    @NonNull
+    Ros2ObjectHandle nodeB = new Ros2ObjectHandle(hostProcess, 0x2L);
+
+    private long fNextHandle = 0x100L;
+    private Ros2MessageFlowBuildInfo fInfo;
+
+    /**
+     * Publication whose successors are given, which counts how many times its
+     * downstream chains are looked for
+     */
+    private static class TestPublication extends Ros2PublicationMessageFlowSegment {
+        private final @NonNull List<@NonNull Ros2MessageFlowSegment> fSuccessors = new ArrayList<>();
+        private int fVisits = 0;
+
+        public TestPublication(long time, @NonNull Ros2PubInstance pubInstance, @NonNull Ros2PublisherObject publisher) {
+            super(time, time, pubInstance, publisher);
+        }
+
+        @Override
+        public @NonNull Collection<@NonNull Ros2MessageFlowSegment> getDirectSuccessors(@NonNull Ros2MessageFlowBuildInfo info) {
+            return fSuccessors;
+        }
+
+        @Override
+        public @NonNull Ros2PublisherObject getPublisher() {
+            // The publisher is needed once the downstream chains are found
+            fVisits++;
+            return super.getPublisher();
+        }
+    }
+
+    /**
+     * Subscription callback whose successors are given
+     */
+    private static class TestCallback extends Ros2SubCallbackMessageFlowSegment {
+        private final @NonNull List<@NonNull Ros2MessageFlowSegment> fSuccessors = new ArrayList<>();
+
+        public TestCallback(long startTime, long endTime, @NonNull Ros2SubCallbackInstance callbackInstance, @NonNull Ros2SubscriptionObject subscription) {
+            super(startTime, endTime, callbackInstance, subscription);
+        }
+
+        @Override
+        public @NonNull Collection<@NonNull Ros2MessageFlowSegment> getDirectSuccessors(@NonNull Ros2MessageFlowBuildInfo info) {
+            return fSuccessors;
+        }
+    }
+
+    /**
+     * Create the build information, with an objects state system that only
+     * has the name of the first node
+     */
+    @Before
+    public void setUp() {
+        ITmfStateSystemBuilder objectsSs = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend(Ros2ObjectsAnalysis.getFullAnalysisId(), 0L));
+        int nodeQuark = Ros2ObjectsUtil.getNodeQuarkAndAdd(objectsSs, nodeA);
+        objectsSs.modifyAttribute(0L, new Ros2NodeObject(nodeA, NODE_A_NAME, "trace"), nodeQuark);
+        objectsSs.closeHistory(1000L);
+        ITmfStateSystemBuilder messagesSs = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createNullBackend("messages"));
+        fInfo = new Ros2MessageFlowBuildInfo(objectsSs, messagesSs, new Ros2MessageCausalLinksModel());
+    }
+
+    /**
+     * Test the chains of a publication whose callbacks publish on the same
+     * topic, and the maximum number of callbacks of a chain
+     */
+    @Test
+    public void testChains() {
+        TestPublication pub1 = createPublication(10L, "/a", nodeA);
+        TestCallback callback1 = createCallback(20L, 30L, "/a", nodeB);
+        TestCallback callback2 = createCallback(20L, 40L, "/a", nodeA);
+        pub1.fSuccessors.add(callback1);
+        pub1.fSuccessors.add(callback2);
+        TestPublication pub2 = createPublication(25L, "/b", nodeB);
+        TestPublication pub3 = createPublication(35L, "/b", nodeA);
+        callback1.fSuccessors.add(pub2);
+        callback2.fSuccessors.add(pub3);
+        pub2.fSuccessors.add(createCallback(50L, 60L, "/b", nodeB));
+        pub3.fSuccessors.add(createCallback(50L, 70L, "/b", nodeA));
+        pub3.fSuccessors.add(createCallback(50L, 65L, "/b", nodeA));
+
+        Ros2CallbackChainFinder finder = new Ros2CallbackChainFinder(fInfo, 10);
+        Map<@NonNull String, @NonNull Long> chains = finder.getChains(pub1);
+        // The chains with the same callback node are merged, keeping the end
+        // of the latest callback
+        assertEquals(ImmutableMap.of(
+                "/a" + SEP + "/b" + SEP + NODE_A_NAME, 70L,
+                "/a" + SEP + "/b" + SEP + nodeB.getStringId(), 60L), chains);
+        assertSame(chains, finder.getChains(pub1));
+        assertEquals(1, pub1.fVisits);
+
+        // The chains stop at the first callbacks
+        finder = new Ros2CallbackChainFinder(fInfo, 1);
+        assertEquals(ImmutableMap.of(
+                "/a" + SEP + NODE_A_NAME, 40L,
+                "/a" + SEP + nodeB.getStringId(), 30L), finder.getChains(pub1));
+
+        // A publication without subscription has no chain
+        assertEquals(0, finder.getChains(createPublication(100L, "/c", nodeA)).size());
+
+        assertEquals(1, Ros2CallbackChainFinder.getCallbackCount("/a" + SEP + NODE_A_NAME));
+        assertEquals(2, Ros2CallbackChainFinder.getCallbackCount("/a" + SEP + "/b" + SEP + NODE_A_NAME));
+    }
+
+    /**
+     * Test that the segments reached through different paths are only
+     * followed once, with chains where each callback publication leads to two
+     * callbacks that both publish again
+     */
+    @Test
+    public void testSharedSegments() {
+        int depth = 30;
+        List<@NonNull TestPublication> publications = new ArrayList<>();
+        TestPublication first = createPublication(0L, "/t0", nodeA);
+        publications.add(first);
+        List<@NonNull TestCallback> callbacks = new ArrayList<>();
+        TestPublication previous = first;
+        for (int i = 1; i <= depth; i++) {
+            long time = i * 10L;
+            TestCallback callback1 = createCallback(time, time + 5, "/t" + (i - 1), nodeA);
+            TestCallback callback2 = createCallback(time, time + 6, "/t" + (i - 1), nodeA);
+            previous.fSuccessors.add(callback1);
+            previous.fSuccessors.add(callback2);
+            callbacks.add(callback2);
+            if (i < depth) {
+                TestPublication publication = createPublication(time + 7, "/t" + i, nodeA);
+                callback1.fSuccessors.add(publication);
+                callback2.fSuccessors.add(publication);
+                publications.add(publication);
+                previous = publication;
+            }
+        }
+
+        Ros2CallbackChainFinder finder = new Ros2CallbackChainFinder(fInfo, depth);
+        Map<@NonNull String, @NonNull Long> chains = finder.getChains(first);
+        assertEquals(1, chains.size());
+        String chain = chains.keySet().iterator().next();
+        assertEquals(depth, Ros2CallbackChainFinder.getCallbackCount(chain));
+        assertEquals(callbacks.get(depth - 1).getEndTime(), (long) chains.get(chain));
+        for (TestPublication publication : publications) {
+            assertEquals(1, publication.fVisits);
+        }
+    }
+
+    private @NonNull Ros2ObjectHandle newHandle() {
+        return new Ros2ObjectHandle(hostProcess, fNextHandle++);
+    }
+
+    private @NonNull HostProcessPointer newPointer() {
+        return new HostProcessPointer(hostProcess, fNextHandle++);
+    }
+
+    private @NonNull TestPublication createPublication(long time, @NonNull String topic, @NonNull Ros2ObjectHandle node) {
+        Ros2ObjectHandle publisherHandle = newHandle();
+        Ros2PublisherObject publisher = new Ros2PublisherObject(publisherHandle, newHandle(), topic, node, new Gid(new long[] { fNextHandle++ }), newPointer());
+        return new TestPublication(time, new Ros2PubInstance(publisherHandle, 1L, newPointer(), time), publisher);
+    }
+
+    private @NonNull TestCallback createCallback(long startTime, long endTime, @NonNull String topic, @NonNull Ros2ObjectHandle node) {
+        Ros2ObjectHandle subscriptionHandle = newHandle();
+        Ros2SubscriptionObject subscription = new Ros2SubscriptionObject(subscriptionHandle, newHandle(), topic, node, new Gid(new long[] { fNextHandle++ }), newPointer(), newPointer(), newPointer());
+        Ros2TakeInstance take = new Ros2TakeInstance(subscriptionHandle, 1L, newPointer(), startTime, startTime, startTime);
+        Ros2CallbackInstance callback = new Ros2CallbackInstance(subscriptionHandle, 1L, false, startTime, endTime);
+        return new TestCallback(startTime, endTime, new Ros2SubCallbackInstance(take, callback), subscription);
+    }
+}
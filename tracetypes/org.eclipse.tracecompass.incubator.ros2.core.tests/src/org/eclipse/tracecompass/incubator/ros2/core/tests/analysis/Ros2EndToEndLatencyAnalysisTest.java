@@ -0,0 +1,159 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.ros2.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.Iterator;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency.Ros2CallbackChainFinder;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency.Ros2EndToEndLatencyAnalysis;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency.Ros2EndToEndLatencySegment;
+import org.eclipse.tracecompass.incubator.ros2.core.tests.Ros2TestTraceUtils;
+import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.tmf.core.segment.ISegmentAspect;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Ros2EndToEndLatencyAnalysis}, its segment and its aspects
+ */
+public class Ros2EndToEndLatencyAnalysisTest {
+
+    private static final @NonNull CtfTestTrace TEST_TRACE = CtfTestTrace.ROS2;
+    private static final @NonNull String SEP = Ros2CallbackChainFinder.CHAIN_SEPARATOR;
+
+    /** The maximum number of callbacks in a chain of the analysis */
+    private static final int MAX_CHAIN_CALLBACKS = 10;
+
+    /**
+     * Test the segment and writing and reading it back
+     */
+    @Test
+    public void testSegment() {
+        Ros2EndToEndLatencySegment segment = new Ros2EndToEndLatencySegment(100L, 250L, "/a" + SEP + "/b" + SEP + "node", 2);
+        assertEquals(100L, segment.getStart());
+        assertEquals(250L, segment.getEnd());
+        assertEquals(150L, segment.getLength());
+        assertEquals("/a" + SEP + "/b" + SEP + "node", segment.getName());
+        assertEquals(2, segment.getCallbackCount());
+
+        int size = segment.getSizeOnDisk();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        segment.writeSegment(SafeByteBufferFactory.wrapWriter(buffer, size));
+        buffer.position(0);
+        ISegment read = Ros2EndToEndLatencySegment.READER.readInterval(SafeByteBufferFactory.wrapReader(buffer, size));
+        assertTrue(read instanceof Ros2EndToEndLatencySegment);
+        Ros2EndToEndLatencySegment readSegment = (Ros2EndToEndLatencySegment) read;
+        assertEquals(segment.getStart(), readSegment.getStart());
+        assertEquals(segment.getEnd(), readSegment.getEnd());
+        assertEquals(segment.getName(), readSegment.getName());
+        assertEquals(segment.getCallbackCount(), readSegment.getCallbackCount());
+        assertEquals(0, segment.compareTo(readSegment));
+    }
+
+    /**
+     * Test the chain and callback count aspects
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAspects() {
+        Ros2EndToEndLatencySegment segment1 = new Ros2EndToEndLatencySegment(100L, 250L, "/a" + SEP + "/b" + SEP + "node", 2);
+        Ros2EndToEndLatencySegment segment2 = new Ros2EndToEndLatencySegment(50L, 300L, "/b" + SEP + "node", 1);
+        ISegment other = new BasicSegment(0L, 10L);
+
+        Iterator<ISegmentAspect> aspects = new Ros2EndToEndLatencyAnalysis().getSegmentAspects().iterator();
+        ISegmentAspect chainAspect = aspects.next();
+        ISegmentAspect callbackCountAspect = aspects.next();
+
+        assertEquals("/a" + SEP + "/b" + SEP + "node", chainAspect.resolve(segment1));
+        assertNull(chainAspect.resolve(other));
+        Comparator<ISegment> comparator = (Comparator<ISegment>) chainAspect.getComparator();
+        assertNotNull(comparator);
+        assertTrue(comparator.compare(segment1, segment2) < 0);
+        assertTrue(comparator.compare(segment2, segment1) > 0);
+
+        assertEquals(2, callbackCountAspect.resolve(segment1));
+        assertNull(callbackCountAspect.resolve(other));
+        comparator = (Comparator<ISegment>) callbackCountAspect.getComparator();
+        assertNotNull(comparator);
+        assertTrue(comparator.compare(segment1, segment2) > 0);
+        assertTrue(comparator.compare(segment2, segment1) < 0);
+        // Same number of callbacks, compared by start time
+        assertTrue(comparator.compare(segment1, new Ros2EndToEndLatencySegment(200L, 250L, "/c" + SEP + "/b" + SEP + "node", 2)) < 0);
+    }
+
+    /**
+     * Test the analysis on a trace, all the chains must start from a
+     * publication and have a number of callbacks that matches their name
+     *
+     * @throws IOException
+     *             if the supplementary files cannot be deleted
+     */
+    @Test
+    public void testAnalysis() throws IOException {
+        CtfTmfTrace trace = Ros2TestTraceUtils.getTrace(TEST_TRACE);
+        try {
+            trace.traceOpened(new TmfTraceOpenedSignal(this, trace, null));
+            Ros2EndToEndLatencyAnalysis module = TmfTraceUtils.getAnalysisModuleOfClass(trace, Ros2EndToEndLatencyAnalysis.class, Ros2EndToEndLatencyAnalysis.getFullAnalysisId());
+            assertNotNull(module);
+            module.schedule();
+            assertTrue(module.waitForCompletion());
+
+            ISegmentStore<@NonNull ISegment> segmentStore = module.getSegmentStore();
+            assertNotNull(segmentStore);
+            for (ISegment segment : segmentStore) {
+                assertTrue(segment instanceof Ros2EndToEndLatencySegment);
+                Ros2EndToEndLatencySegment latencySegment = (Ros2EndToEndLatencySegment) segment;
+                assertTrue(latencySegment.toString(), latencySegment.getStart() <= latencySegment.getEnd());
+                int callbackCount = latencySegment.getCallbackCount();
+                assertEquals(latencySegment.toString(), Ros2CallbackChainFinder.getCallbackCount(latencySegment.getName()), callbackCount);
+                assertTrue(latencySegment.toString(), callbackCount >= 1 && callbackCount <= MAX_CHAIN_CALLBACKS);
+            }
+        } finally {
+            File suppDir = new File(TmfTraceManager.getSupplementaryFileDir(trace));
+            Ros2TestTraceUtils.dispose(TEST_TRACE);
+            deleteDirectory(suppDir);
+        }
+    }
+
+    private static void deleteDirectory(File dir) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                deleteDirectory(file);
+            } else {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(dir.toPath());
+    }
+}
@@ -0,0 +1,104 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.ros2.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages.Ros2MessageTransportIndex;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.HostInfo;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.HostProcess;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2MessageTransportInstance;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2ObjectHandle;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Ros2MessageTransportIndex}
+ */
+public class Ros2MessageTransportIndexTest {
+
+    @NonNull
+    HostInfo hostInfo = new HostInfo("hostid-a", "hostname-a");
+    @NonNull
+    HostProcess hostProcess1 = new HostProcess(hostInfo, 1L);
+    @NonNull
+    HostProcess hostProcess2 = new HostProcess(hostInfo, 2L);
+    @NonNull
+    Ros2ObjectHandle pubHandle = new Ros2ObjectHandle(hostProcess1, 0x10L);
+    @NonNull
+    Ros2ObjectHandle subHandle1 = new Ros2ObjectHandle(hostProcess2, 0x20L);
+    @NonNull
+    Ros2ObjectHandle subHandle2 = new Ros2ObjectHandle(hostProcess2, 0x30L);
+    @NonNull
+    Ros2MessageTransportInstance transport1 = new Ros2MessageTransportInstance(pubHandle, subHandle1, 100L, 150L);
+    @NonNull
+    Ros2MessageTransportInstance transport2 = new Ros2MessageTransportInstance(pubHandle, subHandle2, 100L, 160L);
+    @NonNull
+    Ros2MessageTransportInstance transport3 = new Ros2MessageTransportInstance(pubHandle, subHandle1, 200L, 250L);
+
+    private @NonNull Ros2MessageTransportIndex createIndex() {
+        return new Ros2MessageTransportIndex(Arrays.asList(transport1, transport2, transport3));
+    }
+
+    /**
+     * Test outgoing and incoming lookups.
+     */
+    @Test
+    public void testLookups() {
+        Ros2MessageTransportIndex index = createIndex();
+        assertEquals(3, index.size());
+
+        assertEquals(Arrays.asList(transport1, transport2), index.getOutgoingTransportLinks(100L, pubHandle));
+        assertEquals(Collections.singletonList(transport3), index.getOutgoingTransportLinks(200L, pubHandle));
+        assertTrue(index.getOutgoingTransportLinks(150L, pubHandle).isEmpty());
+        assertTrue(index.getOutgoingTransportLinks(100L, subHandle1).isEmpty());
+
+        assertEquals(Collections.singletonList(transport1), index.getIncomingTransportLinks(150L, subHandle1));
+        assertEquals(Collections.singletonList(transport2), index.getIncomingTransportLinks(160L, subHandle2));
+        assertEquals(Collections.singletonList(transport3), index.getIncomingTransportLinks(250L, new Ros2ObjectHandle(hostProcess2, 0x20L)));
+        assertTrue(index.getIncomingTransportLinks(160L, subHandle1).isEmpty());
+    }
+
+    /**
+     * Test writing and reading back the index.
+     *
+     * @throws IOException
+     *             if the temporary file cannot be written
+     */
+    @Test
+    public void testWriteRead() throws IOException {
+        File file = File.createTempFile("ros2-transport", ".idx");
+        try {
+            createIndex().write(file, 10L, 1000L);
+
+            Ros2MessageTransportIndex index = Ros2MessageTransportIndex.read(file, 10L, 1000L);
+            assertNotNull(index);
+            assertEquals(3, index.size());
+            assertEquals(Arrays.asList(transport1, transport2), index.getOutgoingTransportLinks(100L, pubHandle));
+            assertEquals(Collections.singletonList(transport3), index.getIncomingTransportLinks(250L, subHandle1));
+
+            // The index is stale if the state system range changed
+            assertNull(Ros2MessageTransportIndex.read(file, 10L, 2000L));
+        } finally {
+            file.delete();
+        }
+        assertNull(Ros2MessageTransportIndex.read(file, 10L, 1000L));
+    }
+}
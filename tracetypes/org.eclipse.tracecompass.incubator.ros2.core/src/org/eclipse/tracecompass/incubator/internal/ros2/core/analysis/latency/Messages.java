@@ -0,0 +1,53 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Messages for the ROS 2 end-to-end latency analysis.
+ */
+public class Messages extends NLS {
+
+    private static final String BUNDLE_NAME = "org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency.messages"; //$NON-NLS-1$
+
+    /** Chain aspect name */
+    public static @Nullable String SegmentAspectName_Chain;
+
+    /** Chain aspect help text */
+    public static @Nullable String SegmentAspectHelpText_Chain;
+
+    /** Callback count aspect name */
+    public static @Nullable String SegmentAspectName_CallbackCount;
+
+    /** Callback count aspect help text */
+    public static @Nullable String SegmentAspectHelpText_CallbackCount;
+
+    static {
+        NLS.initializeMessages(BUNDLE_NAME, Messages.class);
+    }
+
+    private Messages() {
+    }
+
+    /**
+     * Helper method to expose externalized strings as non-null objects.
+     */
+    static String getMessage(@Nullable String msg) {
+        if (msg == null) {
+            return StringUtils.EMPTY;
+        }
+        return msg;
+    }
+}
@@ -0,0 +1,217 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.objects.Ros2ObjectsUtil;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow.Ros2MessageFlowBuildInfo;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow.Ros2MessageFlowSegment;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow.Ros2PublicationMessageFlowSegment;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow.Ros2SubCallbackMessageFlowSegment;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2NodeObject;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2ObjectHandle;
+
+/**
+ * Finds the downstream callback chains of publications, following the same
+ * message flow segments as the message flow model, but only forward and
+ * without linking the segments together.
+ *
+ * A chain goes from a publication to the end of a subscription callback that
+ * does not lead to any other publication, or that is the last callback allowed
+ * in a chain. Chains are identified by the topics of their publications and
+ * the name of the node of their last subscription callback. Chains with the
+ * same identity that start from the same publication are merged, keeping the
+ * latest end time, i.e., the worst case.
+ *
+ * The chains downstream of a segment are kept, so that the segments reached
+ * through different paths, e.g., when callbacks publish to the same topic, are
+ * only followed once.
+ */
+public class Ros2CallbackChainFinder {
+
+    /** Separator between the elements of a chain name */
+    public static final @NonNull String CHAIN_SEPARATOR = " -> "; //$NON-NLS-1$
+
+    /** Number of segments for which to keep the successors */
+    private static final int SUCCESSORS_CACHE_SIZE = 1 << 16;
+    /** Number of segments for which to keep the downstream chains */
+    private static final int CHAINS_CACHE_SIZE = 1 << 16;
+
+    private final @NonNull Ros2MessageFlowBuildInfo fInfo;
+    private final int fMaxCallbacks;
+    private final Map<@NonNull Ros2ObjectHandle, @NonNull String> fNodeNames = new HashMap<>();
+
+    /**
+     * Successors of the segments that were visited recently. Consecutive
+     * publications often share their downstream segments, e.g., when a
+     * publication is itself downstream of a previous one.
+     */
+    private final Map<@NonNull Ros2MessageFlowSegment, @NonNull Collection<@NonNull Ros2MessageFlowSegment>> fSuccessors = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 6034927580172398210L;
+
+        @Override
+        protected boolean removeEldestEntry(Entry<@NonNull Ros2MessageFlowSegment, @NonNull Collection<@NonNull Ros2MessageFlowSegment>> eldest) {
+            return size() > SUCCESSORS_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Chains downstream of the segments that were visited recently, by segment
+     * and number of remaining callbacks, since the chains found from a segment
+     * depend on how many more callbacks they can have
+     */
+    private final Map<@NonNull ChainsKey, @NonNull Map<@NonNull String, @NonNull Long>> fChains = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = -3209563278716474120L;
+
+        @Override
+        protected boolean removeEldestEntry(Entry<@NonNull ChainsKey, @NonNull Map<@NonNull String, @NonNull Long>> eldest) {
+            return size() > CHAINS_CACHE_SIZE;
+        }
+    };
+
+    private static final class ChainsKey {
+        private final @NonNull Ros2MessageFlowSegment fSegment;
+        private final int fRemainingCallbacks;
+
+        public ChainsKey(@NonNull Ros2MessageFlowSegment segment, int remainingCallbacks) {
+            fSegment = segment;
+            fRemainingCallbacks = remainingCallbacks;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fSegment, fRemainingCallbacks);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ChainsKey)) {
+                return false;
+            }
+            ChainsKey o = (ChainsKey) obj;
+            return fRemainingCallbacks == o.fRemainingCallbacks && fSegment.equals(o.fSegment);
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param info
+     *            the message flow build information
+     * @param maxCallbacks
+     *            the maximum number of subscription callbacks in a chain
+     */
+    public Ros2CallbackChainFinder(@NonNull Ros2MessageFlowBuildInfo info, int maxCallbacks) {
+        fInfo = info;
+        fMaxCallbacks = maxCallbacks;
+    }
+
+    /**
+     * Get the chains starting from a publication.
+     *
+     * @param publication
+     *            the publication segment
+     * @return the end time of each chain, by chain name, which must not be
+     *         modified
+     */
+    public @NonNull Map<@NonNull String, @NonNull Long> getChains(@NonNull Ros2PublicationMessageFlowSegment publication) {
+        return getChains(publication, fMaxCallbacks);
+    }
+
+    private @NonNull Map<@NonNull String, @NonNull Long> getChains(@NonNull Ros2MessageFlowSegment segment, int remainingCallbacks) {
+        ChainsKey key = new ChainsKey(segment, remainingCallbacks);
+        Map<@NonNull String, @NonNull Long> chains = fChains.get(key);
+        if (null == chains) {
+            // Not computeIfAbsent, the successors are added to the cache too
+            chains = Collections.unmodifiableMap(findChains(segment, remainingCallbacks));
+            fChains.put(key, chains);
+        }
+        return chains;
+    }
+
+    private @NonNull Map<@NonNull String, @NonNull Long> findChains(@NonNull Ros2MessageFlowSegment segment, int remainingCallbacks) {
+        if (segment instanceof Ros2SubCallbackMessageFlowSegment) {
+            Map<@NonNull String, @NonNull Long> chains = remainingCallbacks > 1 ? getSuccessorChains(segment, remainingCallbacks - 1) : new HashMap<>();
+            if (chains.isEmpty()) {
+                // This callback is the end of the chain
+                Ros2SubCallbackMessageFlowSegment callback = (Ros2SubCallbackMessageFlowSegment) segment;
+                chains.put(getNodeName(callback.getSubscription().getNodeHandle()), segment.getEndTime());
+            }
+            return chains;
+        }
+        Map<@NonNull String, @NonNull Long> chains = getSuccessorChains(segment, remainingCallbacks);
+        if (segment instanceof Ros2PublicationMessageFlowSegment && !chains.isEmpty()) {
+            String prefix = ((Ros2PublicationMessageFlowSegment) segment).getPublisher().getTopicName() + CHAIN_SEPARATOR;
+            Map<@NonNull String, @NonNull Long> prefixed = new HashMap<>();
+            for (Entry<@NonNull String, @NonNull Long> chain : chains.entrySet()) {
+                prefixed.put(prefix + chain.getKey(), chain.getValue());
+            }
+            return prefixed;
+        }
+        return chains;
+    }
+
+    private @NonNull Map<@NonNull String, @NonNull Long> getSuccessorChains(@NonNull Ros2MessageFlowSegment segment, int remainingCallbacks) {
+        Map<@NonNull String, @NonNull Long> chains = new HashMap<>();
+        for (Ros2MessageFlowSegment next : getSuccessors(segment)) {
+            for (Entry<@NonNull String, @NonNull Long> chain : getChains(next, remainingCallbacks).entrySet()) {
+                chains.merge(chain.getKey(), chain.getValue(), Math::max);
+            }
+        }
+        return chains;
+    }
+
+    private @NonNull Collection<@NonNull Ros2MessageFlowSegment> getSuccessors(@NonNull Ros2MessageFlowSegment segment) {
+        Collection<@NonNull Ros2MessageFlowSegment> successors = fSuccessors.get(segment);
+        if (null == successors) {
+            successors = segment.getDirectSuccessors(fInfo);
+            fSuccessors.put(segment, successors);
+        }
+        return successors;
+    }
+
+    private @NonNull String getNodeName(@NonNull Ros2ObjectHandle nodeHandle) {
+        return fNodeNames.computeIfAbsent(nodeHandle, handle -> {
+            Ros2NodeObject nodeObject = Ros2ObjectsUtil.getNodeObjectFromHandle(fInfo.getObjectsSs(), handle);
+            String nodeName = null != nodeObject ? nodeObject.getNodeName() : null;
+            return null != nodeName ? nodeName : handle.getStringId();
+        });
+    }
+
+    /**
+     * Get the number of subscription callbacks of a chain from its name.
+     *
+     * @param chain
+     *            the chain name
+     * @return the number of subscription callbacks
+     */
+    public static int getCallbackCount(@NonNull String chain) {
+        int count = 0;
+        int index = chain.indexOf(CHAIN_SEPARATOR);
+        while (index >= 0) {
+            count++;
+            index = chain.indexOf(CHAIN_SEPARATOR, index + CHAIN_SEPARATOR.length());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,194 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map.Entry;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.segmentstore.AbstractSegmentStoreAnalysisModule;
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.AbstractRos2StateSystemAnalysis;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messagelinks.Ros2MessageCausalLinksAnalysis;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages.Ros2MessageTransportIndex;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages.Ros2MessagesAnalysis;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages.Ros2MessagesUtil;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.objects.Ros2ObjectsAnalysis;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.objects.Ros2ObjectsUtil;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.Ros2ModelUtils;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow.Ros2MessageFlowBuildInfo;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow.Ros2PublicationMessageFlowSegment;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messagelinks.Ros2MessageCausalLinksModel;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2PubInstance;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2PublisherObject;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory.SegmentStoreType;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
+import org.eclipse.tracecompass.tmf.core.segment.ISegmentAspect;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * ROS 2 end-to-end latency analysis. Computes the downstream callback chains of
+ * every publication of the trace, with the same causal links as the message
+ * flow analysis, and stores their latencies in a segment store. Unlike the
+ * message flow analysis, it does not need a target, so the latency statistics
+ * and density of all the chains of a trace can be looked at.
+ */
+public class Ros2EndToEndLatencyAnalysis extends AbstractSegmentStoreAnalysisModule {
+
+    private static final @NonNull String ID_SUFFIX = ".endtoendlatency"; //$NON-NLS-1$
+    private static final int VERSION = 1;
+
+    /**
+     * Maximum number of subscription callbacks in a chain, to bound the work
+     * done for each publication when there are feedback loops
+     */
+    private static final int MAX_CHAIN_CALLBACKS = 10;
+
+    private static final @NonNull Collection<ISegmentAspect> ASPECTS = ImmutableList.of(Ros2EndToEndLatencyAspects.CHAIN_ASPECT, Ros2EndToEndLatencyAspects.CALLBACK_COUNT_ASPECT);
+
+    private @Nullable IProgressMonitor fMonitor;
+
+    /**
+     * Constructor
+     */
+    public Ros2EndToEndLatencyAnalysis() {
+        setId(getFullAnalysisId());
+    }
+
+    /**
+     * @return the full ID of this analysis module
+     */
+    public static @NonNull String getFullAnalysisId() {
+        return AbstractRos2StateSystemAnalysis.getAnalysisIdFromSuffix(ID_SUFFIX);
+    }
+
+    @Override
+    public boolean canExecute(@NonNull ITmfTrace trace) {
+        // See AbstractRos2StateSystemAnalysis#canExecute
+        return trace.getParent() == null;
+    }
+
+    @Override
+    public @NonNull Iterable<ISegmentAspect> getSegmentAspects() {
+        return ASPECTS;
+    }
+
+    @Override
+    protected int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected @NonNull SegmentStoreType getSegmentStoreType() {
+        return SegmentStoreType.OnDisk;
+    }
+
+    @Override
+    protected @NonNull IHTIntervalReader<@NonNull ISegment> getSegmentReader() {
+        return Ros2EndToEndLatencySegment.READER;
+    }
+
+    @Override
+    protected boolean buildAnalysisSegments(@NonNull ISegmentStore<@NonNull ISegment> segmentStore, @NonNull IProgressMonitor monitor) {
+        fMonitor = monitor;
+        ITmfTrace trace = getTrace();
+        if (null == trace) {
+            return false;
+        }
+
+        ITmfStateSystem objectsSs = Ros2ModelUtils.getStateSystemFromAnalysis(trace, Ros2ObjectsAnalysis.class, Ros2ObjectsAnalysis.getFullAnalysisId());
+        if (null == objectsSs) {
+            return false;
+        }
+        ITmfStateSystem messagesSs = Ros2ModelUtils.getStateSystemFromAnalysis(trace, Ros2MessagesAnalysis.class, Ros2MessagesAnalysis.getFullAnalysisId());
+        if (null == messagesSs) {
+            return false;
+        }
+        Ros2MessageCausalLinksModel messageLinksModel = Ros2ModelUtils.getModelFromAnalysis(trace, Ros2MessageCausalLinksAnalysis.class, Ros2MessageCausalLinksAnalysis.getFullAnalysisId());
+        if (null == messageLinksModel) {
+            return false;
+        }
+        Ros2MessagesAnalysis messagesAnalysis = TmfTraceUtils.getAnalysisModuleOfClass(trace, Ros2MessagesAnalysis.class, Ros2MessagesAnalysis.getFullAnalysisId());
+        Ros2MessageTransportIndex transportIndex = null != messagesAnalysis ? messagesAnalysis.getTransportIndex() : null;
+
+        Ros2CallbackChainFinder chainFinder = new Ros2CallbackChainFinder(new Ros2MessageFlowBuildInfo(objectsSs, messagesSs, messageLinksModel, transportIndex), MAX_CHAIN_CALLBACKS);
+        try {
+            for (ITmfStateInterval interval : messagesSs.query2D(Ros2MessagesUtil.getPublisherQuarks(messagesSs), messagesSs.getStartTime(), messagesSs.getCurrentEndTime())) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                Object value = interval.getValue();
+                if (!(value instanceof Ros2PubInstance)) {
+                    continue;
+                }
+                Ros2PubInstance pubInstance = (Ros2PubInstance) value;
+                long startTime = interval.getStartTime();
+                Ros2PublisherObject publisherObject = Ros2ObjectsUtil.getPublisherObjectFromHandle(objectsSs, startTime, pubInstance.getPublisherHandle());
+                if (null == publisherObject) {
+                    continue;
+                }
+                Ros2PublicationMessageFlowSegment publication = new Ros2PublicationMessageFlowSegment(startTime, interval.getEndTime(), pubInstance, publisherObject);
+                for (Entry<@NonNull String, @NonNull Long> chain : chainFinder.getChains(publication).entrySet()) {
+                    String chainName = chain.getKey();
+                    segmentStore.add(new Ros2EndToEndLatencySegment(startTime, chain.getValue(), chainName, Ros2CallbackChainFinder.getCallbackCount(chainName)));
+                }
+            }
+        } catch (StateSystemDisposedException e) {
+            return false;
+        }
+        return !monitor.isCanceled();
+    }
+
+    @Override
+    protected @NonNull Iterable<@NonNull IAnalysisModule> getDependentAnalyses() {
+        ITmfTrace trace = getTrace();
+        if (trace == null) {
+            return Collections.emptySet();
+        }
+        // Depends on the objects analysis
+        Ros2ObjectsAnalysis objectsAnalysis = TmfTraceUtils.getAnalysisModuleOfClass(trace, Ros2ObjectsAnalysis.class, Ros2ObjectsAnalysis.getFullAnalysisId());
+        if (objectsAnalysis == null) {
+            return Collections.emptySet();
+        }
+        // Depends on the messages analysis
+        Ros2MessagesAnalysis messagesAnalysis = TmfTraceUtils.getAnalysisModuleOfClass(trace, Ros2MessagesAnalysis.class, Ros2MessagesAnalysis.getFullAnalysisId());
+        if (messagesAnalysis == null) {
+            return Collections.emptySet();
+        }
+        // Depends on the message links analysis
+        Ros2MessageCausalLinksAnalysis messageLinksAnalysis = TmfTraceUtils.getAnalysisModuleOfClass(trace, Ros2MessageCausalLinksAnalysis.class, Ros2MessageCausalLinksAnalysis.getFullAnalysisId());
+        if (messageLinksAnalysis == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.asList(objectsAnalysis, messagesAnalysis, messageLinksAnalysis);
+    }
+
+    @Override
+    protected void canceling() {
+        IProgressMonitor mon = fMonitor;
+        if ((mon != null) && (!mon.isCanceled())) {
+            mon.setCanceled(true);
+        }
+    }
+}
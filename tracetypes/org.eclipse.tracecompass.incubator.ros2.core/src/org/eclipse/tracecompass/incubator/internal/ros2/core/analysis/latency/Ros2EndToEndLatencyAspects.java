@@ -0,0 +1,111 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency;
+
+import java.util.Comparator;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.SegmentComparators;
+import org.eclipse.tracecompass.tmf.core.segment.ISegmentAspect;
+
+/**
+ * Segment aspects of the {@link Ros2EndToEndLatencySegment}.
+ */
+final class Ros2EndToEndLatencyAspects {
+
+    /** Chain name aspect */
+    static final ISegmentAspect CHAIN_ASPECT = new ChainAspect();
+
+    /** Number of callbacks aspect */
+    static final ISegmentAspect CALLBACK_COUNT_ASPECT = new CallbackCountAspect();
+
+    private Ros2EndToEndLatencyAspects() {
+        // Do nothing
+    }
+
+    private static final class ChainAspect implements ISegmentAspect {
+
+        @Override
+        public String getName() {
+            return Messages.getMessage(Messages.SegmentAspectName_Chain);
+        }
+
+        @Override
+        public String getHelpText() {
+            return Messages.getMessage(Messages.SegmentAspectHelpText_Chain);
+        }
+
+        @Override
+        public @Nullable Comparator<?> getComparator() {
+            return (ISegment segment1, ISegment segment2) -> {
+                if (segment1 == null) {
+                    return 1;
+                }
+                if (segment2 == null) {
+                    return -1;
+                }
+                if (segment1 instanceof Ros2EndToEndLatencySegment && segment2 instanceof Ros2EndToEndLatencySegment) {
+                    int res = ((Ros2EndToEndLatencySegment) segment1).getName().compareTo(((Ros2EndToEndLatencySegment) segment2).getName());
+                    return (res != 0 ? res : SegmentComparators.INTERVAL_START_COMPARATOR.thenComparing(SegmentComparators.INTERVAL_END_COMPARATOR).compare(segment1, segment2));
+                }
+                return 1;
+            };
+        }
+
+        @Override
+        public @Nullable String resolve(ISegment segment) {
+            if (segment instanceof Ros2EndToEndLatencySegment) {
+                return ((Ros2EndToEndLatencySegment) segment).getName();
+            }
+            return null;
+        }
+    }
+
+    private static final class CallbackCountAspect implements ISegmentAspect {
+
+        @Override
+        public String getName() {
+            return Messages.getMessage(Messages.SegmentAspectName_CallbackCount);
+        }
+
+        @Override
+        public String getHelpText() {
+            return Messages.getMessage(Messages.SegmentAspectHelpText_CallbackCount);
+        }
+
+        @Override
+        public @Nullable Comparator<?> getComparator() {
+            return (ISegment segment1, ISegment segment2) -> {
+                if (segment1 == null) {
+                    return 1;
+                }
+                if (segment2 == null) {
+                    return -1;
+                }
+                if (segment1 instanceof Ros2EndToEndLatencySegment && segment2 instanceof Ros2EndToEndLatencySegment) {
+                    int res = Integer.compare(((Ros2EndToEndLatencySegment) segment1).getCallbackCount(), ((Ros2EndToEndLatencySegment) segment2).getCallbackCount());
+                    return (res != 0 ? res : SegmentComparators.INTERVAL_START_COMPARATOR.thenComparing(SegmentComparators.INTERVAL_END_COMPARATOR).compare(segment1, segment2));
+                }
+                return 1;
+            };
+        }
+
+        @Override
+        public @Nullable Integer resolve(ISegment segment) {
+            if (segment instanceof Ros2EndToEndLatencySegment) {
+                return ((Ros2EndToEndLatencySegment) segment).getCallbackCount();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.segment.interfaces.INamedSegment;
+
+/**
+ * End-to-end latency of a ROS 2 callback chain, from a publication until the
+ * end of the last subscription callback of the chain. The name of the segment
+ * identifies the chain: the topics of the successive publications, followed by
+ * the name of the node of the last subscription callback.
+ */
+public final class Ros2EndToEndLatencySegment implements INamedSegment {
+
+    private static final long serialVersionUID = -1927418533046385927L;
+
+    /**
+     * The reader for this segment class
+     */
+    public static final @NonNull IHTIntervalReader<@NonNull ISegment> READER = buffer -> new Ros2EndToEndLatencySegment(buffer.getLong(), buffer.getLong(), buffer.getString(), buffer.getInt());
+
+    private final long fStartTime;
+    private final long fEndTime;
+    private final @NonNull String fChain;
+    private final int fCallbackCount;
+
+    /**
+     * Constructor
+     *
+     * @param startTime
+     *            the start time of the first publication of the chain
+     * @param endTime
+     *            the end time of the last subscription callback of the chain
+     * @param chain
+     *            the chain name
+     * @param callbackCount
+     *            the number of subscription callbacks in the chain
+     */
+    public Ros2EndToEndLatencySegment(long startTime, long endTime, @NonNull String chain, int callbackCount) {
+        fStartTime = startTime;
+        fEndTime = endTime;
+        fChain = chain;
+        fCallbackCount = callbackCount;
+    }
+
+    @Override
+    public long getStart() {
+        return fStartTime;
+    }
+
+    @Override
+    public long getEnd() {
+        return fEndTime;
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return fChain;
+    }
+
+    /**
+     * @return the number of subscription callbacks in the chain
+     */
+    public int getCallbackCount() {
+        return fCallbackCount;
+    }
+
+    @Override
+    public int getSizeOnDisk() {
+        return 2 * Long.BYTES + SafeByteBufferFactory.getStringSizeInBuffer(fChain) + Integer.BYTES;
+    }
+
+    @Override
+    public void writeSegment(@NonNull ISafeByteBufferWriter buffer) {
+        buffer.putLong(fStartTime);
+        buffer.putLong(fEndTime);
+        buffer.putString(fChain);
+        buffer.putInt(fCallbackCount);
+    }
+
+    @Override
+    public int compareTo(@NonNull ISegment o) {
+        int ret = INamedSegment.super.compareTo(o);
+        if (ret != 0) {
+            return ret;
+        }
+        return toString().compareTo(o.toString());
+    }
+
+    @Override
+    public String toString() {
+        return "Start Time = " + getStart() + //$NON-NLS-1$
+                "; End Time = " + getEnd() + //$NON-NLS-1$
+                "; Duration = " + getLength() + //$NON-NLS-1$
+                "; Chain = " + getName(); //$NON-NLS-1$
+    }
+}
@@ -21,6 +21,7 @@ import org.eclipse.tracecompass.incubator.internal.ros2.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.AbstractRos2StateSystemAnalysis;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.IRos2ModelProvider;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messagelinks.Ros2MessageCausalLinksAnalysis;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages.Ros2MessageTransportIndex;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages.Ros2MessagesAnalysis;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.objects.Ros2ObjectsAnalysis;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.model.Ros2ModelUtils;
@@ -106,8 +107,12 @@ public class Ros2MessageFlowAnalysis extends TmfAbstractAnalysisModule implement
             return false;
         }
 
+        // Use the transport index of the messages analysis if available
+        Ros2MessagesAnalysis messagesAnalysis = TmfTraceUtils.getAnalysisModuleOfClass(trace, Ros2MessagesAnalysis.class, Ros2MessagesAnalysis.getFullAnalysisId());
+        Ros2MessageTransportIndex transportIndex = null != messagesAnalysis ? messagesAnalysis.getTransportIndex() : null;
+
         // Create and generate the model
-        Ros2MessageFlowModel model = new Ros2MessageFlowModel(targetInfo, objectsSs, messagesSs, messageLinksModel);
+        Ros2MessageFlowModel model = new Ros2MessageFlowModel(targetInfo, objectsSs, messagesSs, messageLinksModel, transportIndex);
         if (!monitor.isCanceled()) {
             model.generateModel();
         }
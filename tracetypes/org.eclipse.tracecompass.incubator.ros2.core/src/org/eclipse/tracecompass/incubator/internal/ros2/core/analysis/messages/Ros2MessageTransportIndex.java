@@ -0,0 +1,247 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferReader;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.Activator;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2MessageTransportInstance;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2ObjectHandle;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+
+/**
+ * Index of the message transport instances of a messages state system, by
+ * publisher handle and source publication timestamp, and by subscription
+ * handle and destination take timestamp. It replaces a 2D query over all the
+ * transport instance attributes for every hop when following a message flow.
+ *
+ * The index can be written to and read from a file, typically a supplementary
+ * file of the trace, with the time range of the state system it was built
+ * from, to detect when it is stale.
+ */
+public class Ros2MessageTransportIndex {
+
+    private static final int MAGIC = 0x52324958;
+    private static final int VERSION = 1;
+    /** Magic number, version, start time, end time and number of instances */
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES + Integer.BYTES;
+
+    private final @NonNull Collection<@NonNull Ros2MessageTransportInstance> fInstances;
+    private final @NonNull Map<HandleTimestamp, List<@NonNull Ros2MessageTransportInstance>> fBySource = new HashMap<>();
+    private final @NonNull Map<HandleTimestamp, List<@NonNull Ros2MessageTransportInstance>> fByDestination = new HashMap<>();
+
+    /**
+     * Key of the index: an object handle and a timestamp
+     */
+    private static final class HandleTimestamp {
+        private final @NonNull Ros2ObjectHandle fHandle;
+        private final long fTimestamp;
+
+        public HandleTimestamp(@NonNull Ros2ObjectHandle handle, long timestamp) {
+            fHandle = handle;
+            fTimestamp = timestamp;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fHandle, fTimestamp);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof HandleTimestamp)) {
+                return false;
+            }
+            HandleTimestamp o = (HandleTimestamp) obj;
+            return fTimestamp == o.fTimestamp && fHandle.equals(o.fHandle);
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param instances
+     *            the message transport instances to index
+     */
+    public Ros2MessageTransportIndex(@NonNull Collection<@NonNull Ros2MessageTransportInstance> instances) {
+        fInstances = instances;
+        for (Ros2MessageTransportInstance instance : instances) {
+            fBySource.computeIfAbsent(new HandleTimestamp(instance.getPublisherHandle(), instance.getSourceTimestamp()), k -> new ArrayList<>(1)).add(instance);
+            fByDestination.computeIfAbsent(new HandleTimestamp(instance.getSubscriptionHandle(), instance.getDestinationTimestamp()), k -> new ArrayList<>(1)).add(instance);
+        }
+    }
+
+    /**
+     * Build the index from all the transport instances of a messages state
+     * system. The state system should be completely built.
+     *
+     * @param ss
+     *            the messages state system
+     * @return the index
+     */
+    public static @NonNull Ros2MessageTransportIndex build(@NonNull ITmfStateSystem ss) {
+        List<@NonNull Ros2MessageTransportInstance> instances = Ros2MessagesUtil.getTransportInstances(ss, ss.getStartTime(), ss.getCurrentEndTime())
+                .distinct()
+                .collect(Collectors.toList());
+        return new Ros2MessageTransportIndex(Objects.requireNonNull(instances));
+    }
+
+    /**
+     * Get outgoing transport links at given publication timestamp for given
+     * source publisher, like
+     * {@link Ros2MessagesUtil#getOutgoingTransportLinks(ITmfStateSystem, long, Ros2ObjectHandle)}
+     *
+     * @param sourcePublicationTimestamp
+     *            the transport source publication timestamp
+     * @param sourcePublisherHandle
+     *            the publisher handle
+     * @return the corresponding links
+     */
+    public @NonNull Collection<@NonNull Ros2MessageTransportInstance> getOutgoingTransportLinks(long sourcePublicationTimestamp, @NonNull Ros2ObjectHandle sourcePublisherHandle) {
+        List<@NonNull Ros2MessageTransportInstance> links = fBySource.get(new HandleTimestamp(sourcePublisherHandle, sourcePublicationTimestamp));
+        return links == null ? Collections.emptyList() : Collections.unmodifiableList(links);
+    }
+
+    /**
+     * Get incoming transport links for given take timestamp and destination
+     * subscription, like
+     * {@link Ros2MessagesUtil#getIncomingTransportLinks(ITmfStateSystem, long, Ros2ObjectHandle)}
+     *
+     * @param destinationTakeTimestamp
+     *            the transport destination take timestamp
+     * @param destinationSubscriptionHandle
+     *            the subscription handle
+     * @return the corresponding links
+     */
+    public @NonNull Collection<@NonNull Ros2MessageTransportInstance> getIncomingTransportLinks(long destinationTakeTimestamp, @NonNull Ros2ObjectHandle destinationSubscriptionHandle) {
+        List<@NonNull Ros2MessageTransportInstance> links = fByDestination.get(new HandleTimestamp(destinationSubscriptionHandle, destinationTakeTimestamp));
+        return links == null ? Collections.emptyList() : Collections.unmodifiableList(links);
+    }
+
+    /**
+     * @return the number of indexed transport instances
+     */
+    public int size() {
+        return fInstances.size();
+    }
+
+    /**
+     * Write the index to a file.
+     *
+     * @param file
+     *            the file to write
+     * @param startTime
+     *            the start time of the state system the index was built from
+     * @param endTime
+     *            the end time of the state system the index was built from
+     * @throws IOException
+     *             if the file could not be written
+     */
+    public void write(@NonNull File file, long startTime, long endTime) throws IOException {
+        int size = HEADER_SIZE;
+        for (Ros2MessageTransportInstance instance : fInstances) {
+            size += Integer.BYTES + getSerializedSize(instance);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(startTime);
+        buffer.putLong(endTime);
+        buffer.putInt(fInstances.size());
+        for (Ros2MessageTransportInstance instance : fInstances) {
+            int instanceSize = getSerializedSize(instance);
+            buffer.putInt(instanceSize);
+            ISafeByteBufferWriter writer = SafeByteBufferFactory.wrapWriter(buffer, instanceSize);
+            instance.getPublisherHandle().serializeValue(writer);
+            instance.getSubscriptionHandle().serializeValue(writer);
+            writer.putLong(instance.getSourceTimestamp());
+            writer.putLong(instance.getDestinationTimestamp());
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Read an index from a file.
+     *
+     * @param file
+     *            the file to read
+     * @param startTime
+     *            the start time of the current state system
+     * @param endTime
+     *            the end time of the current state system
+     * @return the index, or <code>null</code> if the file does not exist, is
+     *         invalid, or was written for a different state system time range
+     */
+    public static @Nullable Ros2MessageTransportIndex read(@NonNull File file, long startTime, long endTime) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read the whole file
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != startTime || buffer.getLong() != endTime) {
+                return null;
+            }
+            int count = buffer.getInt();
+            List<@NonNull Ros2MessageTransportInstance> instances = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int instanceSize = buffer.getInt();
+                ISafeByteBufferReader reader = SafeByteBufferFactory.wrapReader(buffer, instanceSize);
+                Ros2ObjectHandle publisherHandle = Ros2ObjectHandle.read(reader);
+                Ros2ObjectHandle subscriptionHandle = Ros2ObjectHandle.read(reader);
+                long sourceTimestamp = reader.getLong();
+                long destinationTimestamp = reader.getLong();
+                instances.add(new Ros2MessageTransportInstance(publisherHandle, subscriptionHandle, sourceTimestamp, destinationTimestamp));
+            }
+            return new Ros2MessageTransportIndex(instances);
+        } catch (IOException | RuntimeException e) {
+            Activator.getInstance().logWarning("Invalid message transport index file " + file, e); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    private static int getSerializedSize(@NonNull Ros2MessageTransportInstance instance) {
+        return instance.getPublisherHandle().getSerializedValueSize() + instance.getSubscriptionHandle().getSerializedValueSize() + 2 * Long.BYTES;
+    }
+}
@@ -11,16 +11,21 @@
 
 package org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.AbstractRos2StateSystemAnalysis;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.objects.Ros2ObjectsAnalysis;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 
 /**
@@ -31,6 +36,9 @@ import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 public class Ros2MessagesAnalysis extends AbstractRos2StateSystemAnalysis {
 
     private static final @NonNull String ID_SUFFIX = ".messages"; //$NON-NLS-1$
+    private static final @NonNull String TRANSPORT_INDEX_SUFFIX = ".transport.idx"; //$NON-NLS-1$
+
+    private @Nullable Ros2MessageTransportIndex fTransportIndex = null;
 
     /**
      * Constructor
@@ -79,4 +87,52 @@ public class Ros2MessagesAnalysis extends AbstractRos2StateSystemAnalysis {
         }
         return Collections.singleton(objectsAnalysis);
     }
+
+    /**
+     * Get the index of the message transport instances of this analysis. It is
+     * read from the supplementary file if it exists and is up to date,
+     * otherwise it is built from the state system and written to the
+     * supplementary file.
+     *
+     * @return the transport index, or <code>null</code> if the state system is
+     *         not available or not completely built yet
+     */
+    public synchronized @Nullable Ros2MessageTransportIndex getTransportIndex() {
+        Ros2MessageTransportIndex index = fTransportIndex;
+        ITmfStateSystem ss = getStateSystem();
+        if (null == ss) {
+            return null;
+        }
+        if (null != index) {
+            return index;
+        }
+        // Only index a complete state system, partial indexes would be wrong
+        if (!ss.waitUntilBuilt(0)) {
+            return null;
+        }
+        File file = getTransportIndexFile();
+        if (null != file) {
+            index = Ros2MessageTransportIndex.read(file, ss.getStartTime(), ss.getCurrentEndTime());
+        }
+        if (null == index) {
+            index = Ros2MessageTransportIndex.build(ss);
+            if (null != file) {
+                try {
+                    index.write(file, ss.getStartTime(), ss.getCurrentEndTime());
+                } catch (IOException e) {
+                    Activator.getInstance().logWarning("Could not write message transport index file " + file, e); //$NON-NLS-1$
+                }
+            }
+        }
+        fTransportIndex = index;
+        return index;
+    }
+
+    private @Nullable File getTransportIndexFile() {
+        ITmfTrace trace = getTrace();
+        if (null == trace) {
+            return null;
+        }
+        return new File(TmfTraceManager.getSupplementaryFileDir(trace), getId() + TRANSPORT_INDEX_SUFFIX);
+    }
 }
@@ -23,6 +23,7 @@ import org.eclipse.tracecompass.incubator.internal.ros2.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.objects.Ros2ObjectsUtil;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2CallbackPublicationInstance;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2MessageTransportInstance;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2PubInstance;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2NodeObject;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2ObjectHandle;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2PublisherObject;
@@ -397,6 +398,19 @@ public class Ros2MessagesUtil {
         return null;
     }
 
+    /**
+     * Get the quarks of all publishers, whose values are the
+     * {@link Ros2PubInstance} publication instances.
+     *
+     * @param ss
+     *            the messages state system
+     * @return the publisher quarks
+     */
+    public static @NonNull Collection<@NonNull Integer> getPublisherQuarks(ITmfStateSystem ss) {
+        assertStateSystem(ss);
+        return ss.getQuarks(SS_WILDCARD, LIST_NODES, SS_WILDCARD, LIST_PUBLISHERS, SS_WILDCARD);
+    }
+
     /**
      * Get transport instance quarks.
      *
@@ -11,8 +11,15 @@
 
 package org.eclipse.tracecompass.incubator.internal.ros2.core.model.messageflow;
 
+import java.util.stream.Stream;
+
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages.Ros2MessageTransportIndex;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages.Ros2MessagesUtil;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messagelinks.Ros2MessageCausalLinksModel;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messages.Ros2MessageTransportInstance;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.model.objects.Ros2ObjectHandle;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 
 /**
@@ -25,6 +32,7 @@ public class Ros2MessageFlowBuildInfo {
     private final @NonNull ITmfStateSystem fObjectsSs;
     private final @NonNull ITmfStateSystem fMessagesSs;
     private final @NonNull Ros2MessageCausalLinksModel fMessageLinksModel;
+    private final @Nullable Ros2MessageTransportIndex fTransportIndex;
 
     /**
      * Constructor
@@ -37,9 +45,28 @@ public class Ros2MessageFlowBuildInfo {
      *            the message links model
      */
     public Ros2MessageFlowBuildInfo(@NonNull ITmfStateSystem objectsSs, @NonNull ITmfStateSystem messagesSs, @NonNull Ros2MessageCausalLinksModel messageLinksModel) {
+        this(objectsSs, messagesSs, messageLinksModel, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param objectsSs
+     *            the objects state system
+     * @param messagesSs
+     *            the messages state system
+     * @param messageLinksModel
+     *            the message links model
+     * @param transportIndex
+     *            the index of the transport instances of the messages state
+     *            system, or <code>null</code> to query the state system
+     */
+    public Ros2MessageFlowBuildInfo(@NonNull ITmfStateSystem objectsSs, @NonNull ITmfStateSystem messagesSs, @NonNull Ros2MessageCausalLinksModel messageLinksModel,
+            @Nullable Ros2MessageTransportIndex transportIndex) {
         fObjectsSs = objectsSs;
         fMessagesSs = messagesSs;
         fMessageLinksModel = messageLinksModel;
+        fTransportIndex = transportIndex;
     }
 
     /**
@@ -66,4 +93,40 @@ public class Ros2MessageFlowBuildInfo {
     public @NonNull Ros2MessageCausalLinksModel getMessageLinksModel() {
         return fMessageLinksModel;
     }
+
+    /**
+     * Get outgoing transport links at given publication timestamp for given
+     * source publisher, using the transport index if available.
+     *
+     * @param sourcePublicationTimestamp
+     *            the transport source publication timestamp
+     * @param sourcePublisherHandle
+     *            the publisher handle
+     * @return the corresponding links
+     */
+    public @NonNull Stream<@NonNull Ros2MessageTransportInstance> getOutgoingTransportLinks(long sourcePublicationTimestamp, @NonNull Ros2ObjectHandle sourcePublisherHandle) {
+        Ros2MessageTransportIndex index = fTransportIndex;
+        if (null != index) {
+            return index.getOutgoingTransportLinks(sourcePublicationTimestamp, sourcePublisherHandle).stream();
+        }
+        return Ros2MessagesUtil.getOutgoingTransportLinks(fMessagesSs, sourcePublicationTimestamp, sourcePublisherHandle);
+    }
+
+    /**
+     * Get incoming transport links for given take timestamp and destination
+     * subscription, using the transport index if available.
+     *
+     * @param destinationTakeTimestamp
+     *            the transport destination take timestamp
+     * @param destinationSubscriptionHandle
+     *            the subscription handle
+     * @return the corresponding links
+     */
+    public @NonNull Stream<@NonNull Ros2MessageTransportInstance> getIncomingTransportLinks(long destinationTakeTimestamp, @NonNull Ros2ObjectHandle destinationSubscriptionHandle) {
+        Ros2MessageTransportIndex index = fTransportIndex;
+        if (null != index) {
+            return index.getIncomingTransportLinks(destinationTakeTimestamp, destinationSubscriptionHandle).stream();
+        }
+        return Ros2MessagesUtil.getIncomingTransportLinks(fMessagesSs, destinationTakeTimestamp, destinationSubscriptionHandle);
+    }
 }
@@ -18,6 +18,7 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.IRos2Model;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages.Ros2MessageTransportIndex;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.messages.Ros2MessagesUtil;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.objects.Ros2ObjectsUtil;
 import org.eclipse.tracecompass.incubator.internal.ros2.core.model.messagelinks.Ros2MessageCausalLinksModel;
@@ -62,8 +63,28 @@ public class Ros2MessageFlowModel implements IRos2Model {
      *            the message links model
      */
     public Ros2MessageFlowModel(@NonNull Ros2FlowTargetInfo info, @NonNull ITmfStateSystem objectsSs, @NonNull ITmfStateSystem messagesSs, @NonNull Ros2MessageCausalLinksModel messageLinksModel) {
+        this(info, objectsSs, messagesSs, messageLinksModel, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param info
+     *            the target info
+     * @param objectsSs
+     *            the objects state system
+     * @param messagesSs
+     *            the messages state system
+     * @param messageLinksModel
+     *            the message links model
+     * @param transportIndex
+     *            the index of the transport instances of the messages state
+     *            system, or <code>null</code> to query the state system
+     */
+    public Ros2MessageFlowModel(@NonNull Ros2FlowTargetInfo info, @NonNull ITmfStateSystem objectsSs, @NonNull ITmfStateSystem messagesSs, @NonNull Ros2MessageCausalLinksModel messageLinksModel,
+            @Nullable Ros2MessageTransportIndex transportIndex) {
         fInfo = info;
-        fBuildInfo = new Ros2MessageFlowBuildInfo(objectsSs, messagesSs, messageLinksModel);
+        fBuildInfo = new Ros2MessageFlowBuildInfo(objectsSs, messagesSs, messageLinksModel, transportIndex);
         fBuilder = new Ros2MessageFlowBuilder(fBuildInfo, fSegments);
     }
 
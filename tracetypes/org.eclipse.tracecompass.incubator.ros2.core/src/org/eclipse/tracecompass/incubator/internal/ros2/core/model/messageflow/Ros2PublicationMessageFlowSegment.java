@@ -83,7 +83,7 @@ public class Ros2PublicationMessageFlowSegment extends Ros2MessageFlowSegment {
          * segments.
          */
         Collection<@NonNull Ros2MessageFlowSegment> next = new ArrayList<>();
-        Iterator<@NonNull Ros2MessageTransportInstance> transportLinks = Ros2MessagesUtil.getOutgoingTransportLinks(info.getMessagesSs(), getEndTime() + 1, getPublisher().getHandle()).iterator();
+        Iterator<@NonNull Ros2MessageTransportInstance> transportLinks = info.getOutgoingTransportLinks(getEndTime() + 1, getPublisher().getHandle()).iterator();
         while (transportLinks.hasNext()) {
             Ros2MessageTransportInstance transportInstance = transportLinks.next();
             Long sourceTimestamp = transportInstance.getSourceTimestamp();
@@ -179,7 +179,7 @@ public class Ros2SubCallbackMessageFlowSegment extends Ros2MessageFlowSegment {
          * just use a for loop.
          */
         Collection<@NonNull Ros2MessageFlowSegment> previous = new ArrayList<>();
-        Iterator<@NonNull Ros2MessageTransportInstance> transportLinks = Ros2MessagesUtil.getIncomingTransportLinks(info.getMessagesSs(), getCallbackInstance().getTakeInstance().getStartTime(), getCallbackInstance().getSubscriptionHandle())
+        Iterator<@NonNull Ros2MessageTransportInstance> transportLinks = info.getIncomingTransportLinks(getCallbackInstance().getTakeInstance().getStartTime(), getCallbackInstance().getSubscriptionHandle())
                 .iterator();
         while (transportLinks.hasNext()) {
             Ros2MessageTransportInstance transportInstance = transportLinks.next();
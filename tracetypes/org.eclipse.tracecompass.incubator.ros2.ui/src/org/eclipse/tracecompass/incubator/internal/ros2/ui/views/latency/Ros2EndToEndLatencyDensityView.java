@@ -0,0 +1,48 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ros2.ui.views.latency;
+
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.tracecompass.analysis.timing.ui.views.segmentstore.density2.AbstractSegmentStoreDensityView;
+import org.eclipse.tracecompass.analysis.timing.ui.views.segmentstore.density2.AbstractSegmentStoreDensityViewer;
+import org.eclipse.tracecompass.analysis.timing.ui.views.segmentstore.table.AbstractSegmentStoreTableViewer;
+import org.eclipse.tracecompass.analysis.timing.ui.views.segmentstore.table.SegmentStoreTableViewer;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency.Ros2EndToEndLatencyAnalysis;
+
+/**
+ * Density view for the ROS 2 end-to-end latency of callback chains.
+ */
+public class Ros2EndToEndLatencyDensityView extends AbstractSegmentStoreDensityView {
+
+    /** The view's ID */
+    public static final String ID = "org.eclipse.tracecompass.incubator.ros2.ui.views.endtoendlatency.density"; //$NON-NLS-1$
+
+    /**
+     * Constructor
+     */
+    public Ros2EndToEndLatencyDensityView() {
+        super(ID);
+    }
+
+    @Override
+    protected AbstractSegmentStoreTableViewer createSegmentStoreTableViewer(Composite parent) {
+        return new SegmentStoreTableViewer(new TableViewer(parent, SWT.FULL_SELECTION | SWT.VIRTUAL), Ros2EndToEndLatencyAnalysis.getFullAnalysisId(), false) {
+        };
+    }
+
+    @Override
+    protected AbstractSegmentStoreDensityViewer createSegmentStoreDensityViewer(Composite parent) {
+        return new Ros2EndToEndLatencyDensityViewer(parent);
+    }
+}
@@ -0,0 +1,41 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.ros2.ui.views.latency;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.tracecompass.analysis.timing.core.segmentstore.ISegmentStoreProvider;
+import org.eclipse.tracecompass.analysis.timing.ui.views.segmentstore.density2.AbstractSegmentStoreDensityViewer;
+import org.eclipse.tracecompass.incubator.internal.ros2.core.analysis.latency.Ros2EndToEndLatencyAnalysis;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+
+/**
+ * Density viewer for the ROS 2 end-to-end latency of callback chains.
+ */
+public class Ros2EndToEndLatencyDensityViewer extends AbstractSegmentStoreDensityViewer {
+
+    /**
+     * Constructor
+     *
+     * @param parent
+     *            the parent of the viewer
+     */
+    public Ros2EndToEndLatencyDensityViewer(Composite parent) {
+        super(parent);
+    }
+
+    @Override
+    protected @Nullable ISegmentStoreProvider getSegmentStoreProvider(ITmfTrace trace) {
+        return TmfTraceUtils.getAnalysisModuleOfClass(trace, Ros2EndToEndLatencyAnalysis.class, Ros2EndToEndLatencyAnalysis.getFullAnalysisId());
+    }
+}
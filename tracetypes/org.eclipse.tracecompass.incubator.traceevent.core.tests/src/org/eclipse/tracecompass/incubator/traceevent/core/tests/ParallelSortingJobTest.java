@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.ParallelSortingJob;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.TraceEventSortingJob;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+/**
+ * Test the {@link ParallelSortingJob}, that sorts the events of trace event
+ * traces
+ */
+public class ParallelSortingJobTest {
+
+    private static final byte[] TS_KEY = "\"ts\":".getBytes(StandardCharsets.UTF_8);
+    /** The size of the blocks read from the trace file */
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    private Path fDir;
+
+    /**
+     * Create the directory for the test files
+     *
+     * @throws IOException
+     *             if the directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDir = Files.createTempDirectory("sortingJobTest");
+    }
+
+    /**
+     * Delete the test files
+     *
+     * @throws IOException
+     *             if a file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(fDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Test parsing the timestamp of events
+     */
+    @Test
+    public void testParseTimestamp() {
+        assertEquals(123.0, parseTimestamp("{\"ts\":123,\"ph\":\"B\"}"), 0.0);
+        assertEquals(123.0, parseTimestamp("{\"ph\":\"B\",\"ts\":123}"), 0.0);
+        assertEquals(45.5, parseTimestamp("{\"ts\":\"45.5\",\"ph\":\"B\"}"), 0.0);
+        assertEquals(1500.0, parseTimestamp("{\"ts\": 1.5e3 ,\"ph\":\"B\"}"), 0.0);
+        assertEquals(12345678901234567890.0, parseTimestamp("{\"ts\":12345678901234567890}"), 1e5);
+        // Only the first occurrence is read
+        assertEquals(2.0, parseTimestamp("{\"ts\":2,\"args\":{\"ts\":1}}"), 0.0);
+        // Missing or invalid timestamps
+        assertTrue(parseTimestamp("{\"ph\":\"B\"}") < 0);
+        assertTrue(parseTimestamp("{\"ts\":\"abc\"}") < 0);
+        assertTrue(parseTimestamp("{\"ts\":}") < 0);
+
+        // The event is in the middle of the data
+        byte[] data = "{\"ts\":1},{\"ts\":22},{\"ts\":3}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(22.0, ParallelSortingJob.parseTimestamp(data, 9, 18, TS_KEY), 0.0);
+        // The key is after the end of the event
+        assertTrue(ParallelSortingJob.parseTimestamp(data, 0, 5, TS_KEY) < 0);
+    }
+
+    /**
+     * Test sorting a trace where events span the blocks read from the file,
+     * with strings containing the characters delimiting the events
+     *
+     * @throws IOException
+     *             if the files cannot be read or written
+     */
+    @Test
+    public void testEventsAcrossReadBuffers() throws IOException {
+        List<String> events = new ArrayList<>();
+        long ts = 1000000;
+        int size = 0;
+        int i = 0;
+        // Events until the second half of the second block
+        while (size < READ_BUFFER_SIZE * 5 / 2) {
+            String event;
+            if (i % 1000 == 0) {
+                // A large event, with the delimiters in strings
+                event = "{\"name\":\"big " + i + "\",\"ph\":\"i\",\"ts\":" + ts + ",\"args\":{\"s\":\"" + Strings.repeat("{[\\\"}]", 20000) + "\"}}";
+            } else {
+                event = "{\"name\":\"e " + i + "\",\"ph\":\"i\",\"ts\":" + ts + ",\"args\":{\"a\":[1,{\"b\":\"}\"}]}}";
+            }
+            events.add(event);
+            size += event.length() + 2;
+            // Events go back in time
+            ts -= i % 7;
+            i++;
+        }
+        assertSorted(events, 16 * 1024 * 1024);
+    }
+
+    /**
+     * Test the merge of many runs, with events with the same timestamp in
+     * different runs
+     *
+     * @throws IOException
+     *             if the files cannot be read or written
+     */
+    @Test
+    public void testMergeOrder() throws IOException {
+        Random random = new Random(42);
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            events.add("{\"name\":\"e " + i + "\",\"ph\":\"i\",\"ts\":" + random.nextInt(500) + "}");
+        }
+        // Runs of 4 kB, there are more runs than can be merged in one pass
+        assertSorted(events, 4096);
+    }
+
+    private static double parseTimestamp(String event) {
+        byte[] data = event.getBytes(StandardCharsets.UTF_8);
+        return ParallelSortingJob.parseTimestamp(data, 0, data.length, TS_KEY);
+    }
+
+    /**
+     * Write the events to a trace file, sort it and verify that the sorted
+     * events are the events sorted by timestamp, in the order of the trace for
+     * the events with the same timestamp
+     */
+    private void assertSorted(List<String> events, int chunkSize) throws IOException {
+        File traceFile = fDir.resolve("trace.json").toFile();
+        Files.write(traceFile.toPath(), ("{\"traceEvents\":[\n" + String.join(",\n", events) + "\n]}").getBytes(StandardCharsets.UTF_8));
+        File tempDir = Files.createDirectory(fDir.resolve("temp")).toFile();
+        File sortedFile = fDir.resolve("sorted.json").toFile();
+
+        ParallelSortingJob job = new TraceEventSortingJob(null, traceFile.getPath());
+        IStatus status = job.sortEvents(traceFile, tempDir, sortedFile, chunkSize, null);
+        assertTrue(status.isOK());
+
+        // The list sort is stable
+        List<String> expected = new ArrayList<>(events);
+        expected.sort(Comparator.comparingDouble(ParallelSortingJobTest::parseTimestamp));
+
+        List<String> lines = Files.readAllLines(sortedFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals("[", lines.get(0));
+        assertEquals("]", lines.get(lines.size() - 1));
+        List<String> actual = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size() - 1)) {
+            actual.add(line.endsWith(",") ? line.substring(0, line.length() - 1) : line);
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals("Event " + i, expected.get(i), actual.get(i));
+        }
+    }
+}
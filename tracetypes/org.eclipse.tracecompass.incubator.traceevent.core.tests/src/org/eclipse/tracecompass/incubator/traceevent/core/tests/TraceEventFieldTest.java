@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Map;
+
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.ITraceEventConstants;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.event.TraceEventField;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Test the parsing of the JSON strings of trace events in
+ * {@link TraceEventField}
+ */
+public class TraceEventFieldTest {
+
+    /**
+     * Test parsing an event with all the main fields
+     */
+    @Test
+    public void testParseFields() {
+        TraceEventField field = TraceEventField.parseJson("{\"name\":\"foo\",\"cat\":\"bar\",\"ph\":\"X\",\"ts\":15.5,\"dur\":20,\"pid\":3,\"tid\":4,\"id\":\"0x12\",\"args\":{\"a\":1,\"b\":\"two\"}}");
+        assertNotNull(field);
+        assertEquals("foo", field.getName());
+        assertEquals("bar", field.getCategory());
+        assertEquals('X', field.getPhase());
+        assertEquals(15500L, field.getTs());
+        assertEquals(Long.valueOf(20000L), field.getDuration());
+        assertEquals("3", String.valueOf(field.getPid()));
+        assertEquals(Integer.valueOf(4), field.getTid());
+        assertEquals("0x12", field.getId());
+        assertEquals(ImmutableMap.of("a", "1", "b", "two"), field.getArgs());
+
+        ITmfEventField content = field.getContent();
+        assertEquals("foo", content.getFieldValue(String.class, ITraceEventConstants.NAME));
+        assertEquals("X", content.getFieldValue(String.class, ITraceEventConstants.PHASE));
+        assertEquals("bar", content.getFieldValue(String.class, ITraceEventConstants.CATEGORY));
+        assertEquals(Integer.valueOf(4), content.getFieldValue(Integer.class, ITraceEventConstants.TID));
+        assertEquals(20000.0, content.getFieldValue(Double.class, ITraceEventConstants.DURATION), 0.0);
+        assertEquals("two", content.getFieldValue(String.class, ITraceEventConstants.ARGS + "/b"));
+        // The pid is a number, as it was with a Gson tree
+        assertNull(content.getFieldValue(String.class, ITraceEventConstants.PID));
+        assertNotNull(content.getFieldValue(Number.class, ITraceEventConstants.PID));
+    }
+
+    /**
+     * Test the default values of missing fields
+     */
+    @Test
+    public void testDefaults() {
+        assertNull(TraceEventField.parseJson("{}"));
+        assertNull(TraceEventField.parseJson("{\"name\":\"foo\"}"));
+
+        TraceEventField field = TraceEventField.parseJson("{\"ts\":\"10\"}");
+        assertNotNull(field);
+        assertEquals(10000L, field.getTs());
+        assertEquals('I', field.getPhase());
+        assertEquals(TraceEventField.UNKNOWN_EXIT_EVENT, field.getName());
+        assertNull(field.getTid());
+        assertNull(field.getPid());
+        assertNull(field.getDuration());
+        assertNull(field.getCategory());
+        assertNull(field.getArgs());
+
+        field = TraceEventField.parseJson("{\"ph\":\"E\",\"ts\":10,\"args\":{}}");
+        assertNotNull(field);
+        assertEquals(TraceEventField.UNKNOWN_DURATION_EXIT_EVENT, field.getName());
+        assertNull(field.getArgs());
+    }
+
+    /**
+     * Test strings with escaped characters, nested values and unknown keys
+     */
+    @Test
+    public void testEscapesAndNestedValues() {
+        TraceEventField field = TraceEventField.parseJson(" { \"other\" : [1, {\"x\":\"}\"}], \"n\\\"ame\":1, \"name\" : \"a \\\"quoted\\\" \\u0041\", \"pid\":\"Browser\", \"ts\" : 1 ,"
+                + "\"args\" : {\"obj\": {\"k\": [1, 2], \"s\": \"v\"}, \"nothing\": null, \"flag\": true}}");
+        assertNotNull(field);
+        assertEquals("a \"quoted\" A", field.getName());
+        assertEquals("Browser", field.getPid());
+        assertEquals(1000L, field.getTs());
+        Map<String, Object> args = field.getArgs();
+        assertNotNull(args);
+        assertEquals(ImmutableMap.of("obj", "{\"k\":[1,2],\"s\":\"v\"}", "nothing", "null", "flag", "true"), args);
+    }
+
+    /**
+     * Test that the lenient syntax accepted by Gson is still supported
+     */
+    @Test
+    public void testLenientSyntax() {
+        TraceEventField field = TraceEventField.parseJson("{\"name\": \"Mufasa\", \"pid\": 52, \"ts\": 100, \"tid\": 53, \"ph\": \"N\", id=\"0x100\"}");
+        assertNotNull(field);
+        assertEquals("Mufasa", field.getName());
+        assertEquals("0x100", field.getId());
+        assertEquals(100000L, field.getTs());
+        assertEquals(Integer.valueOf(53), field.getTid());
+    }
+
+    /**
+     * Test that the same event gives the same values whether it is parsed by
+     * the scanner or, with a lenient syntax, by Gson
+     */
+    @Test
+    public void testScannerAndLenientValues() {
+        TraceEventField strictField = TraceEventField.parseJson("{\"name\":\"foo\",\"cat\":\"bar\",\"ph\":\"X\",\"ts\":15.5,\"dur\":20,\"pid\":3,\"tid\":4,\"id\":\"0x12\",\"args\":{\"a\":1,\"b\":\"two\"}}");
+        TraceEventField lenientField = TraceEventField.parseJson("{name:'foo',cat:'bar',ph:'X',ts:15.5,dur:20,pid:3,tid:4,id:'0x12',args:{a:1,b:'two'}}");
+        assertNotNull(strictField);
+        assertNotNull(lenientField);
+
+        Object strictPid = strictField.getPid();
+        Object lenientPid = lenientField.getPid();
+        assertNotNull(strictPid);
+        assertNotNull(lenientPid);
+        assertEquals(lenientPid.getClass(), strictPid.getClass());
+        assertEquals(lenientPid.toString(), strictPid.toString());
+        assertEquals(((Number) lenientPid).intValue(), ((Number) strictPid).intValue());
+
+        assertEquals(lenientField.getName(), strictField.getName());
+        assertEquals(lenientField.getCategory(), strictField.getCategory());
+        assertEquals(lenientField.getPhase(), strictField.getPhase());
+        assertEquals(lenientField.getTs(), strictField.getTs());
+        assertEquals(lenientField.getDuration(), strictField.getDuration());
+        assertEquals(lenientField.getTid(), strictField.getTid());
+        assertEquals(lenientField.getId(), strictField.getId());
+        assertEquals(lenientField.getArgs(), strictField.getArgs());
+
+        ITmfEventField strictContent = strictField.getContent();
+        ITmfEventField lenientContent = lenientField.getContent();
+        assertEquals(ImmutableSet.copyOf(lenientContent.getFieldNames()), ImmutableSet.copyOf(strictContent.getFieldNames()));
+        for (String name : lenientContent.getFieldNames()) {
+            Object lenientValue = lenientContent.getFieldValue(Object.class, name);
+            Object strictValue = strictContent.getFieldValue(Object.class, name);
+            assertNotNull(name, lenientValue);
+            assertNotNull(name, strictValue);
+            assertEquals(name, lenientValue.getClass(), strictValue.getClass());
+            assertEquals(name, lenientValue.toString(), strictValue.toString());
+        }
+    }
+
+    /**
+     * Test that invalid JSON is rejected
+     */
+    @Test(expected = RuntimeException.class)
+    public void testInvalid() {
+        TraceEventField.parseJson("{\"ts\":1,\"name\":\"foo\"");
+    }
+}
@@ -44,7 +44,8 @@ public class TraceEventEvent extends TmfEvent implements ITmfSourceLookup {
      *            the event field, contains all the needed data
      */
     public TraceEventEvent(ITmfTrace trace, long rank, TraceEventField field) {
-        super(trace, rank, trace.createTimestamp(field.getTs()), TraceEventLookup.get(field.getPhase()), field.getContent());
+        // The content is built by the field only when it is requested
+        super(trace, rank, trace.createTimestamp(field.getTs()), TraceEventLookup.get(field.getPhase()), null);
         fField = field;
         fName = field.getName();
         fLogLevel = Level.INFO;
@@ -49,14 +49,26 @@ public class TraceEventField {
     private final long fTs;
     private final char fPhase;
     private final String fName;
-    private ITmfEventField fContent;
-    private final @Nullable Map<String, Object> fArgs;
-    private final @Nullable Integer fTid;
+    private final int fTid;
     private final @Nullable String fCategory;
     private final @Nullable String fId;
-    private final @Nullable Long fDuration;
+    private final double fDuration;
     private final @Nullable Object fPid;
 
+    /*
+     * The event's JSON string and the state needed to build the content and
+     * arguments when they are first requested
+     */
+    private final @Nullable String fJson;
+    private final int fArgsStart;
+    private final int fArgsEnd;
+    private final @Nullable String fTsText;
+    private final @Nullable String fPhaseText;
+    private final @Nullable String fScope;
+    private volatile @Nullable ITmfEventField fContent;
+    private volatile @Nullable Map<String, Object> fArgs;
+    private volatile boolean fArgsParsed;
+
     private static final Gson G_SON = new Gson();
 
     /**
@@ -69,6 +81,15 @@ public class TraceEventField {
     public static @Nullable TraceEventField parseJson(String fieldsString) {
         // looks like this
         // {"ts":94824347413117,"phase":"B","tid":39,"name":"TimeGraphView:BuildThread","args"={"trace":"django-httpd"}}
+        try {
+            return TraceEventParser.parse(fieldsString);
+        } catch (IllegalArgumentException e) {
+            // Not strict JSON, use Gson which also accepts the lenient syntax
+            return parseLenientJson(fieldsString);
+        }
+    }
+
+    private static @Nullable TraceEventField parseLenientJson(String fieldsString) {
         JsonObject root;
         Map<@NonNull String, @NonNull Object> argsMap = new HashMap<>();
         root = G_SON.fromJson(fieldsString, JsonObject.class);
@@ -162,6 +183,27 @@ public class TraceEventField {
         return optString(root, key, null);
     }
 
+    /**
+     * Constructor for fields parsed by the {@link TraceEventParser}, the
+     * arguments and content are built from the JSON string when requested
+     */
+    TraceEventField(String json, long ts, String tsText, String phase, String name, @Nullable Object pid, int tid, @Nullable String category, @Nullable String id, @Nullable String scope, double duration, int argsStart, int argsEnd) {
+        fJson = json;
+        fTs = ts;
+        fTsText = tsText;
+        fPhaseText = phase;
+        fPhase = phase.charAt(0);
+        fName = name;
+        fPid = pid;
+        fTid = tid;
+        fCategory = category;
+        fId = id;
+        fScope = scope;
+        fDuration = duration;
+        fArgsStart = argsStart;
+        fArgsEnd = argsEnd;
+    }
+
     /**
      * Constructor
      *
@@ -187,25 +229,79 @@ public class TraceEventField {
     protected TraceEventField(String name, long ts, String phase, @Nullable Object pid, @Nullable Integer tid, @Nullable String category, @Nullable String id, @Nullable Double duration, Map<String, Object> fields) {
         fName = name;
         fPid = pid;
-        fTid = tid;
+        fTid = tid == null ? Integer.MIN_VALUE : tid;
         fCategory = category;
         fId = id;
-        ITmfEventField[] array = fields.entrySet().stream()
-                .map(entry -> new TmfEventField(entry.getKey(), entry.getValue(), null))
-                .toArray(ITmfEventField[]::new);
-        fContent = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, fields, array);
-        fields.put(ITraceEventConstants.TIMESTAMP, ts / MICRO_TO_NANO);
+        fJson = null;
+        fArgsStart = -1;
+        fArgsEnd = -1;
+        fTsText = null;
+        fPhaseText = null;
+        fScope = null;
+        fContent = createContent(fields, ts);
         fTs = ts;
-        fDuration = duration == null ? null : Double.isFinite(duration) ? duration.longValue() : null;
+        fDuration = duration == null ? Double.NaN : duration;
         fPhase = phase.charAt(0);
+        fArgs = extractArgs(fields);
+        fArgsParsed = true;
+    }
+
+    private static @Nullable Map<String, Object> extractArgs(Map<String, Object> fields) {
         @SuppressWarnings("null")
         Map<@NonNull String, @NonNull Object> args = fields.entrySet().stream()
                 .filter(entry -> {
                     return entry.getKey().startsWith(ITraceEventConstants.ARGS + "/"); //$NON-NLS-1$
                 })
                 .collect(Collectors.toMap(entry -> entry.getKey().substring(5), Entry::getValue));
-        fArgs = args.isEmpty() ? null : args;
+        return args.isEmpty() ? null : args;
+    }
 
+    private static ITmfEventField createContent(Map<String, Object> fields, long ts) {
+        ITmfEventField[] array = fields.entrySet().stream()
+                .map(entry -> new TmfEventField(entry.getKey(), entry.getValue(), null))
+                .toArray(ITmfEventField[]::new);
+        ITmfEventField content = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, fields, array);
+        fields.put(ITraceEventConstants.TIMESTAMP, ts / MICRO_TO_NANO);
+        return content;
+    }
+
+    /**
+     * Build the map of all the fields of an event parsed from JSON, with the
+     * arguments prefixed by "args/"
+     */
+    private Map<String, Object> buildFields() {
+        Map<String, Object> fields = new HashMap<>();
+        String json = fJson;
+        if (json != null && fArgsStart >= 0) {
+            TraceEventParser.parseArgs(json, fArgsStart, fArgsEnd, ITraceEventConstants.ARGS + "/", fields); //$NON-NLS-1$
+        }
+        fields.put(ITraceEventConstants.TIMESTAMP, String.valueOf(fTsText));
+        fields.put(ITraceEventConstants.PHASE, String.valueOf(fPhaseText));
+        fields.put(ITraceEventConstants.NAME, fName);
+        Integer tid = getTid();
+        if (tid != null) {
+            fields.put(ITraceEventConstants.TID, tid);
+        }
+        Object pid = fPid;
+        if (pid != null) {
+            fields.put(ITraceEventConstants.PID, pid);
+        }
+        if (Double.isFinite(fDuration)) {
+            fields.put(ITraceEventConstants.DURATION, fDuration);
+        }
+        String category = fCategory;
+        if (category != null) {
+            fields.put(ITraceEventConstants.CATEGORY, category);
+        }
+        String id = fId;
+        if (id != null) {
+            fields.put(ITraceEventConstants.ID, id);
+        }
+        String scope = fScope;
+        if (scope != null) {
+            fields.put(ITraceEventConstants.SCOPE, scope);
+        }
+        return fields;
     }
 
     /**
@@ -223,7 +319,16 @@ public class TraceEventField {
      * @return the event content
      */
     public ITmfEventField getContent() {
-        return fContent;
+        ITmfEventField content = fContent;
+        if (content == null) {
+            /*
+             * Concurrent readers may both build the content, they will get
+             * equal fields
+             */
+            content = createContent(buildFields(), fTs);
+            fContent = content;
+        }
+        return content;
     }
 
     /**
@@ -259,7 +364,7 @@ public class TraceEventField {
      * @return the event TID
      */
     public @Nullable Integer getTid() {
-        return fTid;
+        return fTid == Integer.MIN_VALUE ? null : fTid;
     }
 
     /**
@@ -278,7 +383,7 @@ public class TraceEventField {
      */
     @Nullable
     public Long getDuration() {
-        return fDuration;
+        return Double.isFinite(fDuration) ? (long) fDuration : null;
     }
 
     /**
@@ -298,6 +403,10 @@ public class TraceEventField {
      */
     @Nullable
     public Map<String, Object> getArgs() {
+        if (!fArgsParsed) {
+            fArgs = fArgsStart < 0 ? null : extractArgs(buildFields());
+            fArgsParsed = true;
+        }
         return fArgs;
     }
 }
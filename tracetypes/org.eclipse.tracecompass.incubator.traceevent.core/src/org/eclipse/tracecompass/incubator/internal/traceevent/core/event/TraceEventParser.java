@@ -0,0 +1,554 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.traceevent.core.event;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Single pass scanner for the JSON objects of the trace event format. Instead
+ * of building a generic JSON tree for every event, it extracts the fields that
+ * are needed for every event (ph, ts, dur, pid, tid, name, cat, id, scope)
+ * directly into primitives and only keeps the position of the "args" object,
+ * which is parsed by {@link #parseArgs(String, int, int, String, Map)} when the
+ * arguments
+ * are requested.
+ *
+ * The values obtained are the same as with a Gson tree: strings are unescaped,
+ * numbers read as strings keep their textual representation and non-primitive
+ * arguments are serialized back to compact JSON.
+ */
+@NonNullByDefault
+final class TraceEventParser {
+
+    private static final double MICRO_TO_NANO = 1000.0;
+    private static final String DEFAULT_PHASE = "I"; //$NON-NLS-1$
+    private static final String NULL = "null"; //$NON-NLS-1$
+    private static final Gson G_SON = new Gson();
+
+    /*
+     * Cache of the recent short strings (names, categories, phases, pids),
+     * which are heavily repeated in a trace. Races between threads only cause
+     * cache misses, as strings are immutable.
+     */
+    private static final int CACHE_SIZE = 1 << 12;
+    private static final int MAX_CACHED_LENGTH = 64;
+    private static final @Nullable String[] STRING_CACHE = new String[CACHE_SIZE];
+    private static final @Nullable Number[] NUMBER_CACHE = new Number[CACHE_SIZE];
+
+    private final String fJson;
+    private final int fLength;
+    private int fPos;
+
+    /* Fields of the event being parsed */
+    private double fTsUs = Double.NaN;
+    private @Nullable String fTsText = null;
+    private @Nullable String fPhase = null;
+    private @Nullable String fName = null;
+    private int fTid = Integer.MIN_VALUE;
+    private @Nullable Object fPid = null;
+    private double fDurationUs = Double.NaN;
+    private @Nullable String fCategory = null;
+    private @Nullable String fId = null;
+    private @Nullable String fScope = null;
+    private int fArgsStart = -1;
+    private int fArgsEnd = -1;
+
+    private TraceEventParser(String json) {
+        fJson = json;
+        fLength = json.length();
+    }
+
+    /**
+     * Parse the JSON object of a trace event
+     *
+     * @param json
+     *            The JSON string of one event
+     * @return The trace event field, or <code>null</code> if the object is
+     *         empty or has no timestamp
+     * @throws IllegalArgumentException
+     *             If the string is not a valid JSON object
+     */
+    public static @Nullable TraceEventField parse(String json) {
+        TraceEventParser parser = new TraceEventParser(json);
+        if (!parser.parseObject()) {
+            return null;
+        }
+        String tsText = parser.fTsText;
+        if (tsText == null) {
+            return null;
+        }
+        long ts = 0;
+        if (Double.isFinite(parser.fTsUs)) {
+            ts = (long) (parser.fTsUs * MICRO_TO_NANO);
+        }
+        String phase = parser.fPhase;
+        if (phase == null || phase.isEmpty()) {
+            phase = DEFAULT_PHASE;
+        }
+        String name = parser.fName;
+        if (name == null) {
+            // We differentiate between the duration exit and the other exits
+            name = TraceEventPhases.DURATION_END.equals(phase) ? TraceEventField.UNKNOWN_DURATION_EXIT_EVENT : TraceEventField.UNKNOWN_EXIT_EVENT;
+        }
+        double duration = parser.fDurationUs * MICRO_TO_NANO;
+        return new TraceEventField(json, ts, tsText, phase, name, parser.fPid, parser.fTid, parser.fCategory, parser.fId, parser.fScope, duration, parser.fArgsStart, parser.fArgsEnd);
+    }
+
+    /**
+     * Parse the "args" object of an event, whose position was kept by the
+     * {@link #parse(String)} method
+     *
+     * @param json
+     *            The JSON string of the event
+     * @param start
+     *            The position of the opening brace of the args object
+     * @param end
+     *            The position after the closing brace of the args object
+     * @param prefix
+     *            The prefix to add to the argument names
+     * @param args
+     *            The map to fill with the arguments, in the order they appear
+     *            in the object. The values are strings.
+     */
+    public static void parseArgs(String json, int start, int end, String prefix, Map<String, Object> args) {
+        TraceEventParser parser = new TraceEventParser(json);
+        parser.fPos = start + 1;
+        parser.skipWhitespace();
+        if (parser.peek() == '}') {
+            return;
+        }
+        while (parser.fPos < end) {
+            parser.skipWhitespace();
+            String key = parser.readString(false);
+            parser.expectColon();
+            char c = parser.peek();
+            String value;
+            if (c == '{' || c == '[') {
+                // Serialize nested values the same way as Gson
+                int valueStart = parser.fPos;
+                parser.skipValue();
+                value = String.valueOf(G_SON.fromJson(json.substring(valueStart, parser.fPos), JsonElement.class));
+            } else {
+                String scalar = parser.readScalar(false);
+                value = scalar == null ? NULL : scalar;
+            }
+            args.put(prefix + key, value);
+            if (!parser.nextMember()) {
+                break;
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Scanning
+    // ------------------------------------------------------------------------
+
+    /**
+     * Parse the root object
+     *
+     * @return <code>false</code> if the object is empty
+     */
+    private boolean parseObject() {
+        skipWhitespace();
+        if (peek() != '{') {
+            throw error("Expected an object"); //$NON-NLS-1$
+        }
+        fPos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            return false;
+        }
+        do {
+            skipWhitespace();
+            readMember();
+        } while (nextMember());
+        return true;
+    }
+
+    private void readMember() {
+        if (peek() != '"') {
+            throw error("Expected a key"); //$NON-NLS-1$
+        }
+        int keyStart = fPos + 1;
+        int keyEnd = fJson.indexOf('"', keyStart);
+        if (keyEnd < 0) {
+            throw error("Unterminated key"); //$NON-NLS-1$
+        }
+        if (fJson.lastIndexOf('\\', keyEnd) >= keyStart) {
+            // Escaped keys are not one of the known keys
+            readString(false);
+            expectColon();
+            skipValue();
+            return;
+        }
+        fPos = keyEnd + 1;
+        expectColon();
+        switch (keyEnd - keyStart) {
+        case 2:
+            if (keyIs(keyStart, ITraceEventConstants.TIMESTAMP)) {
+                readTimestamp();
+                return;
+            } else if (keyIs(keyStart, ITraceEventConstants.PHASE)) {
+                fPhase = readScalar(true);
+                return;
+            } else if (keyIs(keyStart, ITraceEventConstants.ID)) {
+                fId = readScalar(false);
+                return;
+            }
+            break;
+        case 3:
+            if (keyIs(keyStart, ITraceEventConstants.TID)) {
+                String tid = readScalar(false);
+                fTid = tid == null ? Integer.MIN_VALUE : toInt(tid);
+                return;
+            } else if (keyIs(keyStart, ITraceEventConstants.PID)) {
+                readPid();
+                return;
+            } else if (keyIs(keyStart, ITraceEventConstants.DURATION)) {
+                String duration = readScalar(false);
+                fDurationUs = duration == null ? Double.NaN : Double.parseDouble(duration);
+                return;
+            } else if (keyIs(keyStart, ITraceEventConstants.CATEGORY)) {
+                fCategory = readScalar(true);
+                return;
+            }
+            break;
+        case 4:
+            if (keyIs(keyStart, ITraceEventConstants.NAME)) {
+                fName = readScalar(true);
+                return;
+            } else if (keyIs(keyStart, ITraceEventConstants.ARGS)) {
+                if (peek() == '{') {
+                    fArgsStart = fPos;
+                    skipValue();
+                    fArgsEnd = fPos;
+                } else {
+                    skipValue();
+                }
+                return;
+            }
+            break;
+        case 5:
+            if (keyIs(keyStart, ITraceEventConstants.SCOPE)) {
+                fScope = readScalar(false);
+                return;
+            }
+            break;
+        default:
+            break;
+        }
+        skipValue();
+    }
+
+    private boolean keyIs(int keyStart, String key) {
+        return fJson.startsWith(key, keyStart);
+    }
+
+    private void readTimestamp() {
+        if (peek() == '"') {
+            String ts = readString(false);
+            fTsText = ts;
+            fTsUs = Double.parseDouble(ts);
+            return;
+        }
+        int start = fPos;
+        long integer = 0;
+        int digits = 0;
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            fPos++;
+        }
+        while (fPos < fLength) {
+            char c = fJson.charAt(fPos);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            integer = integer * 10 + (c - '0');
+            digits++;
+            fPos++;
+        }
+        char next = peek();
+        if (digits > 0 && digits < 18 && next != '.' && next != 'e' && next != 'E') {
+            // Fast path for integer timestamps
+            fTsText = fJson.substring(start, fPos);
+            fTsUs = negative ? -integer : integer;
+            return;
+        }
+        fPos = start;
+        String ts = readScalar(false);
+        if (ts == null) {
+            throw error("Invalid timestamp"); //$NON-NLS-1$
+        }
+        fTsText = ts;
+        fTsUs = Double.parseDouble(ts);
+    }
+
+    private void readPid() {
+        char c = peek();
+        if (c == '"') {
+            fPid = readString(true);
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            String pid = readScalar(true);
+            fPid = pid == null ? null : toNumber(pid);
+        } else {
+            // Booleans, null, objects and arrays are not valid pids
+            skipValue();
+        }
+    }
+
+    /**
+     * Read a string, number or boolean value as a string
+     *
+     * @param cache
+     *            Whether the value is likely repeated and should be
+     *            deduplicated
+     * @return The value, or <code>null</code> for null values, objects and
+     *         arrays
+     */
+    private @Nullable String readScalar(boolean cache) {
+        char c = peek();
+        if (c == '"') {
+            return readString(cache);
+        }
+        if (c == '{' || c == '[') {
+            skipValue();
+            return null;
+        }
+        int start = fPos;
+        while (fPos < fLength) {
+            char ch = fJson.charAt(fPos);
+            if (ch == ',' || ch == '}' || ch == ']' || isWhitespace(ch)) {
+                break;
+            }
+            fPos++;
+        }
+        if (start == fPos) {
+            throw error("Expected a value"); //$NON-NLS-1$
+        }
+        if (fPos - start == NULL.length() && fJson.startsWith(NULL, start)) {
+            return null;
+        }
+        return cache ? substring(start, fPos) : fJson.substring(start, fPos);
+    }
+
+    private String readString(boolean cache) {
+        if (peek() != '"') {
+            throw error("Expected a string"); //$NON-NLS-1$
+        }
+        int start = fPos + 1;
+        int pos = start;
+        while (pos < fLength) {
+            char c = fJson.charAt(pos);
+            if (c == '"') {
+                fPos = pos + 1;
+                return cache ? substring(start, pos) : fJson.substring(start, pos);
+            }
+            if (c == '\\') {
+                return readEscapedString(start, pos);
+            }
+            pos++;
+        }
+        throw error("Unterminated string"); //$NON-NLS-1$
+    }
+
+    private String readEscapedString(int start, int firstEscape) {
+        StringBuilder sb = new StringBuilder(firstEscape - start + 16);
+        sb.append(fJson, start, firstEscape);
+        int pos = firstEscape;
+        while (pos < fLength) {
+            char c = fJson.charAt(pos++);
+            if (c == '"') {
+                fPos = pos;
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= fLength) {
+                break;
+            }
+            char escaped = fJson.charAt(pos++);
+            switch (escaped) {
+            case 'b':
+                sb.append('\b');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'u':
+                if (pos + 4 > fLength) {
+                    throw error("Invalid unicode escape"); //$NON-NLS-1$
+                }
+                sb.append((char) Integer.parseInt(fJson.substring(pos, pos + 4), 16));
+                pos += 4;
+                break;
+            default:
+                sb.append(escaped);
+                break;
+            }
+        }
+        throw error("Unterminated string"); //$NON-NLS-1$
+    }
+
+    /**
+     * Skip a value of any type, the position is set after the value
+     */
+    private void skipValue() {
+        char c = peek();
+        if (c != '{' && c != '[') {
+            if (c == '"') {
+                readString(false);
+            } else {
+                readScalar(false);
+            }
+            return;
+        }
+        int depth = 0;
+        while (fPos < fLength) {
+            char ch = fJson.charAt(fPos);
+            switch (ch) {
+            case '"':
+                readString(false);
+                continue;
+            case '{':
+            case '[':
+                depth++;
+                break;
+            case '}':
+            case ']':
+                depth--;
+                if (depth == 0) {
+                    fPos++;
+                    return;
+                }
+                break;
+            default:
+                break;
+            }
+            fPos++;
+        }
+        throw error("Unterminated value"); //$NON-NLS-1$
+    }
+
+    /**
+     * Move to the next member of an object
+     *
+     * @return <code>true</code> if there is another member,
+     *         <code>false</code> if the end of the object was reached
+     */
+    private boolean nextMember() {
+        skipWhitespace();
+        char c = peek();
+        fPos++;
+        if (c == ',') {
+            return true;
+        }
+        if (c == '}') {
+            return false;
+        }
+        throw error("Expected ',' or '}'"); //$NON-NLS-1$
+    }
+
+    private void expectColon() {
+        skipWhitespace();
+        if (peek() != ':') {
+            throw error("Expected ':'"); //$NON-NLS-1$
+        }
+        fPos++;
+        skipWhitespace();
+    }
+
+    private void skipWhitespace() {
+        while (fPos < fLength && isWhitespace(fJson.charAt(fPos))) {
+            fPos++;
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private char peek() {
+        return fPos < fLength ? fJson.charAt(fPos) : 0;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + fPos + ": " + fJson); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Get a substring, reusing a previous string instance with the same
+     * content if it is in the cache
+     */
+    private String substring(int start, int end) {
+        int length = end - start;
+        if (length > MAX_CACHED_LENGTH) {
+            return fJson.substring(start, end);
+        }
+        int hash = length;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + fJson.charAt(i);
+        }
+        int index = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+        String cached = STRING_CACHE[index];
+        if (cached != null && cached.length() == length && fJson.startsWith(cached, start)) {
+            return cached;
+        }
+        String value = fJson.substring(start, end);
+        STRING_CACHE[index] = value;
+        return value;
+    }
+
+    /**
+     * Get the number for a numeric value, of the same type as the numbers of a
+     * Gson tree, so that the values are the same whether the event was parsed
+     * by this class or by Gson. The pids are heavily repeated, so the numbers
+     * are kept in a cache indexed by their textual form.
+     */
+    private static Number toNumber(String value) {
+        int index = (value.hashCode() ^ (value.hashCode() >>> 16)) & (CACHE_SIZE - 1);
+        Number cached = NUMBER_CACHE[index];
+        if (cached != null && cached.toString().equals(value)) {
+            return cached;
+        }
+        Number number = G_SON.fromJson(value, JsonPrimitive.class).getAsNumber();
+        NUMBER_CACHE[index] = number;
+        return number;
+    }
+
+    private static int toInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return new BigDecimal(value).intValue();
+        }
+    }
+}
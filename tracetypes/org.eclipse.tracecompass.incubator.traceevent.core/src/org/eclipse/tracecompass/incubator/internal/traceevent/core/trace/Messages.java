@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.traceevent.core.trace;
+
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Messages
+ */
+public class Messages extends NLS {
+    private static final String BUNDLE_NAME = "org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.messages"; //$NON-NLS-1$
+    /**
+     * Name of the sorting job
+     */
+    public static String SortingJob_description;
+    /**
+     * Main task of the sorting job
+     */
+    public static String SortingJob_sorting;
+    /**
+     * Task to split the trace in sorted runs
+     */
+    public static String SortingJob_splitting;
+    /**
+     * Task to merge the sorted runs
+     */
+    public static String SortingJob_merging;
+
+    static {
+        // initialize resource bundle
+        NLS.initializeMessages(BUNDLE_NAME, Messages.class);
+    }
+
+    private Messages() {
+    }
+}
@@ -0,0 +1,711 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.traceevent.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.Activator;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Job that sorts the events of a JSON trace by timestamp into a supplementary
+ * file, for traces whose events are not guaranteed to be in order. It produces
+ * the same file as the JSON trace's sorting job, but is made for large traces:
+ *
+ * <ul>
+ * <li>The trace is read in large blocks and split into chunks of events
+ * without decoding the bytes.</li>
+ * <li>Each chunk is handled by a thread of a pool: the timestamps are parsed
+ * into primitives, the events are sorted and written to a binary run file
+ * where each event is preceded by its timestamp and length.</li>
+ * <li>The runs are merged with a k-way merge, which only compares the
+ * timestamps read from the run files and copies the bytes of the events to
+ * the sorted file.</li>
+ * </ul>
+ *
+ * Events with the same timestamp keep the order they have in the trace.
+ */
+public abstract class ParallelSortingJob extends Job {
+
+    /** Approximate number of bytes of events per sorted run */
+    private static final int CHUNK_SIZE = 16 * 1024 * 1024;
+    /** Maximum number of runs to merge at once, to limit the open files */
+    private static final int MAX_MERGE_WIDTH = 128;
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+    private static final int RUN_BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_UNIT = 1024 * 1024;
+    private static final double NO_TIMESTAMP = -1;
+
+    private final @Nullable ITmfTrace fTrace;
+    private final String fPath;
+    private final byte[] fTsKey;
+    private final int fBracketsToSkip;
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            the trace to be sorted, it can only be null to sort the
+     *            events of a file with {@link #sortEvents}
+     * @param path
+     *            the path to the trace file
+     * @param tsKey
+     *            the key of the timestamp in the event, including the quotes
+     *            and the colon, for example <code>"ts":</code>
+     * @param bracketsToSkip
+     *            the number of opening brackets to skip before reaching the
+     *            array of events
+     */
+    public ParallelSortingJob(@Nullable ITmfTrace trace, String path, String tsKey, int bracketsToSkip) {
+        super(Messages.SortingJob_description);
+        fTrace = trace;
+        fPath = path;
+        fTsKey = tsKey.getBytes(StandardCharsets.UTF_8);
+        fBracketsToSkip = bracketsToSkip;
+    }
+
+    /**
+     * Getter for the trace path
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return fPath;
+    }
+
+    /**
+     * Process the metadata of the trace, which are not part of the events
+     *
+     * @param trace
+     *            the trace
+     * @param dir
+     *            the supplementary files directory
+     * @throws IOException
+     *             Exceptions reading the file
+     */
+    protected abstract void processMetadata(ITmfTrace trace, String dir) throws IOException;
+
+    @Override
+    protected IStatus run(@Nullable IProgressMonitor monitor) {
+        ITmfTrace trace = fTrace;
+        if (trace == null) {
+            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Trace cannot be null"); //$NON-NLS-1$
+        }
+        String dir = TmfTraceManager.getSupplementaryFileDir(trace);
+        File traceFile = new File(fPath);
+        File tempDir = new File(dir, ".sort-" + traceFile.getName()); //$NON-NLS-1$
+        tempDir.mkdirs();
+        try {
+            processMetadata(trace, dir);
+            File sortedFile = new File(dir, new File(trace.getPath()).getName());
+            File tempFile = new File(tempDir, sortedFile.getName());
+            IStatus status = sortEvents(traceFile, tempDir, tempFile, CHUNK_SIZE, monitor);
+            if (!status.isOK()) {
+                return status;
+            }
+            // Only make the sorted file available once it is complete
+            Files.move(tempFile.toPath(), sortedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Activator.getInstance().logError("Error sorting the trace " + fPath, e); //$NON-NLS-1$
+            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Error sorting the trace " + fPath, e); //$NON-NLS-1$
+        } finally {
+            // The sorting threads are terminated, nothing writes to those files
+            File[] files = tempDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            tempDir.delete();
+        }
+        return Status.OK_STATUS;
+    }
+
+    /**
+     * Sort the events of a trace file into a JSON array of events. The sorting
+     * threads are all terminated when this method returns, even if it was
+     * cancelled or failed.
+     *
+     * @param traceFile
+     *            the trace file to sort
+     * @param tempDir
+     *            the directory where to write the temporary run files
+     * @param sortedFile
+     *            the file where to write the sorted events
+     * @param chunkSize
+     *            the approximate number of bytes of events per sorted run
+     * @param monitor
+     *            the progress monitor
+     * @return the status of the sort, {@link Status#CANCEL_STATUS} if it was
+     *         cancelled
+     * @throws IOException
+     *             Exceptions reading the trace or writing the files
+     */
+    @VisibleForTesting
+    public IStatus sortEvents(File traceFile, File tempDir, File sortedFile, int chunkSize, @Nullable IProgressMonitor monitor) throws IOException {
+        // Work is counted in megabytes, once to split and once to merge
+        int work = (int) Math.min(Integer.MAX_VALUE / 2, traceFile.length() / PROGRESS_UNIT + 1);
+        SubMonitor subMonitor = SubMonitor.convert(monitor, Messages.SortingJob_sorting, 2 * work);
+        try {
+            List<File> runs = new ArrayList<>();
+            subMonitor.subTask(Messages.SortingJob_splitting);
+            IStatus status = split(traceFile, tempDir, runs, chunkSize, subMonitor.split(work));
+            if (!status.isOK()) {
+                return status;
+            }
+
+            subMonitor.subTask(Messages.SortingJob_merging);
+            return merge(runs, tempDir, sortedFile, subMonitor.split(work));
+        } finally {
+            subMonitor.done();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Splitting into sorted runs
+    // ------------------------------------------------------------------------
+
+    /**
+     * A chunk of events, the bytes of the events are copied one after the
+     * other in the data array
+     */
+    private static class Chunk {
+        private byte[] fData;
+        private int fSize = 0;
+        private int[] fStarts;
+        private int fCount = 0;
+
+        public Chunk(int chunkSize) {
+            // A chunk is complete at the end of the event that fills it
+            fData = new byte[chunkSize + Math.min(chunkSize, READ_BUFFER_SIZE)];
+            fStarts = new int[Math.max(16, chunkSize / 256)];
+        }
+
+        public void append(byte[] buffer, int from, int to) {
+            int length = to - from;
+            if (fSize + length > fData.length) {
+                fData = Arrays.copyOf(fData, Math.max(fData.length * 2, fSize + length));
+            }
+            System.arraycopy(buffer, from, fData, fSize, length);
+            fSize += length;
+        }
+
+        public void endEvent(int start) {
+            if (fCount + 1 >= fStarts.length) {
+                fStarts = Arrays.copyOf(fStarts, fStarts.length * 2);
+            }
+            fStarts[fCount++] = start;
+            fStarts[fCount] = fSize;
+        }
+    }
+
+    private IStatus split(File traceFile, File tempDir, List<File> runs, int chunkSize, SubMonitor monitor) throws IOException {
+        int nbThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+        // Limit the number of chunks in memory
+        Semaphore chunks = new Semaphore(Math.min(nbThreads, 4) + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        try (InputStream input = new FileInputStream(traceFile)) {
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int read = input.read(buffer);
+            int pos = 0;
+            long totalRead = Math.max(read, 0);
+            long reported = 0;
+
+            // Skip to the array of events
+            for (int i = 0; i < fBracketsToSkip; i++) {
+                while (true) {
+                    if (pos >= read) {
+                        read = input.read(buffer);
+                        pos = 0;
+                        totalRead += Math.max(read, 0);
+                        if (read < 0) {
+                            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Missing symbol \'[\' "); //$NON-NLS-1$
+                        }
+                    }
+                    if (buffer[pos++] == '[') {
+                        break;
+                    }
+                }
+            }
+
+            /*
+             * Scan the events: an event is a JSON object in the array, the
+             * end of the array terminates the events
+             */
+            Chunk chunk = new Chunk(chunkSize);
+            int objectDepth = 0;
+            int arrayDepth = 0;
+            boolean inString = false;
+            boolean escaped = false;
+            int eventStart = 0;
+            boolean done = false;
+            while (read >= 0 && !done) {
+                int copyFrom = objectDepth > 0 ? pos : -1;
+                for (; pos < read; pos++) {
+                    byte b = buffer[pos];
+                    if (inString) {
+                        if (escaped) {
+                            escaped = false;
+                        } else if (b == '\\') {
+                            escaped = true;
+                        } else if (b == '"') {
+                            inString = false;
+                        }
+                        continue;
+                    }
+                    switch (b) {
+                    case '"':
+                        inString = objectDepth > 0;
+                        break;
+                    case '{':
+                        if (objectDepth == 0 && arrayDepth == 0) {
+                            copyFrom = pos;
+                            eventStart = chunk.fSize;
+                        }
+                        objectDepth++;
+                        break;
+                    case '}':
+                        if (objectDepth > 0 && --objectDepth == 0 && arrayDepth == 0) {
+                            chunk.append(buffer, copyFrom, pos + 1);
+                            copyFrom = -1;
+                            chunk.endEvent(eventStart);
+                            if (chunk.fSize >= chunkSize) {
+                                submit(pool, chunks, chunk, tempDir, runs, futures);
+                                chunk = new Chunk(chunkSize);
+                            }
+                        }
+                        break;
+                    case '[':
+                        arrayDepth++;
+                        break;
+                    case ']':
+                        if (arrayDepth == 0) {
+                            done = true;
+                        } else {
+                            arrayDepth--;
+                        }
+                        break;
+                    default:
+                        break;
+                    }
+                    if (done) {
+                        break;
+                    }
+                }
+                if (copyFrom >= 0) {
+                    // Event continues in the next buffer
+                    chunk.append(buffer, copyFrom, Math.min(pos, read));
+                }
+                monitor.worked((int) (totalRead / PROGRESS_UNIT - reported));
+                reported = totalRead / PROGRESS_UNIT;
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
+                if (!done) {
+                    read = input.read(buffer);
+                    pos = 0;
+                    totalRead += Math.max(read, 0);
+                }
+            }
+            if (chunk.fCount > 0) {
+                submit(pool, chunks, chunk, tempDir, runs, futures);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Status.CANCEL_STATUS;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw (cause instanceof IOException) ? (IOException) cause : new IOException(cause);
+        } finally {
+            shutdownAndWait(pool);
+        }
+        return Status.OK_STATUS;
+    }
+
+    /**
+     * Stop the sorting threads and wait until they are terminated, so that no
+     * thread still writes to the temporary files when they are deleted. A
+     * thread writing a run is not interruptible, but it only has one chunk to
+     * write.
+     */
+    private static void shutdownAndWait(ExecutorService pool) {
+        pool.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(ExecutorService pool, Semaphore chunks, Chunk chunk, File tempDir, List<File> runs, List<Future<?>> futures) throws InterruptedException {
+        File runFile = new File(tempDir, "run" + runs.size()); //$NON-NLS-1$
+        runs.add(runFile);
+        chunks.acquire();
+        futures.add(pool.submit(() -> {
+            try {
+                writeRun(chunk, runFile);
+            } finally {
+                chunks.release();
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Parse the timestamps of a chunk's events, sort them and write them to a
+     * run file
+     */
+    private void writeRun(Chunk chunk, File runFile) throws IOException {
+        int count = chunk.fCount;
+        int[] starts = chunk.fStarts;
+        byte[] data = chunk.fData;
+        double[] timestamps = new double[count];
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = parseTimestamp(data, starts[i], starts[i + 1], fTsKey);
+            order[i] = i;
+        }
+        sort(order, timestamps);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(runFile), RUN_BUFFER_SIZE))) {
+            for (int i = 0; i < count; i++) {
+                int event = order[i];
+                int start = starts[event];
+                int length = starts[event + 1] - start;
+                output.writeDouble(timestamps[event]);
+                output.writeInt(length);
+                output.write(data, start, length);
+            }
+        }
+    }
+
+    /**
+     * Get the value of the first occurrence of the timestamp key in an event
+     *
+     * @param data
+     *            the bytes of the events
+     * @param start
+     *            the position of the event in the data
+     * @param end
+     *            the position after the event in the data
+     * @param key
+     *            the key of the timestamp, including the quotes and the colon
+     * @return the timestamp, or a negative value if the key is not found
+     */
+    @VisibleForTesting
+    public static double parseTimestamp(byte[] data, int start, int end, byte[] key) {
+        int index = indexOf(data, start, end, key);
+        if (index < 0) {
+            return NO_TIMESTAMP;
+        }
+        int pos = index + key.length;
+        while (pos < end && (data[pos] == ' ' || data[pos] == '"' || data[pos] == '\t' || data[pos] == '\r' || data[pos] == '\n')) {
+            pos++;
+        }
+        // Fast path for integer values
+        long value = 0;
+        int digits = 0;
+        int numberStart = pos;
+        while (pos < end && data[pos] >= '0' && data[pos] <= '9' && digits < 18) {
+            value = value * 10 + (data[pos] - '0');
+            digits++;
+            pos++;
+        }
+        byte next = pos < end ? data[pos] : (byte) '}';
+        if (digits > 0 && (next == ',' || next == '}' || next == '"' || next == ' ' || next == '\n' || next == '\r' || next == '\t')) {
+            return value;
+        }
+        int numberEnd = numberStart;
+        while (numberEnd < end && data[numberEnd] != ',' && data[numberEnd] != '}' && data[numberEnd] != '"') {
+            numberEnd++;
+        }
+        String number = new String(data, numberStart, numberEnd - numberStart, StandardCharsets.UTF_8).trim();
+        if (number.isEmpty()) {
+            return NO_TIMESTAMP;
+        }
+        try {
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            return NO_TIMESTAMP;
+        }
+    }
+
+    private static int indexOf(byte[] data, int start, int end, byte[] key) {
+        int last = end - key.length;
+        byte first = key[0];
+        for (int i = start; i <= last; i++) {
+            if (data[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < key.length && data[i + j] == key[j]) {
+                j++;
+            }
+            if (j == key.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stable merge sort of the event indexes by timestamp
+     */
+    private static void sort(int[] order, double[] timestamps) {
+        int[] src = order;
+        int[] dst = new int[order.length];
+        for (int width = 1; width < order.length; width *= 2) {
+            for (int lo = 0; lo < order.length; lo += 2 * width) {
+                int mid = Math.min(lo + width, order.length);
+                int hi = Math.min(lo + 2 * width, order.length);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    if (i < mid && (j >= hi || timestamps[src[i]] <= timestamps[src[j]])) {
+                        dst[k] = src[i++];
+                    } else {
+                        dst[k] = src[j++];
+                    }
+                }
+            }
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if (src != order) {
+            System.arraycopy(src, 0, order, 0, order.length);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Merging the runs
+    // ------------------------------------------------------------------------
+
+    /**
+     * Reader of the events of a run file
+     */
+    private static class RunReader implements AutoCloseable {
+        private final DataInputStream fInput;
+        private double fTimestamp;
+        private byte[] fEvent = new byte[256];
+        private int fLength;
+
+        public RunReader(File file) throws IOException {
+            fInput = new DataInputStream(new BufferedInputStream(new FileInputStream(file), RUN_BUFFER_SIZE));
+        }
+
+        /**
+         * Read the next event
+         *
+         * @return <code>false</code> if there are no more events
+         */
+        public boolean next() throws IOException {
+            try {
+                fTimestamp = fInput.readDouble();
+            } catch (EOFException e) {
+                return false;
+            }
+            fLength = fInput.readInt();
+            if (fLength > fEvent.length) {
+                fEvent = new byte[Math.max(fLength, fEvent.length * 2)];
+            }
+            fInput.readFully(fEvent, 0, fLength);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            fInput.close();
+        }
+    }
+
+    private static IStatus merge(List<File> runs, File tempDir, File sortedFile, SubMonitor monitor) throws IOException {
+        List<File> toMerge = runs;
+        int pass = 0;
+        // Merge the runs in several passes if there are too many
+        while (toMerge.size() > MAX_MERGE_WIDTH) {
+            List<File> merged = new ArrayList<>();
+            for (int i = 0; i < toMerge.size(); i += MAX_MERGE_WIDTH) {
+                List<File> group = toMerge.subList(i, Math.min(i + MAX_MERGE_WIDTH, toMerge.size()));
+                File mergedRun = new File(tempDir, "merge" + pass + '-' + merged.size()); //$NON-NLS-1$
+                try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(mergedRun), RUN_BUFFER_SIZE))) {
+                    if (!mergeRuns(group, output, false, null)) {
+                        return Status.CANCEL_STATUS;
+                    }
+                }
+                group.forEach(File::delete);
+                merged.add(mergedRun);
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
+            }
+            toMerge = merged;
+            pass++;
+        }
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(sortedFile), RUN_BUFFER_SIZE)) {
+            output.write('[');
+            output.write('\n');
+            if (!mergeRuns(toMerge, output, true, monitor)) {
+                return Status.CANCEL_STATUS;
+            }
+            output.write('\n');
+            output.write(']');
+            output.write('\n');
+        }
+        return Status.OK_STATUS;
+    }
+
+    /**
+     * Merge runs, either into another run or into the JSON array of the sorted
+     * trace. The readers are kept in a heap ordered by timestamp then run
+     * index, so that the order of events with the same timestamp is kept.
+     *
+     * @return <code>false</code> if the monitor was cancelled
+     */
+    private static boolean mergeRuns(List<File> runs, OutputStream output, boolean json, @Nullable SubMonitor monitor) throws IOException {
+        RunReader[] readers = new RunReader[runs.size()];
+        try {
+            int[] heap = new int[runs.size()];
+            int size = 0;
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new RunReader(runs.get(i));
+                if (readers[i].next()) {
+                    heap[size++] = i;
+                    siftUp(heap, size - 1, readers);
+                }
+            }
+            DataOutputStream dataOutput = json ? null : (DataOutputStream) output;
+            boolean first = true;
+            long written = 0;
+            while (size > 0) {
+                RunReader reader = readers[heap[0]];
+                if (dataOutput != null) {
+                    dataOutput.writeDouble(reader.fTimestamp);
+                    dataOutput.writeInt(reader.fLength);
+                } else if (!first) {
+                    output.write(',');
+                    output.write('\n');
+                }
+                output.write(reader.fEvent, 0, reader.fLength);
+                first = false;
+
+                if (monitor != null) {
+                    long before = written;
+                    written += reader.fLength;
+                    int worked = (int) (written / PROGRESS_UNIT - before / PROGRESS_UNIT);
+                    if (worked > 0) {
+                        monitor.worked(worked);
+                        if (monitor.isCanceled()) {
+                            return false;
+                        }
+                    }
+                }
+
+                if (!reader.next()) {
+                    heap[0] = heap[--size];
+                }
+                siftDown(heap, 0, size, readers);
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBefore(int run1, int run2, RunReader[] readers) {
+        int compare = Double.compare(readers[run1].fTimestamp, readers[run2].fTimestamp);
+        return compare < 0 || (compare == 0 && run1 < run2);
+    }
+
+    private static void siftUp(int[] heap, int index, RunReader[] readers) {
+        int i = index;
+        int value = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!isBefore(value, heap[parent], readers)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    private static void siftDown(int[] heap, int index, int size, RunReader[] readers) {
+        if (size == 0) {
+            return;
+        }
+        int i = index;
+        int value = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isBefore(heap[child + 1], heap[child], readers)) {
+                child++;
+            }
+            if (!isBefore(heap[child], value, readers)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+}
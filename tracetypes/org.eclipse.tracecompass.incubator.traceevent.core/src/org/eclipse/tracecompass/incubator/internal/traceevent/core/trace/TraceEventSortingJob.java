@@ -13,7 +13,7 @@ package org.eclipse.tracecompass.incubator.internal.traceevent.core.trace;
 
 import java.io.IOException;
 
-import org.eclipse.tracecompass.internal.jsontrace.core.job.SortingJob;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 /**
@@ -22,17 +22,18 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
  * @author Katherine Nadeau
  *
  */
-public class TraceEventSortingJob extends SortingJob {
+public class TraceEventSortingJob extends ParallelSortingJob {
 
     /**
      * Constructor
      *
      * @param trace
-     *            the trace to be sort
+     *            the trace to be sort, it can only be null to sort the events
+     *            of a file with {@link #sortEvents}
      * @param path
      *            the path to the trace file
      */
-    public TraceEventSortingJob(ITmfTrace trace, String path) {
+    public TraceEventSortingJob(@Nullable ITmfTrace trace, String path) {
         super(trace, path, "\"ts\":", 1); //$NON-NLS-1$
     }
 
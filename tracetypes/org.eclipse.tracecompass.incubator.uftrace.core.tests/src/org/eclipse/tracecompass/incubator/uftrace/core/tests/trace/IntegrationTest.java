@@ -70,7 +70,7 @@ public class IntegrationTest {
         while (fUft.getNext(ctx) != null) {
             cnt++;
         }
-        assertEquals("event count", 113751, cnt);
+        assertEquals("event count", 113752, cnt);
     }
 
     /**
@@ -94,7 +94,7 @@ public class IntegrationTest {
             tids.add(tid);
 
         }
-        assertEquals("event count", 14, cnt);
+        assertEquals("event count", 18, cnt);
         assertEquals("Tid count", 2, tids.size());
     }
 
@@ -117,7 +117,7 @@ public class IntegrationTest {
             cnt++;
             ts = event.getTimestamp();
         }
-        assertEquals("event count", 12038, cnt);
+        assertEquals("event count", 12044, cnt);
         assertNotNull(ts);
         assertEquals("Timestamp", "2024", ts.toString(new TmfTimestampFormat("yyyy")));
     }
@@ -55,7 +55,7 @@ public class DatEvent {
     private static final String[] TYPES = { "ENTRY", "EXIT", "EVENT", "LOST" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 
     private final long fTime;
-    private final String fType;
+    private final int fTypeIndex;
     private final int fDepth;
     private final long fAddress;
     private final int fTid;
@@ -115,10 +115,7 @@ public class DatEvent {
      * @return an event
      */
     public static @Nullable DatEvent create(long nanoseconds, long payload, int tid) {
-        String type = TYPES[(int) (payload & TYPE_MASK)];
-        if (type == null) {
-            throw new IllegalStateException("Trace type cannot be null"); //$NON-NLS-1$
-        }
+        int typeIndex = (int) (payload & TYPE_MASK);
         boolean moreData = (payload & MARKER_MASK) == MARKER_MASK;
         int magic = (int) ((payload & MAGIC_MASK) >>> 3);
         int depth = (int) ((payload & DEPTH_MASK) >>> 6);
@@ -130,12 +127,12 @@ public class DatEvent {
             // TODO: do something here
             // it seems undefined at the moment in the spec
         }
-        return new DatEvent(nanoseconds, type, depth, address, tid);
+        return new DatEvent(nanoseconds, typeIndex, depth, address, tid);
     }
 
-    private DatEvent(long nanoseconds, String type, int depth, long address, int tid) {
+    private DatEvent(long nanoseconds, int typeIndex, int depth, long address, int tid) {
         fTime = nanoseconds;
-        fType = type;
+        fTypeIndex = typeIndex;
         fDepth = depth;
         fAddress = address;
         fTid = tid;
@@ -156,7 +153,21 @@ public class DatEvent {
      * @return the type
      */
     public String getType() {
-        return fType;
+        String type = TYPES[fTypeIndex];
+        if (type == null) {
+            throw new IllegalStateException("Trace type cannot be null"); //$NON-NLS-1$
+        }
+        return type;
+    }
+
+    /**
+     * Get the index of the event type, the 2 type bits of the payload: 0 for
+     * entry, 1 for exit, 2 for event and 3 for lost
+     *
+     * @return the type index
+     */
+    public int getTypeIndex() {
+        return fTypeIndex;
     }
 
     /**
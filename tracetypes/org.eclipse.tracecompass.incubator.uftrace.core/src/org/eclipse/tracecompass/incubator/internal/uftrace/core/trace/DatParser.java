@@ -13,12 +13,15 @@ package org.eclipse.tracecompass.incubator.internal.uftrace.core.trace;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 import java.util.NoSuchElementException;
 
 import org.apache.commons.lang3.math.NumberUtils;
+import org.eclipse.jdt.annotation.Nullable;
 
 import com.google.common.collect.PeekingIterator;
 
@@ -45,9 +48,15 @@ import com.google.common.collect.PeekingIterator;
  */
 public class DatParser implements Iterable<DatEvent> {
 
+    /** Size of a record: a timestamp and a payload */
+    private static final int RECORD_SIZE = Long.BYTES * 2;
+
     private long fUtcOffset;
     private final File fFile;
     private final long fStart;
+    private final int fTid;
+    private final long fRecordCount;
+    private @Nullable ByteBuffer fData = null;
 
     /**
      * Data event parser
@@ -73,51 +82,113 @@ public class DatParser implements Iterable<DatEvent> {
         fFile = file;
         fStart = start;
         fUtcOffset = utcOffset;
+        String name = file.getName();
+        fTid = NumberUtils.toInt(name.substring(0, name.length() - 4));
+        fRecordCount = Math.max(0, file.length() - start) / RECORD_SIZE;
     }
 
     @Override
     public PeekingIterator<DatEvent> iterator() {
-
-        try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
-            MappedByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, fStart, fc.size());
-            if (bb == null) {
-                throw new IllegalStateException("cannot create a byte buffer!"); //$NON-NLS-1$
+        return new PeekingIterator<DatEvent>() {
+
+            private long fIndex = 0;
+            private boolean fPeeked = false;
+            private @Nullable DatEvent fNext = null;
+
+            @Override
+            public DatEvent next() {
+                DatEvent next = peek();
+                fPeeked = false;
+                fNext = null;
+                return next;
             }
-            return new PeekingIterator<DatEvent>() {
 
-                DatEvent fCurrent = null;
+            @Override
+            public boolean hasNext() {
+                return fPeeked || fIndex < fRecordCount;
+            }
 
-                @Override
-                public DatEvent next() {
+            @Override
+            public DatEvent peek() {
+                if (!fPeeked) {
                     if (!hasNext()) {
                         throw new NoSuchElementException("no more data"); //$NON-NLS-1$
                     }
-                    fCurrent = DatEvent.create(bb,
-                            NumberUtils.toInt(fFile.getName().substring(0, fFile.getName().length() - 4)), fUtcOffset);
-                    return fCurrent;
-                }
-
-                @Override
-                public boolean hasNext() {
-                    return bb.remaining() > Long.BYTES * 2;
+                    ByteBuffer data = getData();
+                    int position = (int) (fIndex * RECORD_SIZE);
+                    fNext = DatEvent.create(data.getLong(position) + fUtcOffset, data.getLong(position + Long.BYTES), fTid);
+                    fIndex++;
+                    fPeeked = true;
                 }
+                return fNext;
+            }
 
-                @Override
-                public DatEvent peek() {
-                    if (fCurrent == null && hasNext()) {
-                        return next();
-                    }
-                    return fCurrent;
-                }
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("can't"); //$NON-NLS-1$
+            }
+        };
+    }
 
-                @Override
-                public void remove() {
-                    throw new UnsupportedOperationException("can't"); //$NON-NLS-1$
-                }
-            };
-        } catch (IOException e) {
-            throw new IllegalStateException(e);
+    /**
+     * Decode consecutive records of this file into primitive arrays, without
+     * creating any event object. The file is mapped once and read with
+     * absolute positions, so this method can be called concurrently for
+     * different ranges, by different contexts.
+     *
+     * @param index
+     *            the index of the first record to read
+     * @param times
+     *            the array to fill with the timestamps, including the UTC
+     *            offset
+     * @param payloads
+     *            the array to fill with the payloads, see
+     *            {@link DatEvent#create(long, long, int)}
+     * @return the number of records read, at most the length of the arrays
+     */
+    public int read(long index, long[] times, long[] payloads) {
+        int count = (int) Math.max(0, Math.min(Math.min(times.length, payloads.length), fRecordCount - index));
+        if (count == 0) {
+            return 0;
         }
+        ByteBuffer data = getData();
+        long utcOffset = fUtcOffset;
+        int position = (int) (index * RECORD_SIZE);
+        for (int i = 0; i < count; i++) {
+            times[i] = data.getLong(position) + utcOffset;
+            payloads[i] = data.getLong(position + Long.BYTES);
+            position += RECORD_SIZE;
+        }
+        return count;
+    }
+
+    /**
+     * Get the timestamp of a record, without decoding the rest of the record
+     *
+     * @param index
+     *            the index of the record, lower than the number of records
+     * @return the timestamp, including the UTC offset
+     */
+    public long getTime(long index) {
+        return getData().getLong((int) (index * RECORD_SIZE)) + fUtcOffset;
+    }
+
+    /**
+     * Get the number of records in this file
+     *
+     * @return the number of records
+     */
+    public long getRecordCount() {
+        return fRecordCount;
+    }
+
+    /**
+     * Get the TID of the task of this file, from the file name
+     *
+     * @return the TID
+     */
+    public int getTid() {
+        return fTid;
     }
 
     /**
@@ -129,4 +200,21 @@ public class DatParser implements Iterable<DatEvent> {
     public void setUtcOffset(long utcOffset) {
         fUtcOffset = utcOffset;
     }
+
+    private synchronized ByteBuffer getData() {
+        ByteBuffer data = fData;
+        if (data == null) {
+            try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
+                MappedByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, fStart, fRecordCount * RECORD_SIZE);
+                if (bb == null) {
+                    throw new IllegalStateException("cannot create a byte buffer!"); //$NON-NLS-1$
+                }
+                data = bb.order(ByteOrder.LITTLE_ENDIAN);
+                fData = data;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return data;
+    }
 }
@@ -11,7 +11,9 @@
 
 package org.eclipse.tracecompass.incubator.internal.uftrace.core.trace;
 
-import java.util.PriorityQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -22,19 +24,127 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
 
-import com.google.common.collect.PeekingIterator;
-
 /**
- * Naive context
+ * Naive context, merging the records of all the tasks by timestamp.
+ *
+ * The records of each task are decoded in batches of primitive values, the
+ * next batch of a task being decoded in the background while the current one
+ * is merged. Only the events actually returned are created. A task is only
+ * decoded once its first record is reached, and its batches grow as it is
+ * read, so that a context that is only read for a few events does not decode
+ * nor allocate a full batch for every task.
  *
  * @author Matthew Khouzam
  *
  */
 public class UfContext extends TmfContext {
 
-    private PriorityQueue<PeekingIterator<DatEvent>> fQueue = new PriorityQueue<>(
-            (o1, o2) -> Long.compare(o1.peek().getTime(), o2.peek().getTime()));
-    private ITmfTrace fTrace;
+    private static final int FIRST_BATCH_SIZE = 64;
+    private static final int BATCH_SIZE = 4096;
+    private static final long[] EMPTY = new long[0];
+
+    private final ITmfTrace fTrace;
+    private final TaskCursor[] fCursors;
+    /** Min-heap of the indexes of the cursors, by time of their next record */
+    private final int[] fHeap;
+    private int fHeapSize = 0;
+
+    /**
+     * The records of a task being read
+     */
+    private static final class TaskCursor {
+        private final DatParser fParser;
+        private final long fFirstTime;
+        private long[] fTimes = EMPTY;
+        private long[] fPayloads = EMPTY;
+        private long[] fNextTimes = EMPTY;
+        private long[] fNextPayloads = EMPTY;
+        private int fSize = 0;
+        private int fPosition = 0;
+        /** Index of the first record not decoded yet, 0 until first access */
+        private long fNextIndex = 0;
+        private @Nullable CompletableFuture<Integer> fNextBatch = null;
+
+        public TaskCursor(DatParser parser) {
+            fParser = parser;
+            fFirstTime = parser.getTime(0);
+        }
+
+        /**
+         * Decode the first batch when the first record is reached and start
+         * decoding the next one
+         */
+        private void load() {
+            if (fNextIndex != 0) {
+                return;
+            }
+            int size = (int) Math.min(FIRST_BATCH_SIZE, fParser.getRecordCount());
+            fTimes = new long[size];
+            fPayloads = new long[size];
+            fSize = fParser.read(0, fTimes, fPayloads);
+            fNextIndex = fSize;
+            prefetch();
+        }
+
+        public long getTime() {
+            return (fNextIndex == 0) ? fFirstTime : fTimes[fPosition];
+        }
+
+        public long getPayload() {
+            load();
+            return fPayloads[fPosition];
+        }
+
+        public int getTid() {
+            return fParser.getTid();
+        }
+
+        /**
+         * Move to the next record
+         *
+         * @return whether there is a next record
+         */
+        public boolean advance() {
+            load();
+            fPosition++;
+            if (fPosition < fSize) {
+                return true;
+            }
+            CompletableFuture<Integer> nextBatch = fNextBatch;
+            if (nextBatch == null) {
+                return false;
+            }
+            // The current batch is consumed, swap the buffers
+            long[] times = fTimes;
+            long[] payloads = fPayloads;
+            fTimes = fNextTimes;
+            fPayloads = fNextPayloads;
+            fNextTimes = times;
+            fNextPayloads = payloads;
+            fSize = nextBatch.join();
+            fPosition = 0;
+            fNextIndex += fSize;
+            prefetch();
+            return fSize > 0;
+        }
+
+        private void prefetch() {
+            if (fNextIndex >= fParser.getRecordCount()) {
+                fNextBatch = null;
+                return;
+            }
+            // The batches double up to their maximum size
+            int size = (int) Math.min(fParser.getRecordCount() - fNextIndex, Math.min(BATCH_SIZE, 2L * fTimes.length));
+            if (fNextTimes.length < size) {
+                fNextTimes = new long[size];
+                fNextPayloads = new long[size];
+            }
+            long index = fNextIndex;
+            long[] times = fNextTimes;
+            long[] payloads = fNextPayloads;
+            fNextBatch = CompletableFuture.supplyAsync(() -> fParser.read(index, times, payloads));
+        }
+    }
 
     /**
      * Constructor
@@ -46,12 +156,19 @@ public class UfContext extends TmfContext {
      */
     public UfContext(Iterable<DatParser> dats, ITmfTrace trace) {
         fTrace = trace;
+        List<TaskCursor> cursors = new ArrayList<>();
         for (DatParser dp : dats) {
-            PeekingIterator<DatEvent> iterator = dp.iterator();
-            if (iterator.hasNext()) {
-                fQueue.add(iterator);
+            if (dp.getRecordCount() > 0) {
+                cursors.add(new TaskCursor(dp));
             }
         }
+        fCursors = cursors.toArray(new TaskCursor[cursors.size()]);
+        fHeap = new int[fCursors.length];
+        for (int i = 0; i < fCursors.length; i++) {
+            fHeap[fHeapSize] = i;
+            siftUp(fHeapSize);
+            fHeapSize++;
+        }
     }
 
     @Override
@@ -65,24 +182,77 @@ public class UfContext extends TmfContext {
      * @return the next event or null
      */
     public ITmfEvent getNext() {
-        PeekingIterator<DatEvent> eventSource = fQueue.poll();
-        if (eventSource != null) {
-            DatEvent event = eventSource.next();
-            if (eventSource.hasNext()) {
-                fQueue.add(eventSource);
+        while (fHeapSize > 0) {
+            TaskCursor cursor = fCursors[fHeap[0]];
+            long time = cursor.getTime();
+            long payload = cursor.getPayload();
+            if (!cursor.advance()) {
+                fHeapSize--;
+                fHeap[0] = fHeap[fHeapSize];
             }
-            TmfEvent tmfEvent = new TmfEvent(fTrace, getRank(), fTrace.createTimestamp(event.getTime()),
-                    UfEventType.lookup(event.getType()),
-                    new TmfEventField(ITmfEventField.ROOT_FIELD_ID, event, null));
+            siftDown(0);
             TmfLongLocation location = getLocation();
             if (location != null) {
                 setLocation(new TmfLongLocation(location.getLocationInfo() + Long.BYTES * 2));
             } else {
                 setLocation(new TmfLongLocation(Long.BYTES * 2));
             }
-            return tmfEvent;
+            DatEvent event = DatEvent.create(time, payload, cursor.getTid());
+            if (event == null) {
+                // Bad magic number, not a valid record
+                continue;
+            }
+            return new TmfEvent(fTrace, getRank(), fTrace.createTimestamp(time),
+                    UfEventType.lookup(event.getTypeIndex()),
+                    new TmfEventField(ITmfEventField.ROOT_FIELD_ID, event, null));
         }
         return null;
     }
 
+    private boolean isBefore(int heapIndex1, int heapIndex2) {
+        int cursor1 = fHeap[heapIndex1];
+        int cursor2 = fHeap[heapIndex2];
+        int cmp = Long.compare(fCursors[cursor1].getTime(), fCursors[cursor2].getTime());
+        // Break ties by task, for a deterministic order
+        return cmp < 0 || (cmp == 0 && cursor1 < cursor2);
+    }
+
+    private void siftUp(int index) {
+        int i = index;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!isBefore(i, parent)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        int i = index;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < fHeapSize && isBefore(left, smallest)) {
+                smallest = left;
+            }
+            if (right < fHeapSize && isBefore(right, smallest)) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int tmp = fHeap[i];
+        fHeap[i] = fHeap[j];
+        fHeap[j] = tmp;
+    }
+
 }
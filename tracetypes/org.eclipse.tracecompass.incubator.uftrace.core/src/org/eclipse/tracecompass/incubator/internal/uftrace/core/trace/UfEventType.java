@@ -44,6 +44,9 @@ public class UfEventType extends TmfEventType {
     /** The event types */
     public static final Set<? extends ITmfEventType> TYPES = ImmutableSet.of(UfEventType.ENTRY, UfEventType.EXIT, UfEventType.EVENT, UfEventType.LOST);
 
+    /** The event types, indexed by the type bits of the records */
+    private static final UfEventType[] TYPES_BY_INDEX = { ENTRY, EXIT, EVENT, LOST };
+
     private UfEventType(String name) {
         super(name, ROOT);
     }
@@ -70,4 +73,18 @@ public class UfEventType extends TmfEventType {
         }
     }
 
+    /**
+     * Lookup the event type from its index in the records
+     *
+     * @param typeIndex
+     *            the type index, see {@link DatEvent#getTypeIndex()}
+     * @return the event type
+     */
+    public static @Nullable ITmfEventType lookup(int typeIndex) {
+        if (typeIndex < 0 || typeIndex >= TYPES_BY_INDEX.length) {
+            return null;
+        }
+        return TYPES_BY_INDEX[typeIndex];
+    }
+
 }
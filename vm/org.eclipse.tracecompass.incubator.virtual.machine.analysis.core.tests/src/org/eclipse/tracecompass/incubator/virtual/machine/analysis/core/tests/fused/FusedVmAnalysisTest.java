@@ -92,18 +92,9 @@ public class FusedVmAnalysisTest {
         }
 
         /*
-         * TODO For now, make sure the LttngKernelAnalysis have been run for
-         * each trace before running the analysis. When event request precedence
-         * is implemented, we can remove this
+         * The kernel analyses of the traces are not scheduled here, they are
+         * dependent analyses of the fused analysis
          */
-        for (ITmfTrace trace : experiment.getTraces()) {
-            for (KernelAnalysisModule module : TmfTraceUtils.getAnalysisModulesOfClass(trace, KernelAnalysisModule.class)) {
-                module.schedule();
-                module.waitForCompletion();
-            }
-        }
-        /* End of TODO block */
-
         experiment.traceOpened(new TmfTraceOpenedSignal(this, experiment, null));
         FusedVirtualMachineAnalysis module = null;
         for (FusedVirtualMachineAnalysis mod : TmfTraceUtils.getAnalysisModulesOfClass(experiment, FusedVirtualMachineAnalysis.class)) {
@@ -126,6 +117,23 @@ public class FusedVmAnalysisTest {
         assertNotNull(module.getStateSystem());
     }
 
+    /**
+     * Test that the kernel analyses of all the machines are scheduled by the
+     * fused analysis
+     */
+    @Test
+    public void testKernelAnalysesBuilt() {
+        setUp();
+        for (ITmfTrace trace : fExperiment.getTraces()) {
+            for (KernelAnalysisModule module : TmfTraceUtils.getAnalysisModulesOfClass(trace, KernelAnalysisModule.class)) {
+                ITmfStateSystem ss = module.getStateSystem();
+                // The state system is only set once the analysis was scheduled
+                assertNotNull(trace.getName(), ss);
+                assertTrue(trace.getName(), module.waitForCompletion());
+            }
+        }
+    }
+
     /**
      * Test the intervals built by the state provider
      */
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.virtual.machine.analysis.core.tests.matching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.event.matching.TwoWayVmEventMatching;
+import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.model.qemukvm.QemuKvmStrings;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.event.matching.IEventMatchingKey;
+import org.eclipse.tracecompass.tmf.core.event.matching.TmfEventMatching.Direction;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.junit.Test;
+
+/**
+ * Test the keys and directions of the virtual machine synchronization events
+ * in {@link TwoWayVmEventMatching}
+ */
+public class TwoWayVmEventMatchingTest {
+
+    private final TwoWayVmEventMatching fMatching = new TwoWayVmEventMatching();
+
+    private static ITmfEvent createEvent(String name, @Nullable Long vmUid, @Nullable Long counter) {
+        TmfEventField[] fields;
+        if (vmUid == null) {
+            fields = new TmfEventField[] { new TmfEventField("cnt", counter, null) };
+        } else if (counter == null) {
+            fields = new TmfEventField[] { new TmfEventField("vm_uid", vmUid, null) };
+        } else {
+            fields = new TmfEventField[] { new TmfEventField("vm_uid", vmUid, null), new TmfEventField("cnt", counter, null) };
+        }
+        ITmfEventField content = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, fields);
+        return new TmfEvent(null, ITmfContext.UNKNOWN_RANK, TmfTimestamp.fromNanos(1), new TmfEventType(name, content), content);
+    }
+
+    /**
+     * Test that the events of both sides of a synchronization have the same
+     * key, and that the keys differ by machine and sequence number
+     */
+    @Test
+    public void testEventKeys() {
+        IEventMatchingKey hostKey = fMatching.getEventKey(createEvent(QemuKvmStrings.VMSYNC_GH_HOST, 3L, 10L));
+        IEventMatchingKey guestKey = fMatching.getEventKey(createEvent(QemuKvmStrings.VMSYNC_GH_GUEST, 3L, 10L));
+        assertNotNull(hostKey);
+        assertNotNull(guestKey);
+        assertEquals(hostKey, guestKey);
+        assertEquals(hostKey.hashCode(), guestKey.hashCode());
+
+        assertNotEquals(hostKey, fMatching.getEventKey(createEvent(QemuKvmStrings.VMSYNC_GH_GUEST, 3L, 11L)));
+        assertNotEquals(hostKey, fMatching.getEventKey(createEvent(QemuKvmStrings.VMSYNC_GH_GUEST, 10L, 3L)));
+
+        assertNull(fMatching.getEventKey(createEvent("sched_switch", 3L, 10L)));
+        assertNull(fMatching.getEventKey(createEvent(QemuKvmStrings.VMSYNC_HG_HOST, null, 10L)));
+        assertNull(fMatching.getEventKey(createEvent(QemuKvmStrings.VMSYNC_HG_HOST, 3L, null)));
+    }
+
+    /**
+     * Test the direction of each synchronization event
+     */
+    @Test
+    public void testDirections() {
+        assertEquals(Direction.EFFECT, fMatching.getDirection(createEvent(QemuKvmStrings.VMSYNC_GH_HOST, 1L, 1L)));
+        assertEquals(Direction.EFFECT, fMatching.getDirection(createEvent(QemuKvmStrings.VMSYNC_HG_GUEST, 1L, 1L)));
+        assertEquals(Direction.CAUSE, fMatching.getDirection(createEvent(QemuKvmStrings.VMSYNC_GH_GUEST, 1L, 1L)));
+        assertEquals(Direction.CAUSE, fMatching.getDirection(createEvent(QemuKvmStrings.VMSYNC_HG_HOST, 1L, 1L)));
+        assertNull(fMatching.getDirection(createEvent("sched_switch", 1L, 1L)));
+        assertNull(fMatching.getDirection(createEvent(QemuKvmStrings.VMSYNC_HG_HOST, null, 1L)));
+    }
+}
@@ -78,6 +78,42 @@ public class OneQemuKvmTestCase extends VmTestCase {
                 new StateIntervalStub(355, 375, TmfStateValue.nullValue()));
         info.add(new IntervalInfo(intervals, VmOverheadStateProvider.TRACES, VmTraces.GUEST_ONE_QEMUKVM.getHostId(), VmOverheadStateProvider.THREADS, "130", "CallStack", "3"));
 
+        /* Verify the overhead status of the virtual CPU */
+        intervals = ImmutableList.of(new StateIntervalStub(1, 44, TmfStateValue.nullValue()),
+                new StateIntervalStub(45, 59, TmfStateValue.newValueString("VMM")),
+                new StateIntervalStub(60, 94, TmfStateValue.nullValue()),
+                new StateIntervalStub(95, 99, TmfStateValue.newValueString("VMM")),
+                new StateIntervalStub(100, 149, TmfStateValue.newValueString("VCPU Preempted")),
+                new StateIntervalStub(150, 154, TmfStateValue.newValueString("VMM")),
+                new StateIntervalStub(155, 194, TmfStateValue.nullValue()),
+                new StateIntervalStub(195, 209, TmfStateValue.newValueString("VMM")),
+                new StateIntervalStub(210, 244, TmfStateValue.nullValue()),
+                new StateIntervalStub(245, 259, TmfStateValue.newValueString("VMM")),
+                new StateIntervalStub(260, 294, TmfStateValue.nullValue()),
+                new StateIntervalStub(295, 299, TmfStateValue.newValueString("VMM")),
+                new StateIntervalStub(300, 349, TmfStateValue.newValueString("VCPU Preempted")),
+                new StateIntervalStub(350, 354, TmfStateValue.newValueString("VMM")),
+                new StateIntervalStub(355, 375, TmfStateValue.nullValue()));
+        info.add(new IntervalInfo(intervals, VmOverheadStateProvider.OVERHEAD, VmTraces.GUEST_ONE_QEMUKVM.getHostId(), "0", VmOverheadStateProvider.VCPU_STATUS));
+
+        /* Verify the cumulative time counters of the virtual CPU */
+        intervals = ImmutableList.of(new StateIntervalStub(1, 44, TmfStateValue.nullValue()),
+                new StateIntervalStub(45, 59, TmfStateValue.newValueLong(0)),
+                new StateIntervalStub(60, 99, TmfStateValue.newValueLong(15)),
+                new StateIntervalStub(100, 154, TmfStateValue.newValueLong(20)),
+                new StateIntervalStub(155, 209, TmfStateValue.newValueLong(25)),
+                new StateIntervalStub(210, 259, TmfStateValue.newValueLong(40)),
+                new StateIntervalStub(260, 299, TmfStateValue.newValueLong(55)),
+                new StateIntervalStub(300, 354, TmfStateValue.newValueLong(60)),
+                new StateIntervalStub(355, 375, TmfStateValue.newValueLong(65)));
+        info.add(new IntervalInfo(intervals, VmOverheadStateProvider.OVERHEAD, VmTraces.GUEST_ONE_QEMUKVM.getHostId(), "0", VmOverheadStateProvider.STATUS_VMM_MODE));
+
+        intervals = ImmutableList.of(new StateIntervalStub(1, 99, TmfStateValue.nullValue()),
+                new StateIntervalStub(100, 149, TmfStateValue.newValueLong(0)),
+                new StateIntervalStub(150, 349, TmfStateValue.newValueLong(50)),
+                new StateIntervalStub(350, 375, TmfStateValue.newValueLong(100)));
+        info.add(new IntervalInfo(intervals, VmOverheadStateProvider.OVERHEAD, VmTraces.GUEST_ONE_QEMUKVM.getHostId(), "0", VmOverheadStateProvider.STATUS_VCPU_PREEMPTED));
+
         return info;
     }
 
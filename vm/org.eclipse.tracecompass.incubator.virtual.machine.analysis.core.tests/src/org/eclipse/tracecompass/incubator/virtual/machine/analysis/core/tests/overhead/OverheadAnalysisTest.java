@@ -11,18 +11,24 @@
 
 package org.eclipse.tracecompass.incubator.virtual.machine.analysis.core.tests.overhead;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.analysis.os.linux.core.tests.stubs.LinuxTestCase.PunctualInfo;
 import org.eclipse.tracecompass.analysis.os.linux.core.tid.TidAnalysisModule;
 import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.overhead.VmOverheadAnalysis;
+import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.overhead.VmOverheadStateProvider;
 import org.eclipse.tracecompass.incubator.virtual.machine.analysis.core.tests.shared.vm.VmTestCase;
 import org.eclipse.tracecompass.incubator.virtual.machine.analysis.core.tests.shared.vm.VmTestExperiment;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.tests.shared.utils.IntervalInfo;
 import org.eclipse.tracecompass.statesystem.core.tests.shared.utils.StateSystemTestUtils;
 import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
@@ -160,4 +166,37 @@ public class OverheadAnalysisTest {
         }
     }
 
+    /**
+     * Test that the cumulative overhead of the virtual CPUs matches the time
+     * they spent in each overhead status
+     *
+     * @throws AttributeNotFoundException
+     *             If the status attribute of a virtual CPU is missing
+     * @throws StateSystemDisposedException
+     *             If the state system was disposed
+     */
+    @Test
+    public void testCumulativeOverhead() throws AttributeNotFoundException, StateSystemDisposedException {
+        VmOverheadAnalysis module = setUp();
+        ITmfStateSystem ss = module.getStateSystem();
+        assertNotNull(ss);
+
+        List<Integer> counters = ss.getQuarks(VmOverheadStateProvider.OVERHEAD, "*", "*", "*");
+        assertFalse(counters.isEmpty());
+        for (int counterQuark : counters) {
+            String status = ss.getAttributeName(counterQuark);
+            if (status.equals(VmOverheadStateProvider.VCPU_STATUS)) {
+                continue;
+            }
+            int statusQuark = ss.getQuarkRelative(ss.getParentAttributeQuark(counterQuark), VmOverheadStateProvider.VCPU_STATUS);
+            long expected = 0;
+            for (long time = ss.getStartTime(); time <= ss.getCurrentEndTime(); time++) {
+                assertEquals(status + " at " + time, expected, VmOverheadAnalysis.getCumulativeOverhead(ss, counterQuark, time));
+                if (status.equals(ss.querySingleState(time, statusQuark).getValue())) {
+                    expected++;
+                }
+            }
+        }
+    }
+
 }
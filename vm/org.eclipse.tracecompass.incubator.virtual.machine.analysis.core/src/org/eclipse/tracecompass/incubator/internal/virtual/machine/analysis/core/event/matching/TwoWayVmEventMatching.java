@@ -14,14 +14,13 @@
 
 package org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.event.matching;
 
-import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.model.qemukvm.QemuKvmStrings;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
-import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.matching.IEventMatchingKey;
 import org.eclipse.tracecompass.tmf.core.event.matching.ITmfMatchEventDefinition;
 import org.eclipse.tracecompass.tmf.core.event.matching.TmfEventMatching.Direction;
@@ -29,9 +28,7 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceWithPreDefinedEvents;
 import org.eclipse.tracecompass.tmf.core.trace.TmfEventTypeCollectionHelper;
 
-import com.google.common.collect.ImmutableSet;
-import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
+import com.google.common.collect.ImmutableMap;
 
 /**
  * Class to match virtual machine synchronization events. These events are
@@ -51,14 +48,25 @@ public class TwoWayVmEventMatching implements ITmfMatchEventDefinition {
     private static final String COUNTER_PAYLOAD = "cnt"; //$NON-NLS-1$
     private static final String VM_UID_PAYLOAD = "vm_uid"; //$NON-NLS-1$
 
+    /* The direction of each synchronization event, by event name */
+    private static final Map<String, Direction> DIRECTIONS = ImmutableMap.of(
+            QemuKvmStrings.VMSYNC_GH_HOST, Direction.EFFECT,
+            QemuKvmStrings.VMSYNC_HG_GUEST, Direction.EFFECT,
+            QemuKvmStrings.VMSYNC_GH_GUEST, Direction.CAUSE,
+            QemuKvmStrings.VMSYNC_HG_HOST, Direction.CAUSE);
+
     /*
      * TODO: Maybe not define the QemuPacketKey here but in
      * org.eclipse.tracecompass.tmf.core.event.matching
      */
     private static class QemuPacketKey implements IEventMatchingKey {
-        private static HashFunction hf = Hashing.goodFastHash(32);
-        private long vmUid;
-        private long seq;
+        private final long vmUid;
+        private final long seq;
+        /*
+         * The key is hashed once for the lookup in the unmatched events table
+         * and again if it is inserted, so compute it only once
+         */
+        private final int hash;
 
         /**
          * Constructor with parameters
@@ -71,11 +79,26 @@ public class TwoWayVmEventMatching implements ITmfMatchEventDefinition {
         public QemuPacketKey(long uid, long s) {
             vmUid = uid;
             seq = s;
+            hash = mix(uid, s);
+        }
+
+        /**
+         * Mix the two longs with the finalizer of MurmurHash3, so that
+         * consecutive sequence numbers of a same machine spread well
+         */
+        private static int mix(long uid, long s) {
+            long h = uid * 0x9E3779B97F4A7C15L ^ s;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return (int) h;
         }
 
         @Override
         public int hashCode() {
-            return hf.newHasher(32).putLong(vmUid).putLong(seq).hash().asInt();
+            return hash;
         }
 
         @Override
@@ -106,50 +129,27 @@ public class TwoWayVmEventMatching implements ITmfMatchEventDefinition {
      */
     @Override
     public @Nullable IEventMatchingKey getEventKey(@Nullable ITmfEvent event) {
-        if (event == null) {
+        /*
+         * The event name is used instead of the event type, which may be
+         * created on demand for every event
+         */
+        if (event == null || !DIRECTIONS.containsKey(event.getName())) {
             return null;
         }
-        String evname = event.getType().getName();
-
-        IEventMatchingKey key = null;
-
-        if (evname.equals(QemuKvmStrings.VMSYNC_GH_HOST) || evname.equals(QemuKvmStrings.VMSYNC_HG_HOST)) {
-            TmfEventField field = (TmfEventField) event.getContent();
-            ITmfEventField data = field.getField(VM_UID_PAYLOAD);
-            if (data == null) {
-                return null;
-            }
-            long vmUid = (Long) data.getValue();
-            data = field.getField(COUNTER_PAYLOAD);
-            if (data == null) {
-                return null;
-            }
-            long seqno = (Long) data.getValue();
-            key = new QemuPacketKey(vmUid, seqno);
-        } else if (evname.equals(QemuKvmStrings.VMSYNC_GH_GUEST) || evname.equals(QemuKvmStrings.VMSYNC_HG_GUEST)) {
-            TmfEventField field = (TmfEventField) event.getContent();
-            ITmfEventField data = field.getField(VM_UID_PAYLOAD);
-            if (data == null) {
-                return null;
-            }
-            long vmUid = (Long) data.getValue();
-            data = field.getField(COUNTER_PAYLOAD);
-            if (data == null) {
-                return null;
-            }
-            long seqno = (Long) data.getValue();
-            key = new QemuPacketKey(vmUid, seqno);
+        ITmfEventField content = event.getContent();
+        Long vmUid = content.getFieldValue(Long.class, VM_UID_PAYLOAD);
+        Long seqno = content.getFieldValue(Long.class, COUNTER_PAYLOAD);
+        if (vmUid == null || seqno == null) {
+            return null;
         }
-
-        return key;
+        return new QemuPacketKey(vmUid, seqno);
     }
 
     @Override
     public boolean canMatchTrace(@Nullable ITmfTrace trace) {
         if (trace instanceof ITmfTraceWithPreDefinedEvents) {
-            Collection<String> events = ImmutableSet.of(QemuKvmStrings.VMSYNC_GH_HOST, QemuKvmStrings.VMSYNC_GH_GUEST, QemuKvmStrings.VMSYNC_HG_HOST, QemuKvmStrings.VMSYNC_HG_GUEST);
             Set<String> traceEvents = TmfEventTypeCollectionHelper.getEventNames(((ITmfTraceWithPreDefinedEvents) trace).getContainedEventTypes());
-            traceEvents.retainAll(events);
+            traceEvents.retainAll(DIRECTIONS.keySet());
             return !traceEvents.isEmpty();
         }
         return true;
@@ -160,33 +160,20 @@ public class TwoWayVmEventMatching implements ITmfMatchEventDefinition {
         if (event == null) {
             return null;
         }
-        String evname = event.getType().getName();
 
         /* Is the event a source or destination event */
-        if ((evname.equals(QemuKvmStrings.VMSYNC_GH_HOST) || evname.equals(QemuKvmStrings.VMSYNC_HG_GUEST))
-                && canMatchEvent(event)) {
-            return Direction.EFFECT;
-        } else if ((evname.equals(QemuKvmStrings.VMSYNC_GH_GUEST) || evname.equals(QemuKvmStrings.VMSYNC_HG_HOST))
-                && canMatchEvent(event)) {
-            return Direction.CAUSE;
+        Direction direction = DIRECTIONS.get(event.getName());
+        if (direction == null || !canMatchEvent(event)) {
+            return null;
         }
-        return null;
+        return direction;
     }
 
     private static boolean canMatchEvent(final ITmfEvent event) {
         /* Make sure all required fields are present to match with this event */
-        String evname = event.getType().getName();
-
-        if (evname.equals(QemuKvmStrings.VMSYNC_GH_GUEST) || evname.equals(QemuKvmStrings.VMSYNC_GH_HOST) ||
-                evname.equals(QemuKvmStrings.VMSYNC_HG_GUEST) || evname.equals(QemuKvmStrings.VMSYNC_HG_HOST)) {
-
-            ITmfEventField content = event.getContent();
-            if ((content.getField(VM_UID_PAYLOAD) != null) &&
-                    (content.getField(COUNTER_PAYLOAD) != null)) {
-                return true;
-            }
-        }
-        return false;
+        ITmfEventField content = event.getContent();
+        return (content.getField(VM_UID_PAYLOAD) != null) &&
+                (content.getField(COUNTER_PAYLOAD) != null);
     }
 
-}
\ No newline at end of file
+}
@@ -11,20 +11,28 @@
 
 package org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.fused;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.analysis.os.linux.core.kernel.KernelAnalysisModule;
 import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.fused.handlers.FusedVirtualMachineStateProvider;
 import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.virtual.resources.Messages;
+import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.analysis.requirements.TmfAbstractAnalysisRequirement;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
 import org.eclipse.tracecompass.tmf.core.statesystem.TmfStateSystemAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
 
+import com.google.common.collect.Iterables;
+
 /**
  * Fused Virtual Machine analysis. Creates a unique state system by reading at
  * the same time kernel traces of VMs and host. Completely based on
@@ -95,6 +103,30 @@ public class FusedVirtualMachineAnalysis extends TmfStateSystemAnalysisModule {
         return new FusedVirtualMachineStateProvider((TmfExperiment) trace);
     }
 
+    /**
+     * The state provider queries the kernel analysis of each machine for the
+     * threads running on the CPUs. As dependent analyses, they are all
+     * scheduled before this one, so the kernel states of the host and guests
+     * are built in parallel, each by its own job. The fused history, with the
+     * virtual to physical CPU mapping, is still built by a single provider.
+     */
+    @Override
+    protected Iterable<IAnalysisModule> getDependentAnalyses() {
+        ITmfTrace trace = getTrace();
+        if (trace instanceof TmfExperiment) {
+            return getKernelModules((TmfExperiment) trace);
+        }
+        return Collections.emptySet();
+    }
+
+    private static List<IAnalysisModule> getKernelModules(TmfExperiment experiment) {
+        List<IAnalysisModule> modules = new ArrayList<>();
+        for (ITmfTrace trace : TmfTraceManager.getTraceSet(experiment)) {
+            Iterables.addAll(modules, TmfTraceUtils.getAnalysisModulesOfClass(trace, KernelAnalysisModule.class));
+        }
+        return modules;
+    }
+
     @Override
     protected String getFullHelpText() {
         return NonNullUtils.nullToEmptyString(Messages.FusedVirtualMachineAnalysis_Help);
@@ -20,7 +20,9 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.os.linux.core.kernel.KernelAnalysisModule;
@@ -60,7 +62,7 @@ public class QemuKvmVmModel implements IVirtualMachineModel {
 
     private static final String KVM = "kvm_"; //$NON-NLS-1$
 
-    private static final Map<TmfExperiment, QemuKvmVmModel> MODELS = new HashMap<>();
+    private static final Map<TmfExperiment, QemuKvmVmModel> MODELS = new ConcurrentHashMap<>();
 
     /* Associate a host's thread to a virtual CPU */
     private final Map<HostThread, VirtualCPU> fTidToVcpu = new HashMap<>();
@@ -72,6 +74,11 @@ public class QemuKvmVmModel implements IVirtualMachineModel {
     private final Table<VirtualMachine, VirtualCPU, Long> fVirtualToPhysicalCpu = Objects.requireNonNull(HashBasedTable.<VirtualMachine, VirtualCPU, Long> create());
 
     private final TmfExperiment fExperiment;
+    /*
+     * The kernel analysis of each host, needed for most kvm_entry events.
+     * Looking it up in the experiment goes through all its traces.
+     */
+    private final Map<String, Optional<KernelAnalysisModule>> fKernelModules = new HashMap<>();
 
     private Map<IKernelAnalysisEventLayout, Set<String>> fRequiredEvents = new HashMap<>();
 
@@ -88,13 +95,8 @@ public class QemuKvmVmModel implements IVirtualMachineModel {
      *            The experiment
      * @return The Qemu Kvm model
      */
-    public static synchronized QemuKvmVmModel get(TmfExperiment exp) {
-        QemuKvmVmModel model = MODELS.get(exp);
-        if (model == null) {
-            model = new QemuKvmVmModel(exp);
-            MODELS.put(exp, model);
-        }
-        return model;
+    public static QemuKvmVmModel get(TmfExperiment exp) {
+        return Objects.requireNonNull(MODELS.computeIfAbsent(exp, QemuKvmVmModel::new));
     }
 
     /**
@@ -367,7 +369,7 @@ public class QemuKvmVmModel implements IVirtualMachineModel {
     }
 
     private @Nullable KernelAnalysisModule getLttngKernelModuleFor(String hostId) {
-        return TmfExperimentUtils.getAnalysisModuleOfClassForHost(fExperiment, hostId, KernelAnalysisModule.class);
+        return fKernelModules.computeIfAbsent(hostId, host -> Optional.ofNullable(TmfExperimentUtils.getAnalysisModuleOfClassForHost(fExperiment, host, KernelAnalysisModule.class))).orElse(null);
     }
 
     /**
@@ -104,6 +104,37 @@ public class VmOverheadAnalysis extends InstrumentedCallStackAnalysis {
         return new VmOverheadStateProvider((TmfExperiment) trace, model.getVirtualEnvironmentModel());
     }
 
+    /**
+     * Get the cumulative time a virtual CPU spent in an overhead status, from
+     * the start of the trace to a given time. The time spent in that status
+     * during a time range is the difference of this value at the end and at
+     * the start of the range.
+     *
+     * @param ss
+     *            The state system of this analysis
+     * @param counterQuark
+     *            The quark of the counter of the overhead status, under the
+     *            virtual CPU attribute in {@link VmOverheadStateProvider#OVERHEAD}
+     * @param time
+     *            The time at which to get the cumulative time
+     * @return The cumulative time in the overhead status, in nanoseconds
+     * @throws StateSystemDisposedException
+     *             If the state system was disposed
+     */
+    public static long getCumulativeOverhead(ITmfStateSystem ss, int counterQuark, long time) throws StateSystemDisposedException {
+        Object total = ss.querySingleState(time, counterQuark).getValue();
+        long cumulative = (total instanceof Long) ? (long) total : 0L;
+        int statusQuark = ss.optQuarkRelative(ss.getParentAttributeQuark(counterQuark), VmOverheadStateProvider.VCPU_STATUS);
+        if (statusQuark != ITmfStateSystem.INVALID_ATTRIBUTE) {
+            /* The counter does not include the current status interval */
+            ITmfStateInterval status = ss.querySingleState(time, statusQuark);
+            if (ss.getAttributeName(counterQuark).equals(status.getValue())) {
+                cumulative += time - status.getStartTime();
+            }
+        }
+        return cumulative;
+    }
+
     /**
      * This class will retrieve the thread ID
      */
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.overhead;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.format.SubSecondTimeWithUnitFormat;
+import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
+import org.eclipse.tracecompass.tmf.core.model.YModel;
+import org.eclipse.tracecompass.tmf.core.model.filters.SelectionTimeQueryFilter;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeDataModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.AbstractTreeCommonXDataProvider;
+import org.eclipse.tracecompass.tmf.core.model.xy.IYModel;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Data provider for the cumulative overhead of the virtual CPUs. The tree has
+ * the virtual machines, their virtual CPUs and their overhead statuses, with
+ * the total time spent in each status in the requested time range, and the XY
+ * series give the percentage of time spent in the selected overhead statuses.
+ *
+ * Both are computed from the cumulative counters of the
+ * {@link VmOverheadStateProvider}, so they only need a few queries per time,
+ * whatever the number of overhead intervals in the range.
+ */
+@SuppressWarnings("restriction")
+public class VmOverheadDataProvider extends AbstractTreeCommonXDataProvider<VmOverheadAnalysis, TmfTreeDataModel> {
+
+    /**
+     * Extension point ID.
+     */
+    public static final String ID = "org.eclipse.tracecompass.incubator.virtual.machine.analysis.core.overhead.dataprovider"; //$NON-NLS-1$
+
+    /**
+     * Title of the XY models of this provider
+     */
+    private static final String PROVIDER_TITLE = Objects.requireNonNull(Messages.VmOverheadDataProvider_Title);
+
+    private static final List<String> HEADERS = ImmutableList.of(Objects.requireNonNull(Messages.VmOverheadDataProvider_Name), Objects.requireNonNull(Messages.VmOverheadDataProvider_Total));
+
+    /**
+     * Create an instance of {@link VmOverheadDataProvider}. Returns a null
+     * instance if the analysis module is not found.
+     *
+     * @param trace
+     *            The virtual machine experiment
+     * @return A {@link VmOverheadDataProvider} instance. If analysis module is
+     *         not found, it returns null
+     */
+    public static @Nullable VmOverheadDataProvider create(ITmfTrace trace) {
+        VmOverheadAnalysis module = TmfTraceUtils.getAnalysisModuleOfClass(trace, VmOverheadAnalysis.class, VmOverheadAnalysis.ID);
+        if (module != null) {
+            module.schedule();
+            return new VmOverheadDataProvider(trace, module);
+        }
+        return null;
+    }
+
+    /**
+     * Constructor
+     */
+    private VmOverheadDataProvider(ITmfTrace trace, VmOverheadAnalysis module) {
+        super(trace, module);
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    protected boolean isCacheable() {
+        // The totals depend on the requested time range
+        return false;
+    }
+
+    @Override
+    protected TmfTreeModel<TmfTreeDataModel> getTree(ITmfStateSystem ss, Map<String, Object> parameters, @Nullable IProgressMonitor monitor) throws StateSystemDisposedException {
+        long start = ss.getStartTime();
+        long end = ss.getCurrentEndTime();
+        List<Long> times = DataProviderParameterUtils.extractTimeRequested(parameters);
+        if (times != null && !times.isEmpty()) {
+            start = Math.max(start, Collections.min(times));
+            end = Math.min(end, Collections.max(times));
+        }
+
+        List<TmfTreeDataModel> nodes = new ArrayList<>();
+        long rootId = getId(ITmfStateSystem.ROOT_ATTRIBUTE);
+        nodes.add(new TmfTreeDataModel(rootId, -1, ImmutableList.of(String.valueOf(getTrace().getName()), ""), false, null)); //$NON-NLS-1$
+
+        for (int vmQuark : ss.getQuarks(VmOverheadStateProvider.OVERHEAD, "*")) { //$NON-NLS-1$
+            long vmId = getId(vmQuark);
+            nodes.add(new TmfTreeDataModel(vmId, rootId, ImmutableList.of(ss.getAttributeName(vmQuark), ""), false, null)); //$NON-NLS-1$
+            for (int vcpuQuark : ss.getSubAttributes(vmQuark, false)) {
+                long vcpuId = getId(vcpuQuark);
+                nodes.add(new TmfTreeDataModel(vcpuId, vmId, ImmutableList.of(ss.getAttributeName(vcpuQuark), ""), false, null)); //$NON-NLS-1$
+                for (int counterQuark : ss.getSubAttributes(vcpuQuark, false)) {
+                    String status = ss.getAttributeName(counterQuark);
+                    if (status.equals(VmOverheadStateProvider.VCPU_STATUS)) {
+                        continue;
+                    }
+                    String total = ""; //$NON-NLS-1$
+                    if (start <= end) {
+                        long duration = VmOverheadAnalysis.getCumulativeOverhead(ss, counterQuark, end) - VmOverheadAnalysis.getCumulativeOverhead(ss, counterQuark, start);
+                        total = SubSecondTimeWithUnitFormat.getInstance().format(duration);
+                    }
+                    nodes.add(new TmfTreeDataModel(getId(counterQuark), vcpuId, ImmutableList.of(status, total), true, null));
+                }
+            }
+            if (monitor != null && monitor.isCanceled()) {
+                break;
+            }
+        }
+        return new TmfTreeModel<>(HEADERS, nodes);
+    }
+
+    @Override
+    protected @Nullable Collection<IYModel> getYSeriesModels(ITmfStateSystem ss, Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) throws StateSystemDisposedException {
+        SelectionTimeQueryFilter filter = FetchParametersUtils.createSelectionTimeQuery(fetchParameters);
+        if (filter == null) {
+            return null;
+        }
+        long[] xValues = filter.getTimesRequested();
+        long ssStart = ss.getStartTime();
+        long ssEnd = ss.getCurrentEndTime();
+
+        ImmutableList.Builder<IYModel> ySeries = ImmutableList.builder();
+        for (Entry<Long, Integer> entry : getSelectedEntries(filter).entrySet()) {
+            /* Only the counters, under the machine and virtual CPU, have series */
+            int counterQuark = Objects.requireNonNull(entry.getValue());
+            if (counterQuark == ITmfStateSystem.ROOT_ATTRIBUTE) {
+                continue;
+            }
+            int vcpuQuark = ss.getParentAttributeQuark(counterQuark);
+            if (vcpuQuark == ITmfStateSystem.ROOT_ATTRIBUTE) {
+                continue;
+            }
+            int vmQuark = ss.getParentAttributeQuark(vcpuQuark);
+            if (vmQuark == ITmfStateSystem.ROOT_ATTRIBUTE || ss.getParentAttributeQuark(vmQuark) == ITmfStateSystem.ROOT_ATTRIBUTE) {
+                continue;
+            }
+            double[] yValues = new double[xValues.length];
+            long prevTime = -1;
+            long prevTotal = 0;
+            for (int i = 0; i < xValues.length; i++) {
+                long time = xValues[i];
+                if (time < ssStart || time > ssEnd) {
+                    prevTime = -1;
+                    continue;
+                }
+                long total = VmOverheadAnalysis.getCumulativeOverhead(ss, counterQuark, time);
+                if (prevTime >= 0 && time > prevTime) {
+                    yValues[i] = (double) (total - prevTotal) * 100 / (time - prevTime);
+                } else if (i > 0) {
+                    yValues[i] = yValues[i - 1];
+                }
+                prevTime = time;
+                prevTotal = total;
+            }
+            String name = ss.getAttributeName(vmQuark) + '/' + ss.getAttributeName(vcpuQuark) + '/' + ss.getAttributeName(counterQuark);
+            ySeries.add(new YModel(entry.getKey(), name, yValues));
+            if (monitor != null && monitor.isCanceled()) {
+                return null;
+            }
+        }
+        return ySeries.build();
+    }
+
+    @Override
+    protected String getTitle() {
+        return PROVIDER_TITLE;
+    }
+}
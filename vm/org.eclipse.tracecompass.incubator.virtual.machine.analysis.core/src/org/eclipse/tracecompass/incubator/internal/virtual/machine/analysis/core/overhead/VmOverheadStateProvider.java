@@ -27,6 +27,7 @@ import org.eclipse.tracecompass.analysis.os.linux.core.trace.IKernelTrace;
 import org.eclipse.tracecompass.analysis.profiling.core.model.IHostModel;
 import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.IVirtualMachineEventHandler;
 import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.model.IVirtualEnvironmentModel;
+import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.model.VirtualCPU;
 import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.overhead.handlers.QemuKvmEventHandler;
 import org.eclipse.tracecompass.incubator.internal.virtual.machine.analysis.core.overhead.handlers.SchedSwitchEventHandler;
 import org.eclipse.tracecompass.internal.analysis.profiling.core.model.ModelManager;
@@ -48,6 +49,12 @@ import com.google.common.collect.Multimap;
  * mode or its VCPU is preempted by the host and level 3 gives reasons or status
  * on that preemption.
  *
+ * The provider also keeps, for each virtual CPU, the cumulative time spent in
+ * each overhead status of level 2, under {@link #OVERHEAD}, so that the
+ * overhead in any time range can be computed from a few queries at the start
+ * and end of the range, see
+ * {@link VmOverheadAnalysis#getCumulativeOverhead(org.eclipse.tracecompass.statesystem.core.ITmfStateSystem, int, long)}
+ *
  * @author Geneviève Bastien
  */
 public class VmOverheadStateProvider extends AbstractTmfStateProvider {
@@ -84,12 +91,23 @@ public class VmOverheadStateProvider extends AbstractTmfStateProvider {
      * The status string for running
      */
     public static final String STATUS_RUNNING = "Running"; //$NON-NLS-1$
+    /**
+     * The attribute of the cumulative overhead of the virtual CPUs, under which
+     * are the virtual machines, their virtual CPUs and finally a counter per
+     * overhead status
+     */
+    public static final String OVERHEAD = "Overhead"; //$NON-NLS-1$
+    /**
+     * The attribute of the current overhead status of a virtual CPU, next to
+     * its counters
+     */
+    public static final String VCPU_STATUS = "Status"; //$NON-NLS-1$
 
     /**
      * Version number of this state provider. Please bump this if you modify the
      * contents of the generated state history in some way.
      */
-    private static final int VERSION = 4;
+    private static final int VERSION = 5;
 
     private final Multimap<String, IVirtualMachineEventHandler> fEventNames = HashMultimap.create();
     private final Collection<IVirtualMachineEventHandler> fHandlers;
@@ -100,6 +118,47 @@ public class VmOverheadStateProvider extends AbstractTmfStateProvider {
     // A map of currently running thread and their kernel statuses
     private final Map<HostThread, GuestKernelThreadStatuses> fGuestThreads = new HashMap<>();
 
+    // The overhead status and cumulative overhead times of each virtual CPU
+    private final Map<VirtualCPU, VcpuOverhead> fVcpuOverheads = new HashMap<>();
+
+    /*
+     * The counters of a virtual CPU. A counter holds the total time spent in
+     * its status until the start of the current status interval, so it only
+     * changes when the virtual CPU leaves that status.
+     */
+    private static class VcpuOverhead {
+
+        private final int fQuark;
+        private final int fStatusQuark;
+        private final Map<String, Long> fTotals = new HashMap<>();
+        private @Nullable String fStatus = null;
+        private long fStatusStart;
+        private @Nullable String fStatusBeforePreemption = null;
+
+        public VcpuOverhead(ITmfStateSystemBuilder ss, VirtualCPU vcpu) {
+            fQuark = ss.getQuarkAbsoluteAndAdd(OVERHEAD, vcpu.getVm().getTraceName(), String.valueOf(vcpu.getCpuId()));
+            fStatusQuark = ss.getQuarkRelativeAndAdd(fQuark, VCPU_STATUS);
+        }
+
+        public void setStatus(ITmfStateSystemBuilder ss, long ts, @Nullable String status) {
+            String previous = fStatus;
+            if (Objects.equals(previous, status)) {
+                return;
+            }
+            if (previous != null) {
+                long total = fTotals.getOrDefault(previous, 0L) + ts - fStatusStart;
+                fTotals.put(previous, total);
+                ss.modifyAttribute(ts, total, ss.getQuarkRelativeAndAdd(fQuark, previous));
+            }
+            if (status != null && fTotals.putIfAbsent(status, 0L) == null) {
+                ss.modifyAttribute(ts, 0L, ss.getQuarkRelativeAndAdd(fQuark, status));
+            }
+            fStatus = status;
+            fStatusStart = ts;
+            ss.modifyAttribute(ts, status, fStatusQuark);
+        }
+    }
+
     // This class will update the guest kernel statuses for the running threads, so
     // that the line corresponding to the guest thread contains the real thread
     // statuses
@@ -249,6 +308,61 @@ public class VmOverheadStateProvider extends AbstractTmfStateProvider {
         }
     }
 
+    /**
+     * Set the overhead status of a virtual CPU, for instance when it enters or
+     * exits the hypervisor
+     *
+     * @param ss
+     *            The overhead analysis state system
+     * @param ts
+     *            The time of the status change
+     * @param vcpu
+     *            The virtual CPU
+     * @param status
+     *            The new overhead status, or <code>null</code> if the virtual
+     *            CPU is running without overhead
+     */
+    public void setVcpuOverhead(ITmfStateSystemBuilder ss, long ts, VirtualCPU vcpu, @Nullable String status) {
+        fVcpuOverheads.computeIfAbsent(vcpu, v -> new VcpuOverhead(ss, v)).setStatus(ss, ts, status);
+    }
+
+    /**
+     * Set a virtual CPU as preempted by the host, until it is resumed with
+     * {@link #resumeVcpu(ITmfStateSystemBuilder, long, VirtualCPU)}
+     *
+     * @param ss
+     *            The overhead analysis state system
+     * @param ts
+     *            The time the thread of the virtual CPU is scheduled out
+     * @param vcpu
+     *            The virtual CPU
+     */
+    public void preemptVcpu(ITmfStateSystemBuilder ss, long ts, VirtualCPU vcpu) {
+        VcpuOverhead overhead = fVcpuOverheads.computeIfAbsent(vcpu, v -> new VcpuOverhead(ss, v));
+        if (!STATUS_VCPU_PREEMPTED.equals(overhead.fStatus)) {
+            overhead.fStatusBeforePreemption = overhead.fStatus;
+        }
+        overhead.setStatus(ss, ts, STATUS_VCPU_PREEMPTED);
+    }
+
+    /**
+     * Resume a preempted virtual CPU in the overhead status it had before its
+     * preemption
+     *
+     * @param ss
+     *            The overhead analysis state system
+     * @param ts
+     *            The time the thread of the virtual CPU is scheduled in
+     * @param vcpu
+     *            The virtual CPU
+     */
+    public void resumeVcpu(ITmfStateSystemBuilder ss, long ts, VirtualCPU vcpu) {
+        VcpuOverhead overhead = fVcpuOverheads.get(vcpu);
+        if (overhead != null && STATUS_VCPU_PREEMPTED.equals(overhead.fStatus)) {
+            overhead.setStatus(ss, ts, overhead.fStatusBeforePreemption);
+        }
+    }
+
     /**
      * Stop tracking the thread status for a process, usually when the thread is
      * scheduled out
@@ -87,7 +87,7 @@ public class QemuKvmEventHandler implements IVirtualMachineEventHandler {
         }
     }
 
-    private void handleKvmEvent(ITmfStateSystemBuilder ss, long ts, ITmfEvent event, IVirtualEnvironmentModel virtEnv, @Nullable Object level2, @Nullable Object level3) {
+    private void handleKvmEvent(ITmfStateSystemBuilder ss, long ts, ITmfEvent event, IVirtualEnvironmentModel virtEnv, @Nullable String level2, @Nullable Object level3) {
         HostThread ht = IVirtualMachineEventHandler.getCurrentHostThread(event, ts);
         if (ht == null) {
             return;
@@ -98,6 +98,8 @@ public class QemuKvmEventHandler implements IVirtualMachineEventHandler {
             return;
         }
 
+        fProvider.setVcpuOverhead(ss, ts, vcpu, level2);
+
         VirtualMachine vm = vcpu.getVm();
         IHostModel model = ModelManager.getModelFor(vm.getHostId());
         int guestTid = model.getThreadOnCpu(vcpu.getCpuId().intValue(), ts);
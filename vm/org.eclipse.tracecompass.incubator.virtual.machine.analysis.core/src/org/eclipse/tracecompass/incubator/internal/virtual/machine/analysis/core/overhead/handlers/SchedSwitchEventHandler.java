@@ -115,6 +115,7 @@ public class SchedSwitchEventHandler implements IVirtualMachineEventHandler {
          */
         VirtualCPU vcpu = prevTid == 0 ? null : virtEnv.getVirtualCpu(event, new HostThread(hostId, prevTid));
         if (vcpu != null) {
+            fProvider.preemptVcpu(ss, ts, vcpu);
             VirtualMachine vm = vcpu.getVm();
             IHostModel model = ModelManager.getModelFor(vm.getHostId());
             int guestTid = model.getThreadOnCpu(vcpu.getCpuId().intValue(), ts);
@@ -145,6 +146,7 @@ public class SchedSwitchEventHandler implements IVirtualMachineEventHandler {
 
         vcpu = nextTid == 0 ? null : virtEnv.getVirtualCpu(event, new HostThread(hostId, nextTid));
         if (vcpu != null) {
+            fProvider.resumeVcpu(ss, ts, vcpu);
             VirtualMachine vm = vcpu.getVm();
             IHostModel model = ModelManager.getModelFor(vm.getHostId());
             int guestTid = model.getThreadOnCpu(vcpu.getCpuId().intValue(), ts);